@@ -0,0 +1,91 @@
+package com.zoontopia.superdaddy.benchmark;
+
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 수집된 가이드북 청크와 같은 모양(메타데이터, 본문 길이)의 문서를 만듭니다.
+ */
+public final class SampleDocuments {
+
+    public static final String SOURCE = "parenting_guide.pdf";
+
+    private static final String[] SENTENCES = {
+            "신생아의 목욕물 온도는 38도에서 40도 사이가 적당하며, 팔꿈치를 담가 따뜻하다고 느껴지는 정도로 맞춥니다.",
+            "배꼽이 떨어지기 전에는 통목욕보다 부분 목욕을 하고, 목욕 후에는 배꼽을 잘 말려 주세요.",
+            "수유 간격은 생후 한 달까지 2~3시간이 일반적이며, 아기가 배고픈 신호를 보내면 시간에 얽매이지 않고 먹입니다.",
+            "트림은 수유 중간과 수유 후에 시키며, 아기를 어깨에 기대게 하고 등을 아래에서 위로 쓸어 올립니다.",
+            "밤잠과 낮잠의 구분은 생후 6~8주부터 생기기 시작하므로, 낮에는 밝게 밤에는 어둡고 조용하게 환경을 만들어 주세요.",
+            "38도 이상의 발열이 생후 3개월 미만 아기에게 나타나면 바로 소아과 진료를 받아야 합니다.",
+    };
+
+    private SampleDocuments() {
+    }
+
+    /**
+     * 지정한 길이(문자 수) 이상의 한국어 본문을 만듭니다.
+     */
+    public static String koreanText(int minLength, int seed) {
+        StringBuilder sb = new StringBuilder(minLength + 128);
+        for (int i = seed; sb.length() < minLength; i++) {
+            sb.append(SENTENCES[i % SENTENCES.length]).append(' ');
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * 정제가 끝난 한 페이지 (section_title/keywords/page_number 메타데이터 포함).
+     */
+    public static Document refinedPage(int pageNumber, int textLength) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("page_number", pageNumber);
+        metadata.put("section_title", "신생아 돌보기 " + pageNumber);
+        metadata.put("keywords", List.of("목욕", "수유", "트림", "수면"));
+        metadata.put("content_hash", Integer.toHexString(pageNumber));
+        return new Document(koreanText(textLength, pageNumber), metadata);
+    }
+
+    /**
+     * 페이지마다 chunksPerPage개씩 이어진 청크 목록. prev/next_chunk_id로 앞뒤 청크가 연결되어 있습니다.
+     */
+    public static List<Document> linkedChunks(int pages, int chunksPerPage, int textLength) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < pages * chunksPerPage; i++) {
+            ids.add(UUID.nameUUIDFromBytes((SOURCE + "#" + i).getBytes()).toString());
+        }
+
+        List<Document> chunks = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Map<String, Object> metadata = chunkMetadata(i / chunksPerPage + 1, i % chunksPerPage);
+            metadata.put("chunk_id", ids.get(i));
+            if (i > 0) metadata.put("prev_chunk_id", ids.get(i - 1));
+            if (i < ids.size() - 1) metadata.put("next_chunk_id", ids.get(i + 1));
+            chunks.add(new Document(ids.get(i), koreanText(textLength, i), metadata));
+        }
+        return chunks;
+    }
+
+    /**
+     * 청크 ID 도입 이전에 수집된 형태의 청크 (chunk_id 없이 parent_document_id + chunk_index만 있음).
+     */
+    public static Document legacyChunk(String parentDocumentId, int pageNumber, int chunkIndex, int textLength) {
+        Map<String, Object> metadata = chunkMetadata(pageNumber, chunkIndex);
+        metadata.put("parent_document_id", parentDocumentId);
+        return new Document(UUID.randomUUID().toString(), koreanText(textLength, chunkIndex), metadata);
+    }
+
+    private static Map<String, Object> chunkMetadata(int pageNumber, int chunkIndex) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("source", SOURCE);
+        metadata.put("page_number", pageNumber);
+        metadata.put("chunk_index", chunkIndex);
+        metadata.put("section_title", "신생아 돌보기 " + pageNumber);
+        metadata.put("keywords", List.of("목욕", "수유"));
+        return metadata;
+    }
+}
@@ -0,0 +1,26 @@
+package com.zoontopia.superdaddy.benchmark;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.List;
+
+/**
+ * 네트워크 호출 없이 고정된 응답을 돌려주는 ChatModel. ChatClient.Builder를 요구하는 서비스를 벤치마크에서 생성할 때 사용합니다.
+ */
+public class StubChatModel implements ChatModel {
+
+    private final String response;
+
+    public StubChatModel(String response) {
+        this.response = response;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(response))));
+    }
+}
@@ -0,0 +1,32 @@
+package com.zoontopia.superdaddy.benchmark;
+
+import com.zoontopia.superdaddy.service.retrieval.ChunkLookup;
+import org.springframework.ai.document.Document;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 메모리의 Map에서 청크를 찾는 ChunkLookup (Qdrant retrieve 호출 대신).
+ */
+public class StubChunkLookup implements ChunkLookup {
+
+    private final Map<String, Document> chunks = new HashMap<>();
+
+    public StubChunkLookup(List<Document> chunks) {
+        chunks.forEach(chunk -> this.chunks.put(chunk.getId(), chunk));
+    }
+
+    @Override
+    public Map<String, Document> findByIds(Collection<String> ids) {
+        Map<String, Document> result = new LinkedHashMap<>();
+        for (String id : ids) {
+            Document chunk = chunks.get(id);
+            if (chunk != null) result.put(id, chunk);
+        }
+        return result;
+    }
+}
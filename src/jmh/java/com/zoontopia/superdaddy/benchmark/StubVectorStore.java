@@ -0,0 +1,38 @@
+package com.zoontopia.superdaddy.benchmark;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.List;
+
+/**
+ * 검색 요청과 무관하게 미리 정해 둔 결과를 돌려주는 VectorStore. 쓰기/삭제는 무시합니다.
+ * 벤치마크가 Qdrant 왕복이 아닌 호출 측의 CPU 작업(정렬, 병합, 문자열 생성)만 측정하도록 합니다.
+ */
+public class StubVectorStore implements VectorStore {
+
+    private final List<Document> searchResults;
+
+    public StubVectorStore(List<Document> searchResults) {
+        this.searchResults = searchResults;
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+    }
+
+    @Override
+    public void delete(List<String> idList) {
+    }
+
+    @Override
+    public void delete(Filter.Expression filterExpression) {
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        return searchResults;
+    }
+}
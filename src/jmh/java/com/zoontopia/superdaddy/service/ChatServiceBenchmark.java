@@ -0,0 +1,89 @@
+package com.zoontopia.superdaddy.service;
+
+import com.zoontopia.superdaddy.benchmark.SampleDocuments;
+import com.zoontopia.superdaddy.benchmark.StubChatModel;
+import com.zoontopia.superdaddy.benchmark.StubChunkLookup;
+import com.zoontopia.superdaddy.benchmark.StubVectorStore;
+import com.zoontopia.superdaddy.service.admission.Bulkhead;
+import com.zoontopia.superdaddy.service.admission.ChatAdmission;
+import com.zoontopia.superdaddy.service.budget.DegradationPolicy;
+import com.zoontopia.superdaddy.service.coalescing.RequestCoalescer;
+import com.zoontopia.superdaddy.service.context.ContextCompactor;
+import com.zoontopia.superdaddy.service.conversation.ConversationStore;
+import com.zoontopia.superdaddy.service.conversation.FollowUpDetector;
+import com.zoontopia.superdaddy.service.budget.LatencyBudget;
+import com.zoontopia.superdaddy.service.metrics.RagMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.document.Document;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리랭킹 후 선택된 문서의 문맥 확장: 이웃 청크 일괄 조회 결과의 병합, 중복 제거, (source, 페이지, chunk_index) 정렬, 문자열 결합.
+ * 조회는 메모리 스텁이 응답하므로 측정값은 ChatService 쪽 CPU/할당 비용입니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ChatServiceBenchmark {
+
+    private static final String QUERY = "신생아 목욕물 온도는 몇 도가 적당한가요?";
+
+    /** 리랭커가 고른 문서 수 */
+    @Param({"5", "20"})
+    int relevantCount;
+
+    /** 그중 청크 ID 없이 필터 검색으로 확장해야 하는 이전 형식 문서 수 */
+    @Param({"0", "2"})
+    int legacyCount;
+
+    private ChatService chatService;
+    private List<Document> relevantDocs;
+
+    @Setup
+    public void setUp() {
+        List<Document> chunks = SampleDocuments.linkedChunks(40, 3, 600);
+        List<Document> window = List.of(
+                SampleDocuments.legacyChunk("legacy", 1, 0, 600),
+                SampleDocuments.legacyChunk("legacy", 1, 1, 600),
+                SampleDocuments.legacyChunk("legacy", 1, 2, 600));
+
+        // 문맥 확장에 쓰이지 않는 협력 객체(임베딩, 답변 캐시, 리랭커, 키워드 검색)는 null
+        RagMetrics metrics = new RagMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP, 0, 0);
+        ChatAdmission admission = new ChatAdmission(new Bulkhead("chat", 1, 0),
+                new Bulkhead("gemini", 1, 0), new Bulkhead("qdrant", 64, 0),
+                Duration.ofSeconds(5), metrics);
+        chatService = new ChatService(ChatClient.builder(new StubChatModel("")), new StubVectorStore(window),
+                null, null, new StubChunkLookup(chunks), null, null, metrics, admission, DegradationPolicy.disabled(),
+                new ContextCompactor(2500, 4000, 0.85), new RequestCoalescer(false, Duration.ZERO, metrics),
+                new ConversationStore(1, 1, 0, 0, Duration.ZERO, metrics), new FollowUpDetector(1, 1));
+
+        relevantDocs = new ArrayList<>();
+        int stride = chunks.size() / relevantCount;
+        for (int i = 0; i < relevantCount - legacyCount; i++) {
+            relevantDocs.add(chunks.get(i * stride));
+        }
+        for (int i = 0; i < legacyCount; i++) {
+            relevantDocs.add(window.get(i));
+        }
+    }
+
+    @Benchmark
+    public String expandAndMergeContext() {
+        return chatService.expandAndMergeContext(QUERY, relevantDocs, Instant.MAX, LatencyBudget.unbounded());
+    }
+}
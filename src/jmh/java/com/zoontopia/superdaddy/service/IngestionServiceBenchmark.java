@@ -0,0 +1,52 @@
+package com.zoontopia.superdaddy.service;
+
+import com.zoontopia.superdaddy.benchmark.SampleDocuments;
+import com.zoontopia.superdaddy.benchmark.StubChatModel;
+import com.zoontopia.superdaddy.benchmark.StubVectorStore;
+import com.zoontopia.superdaddy.service.ingestion.IngestionProgress;
+import com.zoontopia.superdaddy.service.metrics.RagMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 정제된 페이지 하나의 청크 분할: TokenTextSplitter 토큰화/분할과 청크별 임베딩 본문·메타데이터·청크 ID 생성.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IngestionServiceBenchmark {
+
+    /** 정제된 페이지 본문 길이 (문자 수) */
+    @Param({"1500", "6000"})
+    int pageLength;
+
+    private IngestionService ingestionService;
+    private Document page;
+
+    @Setup
+    public void setUp() {
+        // 분할에 쓰이지 않는 협력 객체(답변 캐시, 청크 조회, 키워드 검색)는 null
+        ingestionService = new IngestionService(new StubVectorStore(List.of()),
+                ChatClient.builder(new StubChatModel("[]")), null, null, null, new IngestionProgress(),
+                new RagMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP, 0, 0));
+        page = SampleDocuments.refinedPage(12, pageLength);
+    }
+
+    @Benchmark
+    public List<Document> splitAndEnrichPage() {
+        return ingestionService.splitAndEnrichPage(page, SampleDocuments.SOURCE);
+    }
+}
@@ -0,0 +1,54 @@
+package com.zoontopia.superdaddy.service.rerank;
+
+import com.zoontopia.superdaddy.benchmark.SampleDocuments;
+import com.zoontopia.superdaddy.service.context.ContextCompactor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * LLM 리랭킹 요청 전후의 CPU 작업: 후보군 프롬프트 생성(머리글 제거, 중복 후보 판정, 토큰 수 계산)과 응답의 인덱스 파싱(정규식).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LlmRerankerBenchmark {
+
+    @Param({"20", "200"})
+    int candidateCount;
+
+    private final ContextCompactor compactor = new ContextCompactor(2500, 4000, 0.85);
+    private List<Document> candidates;
+    private String selectionResponse;
+
+    @Setup
+    public void setUp() {
+        candidates = SampleDocuments.linkedChunks(candidateCount, 1, 700);
+        // 모델이 후보의 약 1/4을 고른 응답
+        selectionResponse = IntStream.range(0, candidateCount)
+                .filter(i -> i % 4 == 0)
+                .mapToObj(Integer::toString)
+                .collect(Collectors.joining(", "));
+    }
+
+    @Benchmark
+    public String buildCandidatePrompt() {
+        return LlmReranker.buildCandidatePrompt(candidates, compactor);
+    }
+
+    @Benchmark
+    public List<Document> parseSelection() {
+        return LlmReranker.parseSelection(selectionResponse, candidates);
+    }
+}
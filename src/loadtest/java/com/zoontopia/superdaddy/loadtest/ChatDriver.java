@@ -0,0 +1,137 @@
+package com.zoontopia.superdaddy.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 채팅 API 한 번을 호출하고 시점을 기록합니다.
+ *
+ * <p>stream 모드는 /api/chat/stream의 SSE 이벤트를 읽으며 단계(stage) 이벤트, 첫 토큰, 완료 이벤트가 도착한 시점을
+ * 요청 시작 기준 나노초로 기록합니다. chat 모드는 POST /api/chat의 전체 응답 시간만 기록합니다.</p>
+ */
+final class ChatDriver {
+
+    static final String MARK_FIRST_TOKEN = "first_token";
+    static final String MARK_DONE = "done";
+
+    /**
+     * @param marks    이벤트 이름 → 요청 시작(예정 시각) 기준 경과 나노초 (도착 순서)
+     * @param totalNanos 요청 시작부터 응답 종료까지
+     * @param error    실패 사유 (성공이면 null)
+     */
+    record Sample(Map<String, Long> marks, long totalNanos, String error) {
+    }
+
+    private final HttpClient httpClient;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final URI chatUri;
+    private final URI streamUri;
+    private final Duration timeout;
+
+    ChatDriver(String baseUrl, Duration timeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        this.chatUri = URI.create(baseUrl + "/api/chat");
+        this.streamUri = URI.create(baseUrl + "/api/chat/stream");
+        this.timeout = timeout;
+    }
+
+    /**
+     * @param startNanos 요청을 보내기로 예정된 시각 (System.nanoTime 기준). 개방형 부하에서 클라이언트가 밀려 늦게 보낸 시간도
+     *                   지연에 포함되도록(coordinated omission 보정) 실제 전송 시각이 아닌 예정 시각을 기준으로 잽니다.
+     */
+    Sample send(String mode, String query, long startNanos) {
+        try {
+            return "chat".equals(mode) ? sendChat(query, startNanos) : sendStream(query, startNanos);
+        } catch (IOException e) {
+            return new Sample(Map.of(), System.nanoTime() - startNanos, e.getClass().getSimpleName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Sample(Map.of(), System.nanoTime() - startNanos, "interrupted");
+        }
+    }
+
+    private Sample sendChat(String query, long startNanos) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request(chatUri, query), HttpResponse.BodyHandlers.ofString());
+        long total = System.nanoTime() - startNanos;
+        String error = response.statusCode() == 200 ? null : "HTTP " + response.statusCode();
+        return new Sample(Map.of(MARK_DONE, total), total, error);
+    }
+
+    private Sample sendStream(String query, long startNanos) throws IOException, InterruptedException {
+        HttpResponse<Stream<String>> response = httpClient.send(request(streamUri, query), HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            return new Sample(Map.of(), System.nanoTime() - startNanos, "HTTP " + response.statusCode());
+        }
+
+        Map<String, Long> marks = new LinkedHashMap<>();
+        String error = "stream ended without done event";
+        try (Stream<String> lines = response.body()) {
+            Iterator<String> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                String line = iterator.next();
+                if (!line.startsWith("data:")) continue;
+
+                long elapsed = System.nanoTime() - startNanos;
+                JsonNode event = mapper.readTree(line.substring("data:".length()));
+                String type = event.path("type").asText();
+                switch (type) {
+                    case "stage" -> marks.putIfAbsent(event.path("data").asText(), elapsed);
+                    case "token" -> marks.putIfAbsent(MARK_FIRST_TOKEN, elapsed);
+                    case "done" -> {
+                        marks.put(MARK_DONE, elapsed);
+                        error = null;
+                    }
+                    case "error" -> error = "error event: " + event.path("data").asText();
+                    default -> {
+                    }
+                }
+                if (marks.containsKey(MARK_DONE) || "error".equals(type)) break;
+            }
+        }
+        return new Sample(marks, System.nanoTime() - startNanos, error);
+    }
+
+    private HttpRequest request(URI uri, String query) throws IOException {
+        String body = mapper.writeValueAsString(Map.of("message", query));
+        return HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * 수집/적재가 끝나 답변할 데이터가 준비될 때까지 기다립니다 (GET /api/ingestion/ready).
+     */
+    boolean awaitReady(String baseUrl, Duration maxWait) throws InterruptedException {
+        URI readyUri = URI.create(baseUrl + "/api/ingestion/ready");
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                HttpResponse<Void> response = httpClient.send(
+                        HttpRequest.newBuilder(readyUri).timeout(Duration.ofSeconds(5)).GET().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) return true;
+            } catch (IOException e) {
+                // 서버가 아직 뜨지 않음
+            }
+            Thread.sleep(1000);
+        }
+        return false;
+    }
+}
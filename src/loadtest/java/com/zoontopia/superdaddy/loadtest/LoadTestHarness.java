@@ -0,0 +1,211 @@
+package com.zoontopia.superdaddy.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 채팅 API 부하 테스트 하네스입니다. 기록된 질의 로그를 재생하며 단계별 지연 히스토그램을 보고합니다.
+ * 서버는 보통 loadtest 프로필(가짜 모델 + 합성 코퍼스)로 띄우지만, 실제 설정의 서버에도 그대로 사용할 수 있습니다.
+ *
+ * <p>두 가지 부하 방식을 지원합니다.</p>
+ * <ul>
+ *     <li>폐쇄형(기본): --concurrency개의 가상 스레드가 응답을 받는 즉시 다음 요청을 보냅니다. 동시 사용자 수 기준의 지연/처리량.</li>
+ *     <li>개방형: --rates=5,10,20 처럼 목표 QPS 단계를 주면 단계마다 --step-duration 동안 일정 간격으로 요청을 보냅니다.
+ *         p99 총 지연이 --slo-p99-ms 이하이고 오류율이 1% 이하인 가장 높은 단계를 최대 지속 가능 QPS로 보고합니다.</li>
+ * </ul>
+ *
+ * <p>실행: ./gradlew loadTest -PloadTestArgs="--concurrency=32 --requests=1000"</p>
+ */
+public final class LoadTestHarness {
+
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    private LoadTestHarness() {
+    }
+
+    record Options(String baseUrl, Path queries, List<String> fields, String mode,
+                   int concurrency, int requests, int warmup,
+                   List<Double> rates, Duration stepDuration, int maxInFlight, Duration sloP99,
+                   Duration timeout, Path reportDir) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Arguments must look like --name=value: " + arg);
+                }
+                int eq = arg.indexOf('=');
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+
+            String rates = values.getOrDefault("rates", "");
+            String mode = values.getOrDefault("mode", "stream");
+            if (!mode.equals("stream") && !mode.equals("chat")) {
+                throw new IllegalArgumentException("--mode must be stream or chat: " + mode);
+            }
+            return new Options(
+                    values.getOrDefault("base-url", "http://localhost:35000"),
+                    Path.of(values.getOrDefault("queries", "src/loadtest/resources/queries.jsonl")),
+                    List.of(values.getOrDefault("fields", "message,query,body").split(",")),
+                    mode,
+                    Integer.parseInt(values.getOrDefault("concurrency", "16")),
+                    Integer.parseInt(values.getOrDefault("requests", "500")),
+                    Integer.parseInt(values.getOrDefault("warmup", "20")),
+                    rates.isBlank() ? List.of() : Arrays.stream(rates.split(",")).map(Double::parseDouble).toList(),
+                    Duration.ofSeconds(Long.parseLong(values.getOrDefault("step-duration", "30"))),
+                    Integer.parseInt(values.getOrDefault("max-in-flight", "256")),
+                    Duration.ofMillis(Long.parseLong(values.getOrDefault("slo-p99-ms", "8000"))),
+                    Duration.ofSeconds(Long.parseLong(values.getOrDefault("timeout", "120"))),
+                    Path.of(values.getOrDefault("report-dir", "build/reports/loadtest")));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            printUsage();
+            return;
+        }
+        Options options = Options.parse(args);
+        List<String> queries = QueryLog.read(options.queries(), options.fields());
+        ChatDriver driver = new ChatDriver(options.baseUrl(), options.timeout());
+
+        System.out.printf("Waiting for %s to become ready...%n", options.baseUrl());
+        if (!driver.awaitReady(options.baseUrl(), Duration.ofMinutes(5))) {
+            System.err.println("Server did not become ready (GET /api/ingestion/ready) within 5 minutes.");
+            System.exit(1);
+        }
+        System.out.printf("Replaying %d queries from %s (mode=%s)%n", queries.size(), options.queries(), options.mode());
+
+        if (options.warmup() > 0) {
+            runClosed(driver, options, queries, options.warmup());
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream report = new PrintStream(buffer, true, StandardCharsets.UTF_8);
+
+        if (options.rates().isEmpty()) {
+            long start = System.nanoTime();
+            StageReport result = runClosed(driver, options, queries, options.requests());
+            String label = "closed-c" + options.concurrency();
+            result.print(report, label + " (" + options.mode() + ")", (System.nanoTime() - start) / 1e9);
+            result.writeDistributions(options.reportDir().resolve(label));
+        } else {
+            List<String> summary = new ArrayList<>();
+            Double sustainable = null;
+            for (double rate : options.rates()) {
+                long start = System.nanoTime();
+                StageReport result = runOpen(driver, options, queries, rate);
+                String label = "rate-" + formatRate(rate);
+                result.print(report, label + " (" + options.mode() + ")", (System.nanoTime() - start) / 1e9);
+                result.writeDistributions(options.reportDir().resolve(label));
+
+                double p99 = result.percentileMillis("total", 99);
+                boolean ok = p99 <= options.sloP99().toMillis() && result.errorRate() <= MAX_ERROR_RATE;
+                if (ok) sustainable = rate;
+                summary.add(String.format("%10s %12.1f %10.2f%% %6s", formatRate(rate), p99, result.errorRate() * 100,
+                        ok ? "ok" : "FAIL"));
+            }
+
+            report.printf("%n=== open-loop summary (SLO: p99 total <= %d ms, errors <= %.0f%%) ===%n",
+                    options.sloP99().toMillis(), MAX_ERROR_RATE * 100);
+            report.printf("%10s %12s %11s %6s%n", "rate/s", "p99 (ms)", "errors", "");
+            summary.forEach(report::println);
+            report.printf("max sustainable rate: %s req/s%n", sustainable == null ? "none" : formatRate(sustainable));
+        }
+
+        String text = buffer.toString(StandardCharsets.UTF_8);
+        System.out.print(text);
+        Files.createDirectories(options.reportDir());
+        Files.writeString(options.reportDir().resolve("report.txt"), text, StandardCharsets.UTF_8);
+        System.out.printf("%nReport written to %s%n", options.reportDir().toAbsolutePath());
+    }
+
+    /**
+     * 폐쇄형 부하: concurrency개의 작업자가 응답을 받는 즉시 다음 질의를 보냅니다.
+     */
+    private static StageReport runClosed(ChatDriver driver, Options options, List<String> queries, int requests) {
+        StageReport report = new StageReport();
+        AtomicInteger next = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < options.concurrency(); worker++) {
+                executor.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        report.record(driver.send(options.mode(), queries.get(i % queries.size()), System.nanoTime()));
+                    }
+                });
+            }
+        }
+        return report;
+    }
+
+    /**
+     * 개방형 부하: 응답 시간과 무관하게 목표 간격으로 요청을 보냅니다. 동시 요청이 max-in-flight에 이르면 그 요청은 보내지 않고
+     * dropped로 셉니다 (서버가 감당하지 못하는 부하에서 클라이언트가 무한정 연결을 늘리지 않도록).
+     */
+    private static StageReport runOpen(ChatDriver driver, Options options, List<String> queries, double rate) {
+        StageReport report = new StageReport();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        long intervalNanos = (long) (1_000_000_000L / rate);
+        long total = Math.max(1, (long) (rate * options.stepDuration().toSeconds()));
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long intended = start + i * intervalNanos;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+
+                if (!inFlight.tryAcquire()) {
+                    report.dropped();
+                    continue;
+                }
+                String query = queries.get((int) (i % queries.size()));
+                executor.submit(() -> {
+                    try {
+                        report.record(driver.send(options.mode(), query, intended));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return report;
+    }
+
+    private static String formatRate(double rate) {
+        return rate == Math.rint(rate) ? Long.toString((long) rate) : Double.toString(rate);
+    }
+
+    private static void printUsage() {
+        System.out.println("""
+                Options (--name=value):
+                  base-url       http://localhost:35000
+                  queries        JSON Lines query log (default src/loadtest/resources/queries.jsonl)
+                  fields         fields to read the query from, first match wins (default message,query,body)
+                  mode           stream (per-stage timings from /api/chat/stream) | chat (POST /api/chat)
+                  concurrency    closed-loop workers (default 16)
+                  requests       closed-loop request count (default 500)
+                  warmup         warm-up requests before measuring (default 20)
+                  rates          open-loop target rates, e.g. 2,4,8,16 (enables step mode)
+                  step-duration  seconds per open-loop step (default 30)
+                  max-in-flight  open-loop client concurrency cap (default 256)
+                  slo-p99-ms     p99 total latency SLO for max sustainable rate (default 8000)
+                  timeout        per-request timeout in seconds (default 120)
+                  report-dir     output directory (default build/reports/loadtest)
+                """);
+    }
+}
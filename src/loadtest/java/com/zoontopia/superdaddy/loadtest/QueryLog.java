@@ -0,0 +1,54 @@
+package com.zoontopia.superdaddy.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 기록된 질의 로그(JSON Lines: 한 줄에 JSON 객체 하나)에서 질문을 읽습니다.
+ * 지정한 필드 이름들을 순서대로 찾아 처음 나오는 문자열 값을 질문으로 사용합니다
+ * (예: "message,query,body" — 채팅 요청 본문 형식과 requests.jsonl 형식을 모두 읽을 수 있음).
+ */
+final class QueryLog {
+
+    private QueryLog() {
+    }
+
+    static List<String> read(Path path, List<String> fields) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> queries = new ArrayList<>();
+        int skipped = 0;
+
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) continue;
+            JsonNode node = mapper.readTree(line);
+            String query = null;
+            for (String field : fields) {
+                JsonNode value = node.get(field);
+                if (value != null && value.isTextual() && !value.asText().isBlank()) {
+                    query = value.asText();
+                    break;
+                }
+            }
+            if (query == null) {
+                skipped++;
+            } else {
+                queries.add(query);
+            }
+        }
+
+        if (skipped > 0) {
+            System.out.printf("Skipped %d log lines without any of the fields %s%n", skipped, fields);
+        }
+        if (queries.isEmpty()) {
+            throw new IllegalArgumentException("No queries found in " + path + " (fields: " + fields + ")");
+        }
+        return queries;
+    }
+}
@@ -0,0 +1,138 @@
+package com.zoontopia.superdaddy.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 요청 결과를 파이프라인 단계별 지연 히스토그램(HdrHistogram, 마이크로초 단위)으로 모읍니다.
+ *
+ * <p>stream 모드의 이벤트 도착 시점으로 다음 구간을 계산합니다.</p>
+ * <ul>
+ *     <li>pre_retrieval: 요청 시작 → retrieval 단계 (질의 임베딩, 답변 캐시 조회, 큐 대기)</li>
+ *     <li>retrieval / rerank / expansion: 해당 단계 이벤트 → 다음 이벤트</li>
+ *     <li>generation: generation 단계 → 첫 토큰 (모델의 첫 토큰 지연)</li>
+ *     <li>streaming: 첫 토큰 → done</li>
+ *     <li>ttft: 요청 시작 → 첫 토큰 (사용자 체감 지연)</li>
+ *     <li>total: 요청 시작 → done (성공한 요청만)</li>
+ * </ul>
+ * 답변 캐시 적중 요청은 단계 이벤트 없이 토큰이 바로 오므로 ttft/total에만 기록되고 cacheHits로 따로 셉니다.
+ */
+final class StageReport {
+
+    private static final List<String> STAGE_ORDER = List.of(
+            "pre_retrieval", "retrieval", "rerank", "expansion", "generation", "streaming", "ttft", "total");
+    private static final long MAX_MICROS = 10L * 60 * 1_000_000;
+
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final Map<String, Integer> errors = new TreeMap<>();
+    private int completed;
+    private int cacheHits;
+    private int dropped;
+
+    StageReport() {
+        for (String stage : STAGE_ORDER) {
+            histograms.put(stage, new Histogram(MAX_MICROS, 3));
+        }
+    }
+
+    synchronized void record(ChatDriver.Sample sample) {
+        if (sample.error() != null) {
+            errors.merge(sample.error(), 1, Integer::sum);
+            return;
+        }
+        completed++;
+
+        List<Map.Entry<String, Long>> marks = new ArrayList<>(sample.marks().entrySet());
+        marks.sort(Map.Entry.comparingByValue());
+        boolean retrieved = sample.marks().containsKey("retrieval");
+        if (!retrieved) cacheHits++;
+
+        // 각 이벤트가 구간을 열고, 다음 이벤트가 그 구간을 닫음
+        String open = retrieved ? "pre_retrieval" : null;
+        long openedAt = 0;
+        for (Map.Entry<String, Long> mark : marks) {
+            if (open != null) recordNanos(open, mark.getValue() - openedAt);
+            open = switch (mark.getKey()) {
+                case ChatDriver.MARK_FIRST_TOKEN -> "streaming";
+                case ChatDriver.MARK_DONE -> null;
+                default -> mark.getKey();
+            };
+            openedAt = mark.getValue();
+        }
+
+        Long firstToken = sample.marks().get(ChatDriver.MARK_FIRST_TOKEN);
+        if (firstToken != null) recordNanos("ttft", firstToken);
+        recordNanos("total", sample.totalNanos());
+    }
+
+    synchronized void dropped() {
+        dropped++;
+    }
+
+    synchronized int attempts() {
+        return completed + errorCount() + dropped;
+    }
+
+    synchronized double errorRate() {
+        int attempts = attempts();
+        return attempts == 0 ? 0 : (double) (errorCount() + dropped) / attempts;
+    }
+
+    synchronized double percentileMillis(String stage, double percentile) {
+        Histogram histogram = histograms.get(stage);
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    synchronized void print(PrintStream out, String title, double elapsedSeconds) {
+        out.printf("%n=== %s ===%n", title);
+        out.printf("requests: %d completed, %d errors, %d dropped (client in-flight limit), %d answer-cache hits%n",
+                completed, errorCount(), dropped, cacheHits);
+        out.printf("elapsed: %.1fs, throughput: %.2f req/s%n", elapsedSeconds,
+                elapsedSeconds > 0 ? completed / elapsedSeconds : 0);
+        errors.forEach((reason, count) -> out.printf("  error %-40s %d%n", reason, count));
+
+        out.printf("%-14s %8s %10s %10s %10s %10s %10s %10s%n",
+                "stage (ms)", "count", "mean", "p50", "p90", "p99", "p99.9", "max");
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram h = entry.getValue();
+            if (h.getTotalCount() == 0) continue;
+            out.printf("%-14s %8d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    entry.getKey(), h.getTotalCount(), h.getMean() / 1000.0,
+                    h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0,
+                    h.getMaxValue() / 1000.0);
+        }
+    }
+
+    /**
+     * 단계별 백분위 분포를 .hgrm 파일로 저장합니다 (HdrHistogram 플로터 등에서 시각화 가능).
+     */
+    synchronized void writeDistributions(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            if (entry.getValue().getTotalCount() == 0) continue;
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey() + ".hgrm")))) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private int errorCount() {
+        return errors.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private void recordNanos(String stage, long nanos) {
+        Histogram histogram = histograms.get(stage);
+        if (histogram == null) return;
+        histogram.recordValue(Math.min(MAX_MICROS, Math.max(0, nanos / 1000)));
+    }
+}
@@ -0,0 +1,30 @@
+package com.zoontopia.superdaddy.config;
+
+import com.zoontopia.superdaddy.service.vectorstore.EmbeddedVectorStore;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * spring.ai.vectorstore.type=embedded이면 Qdrant 대신 프로세스 내장 VectorStore를 사용합니다.
+ * (Qdrant 자동 구성은 spring.ai.vectorstore.type=qdrant일 때만 활성화되므로 QdrantClient도 생성되지 않음)
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.ai.vectorstore.type", havingValue = "embedded")
+public class EmbeddedVectorStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    public EmbeddedVectorStore vectorStore(EmbeddingModel embeddingModel,
+                                           ObjectProvider<ObservationRegistry> observationRegistry,
+                                           @Value("${super-daddy.embedded-store.path:data/embedded-store}") String path) {
+        return EmbeddedVectorStore.builder(embeddingModel, Path.of(path))
+                .observationRegistry(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP))
+                .build();
+    }
+}
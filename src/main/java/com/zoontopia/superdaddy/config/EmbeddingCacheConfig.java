@@ -0,0 +1,38 @@
+package com.zoontopia.superdaddy.config;
+
+import com.zoontopia.superdaddy.service.cache.CachingEmbeddingModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 자동 구성된 EmbeddingModel(Google GenAI 등)을 CachingEmbeddingModel로 감싸,
+ * VectorStore를 포함한 모든 주입 지점이 같은 질의 임베딩 캐시를 공유하도록 합니다.
+ * super-daddy.embedding-cache.enabled=false이면 요청 사이의 LRU만 끄고, 요청이 고정한 질의 벡터 재사용은 유지합니다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class EmbeddingCacheConfig {
+
+    @Bean
+    static BeanPostProcessor cachingEmbeddingModelPostProcessor(Environment environment,
+                                                                ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof EmbeddingModel embeddingModel) || bean instanceof CachingEmbeddingModel) {
+                    return bean;
+                }
+                int maxEntries = environment.getProperty("super-daddy.embedding-cache.enabled", Boolean.class, true)
+                        ? environment.getProperty("super-daddy.embedding-cache.max-entries", Integer.class, 1000)
+                        : 0;
+                return new CachingEmbeddingModel(embeddingModel, maxEntries,
+                        meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry));
+            }
+        };
+    }
+}
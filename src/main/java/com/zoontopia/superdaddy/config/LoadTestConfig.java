@@ -0,0 +1,47 @@
+package com.zoontopia.superdaddy.config;
+
+import com.zoontopia.superdaddy.service.ingestion.IngestionProgress;
+import com.zoontopia.superdaddy.service.loadtest.FakeChatModel;
+import com.zoontopia.superdaddy.service.loadtest.FakeEmbeddingModel;
+import com.zoontopia.superdaddy.service.loadtest.SyntheticCorpusSeeder;
+import com.zoontopia.superdaddy.service.retrieval.KeywordSearchService;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+/**
+ * loadtest 프로필: Gemini(채팅/임베딩) 대신 지연을 흉내 내는 가짜 모델을 쓰고, 내장 벡터 저장소에 합성 코퍼스를 적재합니다.
+ * Google GenAI 자동 구성 제외와 저장 경로 분리는 application-loadtest.yml에 있습니다.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("loadtest")
+public class LoadTestConfig {
+
+    @Bean
+    public ChatModel fakeChatModel(@Value("${super-daddy.loadtest.chat.first-token-latency:400ms}") Duration firstTokenLatency,
+                                   @Value("${super-daddy.loadtest.chat.tokens-per-second:80}") double tokensPerSecond,
+                                   @Value("${super-daddy.loadtest.chat.response-tokens:200}") int responseTokens) {
+        return new FakeChatModel(firstTokenLatency, tokensPerSecond, responseTokens);
+    }
+
+    @Bean
+    public EmbeddingModel fakeEmbeddingModel(@Value("${super-daddy.loadtest.embedding.dimensions:768}") int dimensions,
+                                             @Value("${super-daddy.loadtest.embedding.latency:60ms}") Duration latency) {
+        return new FakeEmbeddingModel(dimensions, latency);
+    }
+
+    @Bean
+    public SyntheticCorpusSeeder syntheticCorpusSeeder(VectorStore vectorStore,
+                                                       KeywordSearchService keywordSearchService,
+                                                       IngestionProgress progress,
+                                                       @Value("${super-daddy.loadtest.corpus.pages:300}") int pages,
+                                                       @Value("${super-daddy.loadtest.corpus.chunks-per-page:4}") int chunksPerPage) {
+        return new SyntheticCorpusSeeder(vectorStore, keywordSearchService, progress, pages, chunksPerPage);
+    }
+}
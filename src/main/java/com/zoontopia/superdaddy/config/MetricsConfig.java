@@ -0,0 +1,19 @@
+package com.zoontopia.superdaddy.config;
+
+import com.zoontopia.superdaddy.service.metrics.RagMetrics;
+import com.zoontopia.superdaddy.service.metrics.TokenUsageAdvisor;
+import org.springframework.ai.chat.client.ChatClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 자동 구성된 ChatClient.Builder(채팅, 리랭킹, 수집 정제가 각각 주입받음)에 토큰 사용량 어드바이저를 등록합니다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    public ChatClientCustomizer tokenUsageChatClientCustomizer(RagMetrics ragMetrics) {
+        return builder -> builder.defaultAdvisors(new TokenUsageAdvisor(ragMetrics));
+    }
+}
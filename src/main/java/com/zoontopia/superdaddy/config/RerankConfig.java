@@ -0,0 +1,38 @@
+package com.zoontopia.superdaddy.config;
+
+import com.zoontopia.superdaddy.service.context.ContextCompactor;
+import com.zoontopia.superdaddy.service.rerank.LexicalReranker;
+import com.zoontopia.superdaddy.service.rerank.LlmReranker;
+import com.zoontopia.superdaddy.service.rerank.Reranker;
+import com.zoontopia.superdaddy.service.rerank.TwoStageReranker;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 기본은 로컬 리랭커만 사용하고, super-daddy.rerank.llm.enabled=true일 때만
+ * 로컬 리랭커 상위 top-n개에 대해 LLM 리랭킹을 2단계로 추가합니다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class RerankConfig {
+
+    @Bean
+    public Reranker reranker(ChatClient.Builder chatClientBuilder, ContextCompactor compactor,
+                             @Value("${super-daddy.rerank.max-selected:5}") int maxSelected,
+                             @Value("${super-daddy.rerank.min-score:0.4}") double minScore,
+                             @Value("${super-daddy.rerank.relative-cutoff:0.6}") double relativeCutoff,
+                             @Value("${super-daddy.rerank.mmr-lambda:0.7}") double mmrLambda,
+                             @Value("${super-daddy.rerank.llm.enabled:false}") boolean llmEnabled,
+                             @Value("${super-daddy.rerank.llm.top-n:10}") int llmTopN) {
+        LexicalReranker lexical = new LexicalReranker(maxSelected, minScore, relativeCutoff, mmrLambda);
+        if (!llmEnabled) {
+            return lexical;
+        }
+        // 2단계를 건너뛰거나 실패하면 로컬 리랭커만 쓸 때와 같은 개수로 선택
+        return new TwoStageReranker(
+                new LexicalReranker(llmTopN, minScore, relativeCutoff, mmrLambda),
+                new LlmReranker(chatClientBuilder.build(), compactor),
+                llmTopN, lexical);
+    }
+}
@@ -1,12 +1,22 @@
 package com.zoontopia.superdaddy.controller;
 
+import com.zoontopia.superdaddy.service.ChatAnswer;
+import com.zoontopia.superdaddy.service.ChatEvent;
 import com.zoontopia.superdaddy.service.ChatService;
+import com.zoontopia.superdaddy.service.admission.BulkheadRejectedException;
+import com.zoontopia.superdaddy.service.admission.ChatAdmission;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ResponseBody;
+import reactor.core.publisher.Flux;
 
 import java.util.Map;
 
@@ -26,9 +36,29 @@ public class ChatController {
 
     @PostMapping("/api/chat")
     @ResponseBody
-    public ResponseEntity<Map<String, String>> chat(@RequestBody Map<String, String> payload) {
+    public ResponseEntity<ChatAnswer> chat(@RequestBody Map<String, String> payload) {
         String userMessage = payload.get("message");
-        String response = chatService.chat(userMessage);
-        return ResponseEntity.ok(Map.of("response", response));
+        return ResponseEntity.ok(chatService.chat(userMessage, payload.get("sessionId")));
+    }
+
+    @PostMapping(value = "/api/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public Flux<ServerSentEvent<ChatEvent>> chatStream(@RequestBody Map<String, String> payload) {
+        String userMessage = payload.get("message");
+        return chatService.chatStream(userMessage, payload.get("sessionId"))
+                .map(event -> ServerSentEvent.builder(event).event(event.type()).build());
+    }
+
+    /**
+     * Gemini/Qdrant 격벽이 가득 차 요청을 받지 못하면 503과 함께 예상 재시도 간격을 Retry-After(초)로 알려 줍니다.
+     * 스트리밍 요청(Accept: text/event-stream)에도 같은 JSON 본문을 보내도록 Content-Type을 지정합니다.
+     */
+    @ExceptionHandler(BulkheadRejectedException.class)
+    @ResponseBody
+    public ResponseEntity<Map<String, String>> overloaded(BulkheadRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000)))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", ChatAdmission.OVERLOADED_MESSAGE));
     }
 }
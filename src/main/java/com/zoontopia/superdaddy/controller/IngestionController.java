@@ -0,0 +1,35 @@
+package com.zoontopia.superdaddy.controller;
+
+import com.zoontopia.superdaddy.service.IngestionService;
+import com.zoontopia.superdaddy.service.ingestion.IngestionProgress;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+@Controller
+public class IngestionController {
+
+    private final IngestionService ingestionService;
+
+    public IngestionController(IngestionService ingestionService) {
+        this.ingestionService = ingestionService;
+    }
+
+    /**
+     * 백그라운드 수집 진행 상황 (처리한 페이지/청크 수, 예상 남은 시간, 최근 오류).
+     * ready=false이면 아직 답변에 쓸 문서가 없으므로 준비 상태 확인(readiness probe)에 사용할 수 있습니다.
+     */
+    @GetMapping("/api/ingestion/status")
+    @ResponseBody
+    public ResponseEntity<IngestionProgress.Status> status() {
+        return ResponseEntity.ok(ingestionService.status());
+    }
+
+    @GetMapping("/api/ingestion/ready")
+    @ResponseBody
+    public ResponseEntity<IngestionProgress.Status> ready() {
+        IngestionProgress.Status status = ingestionService.status();
+        return status.ready() ? ResponseEntity.ok(status) : ResponseEntity.status(503).body(status);
+    }
+}
@@ -0,0 +1,9 @@
+package com.zoontopia.superdaddy.service;
+
+import java.util.List;
+
+/**
+ * 채팅 응답(/api/chat). degradations에는 지연 예산이 부족해 생략/축소한 단계의 코드가 순서대로 들어갑니다 (예: skipped_llm_rerank).
+ * sessionId는 이어지는 질문을 보낼 때 함께 보내야 하는 대화 세션 ID입니다.
+ */
+public record ChatAnswer(String response, List<String> degradations, String sessionId) {}
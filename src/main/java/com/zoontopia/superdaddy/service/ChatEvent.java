@@ -0,0 +1,37 @@
+package com.zoontopia.superdaddy.service;
+
+/**
+ * 스트리밍 채팅 응답(/api/chat/stream)으로 전달되는 개별 이벤트입니다.
+ * type: session(대화 세션 ID, 항상 첫 이벤트), stage(파이프라인 진행 상황), degraded(지연 예산 부족으로 생략/축소한 단계), token(생성된 답변 조각), done(완료), error(오류)
+ */
+public record ChatEvent(String type, String data) {
+
+    public static final String STAGE_RETRIEVAL = "retrieval";
+    public static final String STAGE_RERANK = "rerank";
+    public static final String STAGE_EXPANSION = "expansion";
+    public static final String STAGE_GENERATION = "generation";
+
+    public static ChatEvent session(String sessionId) {
+        return new ChatEvent("session", sessionId);
+    }
+
+    public static ChatEvent stage(String stage) {
+        return new ChatEvent("stage", stage);
+    }
+
+    public static ChatEvent degraded(String degradation) {
+        return new ChatEvent("degraded", degradation);
+    }
+
+    public static ChatEvent token(String token) {
+        return new ChatEvent("token", token);
+    }
+
+    public static ChatEvent done() {
+        return new ChatEvent("done", "");
+    }
+
+    public static ChatEvent error(String message) {
+        return new ChatEvent("error", message);
+    }
+}
@@ -1,22 +1,59 @@
 package com.zoontopia.superdaddy.service;
 
+import com.zoontopia.superdaddy.service.admission.Bulkhead;
+import com.zoontopia.superdaddy.service.admission.BulkheadRejectedException;
+import com.zoontopia.superdaddy.service.admission.ChatAdmission;
+import com.zoontopia.superdaddy.service.budget.Degradation;
+import com.zoontopia.superdaddy.service.budget.DegradationPolicy;
+import com.zoontopia.superdaddy.service.budget.HedgedCall;
+import com.zoontopia.superdaddy.service.budget.LatencyBudget;
+import com.zoontopia.superdaddy.service.cache.CachingEmbeddingModel;
+import com.zoontopia.superdaddy.service.cache.SemanticAnswerCache;
+import com.zoontopia.superdaddy.service.coalescing.RequestCoalescer;
+import com.zoontopia.superdaddy.service.context.ContextCompactor;
+import com.zoontopia.superdaddy.service.conversation.ConversationStore;
+import com.zoontopia.superdaddy.service.conversation.FollowUpDetector;
+import com.zoontopia.superdaddy.service.metrics.RagMetrics;
+import com.zoontopia.superdaddy.service.metrics.TokenUsageAdvisor;
+import com.zoontopia.superdaddy.service.rerank.Reranker;
+import com.zoontopia.superdaddy.service.retrieval.ChunkLookup;
+import com.zoontopia.superdaddy.service.retrieval.KeywordSearchService;
+import com.zoontopia.superdaddy.service.retrieval.ReciprocalRankFusion;
+import com.zoontopia.superdaddy.service.retrieval.SyntheticQuestions;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,187 +63,347 @@ public class ChatService {
     private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
     private final ChatClient chatClient;
     private final VectorStore vectorStore;
-
-    // 리랭킹을 위해 후보군을 더 넓게 가져옵니다
-    private static final int RETRIEVAL_TOP_K = 200;
+    private final EmbeddingModel embeddingModel;
+    private final SemanticAnswerCache answerCache;
+    private final ChunkLookup chunkLookup;
+    private final Reranker reranker;
+    private final KeywordSearchService keywordSearchService;
+    private final RagMetrics metrics;
+    private final ChatAdmission admission;
+    private final DegradationPolicy degradationPolicy;
+    private final ContextCompactor compactor;
+    private final RequestCoalescer coalescer;
+    private final ConversationStore conversations;
+    private final FollowUpDetector followUps;
+
+    // 스트리밍 응답의 검색 단계(블로킹 호출)를 요청마다 가상 스레드에서 실행. 동시 호출 수는 ChatAdmission의 격벽이 제한합니다
+    private static final Scheduler PIPELINE_SCHEDULER =
+            Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "chat-pipeline");
+
+    // 벡터 검색과 BM25 키워드 검색 결과를 RRF로 합치고, 벡터 검색은 청크별 예상 질문과도 비교하므로
+    // 각 경로에서 상위 일부만 가져와도 재현율이 유지됩니다
+    private static final int RETRIEVAL_TOP_K = 20;
+    // RRF 상수 (일반적으로 쓰이는 60 사용)
+    private static final int RRF_K = 60;
     // text-embedding-004의 낮아진 스코어를 고려하여 임계치를 낮춤
     private static final double SIMILARITY_THRESHOLD = 0.30;
 
-
-    public ChatService(ChatClient.Builder chatClientBuilder, VectorStore vectorStore) {
+    private static final String FINAL_RESPONSE_SYSTEM_PROMPT = """
+            초보 아빠들을 위한 친절하고 든든한 육아 조언자이자 친구 같은 존재입니다.
+            
+            [지침]
+            1. 아래 제공된 [가이드북 컨텍스트]의 내용을 우선적으로 사용하여 질문에 답변하세요.
+            2. 만약 [가이드북 컨텍스트]에 질문에 대한 직접적인 답이 없다면, "제공된 가이드북에는 관련 내용이 없지만, 일반적인 육아 지식에 기반하여 말씀드릴게요."라고 먼저 명시한 후 답변하세요.
+            3. 답변은 친절하고 격려하는 말투(예: ~해요, ~해봐요)를 사용하세요.
+            4. 의학적으로 위험한 상황(응급상황)에 대한 질문이라면 반드시 전문의 상담을 권고하세요.
+            
+            [가이드북 컨텍스트]
+            {context}
+            """;
+
+    private static final String CONVERSATION_SUMMARY_PROMPT = """
+
+            [이전 대화 요약]
+            {summary}
+            """;
+
+
+    public ChatService(ChatClient.Builder chatClientBuilder, VectorStore vectorStore,
+                       EmbeddingModel embeddingModel, SemanticAnswerCache answerCache,
+                       ChunkLookup chunkLookup, Reranker reranker,
+                       KeywordSearchService keywordSearchService, RagMetrics metrics,
+                       ChatAdmission admission, DegradationPolicy degradationPolicy,
+                       ContextCompactor compactor, RequestCoalescer coalescer,
+                       ConversationStore conversations, FollowUpDetector followUps) {
         this.chatClient = chatClientBuilder.build();
         this.vectorStore = vectorStore;
+        this.embeddingModel = embeddingModel;
+        this.answerCache = answerCache;
+        this.chunkLookup = chunkLookup;
+        this.reranker = reranker;
+        this.keywordSearchService = keywordSearchService;
+        this.metrics = metrics;
+        this.admission = admission;
+        this.degradationPolicy = degradationPolicy;
+        this.compactor = compactor;
+        this.coalescer = coalescer;
+        this.conversations = conversations;
+        this.followUps = followUps;
     }
 
-    public String chat(String message) {
-        // 1. 후보군 검색
-        List<Document> candidates = vectorStore.similaritySearch(
-                SearchRequest.builder()
-                        .query(message)
-                        .topK(RETRIEVAL_TOP_K)
-                        .similarityThreshold(SIMILARITY_THRESHOLD)
-                        .build()
-        );
+    /**
+     * 요청 기한 안에 입장하거나 Gemini/Qdrant 슬롯을 얻지 못하면 BulkheadRejectedException을 던집니다.
+     * 지연 예산이 부족해 생략/축소한 단계는 ChatAnswer.degradations에 기록됩니다.
+     * 같은 질문이 이미 처리 중이면 입장하지 않고 그 결과를 함께 받습니다 (RequestCoalescer).
+     *
+     * <p>sessionId가 없거나 형식이 맞지 않으면 새 세션을 만들고, 응답의 sessionId로 알려 줍니다.
+     * 대화가 이어지는 질문은 이전 대화를 프롬프트에 함께 넣고, 직전과 같은 주제면 검색 없이 직전 문맥을 재사용합니다.
+     * 이때 답변은 대화마다 달라지므로 같은 질문 합치기와 답변 캐시는 첫 질문에만 적용합니다.</p>
+     */
+    public ChatAnswer chat(String message, String sessionId) {
+        String session = conversations.resolveSessionId(sessionId);
+        ConversationStore.Conversation conversation = conversations.get(session);
+        Answered answered = conversation.isEmpty()
+                ? coalescer.call(message, () -> answer(message, conversation))
+                : answer(message, conversation);
+        conversations.append(session, new ConversationStore.Turn(message, answered.response(), answered.topic()));
+        return new ChatAnswer(answered.response(), answered.degradations(), session);
+    }
 
-        String context = "";
+    private Answered answer(String message, ConversationStore.Conversation conversation) {
+        LatencyBudget budget = degradationPolicy.startBudget();
+        try (ChatAdmission.Ticket ticket = admission.admit()) {
+            Instant deadline = ticket.deadline();
+            // 0. 질문을 요청당 한 번만 임베딩 (검색 동안 CachingEmbeddingModel에 고정해 모든 벡터 검색이 같은 벡터를 재사용)
+            float[] queryEmbedding = embedQuery(message, deadline);
+
+            // 의미상 같은 질문에 대한 캐시된 답변이 있으면 바로 반환
+            Optional<String> cached = conversation.isEmpty() ? findCachedAnswer(queryEmbedding) : Optional.empty();
+            if (cached.isPresent()) {
+                return new Answered(cached.get(), List.of(), new ConversationStore.Topic(message, queryEmbedding, null));
+            }
 
-        if (!candidates.isEmpty()) {
-            // 2. 연관성 있는 모든 문서 선택 (리스트 반환)
-            List<Document> relevantDocs = selectRelevantDocuments(message, candidates);
+            FollowUpDetector.Decision decision = followUps.decide(message, queryEmbedding, conversation);
+            RetrievedContext retrieved = contextFor(decision, message, queryEmbedding, deadline, budget, stage -> {});
+            String answer = generateFinalResponse(message, retrieved.text(), conversation, deadline);
 
-            if (!relevantDocs.isEmpty()) {
-                // 3. 선택된 문서들을 기반으로 통합 문맥 생성 (중복 제거 포함)
-                context = expandAndMergeContext(message, relevantDocs);
-            }
+            if (conversation.isEmpty()) cacheAnswer(queryEmbedding, answer, retrieved, budget);
+            return new Answered(answer, degradationCodes(budget),
+                    nextTopic(message, queryEmbedding, decision, retrieved, budget));
         }
-
-        return generateFinalResponse(message, context);
     }
 
     /**
-     * 리랭킹 로직: LLM에게 후보군 중 가장 질문에 적합한 문서의 인덱스를 묻습니다.
+     * 검색/리랭킹/문맥 확장을 먼저 수행하며 진행 상황을 stage 이벤트로 보내고,
+     * 이후 Gemini 답변을 생성되는 즉시 token 이벤트로 흘려보냅니다.
+     * 입장은 이벤트를 보내기 전에 호출 스레드에서 이루어지며, 거절되면 BulkheadRejectedException을 던집니다.
+     * 지연 예산이 부족해 생략/축소한 단계는 답변 생성 전에 degraded 이벤트로 알립니다.
+     * 같은 질문의 스트리밍 응답이 진행 중이면 입장하지 않고 그 이벤트를 처음부터 함께 받습니다 (RequestCoalescer).
+     * 공유하던 스트림이 취소되어 직접 실행하게 된 경우에는 session 이벤트를 보낸 뒤에 입장하므로, 거절되면 error 이벤트로 알립니다.
+     * 첫 이벤트는 세션 ID를 알려 주는 session 이벤트이고, 대화 기록은 chat()과 같은 방식으로 사용합니다.
      */
-    private Document reRankDocuments(String query, List<Document> candidates) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < candidates.size(); i++) {
-            Document d = candidates.get(i);
-            // 메타데이터의 키워드까지 LLM에게 전달하여 판단 근거 강화
-            String keywords = d.getMetadata().getOrDefault("keywords", "").toString();
-            sb.append(String.format("[%d] 제목: %s\n키워드: %s\n내용: %s\n\n",
-                    i, d.getMetadata().get("section_title"), keywords, d.getText()));
-        }
-
-        String reRankSystemPrompt = """
-                당신은 최적의 정보를 선택하는 리랭킹 전문가입니다.
-                [사용자 질문]과 가장 의미론적으로 가깝고, 질문에 대한 구체적인 답변을 포함하고 있는 [후보군]의 번호를 하나만 골라주세요.
-                
-                선택 가이드라인:
-                1. 질문의 핵심 키워드가 '제목'이나 '키워드'에 포함되어 있는지 확인하세요.
-                2. 단순히 단어가 겹치는 것보다 질문의 의도(예: 단계별 특징, 방법론 등)를 충족하는 내용을 우선하세요.
-                3. 관련 내용이 전혀 없다면 'NONE'이라고 답하세요.
-                
-                오직 번호(예: 0) 혹은 'NONE'만 출력하세요.
-                """;
-
-        String response = chatClient.prompt()
-                .system(reRankSystemPrompt)
-                .user(String.format("질문: %s\n\n[후보군]\n%s", query, sb.toString()))
-                .call()
-                .content();
-
-        try {
-            String bestIndexStr = response.toUpperCase().trim();
-            if (bestIndexStr.contains("NONE")) return null;
-
-            // 숫자만 추출하는 정규식
-            int bestIndex = Integer.parseInt(bestIndexStr.replaceAll("[^0-9]", ""));
-
-            if (bestIndex >= 0 && bestIndex < candidates.size()) {
-                logger.info("리랭킹 완료: 선택된 인덱스 {} (Score: {})", bestIndex, candidates.get(bestIndex).getScore());
-                return candidates.get(bestIndex);
-            }
-        } catch (Exception e) {
-            logger.warn("리랭킹 파싱 실패: {}. 1순위 문서 사용.", response);
-        }
-        return candidates.get(0);
+    public Flux<ChatEvent> chatStream(String message, String sessionId) {
+        String session = conversations.resolveSessionId(sessionId);
+        ConversationStore.Conversation conversation = conversations.get(session);
+        Flux<Object> events = conversation.isEmpty()
+                ? coalescer.stream(message, () -> streamAnswer(message, conversation))
+                : streamAnswer(message, conversation);
+
+        // 공유된 스트림을 받는 요청도 각자의 세션에 대화를 기록
+        StringBuilder answer = new StringBuilder();
+        AtomicReference<ConversationStore.Topic> topic = new AtomicReference<>();
+        Flux<ChatEvent> recorded = events
+                .doOnNext(item -> {
+                    if (item instanceof ConversationStore.Topic t) topic.set(t);
+                })
+                .ofType(ChatEvent.class)
+                .doOnNext(event -> {
+                    if (event.type().equals("token")) {
+                        answer.append(event.data());
+                    } else if (event.type().equals("done")) {
+                        conversations.append(session, new ConversationStore.Turn(message, answer.toString(), topic.get()));
+                    }
+                })
+                .onErrorResume(BulkheadRejectedException.class, e -> {
+                    logger.warn("스트리밍 응답 거절 (과부하): {}", e.getMessage());
+                    return Flux.just(ChatEvent.error(ChatAdmission.OVERLOADED_MESSAGE));
+                })
+                .onErrorResume(TimeoutException.class, e -> {
+                    logger.warn("같은 질문의 진행 중인 응답을 기다리다 시간 초과: {}", e.getMessage());
+                    return Flux.just(ChatEvent.error("답변 생성 중 오류가 발생했습니다."));
+                });
+        return Flux.concat(Flux.just(ChatEvent.session(session)), recorded);
     }
 
-    private String expandContext(String message, Document topDoc) {
-        // 기존 로직 유지하되, 쿼리에 Prefix 추가하여 일관성 유지
-        Number chunkIndexNum = (Number) topDoc.getMetadata().get("chunk_index");
-        if (chunkIndexNum == null) return topDoc.getText();
-
-        int centerIndex = chunkIndexNum.intValue();
-        String source = (String) topDoc.getMetadata().get("source");
-
-        FilterExpressionBuilder eb = new FilterExpressionBuilder();
-        Filter.Expression filter = eb.and(
-                eb.eq("source", source),
-                eb.in("chunk_index", centerIndex - 1, centerIndex, centerIndex + 1)
-        ).build();
-
-        List<Document> contextWindow = vectorStore.similaritySearch(
-                SearchRequest.builder()
-                        .query(message) // Prefix 추가
-                        .topK(5)
-                        .filterExpression(filter)
-                        .build()
-        );
-
-        return contextWindow.stream()
-                .sorted(Comparator.comparingInt(d -> ((Number) d.getMetadata().get("chunk_index")).intValue()))
-                .map(Document::getText)
-                .collect(Collectors.joining("\n\n"));
+    /**
+     * ChatEvent와 함께, 답변 생성 직전에 이 답변의 주제(ConversationStore.Topic)를 한 번 내보냅니다 (chatStream에서 걸러냄).
+     */
+    private Flux<Object> streamAnswer(String message, ConversationStore.Conversation conversation) {
+        LatencyBudget budget = degradationPolicy.startBudget();
+        ChatAdmission.Ticket ticket = admission.admit();
+        Instant deadline = ticket.deadline();
+        return Flux.<Object>create(sink -> {
+                    long requestStart = System.nanoTime();
+                    float[] queryEmbedding = embedQuery(message, deadline);
+                    Optional<String> cached = conversation.isEmpty() ? findCachedAnswer(queryEmbedding) : Optional.empty();
+                    if (cached.isPresent()) {
+                        sink.next(new ConversationStore.Topic(message, queryEmbedding, null));
+                        sink.next(ChatEvent.token(cached.get()));
+                        sink.next(ChatEvent.done());
+                        sink.complete();
+                        return;
+                    }
+
+                    FollowUpDetector.Decision decision = followUps.decide(message, queryEmbedding, conversation);
+                    RetrievedContext retrieved = contextFor(decision, message, queryEmbedding, deadline, budget,
+                            stage -> sink.next(ChatEvent.stage(stage)));
+                    degradationCodes(budget).forEach(code -> sink.next(ChatEvent.degraded(code)));
+                    sink.next(nextTopic(message, queryEmbedding, decision, retrieved, budget));
+                    sink.next(ChatEvent.stage(ChatEvent.STAGE_GENERATION));
+
+                    StringBuilder answer = new StringBuilder();
+                    // 스트리밍이 끝나거나(완료/실패) 클라이언트가 연결을 끊을 때까지 Gemini 슬롯을 점유
+                    Bulkhead.Permit generationPermit = admission.acquireGemini(deadline);
+                    var generationStage = metrics.start(RagMetrics.PIPELINE_CHAT, "generation");
+                    Disposable generation = finalResponsePrompt(message, retrieved.text(), conversation)
+                            .stream()
+                            .content()
+                            .doFinally(signal -> generationPermit.close())
+                            .subscribe(
+                                    token -> {
+                                        if (answer.isEmpty()) {
+                                            metrics.recordFirstToken(Duration.ofNanos(System.nanoTime() - requestStart));
+                                        }
+                                        answer.append(token);
+                                        sink.next(ChatEvent.token(token));
+                                    },
+                                    error -> {
+                                        generationStage.error(error);
+                                        generationStage.stop();
+                                        sink.error(error);
+                                    },
+                                    () -> {
+                                        generationStage.stop();
+                                        if (conversation.isEmpty()) {
+                                            cacheAnswer(queryEmbedding, answer.toString(), retrieved, budget);
+                                        }
+                                        sink.next(ChatEvent.done());
+                                        sink.complete();
+                                    });
+                    sink.onDispose(generation);
+                })
+                // 검색 단계는 블로킹 호출이므로 요청 스레드와 분리된 스케줄러에서 실행
+                .subscribeOn(PIPELINE_SCHEDULER)
+                .doFinally(signal -> ticket.close())
+                .onErrorResume(e -> {
+                    if (e instanceof BulkheadRejectedException rejected) {
+                        logger.warn("스트리밍 응답 중단 (과부하): {}", rejected.getMessage());
+                        return Flux.just(ChatEvent.error(ChatAdmission.OVERLOADED_MESSAGE));
+                    }
+                    logger.error("스트리밍 응답 생성 실패: {}", e.getMessage(), e);
+                    return Flux.just(ChatEvent.error("답변 생성 중 오류가 발생했습니다."));
+                });
     }
 
     /**
-     * 리랭킹 로직 수정: 관련 있는 모든 문서의 인덱스를 리스트로 받습니다.
+     * 직전과 같은 주제의 이어지는 질문이면 직전 문맥을 그대로 쓰고, 아니면 검색부터 다시 합니다.
+     * 검색 질의의 벡터는 검색이 끝날 때까지 CachingEmbeddingModel에 고정하므로, 헤징이나 문맥 확장으로 다시 검색해도
+     * 임베딩 LRU 설정이나 적중 여부와 관계없이 다시 임베딩하지 않습니다.
      */
-    private List<Document> selectRelevantDocuments(String query, List<Document> candidates) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < candidates.size(); i++) {
-            Document d = candidates.get(i);
-            String keywords = d.getMetadata().getOrDefault("keywords", "").toString();
-            sb.append(String.format("[%d] 제목: %s\n키워드: %s\n내용: %s\n\n",
-                    i, d.getMetadata().get("section_title"), keywords, d.getText()));
+    private RetrievedContext contextFor(FollowUpDetector.Decision decision, String message, float[] queryEmbedding,
+                                        Instant deadline, LatencyBudget budget, Consumer<String> stageListener) {
+        if (decision.topic() != null) metrics.recordFollowUp(decision.reusesContext());
+        if (decision.reusesContext()) {
+            return new RetrievedContext(decision.topic().context(), Set.of());
+        }
+        String query = decision.retrievalQuery();
+        // 주제 질문과 이어 붙인 질의는 질문과 다른 문장이므로 따로 한 번 임베딩
+        float[] queryVector = query.equals(message) ? queryEmbedding : embedQuery(query, deadline);
+        try (CachingEmbeddingModel.Pin pin = CachingEmbeddingModel.pin(embeddingModel, query, queryVector)) {
+            return retrieveContext(query, deadline, budget, stageListener);
         }
+    }
+
+    /**
+     * 이 답변 이후로 이어받을 주제. 지연 예산 부족으로 축소된 문맥이나 빈 문맥은 재사용하지 않습니다.
+     */
+    private static ConversationStore.Topic nextTopic(String message, float[] queryEmbedding,
+                                                     FollowUpDetector.Decision decision,
+                                                     RetrievedContext retrieved, LatencyBudget budget) {
+        if (decision.reusesContext()) return decision.topic();
+        String context = retrieved.text().isEmpty() || budget.affectsAnswer() ? null : retrieved.text();
+        return decision.topic() != null
+                ? new ConversationStore.Topic(decision.topic().question(), decision.topic().embedding(), context)
+                : new ConversationStore.Topic(message, queryEmbedding, context);
+    }
 
-        String reRankSystemPrompt = """
-                당신은 정보 필터링 전문가입니다.
-                [사용자 질문]과 관련이 있는 모든 [후보군]의 번호를 골라주세요.
-                
-                선택 기준:
-                1. 질문에 직접적인 해답을 주거나, 답변을 구성하는 데 도움이 되는 보조 정보를 포함하는 경우.
-                2. 서로 다른 측면(예: 하나는 원인, 하나는 해결책)을 다루고 있다면 모두 선택하세요.
-                3. 관련이 없는 문서는 과감히 제외하세요.
-                
-                오직 번호들을 쉼표로 구분하여 출력하세요 (예: 0, 3, 5). 
-                관련 문서가 하나도 없다면 'NONE'이라고 답하세요.
-                """;
-
-        String response = chatClient.prompt()
-                .system(reRankSystemPrompt)
-                .user(String.format("질문: %s\n\n[후보군]\n%s", query, sb.toString()))
-                .call()
-                .content().toUpperCase().trim();
-
-        List<Document> result = new ArrayList<>();
-        if (response.contains("NONE")) return result;
+    private RetrievedContext retrieveContext(String message, Instant deadline, LatencyBudget budget,
+                                             Consumer<String> stageListener) {
+        // 1. 후보군 검색 (벡터 검색 + BM25 키워드 검색 결과를 RRF로 융합)
+        stageListener.accept(ChatEvent.STAGE_RETRIEVAL);
+        List<Document> vectorResults = searchVectors(message, deadline, budget);
+        List<Document> keywordResults = metrics.time(RagMetrics.PIPELINE_CHAT, "keyword_search", () ->
+                keywordSearchService.search(message, RETRIEVAL_TOP_K));
+        List<Document> candidates = ReciprocalRankFusion.fuse(RRF_K, RETRIEVAL_TOP_K, vectorResults, keywordResults);
+        metrics.recordRetrieved("vector", vectorResults.size());
+        metrics.recordRetrieved("keyword", keywordResults.size());
+        metrics.recordRetrieved("fused", candidates.size());
 
-        try {
-            // 쉼표로 구분된 인덱스 파싱
-            String[] indices = response.split(",");
-            for (String indexPart : indices) {
-                int idx = Integer.parseInt(indexPart.replaceAll("[^0-9]", ""));
-                if (idx >= 0 && idx < candidates.size()) {
-                    result.add(candidates.get(idx));
-                }
+        if (!candidates.isEmpty()) {
+            // 2. 연관성 있는 문서 선택 (로컬 리랭커, 설정 시 상위 몇 개만 LLM 2단계 리랭킹)
+            stageListener.accept(ChatEvent.STAGE_RERANK);
+            List<Document> relevantDocs = rerank(message, candidates, deadline, budget);
+            metrics.recordSelected(relevantDocs.size());
+            logger.info("리랭킹 완료: 후보 {}개 중 {}개의 문서 선택됨", candidates.size(), relevantDocs.size());
+
+            if (!relevantDocs.isEmpty()) {
+                // 3. 선택된 문서들을 기반으로 통합 문맥 생성 (중복 제거 포함)
+                stageListener.accept(ChatEvent.STAGE_EXPANSION);
+                String context = metrics.time(RagMetrics.PIPELINE_CHAT, "expansion", () ->
+                        expandAndMergeContext(message, relevantDocs, deadline, budget));
+                metrics.recordContextLength(context.length());
+                Set<String> sources = relevantDocs.stream()
+                        .map(d -> d.getMetadata().get("source"))
+                        .filter(Objects::nonNull)
+                        .map(Object::toString)
+                        .collect(Collectors.toSet());
+                return new RetrievedContext(context, sources);
             }
-            logger.info("리랭킹 완료: {}개의 문서 선택됨", result.size());
-        } catch (Exception e) {
-            logger.warn("인덱스 파싱 실패: {}. 1순위 문서만 사용.", response);
-            result.add(candidates.get(0));
         }
-        return result;
+        return new RetrievedContext("", Set.of());
     }
 
-
     /**
      * 여러 문서의 문맥을 확장하고 중복을 제거하여 결합합니다.
+     * 앞뒤 청크 ID(prev_chunk_id/next_chunk_id)가 기록된 문서는 선택된 문서 수와 관계없이 한 번의 일괄 조회로 이웃을 가져오고,
+     * 청크 ID 도입 이전에 수집된 문서만 기존 방식(필터 검색)으로 확장합니다.
+     * 결합한 문맥은 ContextCompactor가 머리글/중복/겹침을 걷어내고 리랭킹 순위대로 토큰 예산(super-daddy.context.max-tokens)까지만 담습니다.
+     * 남은 지연 예산이 부족하면 확장 없이 선택된 청크만 쓰고, 생성 직전 예산이 더 줄었으면 토큰 예산을 더 줄입니다.
+     * (src/jmh의 벤치마크에서 호출하므로 package-private)
      */
-    private String expandAndMergeContext(String message, List<Document> relevantDocs) {
-        // 중복 청크 방지를 위해 Map 사용 (Key: Document ID 또는 특정 메타데이터 조합)
+    String expandAndMergeContext(String message, List<Document> relevantDocs, Instant deadline, LatencyBudget budget) {
+        // 중복 청크 방지를 위해 Map 사용 (Key: Document ID). 선택된 문서를 먼저 넣어 문맥 길이 제한 시 우선 보존
         Map<String, Document> mergedContextMap = new java.util.LinkedHashMap<>();
+        Set<String> neighborIds = new LinkedHashSet<>();
+        List<Document> legacyDocs = new ArrayList<>();
 
         for (Document doc : relevantDocs) {
-            Number chunkIndexNum = (Number) doc.getMetadata().get("chunk_index");
-            if (chunkIndexNum == null) {
-                mergedContextMap.put(doc.getId(), doc);
-                continue;
+            Map<String, Object> metadata = doc.getMetadata();
+            mergedContextMap.putIfAbsent(doc.getId(), doc);
+            if (metadata.containsKey("chunk_id")) {
+                if (metadata.get("prev_chunk_id") != null) neighborIds.add(metadata.get("prev_chunk_id").toString());
+                if (metadata.get("next_chunk_id") != null) neighborIds.add(metadata.get("next_chunk_id").toString());
+            } else {
+                legacyDocs.add(doc);
             }
+        }
+
+        boolean expand = degradationPolicy.allowExpansion(budget);
+        // 이미 선택된 청크는 다시 조회하지 않음
+        neighborIds.removeAll(mergedContextMap.keySet());
+        if (expand && !neighborIds.isEmpty()) {
+            try {
+                HedgedCall.call(() -> admission.qdrant(deadline, () -> chunkLookup.findByIds(neighborIds)),
+                                degradationPolicy.hedgeDelay(), degradationPolicy.retrievalTimeout(budget))
+                        .value()
+                        .forEach(mergedContextMap::putIfAbsent);
+            } catch (TimeoutException e) {
+                logger.warn("이웃 청크 조회 시간 초과, 선택된 청크만 사용: {}", e.getMessage());
+                expand = false;
+            }
+        }
+        if (!expand) {
+            budget.degrade(Degradation.SKIPPED_EXPANSION);
+            legacyDocs.clear();
+        }
+
+        metrics.recordWindowSearches(legacyDocs.size());
+
+        for (Document doc : legacyDocs) {
+            Number chunkIndexNum = (Number) doc.getMetadata().get("chunk_index");
+            if (chunkIndexNum == null) continue;
 
             int centerIndex = chunkIndexNum.intValue();
-            String source = (String) doc.getMetadata().get("source");
             String parentDocId = (String) doc.getMetadata().get("parent_document_id");
 
             // 해당 청크의 앞뒤 윈도우 조회
@@ -216,49 +413,138 @@ public class ChatService {
                     eb.in("chunk_index", centerIndex - 1, centerIndex, centerIndex + 1)
             ).build();
 
-            List<Document> window = vectorStore.similaritySearch(
+            List<Document> window = admission.qdrant(deadline, () -> vectorStore.similaritySearch(
                     SearchRequest.builder()
                             .query(message)
                             .topK(5)
                             .filterExpression(filter)
                             .build()
-            );
+            ));
 
             // 결과 취합 (이미 포함된 청크는 무시됨)
             for (Document wDoc : window) {
-                // chunk_index와 source의 조합으로 유니크 키 생성
-                String key = source + "_" + wDoc.getMetadata().get("chunk_index");
-                mergedContextMap.putIfAbsent(key, wDoc);
+                mergedContextMap.putIfAbsent(wDoc.getId(), wDoc);
             }
         }
 
-        // chunk_index 순서대로 정렬하여 가독성 확보
-        return mergedContextMap.values().stream()
-                .sorted(Comparator.comparing((Document d) -> d.getMetadata().get("source").toString())
-                        .thenComparingInt((Document d) -> ((Number) d.getMetadata().get("chunk_index")).intValue()))
-                .map(Document::getText)
-                .collect(Collectors.joining("\n\n"));
+        // 머리글/중복/겹침을 걷어낸 뒤 리랭킹 순위대로 토큰 예산까지 담고, 문서 순서로 정렬
+        int maxTokens = Math.min(compactor.contextMaxTokens(), degradationPolicy.contextTokenLimit(budget));
+        ContextCompactor.Packed packed = compactor.pack(mergedContextMap.values(), maxTokens);
+        if (packed.truncated() && maxTokens < compactor.contextMaxTokens()) {
+            budget.degrade(Degradation.CAPPED_CONTEXT);
+        }
+        metrics.recordContextTokens(packed.tokens());
+        return packed.text();
+    }
+
+    private float[] embedQuery(String message, Instant deadline) {
+        return admission.gemini(deadline, () ->
+                metrics.time(RagMetrics.PIPELINE_CHAT, "embedding", () -> embeddingModel.embed(message)));
+    }
+
+    /**
+     * 벡터 검색은 헤징하고, 답변 생성 몫의 예산을 침범하기 전까지만 기다립니다. 시간이 부족하면 키워드 검색 결과만 사용합니다.
+     * 예상 질문 벡터가 걸리면 순위를 유지한 채 원래 청크로 바꿉니다 (같은 청크는 한 번만).
+     */
+    private List<Document> searchVectors(String message, Instant deadline, LatencyBudget budget) {
+        Duration timeout = degradationPolicy.retrievalTimeout(budget);
+        if (timeout.isNegative() || timeout.isZero()) {
+            budget.degrade(Degradation.SKIPPED_VECTOR_SEARCH);
+            return List.of();
+        }
+
+        SearchRequest request = SearchRequest.builder()
+                .query(message)
+                .topK(RETRIEVAL_TOP_K)
+                .similarityThreshold(SIMILARITY_THRESHOLD)
+                .build();
+        try {
+            HedgedCall.Result<List<Document>> result = metrics.timeChecked(RagMetrics.PIPELINE_CHAT, "vector_search", () ->
+                    HedgedCall.call(() -> SyntheticQuestions.resolveParents(
+                                    admission.qdrant(deadline, () -> vectorStore.similaritySearch(request)),
+                                    ids -> admission.qdrant(deadline, () -> chunkLookup.findByIds(ids))),
+                            degradationPolicy.hedgeDelay(), timeout));
+            if (result.hedged()) budget.degrade(Degradation.HEDGED_VECTOR_SEARCH);
+            return result.value();
+        } catch (TimeoutException e) {
+            logger.warn("벡터 검색 시간 초과, 키워드 검색 결과만 사용: {}", e.getMessage());
+            budget.degrade(Degradation.SKIPPED_VECTOR_SEARCH);
+            return List.of();
+        }
+    }
+
+    private List<Document> rerank(String message, List<Document> candidates, Instant deadline, LatencyBudget budget) {
+        // 로컬 리랭커는 CPU만 쓰므로 LLM 리랭킹이 켜져 있을 때만 Gemini 슬롯을 점유
+        if (!reranker.callsModel()) {
+            return metrics.time(RagMetrics.PIPELINE_CHAT, "rerank", () -> reranker.rerank(message, candidates));
+        }
+        if (!degradationPolicy.allowLlmRerank(budget)) {
+            budget.degrade(Degradation.SKIPPED_LLM_RERANK);
+            Reranker localReranker = reranker.withoutModel();
+            return metrics.time(RagMetrics.PIPELINE_CHAT, "rerank", () -> localReranker.rerank(message, candidates));
+        }
+        return admission.gemini(deadline, () ->
+                metrics.time(RagMetrics.PIPELINE_CHAT, "rerank", () -> reranker.rerank(message, candidates)));
+    }
+
+    private Optional<String> findCachedAnswer(float[] queryEmbedding) {
+        return metrics.time(RagMetrics.PIPELINE_CHAT, "answer_cache", () -> answerCache.find(queryEmbedding));
+    }
+
+    private String generateFinalResponse(String message, String context,
+                                         ConversationStore.Conversation conversation, Instant deadline) {
+        return admission.gemini(deadline, () ->
+                metrics.time(RagMetrics.PIPELINE_CHAT, "generation", () -> finalResponsePrompt(message, context, conversation)
+                        .call()
+                        .content()));
+    }
+
+    /**
+     * 예산 부족으로 답변 내용이 달라졌을 수 있는 경우(검색/리랭킹/확장 생략, 문맥 축소)에는 캐시하지 않습니다.
+     */
+    private void cacheAnswer(float[] queryEmbedding, String answer, RetrievedContext retrieved, LatencyBudget budget) {
+        if (budget.affectsAnswer()) return;
+        answerCache.put(queryEmbedding, answer, retrieved.sources());
     }
 
-    private String generateFinalResponse(String message, String context) {
-        String systemPromptText = """
-                초보 아빠들을 위한 친절하고 든든한 육아 조언자이자 친구 같은 존재입니다.
-                
-                [지침]
-                1. 아래 제공된 [가이드북 컨텍스트]의 내용을 우선적으로 사용하여 질문에 답변하세요.
-                2. 만약 [가이드북 컨텍스트]에 질문에 대한 직접적인 답이 없다면, "제공된 가이드북에는 관련 내용이 없지만, 일반적인 육아 지식에 기반하여 말씀드릴게요."라고 먼저 명시한 후 답변하세요.
-                3. 답변은 친절하고 격려하는 말투(예: ~해요, ~해봐요)를 사용하세요.
-                4. 의학적으로 위험한 상황(응급상황)에 대한 질문이라면 반드시 전문의 상담을 권고하세요.
-                
-                [가이드북 컨텍스트]
-                {context}
-                """;
+    private List<String> degradationCodes(LatencyBudget budget) {
+        List<Degradation> degradations = budget.degradations();
+        if (!degradations.isEmpty()) {
+            logger.info("지연 예산 부족으로 단계 축소 (경과 {} ms): {}", budget.elapsed().toMillis(), degradations);
+            degradations.forEach(metrics::recordDegradation);
+        }
+        return degradations.stream().map(Degradation::code).toList();
+    }
 
+    /**
+     * 오래된 대화의 요약은 시스템 프롬프트에, 최근 대화는 질문/답변 메시지로 현재 질문 앞에 넣습니다.
+     */
+    private ChatClient.ChatClientRequestSpec finalResponsePrompt(String message, String context,
+                                                                 ConversationStore.Conversation conversation) {
+        List<Message> history = new ArrayList<>();
+        for (ConversationStore.Turn turn : conversation.turns()) {
+            history.add(new UserMessage(turn.question()));
+            history.add(new AssistantMessage(turn.answer()));
+        }
+        String summary = conversation.summary();
         return chatClient.prompt()
-                .system(s -> s.text(systemPromptText)
-                        .param("context", context.isEmpty() ? "제공된 가이드북에 관련 정보가 없습니다." : context))
-                .user(message)
-                .call()
-                .content();
+                .advisors(a -> a.param(TokenUsageAdvisor.OPERATION, RagMetrics.OPERATION_ANSWER))
+                .system(s -> {
+                    s.text(summary.isEmpty() ? FINAL_RESPONSE_SYSTEM_PROMPT : FINAL_RESPONSE_SYSTEM_PROMPT + CONVERSATION_SUMMARY_PROMPT)
+                            .param("context", context.isEmpty() ? "제공된 가이드북에 관련 정보가 없습니다." : context);
+                    if (!summary.isEmpty()) s.param("summary", summary);
+                })
+                .messages(history)
+                .user(message);
     }
+
+    /**
+     * 답변 생성에 사용할 문맥과, 그 문맥을 구성한 문서들의 source 목록 (답변 캐시 무효화용)
+     */
+    private record RetrievedContext(String text, Set<String> sources) {}
+
+    /**
+     * 한 요청의 답변과, 세션에 기록할 이 답변의 주제 (같은 질문 합치기로 공유되는 결과)
+     */
+    private record Answered(String response, List<String> degradations, ConversationStore.Topic topic) {}
 }
@@ -1,79 +1,433 @@
 package com.zoontopia.superdaddy.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import com.zoontopia.superdaddy.service.cache.SemanticAnswerCache;
+import com.zoontopia.superdaddy.service.ingestion.BatchResponseParser;
+import com.zoontopia.superdaddy.service.ingestion.IngestionManifest;
+import com.zoontopia.superdaddy.service.ingestion.IngestionPipeline;
+import com.zoontopia.superdaddy.service.ingestion.IngestionProgress;
+import com.zoontopia.superdaddy.service.ingestion.PdfPageReader;
+import com.zoontopia.superdaddy.service.ingestion.RateLimitedCaller;
+import com.zoontopia.superdaddy.service.ingestion.RefineBatchPlanner;
+import com.zoontopia.superdaddy.service.ingestion.RefinementCache;
+import com.zoontopia.superdaddy.service.ingestion.TokenBucket;
+import com.zoontopia.superdaddy.service.metrics.RagMetrics;
+import com.zoontopia.superdaddy.service.metrics.TokenUsageAdvisor;
+import com.zoontopia.superdaddy.service.retrieval.ChunkLookup;
+import com.zoontopia.superdaddy.service.retrieval.KeywordSearchService;
+import com.zoontopia.superdaddy.service.retrieval.SyntheticQuestions;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.document.Document;
-import org.springframework.ai.reader.pdf.PagePdfDocumentReader;
 import org.springframework.ai.transformer.splitter.TokenTextSplitter;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
-
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
-public class IngestionService implements CommandLineRunner {
+public class IngestionService {
 
     private static final Logger logger = LoggerFactory.getLogger(IngestionService.class);
 
+    /**
+     * 정제 프롬프트 또는 청크 분할 방식을 바꾸면 올려서, 매니페스트에 기록된 페이지를 모두 다시 수집하도록 합니다.
+     * 청크 분할만 바꾼 경우 정제 결과는 캐시에서 읽으므로 LLM 호출 없이 다시 임베딩됩니다.
+     */
+    static final int MANIFEST_VERSION = 2;
+
+    /**
+     * refineBatchText의 프롬프트를 바꾸면 올려서, 정제 결과 캐시에 저장된 이전 결과를 쓰지 않도록 합니다.
+     */
+    static final int REFINE_PROMPT_VERSION = 2;
+
+    // 정제 배치 크기를 정하기 위한 토큰 수 추정 (Gemini 토크나이저와 다르지만 한국어에서는 더 많게 세어 여유가 생김)
+    private static final Encoding TOKEN_ENCODING = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+    // 정제 본문이 원문(공백 제외)의 이 비율보다 짧으면 요약되거나 잘린 것으로 보고 실패 처리
+    private static final double MIN_REFINED_RATIO = 0.3;
+    // 이보다 짧은 원문은 길이 비율을 검사하지 않음 (목차, 빈 페이지 등)
+    private static final int MIN_RATIO_CHECK_CHARS = 200;
+    // 정제 결과가 검증을 통과하지 못한 페이지 표시 (매니페스트에만 기록하고 청크 메타데이터에는 남기지 않음)
+    private static final String REFINE_DEGRADED = "refine_degraded";
+
     private final VectorStore vectorStore;
     private final ChatClient chatClient;
+    private final SemanticAnswerCache answerCache;
+    private final ChunkLookup chunkLookup;
+    private final KeywordSearchService keywordSearchService;
+    private final IngestionProgress progress;
+    private final RagMetrics metrics;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // 청크 크기를 약간 키워 문맥 유지력을 높임 (Overlap은 유지)
+    private final TokenTextSplitter tokenTextSplitter = new TokenTextSplitter(500, 150, 10, 5000, true);
 
     @Value("classpath:parenting_guide.pdf")
     private Resource pdfResource;
 
-    public IngestionService(VectorStore vectorStore, ChatClient.Builder chatClientBuilder) {
+    private record SourceFile(String name, Resource resource) {
+    }
+
+    @Value("${super-daddy.ingestion.on-startup:true}")
+    private boolean ingestOnStartup;
+    @Value("${super-daddy.ingestion.directory:}")
+    private String directory;
+    @Value("${super-daddy.ingestion.file-concurrency:2}")
+    private int fileConcurrency;
+    @Value("${super-daddy.ingestion.manifest-path:data/ingestion-manifest.json}")
+    private Path manifestPath;
+    @Value("${super-daddy.ingestion.queue-capacity:16}")
+    private int queueCapacity;
+    @Value("${super-daddy.ingestion.refine.batch-size:12}")
+    private int refineBatchSize;
+    @Value("${super-daddy.ingestion.refine.max-input-tokens:6000}")
+    private int refineMaxInputTokens;
+    @Value("${super-daddy.ingestion.refine.max-output-tokens:8000}")
+    private int refineMaxOutputTokens;
+    @Value("${super-daddy.ingestion.refine.concurrency:4}")
+    private int refineConcurrency;
+    @Value("${super-daddy.ingestion.refine.requests-per-minute:30}")
+    private double refineRequestsPerMinute;
+    @Value("${super-daddy.ingestion.upsert.batch-size:20}")
+    private int upsertBatchSize;
+    @Value("${super-daddy.ingestion.upsert.concurrency:2}")
+    private int upsertConcurrency;
+    @Value("${super-daddy.ingestion.upsert.chunks-per-minute:600}")
+    private double upsertChunksPerMinute;
+    @Value("${super-daddy.ingestion.retry.max-attempts:6}")
+    private int maxRetries;
+    @Value("${super-daddy.ingestion.retry.initial-backoff:2s}")
+    private Duration initialBackoff;
+    @Value("${super-daddy.ingestion.retry.max-backoff:60s}")
+    private Duration maxBackoff;
+    @Value("${super-daddy.ingestion.refinement-cache-path:data/refinement-cache.bin}")
+    private Path refinementCachePath;
+
+    private RateLimitedCaller refineCaller;
+    private RateLimitedCaller upsertCaller;
+
+    public IngestionService(VectorStore vectorStore, ChatClient.Builder chatClientBuilder,
+                            SemanticAnswerCache answerCache, ChunkLookup chunkLookup,
+                            KeywordSearchService keywordSearchService, IngestionProgress progress,
+                            RagMetrics metrics) {
         this.vectorStore = vectorStore;
         this.chatClient = chatClientBuilder.build();
+        this.answerCache = answerCache;
+        this.chunkLookup = chunkLookup;
+        this.keywordSearchService = keywordSearchService;
+        this.progress = progress;
+        this.metrics = metrics;
     }
 
-    @Override
-    public void run(String... args) throws Exception {
-        String fileName = pdfResource.getFilename(); // "parenting_guide.pdf"
+    /**
+     * 애플리케이션이 요청을 받을 수 있게 된 뒤 가상 스레드에서 수집을 시작합니다.
+     * 수집이 끝날 때까지 HTTP 서버가 기다리지 않으며, 진행 상황은 /api/ingestion/status로 확인합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackgroundIngestion() {
+        if (!ingestOnStartup) {
+            logger.info("Ingestion on startup is disabled (super-daddy.ingestion.on-startup=false).");
+            return;
+        }
+        Thread.ofVirtual().name("ingestion").start(this::ingest);
+    }
 
-        // 1. 데이터 존재 여부 확인
-        if (hasExistingData(fileName)) {
-            logger.info("Vector store already contains data. Skipping ingestion.");
+    /**
+     * 문서를 수집합니다 (super-daddy.ingestion.directory가 지정되면 폴더의 모든 PDF). 배치가 기록될 때마다 완료된 페이지를
+     * 매니페스트에 체크포인트하므로, 도중에 프로세스가 종료되어도 다음 실행 시 완료된 페이지는 건너뛰고 나머지부터 이어서 처리합니다.
+     */
+    public void ingest() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Ingestion is already running.");
             return;
         }
+        try {
+            metrics.time(RagMetrics.PIPELINE_INGESTION, "run", this::ingestCorpus);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 수집 대상 PDF마다 파이프라인을 하나씩 실행하되, 동시에 처리하는 파일 수는 file-concurrency로 제한합니다.
+     * 한 파일이 실패해도 나머지 파일은 계속 처리하고, 실패한 파일은 다음 실행 때 완료되지 않은 페이지부터 이어서 수집합니다.
+     */
+    private void ingestCorpus() {
+        String corpus = StringUtils.hasText(directory) ? directory : pdfResource.getFilename(); // "parenting_guide.pdf"
+        progress.start(corpus);
 
-        // 2. PDF 파일 확인
-        if (!pdfResource.exists()) {
-            logger.warn("parenting_guide.pdf not found. Skipping ingestion.");
+        // 1. PDF 파일 목록 확인 (경로만 모으고 파일은 처리할 때 엶)
+        List<SourceFile> sourceFiles;
+        try {
+            sourceFiles = listSourceFiles();
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Failed to list PDF files in '{}': {}", corpus, e.getMessage(), e);
+            progress.failed("Failed to list PDF files: " + e.getMessage());
             return;
         }
+        if (sourceFiles.isEmpty()) {
+            // 설정 오류로 목록이 비었을 수 있으므로 기존 데이터는 지우지 않음
+            logger.warn("No PDF found in '{}'. Skipping ingestion.", corpus);
+            progress.failed("No PDF found in " + corpus);
+            return;
+        }
+        progress.filesPlanned(sourceFiles.size());
+
+        long start = System.currentTimeMillis();
+        IngestionManifest manifest = IngestionManifest.load(manifestPath, MANIFEST_VERSION);
+        Set<String> recordedSources = manifest.sources();
+        // 매니페스트가 비어 있으면(도입 이전 데이터, 버전 변경) 저장소에 남은 청크가 어떤 페이지인지 알 수 없으므로 파일마다 확인
+        boolean checkUntrackedData = recordedSources.isEmpty();
+        if (!recordedSources.isEmpty()) progress.markReady();
+
+        try (RefinementCache refinementCache = RefinementCache.open(refinementCachePath)) {
+            // 2. 폴더에서 사라진 파일의 청크 삭제
+            Set<String> currentSources = new HashSet<>();
+            sourceFiles.forEach(file -> currentSources.add(file.name()));
+            for (String source : recordedSources) {
+                if (currentSources.contains(source)) continue;
+                logger.info("'{}' is no longer in the corpus. Removing its chunks.", source);
+                deleteSource(source);
+                manifest.removeSource(source);
+                answerCache.invalidateSource(source);
+            }
 
+            // 3. 작업자들이 남은 파일을 하나씩 가져가 처리
+            Queue<SourceFile> remaining = new ConcurrentLinkedQueue<>(sourceFiles);
+            List<String> failedFiles = Collections.synchronizedList(new ArrayList<>());
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> workers = new ArrayList<>();
+                for (int w = 0; w < Math.min(fileConcurrency, sourceFiles.size()); w++) {
+                    workers.add(executor.submit(() -> {
+                        for (SourceFile file = remaining.poll(); file != null; file = remaining.poll()) {
+                            if (!ingestFile(file, manifest, refinementCache, checkUntrackedData)) {
+                                failedFiles.add(file.name());
+                            }
+                            progress.fileDone();
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> worker : workers) worker.get();
+            }
+
+            logger.info("Ingestion finished for {} files in '{}' ({} failed, {} ms)",
+                    sourceFiles.size(), corpus, failedFiles.size(), System.currentTimeMillis() - start);
+            if (failedFiles.isEmpty()) {
+                progress.completed();
+            } else {
+                progress.failed(failedFiles.size() + " of " + sourceFiles.size() + " files failed: " + failedFiles);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.failed("Ingestion interrupted");
+        } catch (Exception e) {
+            logger.error("Error during ingestion process: {}", e.getMessage(), e);
+            progress.failed(e.getClass().getSimpleName() + ": " + e.getMessage());
+        } finally {
+            // 일부 배치만 기록되고 중단된 경우에도 완료된 페이지는 매니페스트에 남아 다음 수집 때 건너뜀
+            manifest.save();
+            keywordSearchService.saveSnapshot();
+        }
+    }
+
+    /**
+     * PDF 하나를 한 페이지씩 읽어, 매니페스트와 해시가 다른 페이지만 파이프라인으로 흘려보냅니다.
+     * 파일 전체를 목록으로 올리지 않으므로 파일 크기와 관계없이 메모리에는 파이프라인 큐에 든 배치만 남습니다.
+     *
+     * @return 성공 여부 (실패는 진행 상황의 오류로 기록)
+     */
+    private boolean ingestFile(SourceFile file, IngestionManifest manifest, RefinementCache refinementCache,
+                               boolean checkUntrackedData) throws InterruptedException {
+        String source = file.name();
+        boolean changed = false;
         try {
-            // 3. PDF 로드
-            List<Document> rawDocuments = loadRawDocuments(fileName);
+            Map<Integer, IngestionManifest.PageEntry> previousPages = manifest.pages(source);
+            if (previousPages.isEmpty() && checkUntrackedData && hasExistingData(source)) {
+                logger.info("Existing data for '{}' has no ingestion manifest. Re-ingesting all pages.", source);
+                deleteSource(source);
+                changed = true;
+            }
 
-            // 4. Gemini를 이용한 문서 전처리 (Batch)
-            List<Document> cleanedDocuments = refineDocumentsWithGemini(rawDocuments);
+            Set<Integer> currentPages = new HashSet<>();
+            Set<Integer> rewrittenPages = new HashSet<>();
+            List<String> unchangedChunkIds = new ArrayList<>();
+            IngestionPipeline.Result result;
+            logger.info("Reading PDF file '{}'...", source);
+            try (PdfPageReader reader = metrics.timeChecked(RagMetrics.PIPELINE_INGESTION, "load", () ->
+                    PdfPageReader.open(file.resource()))) {
+                // 바뀐 페이지만 로드 → Gemini 정제 → 분할 → 임베딩/저장 파이프라인으로 처리
+                result = createPipeline().run(
+                        changedPages(reader, source, manifest, currentPages, rewrittenPages, unchangedChunkIds),
+                        batch -> refineBatch(batch, refinementCache),
+                        page -> splitAndTrackPage(page, source, manifest),
+                        batch -> writeBatch(batch, manifest));
+            }
+            changed |= result.pages() > 0;
+
+            // 문서에서 사라진 페이지의 청크 삭제 (파일을 끝까지 읽은 뒤에만 알 수 있음)
+            int removedPages = 0;
+            for (var entry : previousPages.entrySet()) {
+                if (currentPages.contains(entry.getKey())) continue;
+                deleteChunks(entry.getValue().allIds());
+                manifest.removePage(source, entry.getKey());
+                removedPages++;
+            }
+            changed |= removedPages > 0;
 
-            // 5. 문서 분할 및 메타데이터 추가
-            List<Document> processedDocuments = splitAndEnrichDocuments(cleanedDocuments, fileName);
+            // 바뀌지 않은 이웃 페이지의 경계 청크가 바뀐 페이지의 이전 청크를 가리키지 않도록 다시 연결
+            relinkNeighbors(source, manifest.staleNeighborLinks(source, previousPages, rewrittenPages));
 
-            // 6. Vector Store에 저장
-            ingestToVectorStore(processedDocuments);
+            // 이전 실행이 BM25 스냅샷을 쓰기 전에 중단되었다면, 건너뛴 페이지의 청크를 저장소에서 읽어 색인에 채움
+            restoreKeywordIndex(unchangedChunkIds);
 
-            logger.info("Ingestion completed successfully for file: {}", fileName);
+            logger.info("Ingested '{}': {} new or changed pages, {} chunks ({} unchanged, {} removed)",
+                    source, result.pages(), result.chunks(), currentPages.size() - result.pages(), removedPages);
+            return true;
+        } catch (InterruptedException e) {
+            throw e;
         } catch (Exception e) {
-            logger.error("Error during ingestion process: {}", e.getMessage(), e);
+            logger.error("Error during ingestion of '{}': {}", source, e.getMessage(), e);
+            progress.recordError(source + ": " + e.getClass().getSimpleName() + ": " + e.getMessage());
+            changed = true;
+            return false;
+        } finally {
+            manifest.save();
+            // 해당 source를 참조한 캐시 답변은 더 이상 유효하지 않음
+            if (changed) answerCache.invalidateSource(source);
+        }
+    }
+
+    /**
+     * 읽은 페이지에 해시를 붙이고, 매니페스트에 같은 해시로 온전히 정제되어 기록된 페이지는 건너뛰는 반복자.
+     * 파이프라인의 load 단계(한 스레드)에서만 호출되며, currentPages/rewrittenPages/unchangedChunkIds는 파이프라인이 끝난 뒤에 읽습니다.
+     */
+    private Iterator<Document> changedPages(PdfPageReader reader, String source, IngestionManifest manifest,
+                                            Set<Integer> currentPages, Set<Integer> rewrittenPages,
+                                            List<String> unchangedChunkIds) {
+        return new Iterator<>() {
+            private Document next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && reader.hasNext()) {
+                    Document page = reader.next();
+                    int pageNumber = (int) page.getMetadata().get("page_number");
+                    String hash = IngestionManifest.hash(page.getText());
+                    page.getMetadata().put("content_hash", hash);
+                    currentPages.add(pageNumber);
+
+                    var entry = manifest.page(source, pageNumber);
+                    if (entry == null || !entry.isCurrent(hash)) {
+                        progress.pagesQueued(1);
+                        rewrittenPages.add(pageNumber);
+                        next = page;
+                    } else {
+                        progress.pagesSkipped(1);
+                        unchangedChunkIds.addAll(entry.chunkIds());
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Document next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                Document page = next;
+                next = null;
+                return page;
+            }
+        };
+    }
+
+    /**
+     * directory가 비어 있으면 클래스패스의 parenting_guide.pdf 하나, 지정되어 있으면 하위 폴더까지의 모든 PDF.
+     * source 이름은 폴더 기준 상대 경로('/' 구분)이므로 다른 폴더의 같은 파일명도 구분됩니다.
+     */
+    private List<SourceFile> listSourceFiles() throws IOException {
+        if (!StringUtils.hasText(directory)) {
+            return pdfResource.exists() ? List.of(new SourceFile(pdfResource.getFilename(), pdfResource)) : List.of();
+        }
+        Path root = Path.of(directory);
+        if (!Files.isDirectory(root)) throw new NoSuchFileException(directory);
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".pdf"))
+                    .sorted()
+                    .map(path -> new SourceFile(root.relativize(path).toString().replace(File.separatorChar, '/'),
+                            new FileSystemResource(path)))
+                    .toList();
         }
     }
 
+    public IngestionProgress.Status status() {
+        return progress.status();
+    }
+
     // --- Helper Methods ---
 
+    @PostConstruct
+    void initRateLimiters() {
+        // 버스트는 동시 작업자 수만큼: 시작 직후 모든 작업자가 한 번씩은 바로 호출할 수 있음
+        refineCaller = new RateLimitedCaller("refine",
+                new TokenBucket(refineRequestsPerMinute, refineConcurrency),
+                maxRetries, initialBackoff, maxBackoff);
+        upsertCaller = new RateLimitedCaller("upsert",
+                new TokenBucket(upsertChunksPerMinute, upsertBatchSize * upsertConcurrency),
+                maxRetries, initialBackoff, maxBackoff);
+    }
+
+    private IngestionPipeline createPipeline() {
+        return new IngestionPipeline(new IngestionPipeline.Settings(queueCapacity,
+                refineBatchSize, refineConcurrency, upsertBatchSize, upsertConcurrency),
+                new RefineBatchPlanner(refineBatchSize, refineMaxInputTokens, refineMaxOutputTokens,
+                        TOKEN_ENCODING::countTokens));
+    }
+
     private boolean hasExistingData(String fileName) {
         FilterExpressionBuilder filterExpressionBuilder = new FilterExpressionBuilder();
         Filter.Expression filter = filterExpressionBuilder.eq("source", fileName).build();
@@ -88,60 +442,241 @@ public class IngestionService implements CommandLineRunner {
         return !existingDocs.isEmpty();
     }
 
-    private List<Document> loadRawDocuments(String fileName) {
-        logger.info("Loading PDF file '{}'...", fileName);
-        PagePdfDocumentReader pdfReader = new PagePdfDocumentReader(pdfResource);
-        return pdfReader.get();
+    private void deleteSource(String fileName) {
+        Filter.Expression filter = new FilterExpressionBuilder().eq("source", fileName).build();
+        vectorStore.delete(filter);
+        keywordSearchService.removeSource(fileName);
     }
 
-    private List<Document> refineDocumentsWithGemini(List<Document> rawDocuments) throws InterruptedException {
-        int totalDocs = rawDocuments.size();
-        int batchSize = 5;
-        List<Document> cleanedDocuments = new ArrayList<>();
-
-        logger.info("Starting Gemini refinement for {} pages (Batch Size: {})...", totalDocs, batchSize);
-
-        for (int i = 0; i < totalDocs; i += batchSize) {
-            int end = Math.min(i + batchSize, totalDocs);
-            List<Document> batchDocs = rawDocuments.subList(i, end);
-            List<String> batchTexts = batchDocs.stream().map(Document::getText).toList();
+    private void deleteChunks(List<String> chunkIds) {
+        if (chunkIds.isEmpty()) return;
+        vectorStore.delete(chunkIds);
+        chunkLookup.evict(chunkIds);
+        keywordSearchService.remove(chunkIds);
+    }
 
-            logger.info("Refining batch {}-{} / {}", i + 1, end, totalDocs);
+    /**
+     * 이웃 페이지의 경계 청크를 저장소에서 읽어 앞뒤 청크 ID만 고쳐 다시 기록합니다.
+     * VectorStore에는 메타데이터만 바꾸는 연산이 없으므로 청크를 다시 기록하며, 본문이 같으므로 임베딩도 같습니다.
+     * 한 청크뿐인 페이지는 앞뒤 연결이 함께 바뀔 수 있으므로 청크별로 모아 한 번에 기록합니다.
+     */
+    private void relinkNeighbors(String source, List<IngestionManifest.NeighborLink> links) throws Exception {
+        if (links.isEmpty()) return;
+
+        Map<String, Document> stored = chunkLookup.findByIds(
+                links.stream().map(IngestionManifest.NeighborLink::chunkId).distinct().toList());
+        Map<String, Document> updated = new LinkedHashMap<>();
+        for (var link : links) {
+            Document chunk = updated.getOrDefault(link.chunkId(), stored.get(link.chunkId()));
+            if (chunk == null || Objects.equals(chunk.getMetadata().get(link.field()), link.targetId())) continue;
+
+            Map<String, Object> metadata = new HashMap<>(chunk.getMetadata());
+            if (link.targetId() != null) {
+                metadata.put(link.field(), link.targetId());
+            } else {
+                metadata.remove(link.field());
+            }
+            updated.put(chunk.getId(), new Document(chunk.getId(), chunk.getText(), metadata));
+        }
+        if (updated.isEmpty()) return;
+
+        List<Document> documents = new ArrayList<>(updated.values());
+        upsertCaller.run(documents.size(), () ->
+                metrics.time(RagMetrics.PIPELINE_INGESTION, "upsert", () -> vectorStore.accept(documents)));
+        chunkLookup.evict(updated.keySet());
+        keywordSearchService.index(documents);
+        logger.info("Re-linked {} neighbor chunks of changed pages in '{}'.", documents.size(), source);
+    }
 
-            // 1. 수정된 refineBatchText 호출 (List<RefinedResult> 반환)
-            List<RefinedResult> refinedResults = refineBatchText(batchTexts);
+    private void restoreKeywordIndex(List<String> chunkIds) {
+        List<String> missing = keywordSearchService.missing(chunkIds);
+        if (missing.isEmpty()) return;
 
-            // 2. 결과 매핑
-            for (int j = 0; j < batchDocs.size(); j++) {
-                Document originalDoc = batchDocs.get(j);
-                RefinedResult result = (j < refinedResults.size()) ? refinedResults.get(j) : null;
+        var restored = chunkLookup.findByIds(missing).values();
+        keywordSearchService.index(restored);
+        logger.info("Restored {} of {} chunks missing from the BM25 index.", restored.size(), missing.size());
+    }
 
-                String text;
-                var metadata = originalDoc.getMetadata(); // 기존 page_number 등 유지
+    /**
+     * 페이지 배치를 정제합니다. 정제 결과 캐시에 있는 페이지는 그대로 쓰고, 나머지만 모아 Gemini를 호출합니다.
+     * 응답은 페이지별로 검증하여 통과한 페이지만 캐시하고, 실패한 페이지만 더 작은 배치로 다시 보냅니다({@link #refinePages}).
+     * 한도 초과(429) 예외는 refineCaller가 백오프 후 재시도합니다. (테스트에서 호출하므로 package-private)
+     */
+    List<Document> refineBatch(List<Document> batchDocs, RefinementCache refinementCache) throws Exception {
+        List<RefinedResult> refinedResults = new ArrayList<>(Collections.nCopies(batchDocs.size(), null));
+        List<Integer> misses = new ArrayList<>();
+        // 캐시된 결과는 검증을 통과한 것만 기록되어 있음
+        Set<Integer> validated = new HashSet<>();
+
+        // 1. 캐시 조회 (키: 페이지 원문 해시 + 프롬프트 버전)
+        for (int j = 0; j < batchDocs.size(); j++) {
+            var cached = refinementCache.get(refinementKey(batchDocs.get(j)));
+            if (cached.isPresent()) {
+                refinedResults.set(j, objectMapper.readValue(cached.get(), RefinedResult.class));
+                validated.add(j);
+            } else {
+                misses.add(j);
+            }
+        }
 
-                if (result != null && result.refined_text() != null && !result.refined_text().isBlank()) {
-                    // 성공 케이스: 정제된 텍스트와 메타데이터 주입
-                    text = result.refined_text();
-                    metadata.put("section_title", result.section_title());
-                    metadata.put("keywords", result.keywords()); // List<String> 형태로 저장
-                } else {
-                    // 실패 케이스 (Fallback): 원본 텍스트 공백 제거 후 기본값 설정
-                    logger.warn("Batch result mapping failed for index {}. Using fallback.", j);
-                    text = originalDoc.getText().replaceAll("\\s+", " ").trim();
-                    metadata.put("section_title", "");
-                    metadata.put("keywords", List.of());
+        metrics.recordRefinedPages("cached", batchDocs.size() - misses.size());
+
+        // 2. 캐시에 없는 페이지만 Gemini로 정제하고, 검증을 통과한 페이지만 캐시에 기록
+        if (!misses.isEmpty()) {
+            List<String> batchTexts = misses.stream().map(j -> batchDocs.get(j).getText()).toList();
+            List<RefinedResult> fresh = refinePages(batchTexts);
+
+            for (int k = 0; k < misses.size(); k++) {
+                RefinedResult result = fresh.get(k);
+                if (result == null) continue;
+                refinedResults.set(misses.get(k), result);
+                // 검증을 통과하지 못하고 빈 값만 채운 결과는 다음 수집 때 다시 정제하도록 캐시하지 않음
+                if (isValid(result, batchTexts.get(k))) {
+                    validated.add(misses.get(k));
+                    refinementCache.put(refinementKey(batchDocs.get(misses.get(k))), objectMapper.writeValueAsString(result));
                 }
+            }
+            long refined = fresh.stream().filter(Objects::nonNull).count();
+            metrics.recordRefinedPages("refined", (int) refined);
+            metrics.recordRefinedPages("fallback", misses.size() - (int) refined);
+        }
 
-                cleanedDocuments.add(new Document(text, metadata));
+        // 3. 결과 매핑
+        List<Document> cleanedDocuments = new ArrayList<>(batchDocs.size());
+        for (int j = 0; j < batchDocs.size(); j++) {
+            Document originalDoc = batchDocs.get(j);
+            RefinedResult result = refinedResults.get(j);
+
+            String text;
+            var metadata = originalDoc.getMetadata(); // 기존 page_number 등 유지
+
+            if (isUsable(result)) {
+                // 성공 케이스: 정제된 텍스트와 메타데이터 주입
+                text = result.refined_text();
+                metadata.put("section_title", result.section_title());
+                metadata.put("keywords", result.keywords()); // List<String> 형태로 저장
+                // 예상 질문은 분할 후 청크에 배정되고, 기록 직전에 별도 벡터로 펼쳐짐
+                metadata.put(SyntheticQuestions.PENDING, result.questions() != null ? result.questions() : List.of());
+            } else {
+                // 실패 케이스 (Fallback): 원본 텍스트 공백 제거 후 기본값 설정
+                logger.warn("Batch result mapping failed for page {}. Using fallback.",
+                        originalDoc.getMetadata().get("page_number"));
+                text = originalDoc.getText().replaceAll("\\s+", " ").trim();
+                metadata.put("section_title", "");
+                metadata.put("keywords", List.of());
+                metadata.put(SyntheticQuestions.PENDING, List.of());
             }
 
-            // Rate Limit 준수 (Gemini API 안정성을 위해 배치 간 휴식)
-            Thread.sleep(1000);
+            // 원문 fallback이거나 빈 값을 채운 결과는 매니페스트에 표시해 두고 다음 수집 때 다시 정제
+            if (!validated.contains(j)) metadata.put(REFINE_DEGRADED, true);
+            cleanedDocuments.add(new Document(text, metadata));
         }
         return cleanedDocuments;
     }
 
-    private List<RefinedResult> refineBatchText(List<String> originalTexts) {
+    private static boolean isUsable(RefinedResult result) {
+        return result != null && result.refined_text() != null && !result.refined_text().isBlank();
+    }
+
+    /**
+     * 새로 정제한 결과가 검색 품질에 필요한 값을 모두 갖췄는지 페이지별로 확인합니다.
+     * 본문이 원문보다 지나치게 짧으면 요약되었거나 출력이 잘린 것으로 봅니다.
+     */
+    static boolean isValid(RefinedResult result, String original) {
+        if (!hasCompleteText(result, original)) return false;
+        if (result.section_title() == null || result.section_title().isBlank()) return false;
+        return result.keywords() != null && !result.keywords().isEmpty();
+    }
+
+    /**
+     * 본문이 비어 있지 않고 원문 대비 길이 비율을 만족하는지 확인합니다. 이를 통과하지 못한 본문은 일부 내용이 빠졌을 수 있으므로
+     * 메타데이터가 비어 있는 결과로도 남기지 않고 원문 fallback을 씁니다.
+     */
+    private static boolean hasCompleteText(RefinedResult result, String original) {
+        if (!isUsable(result)) return false;
+        int originalChars = nonWhitespaceLength(original);
+        return originalChars < MIN_RATIO_CHECK_CHARS
+                || nonWhitespaceLength(result.refined_text()) >= originalChars * MIN_REFINED_RATIO;
+    }
+
+    private static int nonWhitespaceLength(String text) {
+        return text == null ? 0 : (int) text.codePoints().filter(c -> !Character.isWhitespace(c)).count();
+    }
+
+    /**
+     * 페이지들을 정제하여 같은 순서, 같은 개수로 반환합니다. 정제하지 못한 페이지는 null입니다.
+     */
+    private List<RefinedResult> refinePages(List<String> texts) throws Exception {
+        RefinedResult[] results = new RefinedResult[texts.size()];
+        refineInto(texts, IntStream.range(0, texts.size()).boxed().toList(), results);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * positions의 페이지를 한 번의 호출로 정제하고 페이지별로 검증합니다. 일부만 실패하면 실패한 페이지만 다시 묶어 보내고,
+     * 모두 실패하면 반으로 나눠 보냅니다. 본문은 온전하고 제목/키워드만 빠진 결과는 빈 값을 채워 남겨 두고 이후 재시도 결과로
+     * 바꾸므로, 한 페이지씩 보내도 실패하면 마지막으로 받은 쓸 만한 결과를 씁니다. 온전한 본문을 한 번도 받지 못한 페이지는 null로 둡니다
+     * (refineBatch에서 원문 fallback).
+     * 호출 자체가 실패한 경우(네트워크 오류 등)는 나눠 보내도 같을 가능성이 높으므로 다시 보내지 않습니다.
+     */
+    private void refineInto(List<String> texts, List<Integer> positions, RefinedResult[] results) throws Exception {
+        List<String> batch = positions.stream().map(texts::get).toList();
+        List<RefinedResult> fresh;
+        try {
+            // 한도 대기 시간은 제외하고 Gemini 호출 시간만 기록
+            fresh = refineCaller.call(1, () ->
+                    metrics.timeChecked(RagMetrics.PIPELINE_INGESTION, "refine", () -> refineBatchText(batch)));
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            if (RateLimitedCaller.isRateLimited(e)) throw e;
+            logger.error("Gemini refinement failed", e);
+            progress.recordError("Gemini refinement failed (raw text used): " + e.getMessage());
+            return;
+        }
+
+        List<Integer> failed = new ArrayList<>();
+        for (int k = 0; k < positions.size(); k++) {
+            RefinedResult result = fresh.get(k);
+            if (isValid(result, batch.get(k))) {
+                results[positions.get(k)] = result;
+            } else {
+                if (hasCompleteText(result, batch.get(k))) results[positions.get(k)] = withDefaults(result);
+                failed.add(positions.get(k));
+            }
+        }
+        if (failed.isEmpty() || positions.size() == 1) return;
+
+        logger.warn("Refinement returned {} invalid pages out of {}. Retrying them in smaller batches.",
+                failed.size(), positions.size());
+        metrics.recordRefinedPages("retried", failed.size());
+        if (failed.size() < positions.size()) {
+            refineInto(texts, failed, results);
+        } else {
+            int half = failed.size() / 2;
+            refineInto(texts, failed.subList(0, half), results);
+            refineInto(texts, failed.subList(half, failed.size()), results);
+        }
+    }
+
+    private static RefinedResult withDefaults(RefinedResult result) {
+        return new RefinedResult(result.refined_text(),
+                result.section_title() != null ? result.section_title() : "",
+                result.keywords() != null ? result.keywords() : List.of(),
+                result.questions() != null ? result.questions() : List.of());
+    }
+
+    private static String refinementKey(Document page) {
+        Object hash = page.getMetadata().get("content_hash");
+        String pageHash = hash != null ? hash.toString() : IngestionManifest.hash(page.getText());
+        return pageHash + ":v" + REFINE_PROMPT_VERSION;
+    }
+
+    /**
+     * 페이지들을 한 번의 Gemini 호출로 정제합니다. 응답은 원소별로 읽어 입력과 같은 순서, 같은 개수로 반환하며
+     * 읽지 못한 원소는 null입니다. 호출 자체의 예외는 그대로 전달합니다.
+     */
+    private List<RefinedResult> refineBatchText(List<String> originalTexts) throws Exception {
         String systemPrompt = """
                 당신은 RAG(Retrieval-Augmented Generation) 시스템의 고성능 검색 품질을 보장하는 데이터 가공 전문가입니다.\s
                 제공된 텍스트는 PDF에서 추출되어 레이아웃이 깨지거나 공백이 많습니다. 이를 검색 엔진이 가장 선호하는 형태로 재구성하세요.
@@ -161,95 +696,152 @@ public class IngestionService implements CommandLineRunner {
                    - 사용자가 이 내용을 찾기 위해 검색창에 입력할 법한 '질문형 키워드'와 '핵심 명사'를 섞어서 5개 추출하세요.
                    - 예: ["아기 걸음마 시기", "걸음마 훈련법", "아기 엉덩방아", "돌아기 발달", "걸음마 보조기"]
                 
+                4. 예상 질문 생성 (questions):
+                   - 초보 아빠가 이 페이지의 내용을 찾으며 실제로 물어볼 법한 질문을 문단마다 1~2개, 페이지당 최대 6개 만드세요.
+                   - 구어체 한 문장으로, 페이지에 답이 있는 질문만 만드세요. (예: "아기가 언제부터 걸어요?", "걸음마 보조기 써도 돼?")
+                   - 목차, 표지처럼 답할 내용이 없는 페이지는 빈 배열([])로 두세요.
+                
                 [데이터 보존 원칙]
                 - 원문의 수치(g, ml, 개월 수), 고유 명사, 전문 용어는 절대로 생략하거나 수정하지 말고 그대로 유지하세요.
                 
                 [출력 규칙 - 필독]
+                - 입력은 {"index": 번호, "text": 원문} 객체의 배열입니다.
                 - 오직 순수한 JSON 배열 형식으로만 응답하세요. (Markdown 블록 ```json 사용 금지)
-                - 입력된 배열의 개수와 출력되는 배열의 개수가 반드시 일치해야 합니다.
+                - 입력 객체마다 하나씩 응답하고, 각 응답 객체의 "index"에 해당 입력의 index를 그대로 적으세요.
                 
                 [응답 포맷]
                 [
                   {
+                    "index": 0,
                     "refined_text": "정제된 문장",
                     "section_title": "구체적인 제목",
-                    "keywords": ["키워드1", "키워드2", "키워드3", "키워드4", "키워드5"]
+                    "keywords": ["키워드1", "키워드2", "키워드3", "키워드4", "키워드5"],
+                    "questions": ["예상 질문1", "예상 질문2"]
                   }
                 ]
         """;
 
-        try {
-            String jsonInput = objectMapper.writeValueAsString(originalTexts);
-            String response = chatClient.prompt()
-                    .system(systemPrompt)
-                    .user(jsonInput)
-                    .call()
-                    .content();
-
-            String cleanJson = response.replaceAll("```json", "").replaceAll("```", "").trim();
-            // List<RefinedResult> 형태로 파싱
-            return objectMapper.readValue(cleanJson, new TypeReference<List<RefinedResult>>() {});
-        } catch (Exception e) {
-            logger.info("Gemini refinement failed: "+e.getMessage());
-            logger.error("Gemini refinement failed", e);
-            return originalTexts.stream().map(t -> new RefinedResult(t, "알 수 없는 섹션", List.of())).toList();
-        }
+        List<Map<String, Object>> input = IntStream.range(0, originalTexts.size())
+                .mapToObj(i -> Map.<String, Object>of(BatchResponseParser.INDEX, i, "text", originalTexts.get(i)))
+                .toList();
+        String response = chatClient.prompt()
+                .advisors(a -> a.param(TokenUsageAdvisor.OPERATION, RagMetrics.OPERATION_REFINE))
+                .system(systemPrompt)
+                .user(objectMapper.writeValueAsString(input))
+                .call()
+                .content();
+
+        return BatchResponseParser.parse(response, originalTexts.size(), RefinedResult.class);
     }
 
-    private List<Document> splitAndEnrichDocuments(List<Document> cleanedDocuments, String fileName) {
-        logger.info("Splitting and Optimizing for text-embedding-004...");
-        // 청크 크기를 약간 키워 문맥 유지력을 높임 (Overlap은 유지)
-        var tokenTextSplitter = new TokenTextSplitter(500, 150, 10, 5000, true);
-        List<Document> processed = new ArrayList<>();
-
-        for (Document doc : cleanedDocuments) {
-            String sectionTitle = (String) doc.getMetadata().getOrDefault("section_title", "");
-            List<String> keywordList = (List<String>) doc.getMetadata().getOrDefault("keywords", List.of());
-            String keywordStr = String.join(", ", keywordList);
-
-            List<Document> chunks = tokenTextSplitter.split(doc);
-
-            for (int i = 0; i < chunks.size(); i++) {
-                Document chunk = chunks.get(i);
-
-                // [개선 포인트 1] 불필요한 라벨("[주제:]", "[키워드:]") 제거
-                // 임베딩 모델이 본연의 의미에 집중할 수 있도록 자연어 형태로 구성합니다.
-                String optimizedText = String.format("""
-                %s
-                핵심 키워드: %s
-                본문: %s
-                """, sectionTitle, keywordStr, chunk.getText()).trim();
-
-                // [개선 포인트 2] 메타데이터는 검색 필터링용으로 별도 저장 (벡터 연산에는 포함 안 됨)
-                chunk.getMetadata().put("source", fileName);
-                chunk.getMetadata().put("section_title", sectionTitle);
-                chunk.getMetadata().put("keywords", keywordList); // 필터링을 위해 리스트 형태로 유지
-                chunk.getMetadata().put("chunk_index", i);
-
-                processed.add(new Document(optimizedText, chunk.getMetadata()));
-            }
+    /**
+     * 정제된 한 페이지를 청크로 나눕니다. 앞뒤 청크 ID(prev_chunk_id/next_chunk_id)는 페이지 경계를 넘어 연결해야 하므로
+     * 페이지 순서를 복원한 파이프라인의 split 단계에서 기록합니다. (src/jmh의 벤치마크에서 호출하므로 package-private)
+     */
+    List<Document> splitAndEnrichPage(Document doc, String fileName) {
+        String sectionTitle = (String) doc.getMetadata().getOrDefault("section_title", "");
+        List<String> keywordList = (List<String>) doc.getMetadata().getOrDefault("keywords", List.of());
+        String keywordStr = String.join(", ", keywordList);
+        Object pageNumber = doc.getMetadata().get("page_number");
+
+        List<Document> chunks = tokenTextSplitter.split(doc);
+        List<Document> processed = new ArrayList<>(chunks.size());
+
+        for (int i = 0; i < chunks.size(); i++) {
+            Document chunk = chunks.get(i);
+
+            // [개선 포인트 1] 불필요한 라벨("[주제:]", "[키워드:]") 제거
+            // 임베딩 모델이 본연의 의미에 집중할 수 있도록 자연어 형태로 구성합니다.
+            String optimizedText = String.format("""
+            %s
+            핵심 키워드: %s
+            본문: %s
+            """, sectionTitle, keywordStr, chunk.getText()).trim();
+
+            // [개선 포인트 2] 메타데이터는 검색 필터링용으로 별도 저장 (벡터 연산에는 포함 안 됨)
+            chunk.getMetadata().put("source", fileName);
+            chunk.getMetadata().put("section_title", sectionTitle);
+            chunk.getMetadata().put("keywords", keywordList); // 필터링을 위해 리스트 형태로 유지
+            chunk.getMetadata().put("chunk_index", i);
+            chunk.getMetadata().remove("content_hash");
+            chunk.getMetadata().remove(REFINE_DEGRADED);
+            chunk.getMetadata().remove(SyntheticQuestions.PENDING);
+
+            // [개선 포인트 3] 파일/페이지/순번으로 결정되는 청크 ID (재수집해도 같은 청크는 같은 ID)
+            String chunkId = chunkId(fileName, pageNumber, i);
+            chunk.getMetadata().put("chunk_id", chunkId);
+
+            processed.add(new Document(chunkId, optimizedText, chunk.getMetadata()));
         }
         return processed;
     }
 
-    private void ingestToVectorStore(List<Document> documents) throws InterruptedException {
-        logger.info("Ingesting {} documents into Vector Store...", documents.size());
-        int batchSize = 5;
-        long delayMillis = 5000;
+    static String chunkId(String fileName, Object pageNumber, int chunkIndex) {
+        String key = fileName + "#" + pageNumber + "#" + chunkIndex;
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+    }
 
-        for (int i = 0; i < documents.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, documents.size());
-            vectorStore.accept(documents.subList(i, end));
-            
-            if (end < documents.size()) {
-                Thread.sleep(delayMillis);
+    /**
+     * 페이지를 분할하고 매니페스트에 등록합니다. 앞뒤 페이지가 이번에 바뀌지 않았다면 파이프라인에서 연결되지 않으므로,
+     * 페이지 경계의 앞뒤 청크 ID는 매니페스트에 기록된 이웃 페이지의 청크로 채웁니다. 반대 방향(이웃 페이지가 이 페이지를
+     * 가리키는 ID)은 파일을 끝까지 처리한 뒤 {@link #relinkNeighbors}에서 고칩니다.
+     * 페이지의 예상 질문은 청크에 배정만 해 두고(질문 벡터는 이웃 연결 대상이 아님), writeBatch에서 청크와 함께 기록합니다.
+     */
+    private List<Document> splitAndTrackPage(Document page, String fileName, IngestionManifest manifest) {
+        List<Document> chunks = metrics.time(RagMetrics.PIPELINE_INGESTION, "split", () ->
+                splitAndEnrichPage(page, fileName));
+        int pageNumber = (int) page.getMetadata().get("page_number");
+        @SuppressWarnings("unchecked")
+        List<String> questions = (List<String>) page.getMetadata().getOrDefault(SyntheticQuestions.PENDING, List.of());
+        SyntheticQuestions.assign(chunks, questions);
+
+        if (!chunks.isEmpty()) {
+            var previousPage = manifest.page(fileName, pageNumber - 1);
+            if (previousPage != null && !previousPage.chunkIds().isEmpty()) {
+                chunks.get(0).getMetadata().put("prev_chunk_id", previousPage.chunkIds().getLast());
+            }
+            var nextPage = manifest.page(fileName, pageNumber + 1);
+            if (nextPage != null && !nextPage.chunkIds().isEmpty()) {
+                chunks.getLast().getMetadata().put("next_chunk_id", nextPage.chunkIds().getFirst());
             }
         }
+
+        var completed = manifest.beginPage(fileName, pageNumber, (String) page.getMetadata().get("content_hash"),
+                chunks.stream().map(Document::getId).toList(), SyntheticQuestions.questionIds(chunks),
+                Boolean.TRUE.equals(page.getMetadata().get(REFINE_DEGRADED)));
+        if (completed != null) {
+            deleteChunks(completed.staleChunkIds());
+            progress.pagesCompleted(1);
+        }
+        return chunks;
+    }
+
+    private void writeBatch(List<Document> batch, IngestionManifest manifest) throws Exception {
+        List<String> ids = batch.stream().map(Document::getId).toList();
+        // 청크에 배정된 예상 질문을 별도 벡터로 함께 기록 (BM25 색인과 완료 판단은 청크만)
+        List<Document> documents = SyntheticQuestions.withQuestions(batch);
+        upsertCaller.run(documents.size(), () ->
+                metrics.time(RagMetrics.PIPELINE_INGESTION, "upsert", () -> vectorStore.accept(documents)));
+        chunkLookup.evict(ids);
+        keywordSearchService.index(batch);
+
+        progress.chunksUpserted(batch.size());
+
+        // 모든 청크가 기록된 페이지를 완료 처리하고, 이전보다 청크 수가 줄어 남은 청크는 삭제
+        var completedPages = manifest.chunksWritten(ids);
+        for (var completed : completedPages) {
+            deleteChunks(completed.staleChunkIds());
+        }
+        if (!completedPages.isEmpty()) {
+            progress.pagesCompleted(completedPages.size());
+            manifest.save(); // 체크포인트: 재시작 시 여기까지 완료된 페이지는 건너뜀
+        }
     }
 
     public record RefinedResult(
             String refined_text,
             String section_title,
-            List<String> keywords
+            List<String> keywords,
+            List<String> questions
     ) {}
 }
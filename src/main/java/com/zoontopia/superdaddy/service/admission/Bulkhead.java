@@ -0,0 +1,130 @@
+package com.zoontopia.superdaddy.service.admission;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 외부 의존성(Gemini, Qdrant)에 동시에 보내는 호출 수를 제한하는 격벽입니다.
+ * 요청 스레드가 가상 스레드라 스레드 풀이 더 이상 동시성을 막아 주지 않으므로, 실제 호출 수는 여기서 제한합니다.
+ *
+ * <p>슬롯이 없으면 최대 maxQueue개까지 요청의 기한(deadline)까지만 기다리고,
+ * 대기열이 가득 찼거나 기한이 지나면 {@link BulkheadRejectedException}으로 즉시 거절합니다.
+ * 거절 시 알려 주는 재시도 간격은 최근 슬롯 점유 시간의 이동 평균과 대기열 길이로 추정합니다.</p>
+ */
+public class Bulkhead {
+
+    private static final Duration MIN_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_AFTER = Duration.ofSeconds(30);
+    // 슬롯 점유 시간 이동 평균의 가중치 (최근 호출 비중)
+    private static final double HOLD_TIME_ALPHA = 0.2;
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongSupplier nanoClock;
+
+    private volatile double averageHoldNanos;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue) {
+        this(name, maxConcurrent, maxQueue, System::nanoTime);
+    }
+
+    Bulkhead(String name, int maxConcurrent, int maxQueue, LongSupplier nanoClock) {
+        if (maxConcurrent <= 0 || maxQueue < 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive and maxQueue non-negative");
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 슬롯을 얻습니다. 호출이 비동기로 끝나는 경우(스트리밍 생성 등) 완료/실패/취소 시 반드시 close()해야 합니다.
+     */
+    public Permit acquire(Instant deadline) {
+        if (permits.tryAcquire()) return new Permit();
+
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            throw reject(BulkheadRejectedException.Reason.QUEUE_FULL);
+        }
+        try {
+            long waitNanos = Duration.between(Instant.now(), deadline).toNanos();
+            if (waitNanos <= 0 || !permits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+                throw reject(BulkheadRejectedException.Reason.DEADLINE_EXCEEDED);
+            }
+            return new Permit();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject(BulkheadRejectedException.Reason.DEADLINE_EXCEEDED);
+        } catch (ArithmeticException e) {
+            // 기한이 사실상 없음 (Instant.MAX 등)
+            permits.acquireUninterruptibly();
+            return new Permit();
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * 대기 중인 요청들이 모두 처리되기까지 걸릴 것으로 보이는 시간 (Retry-After 헤더 값)
+     */
+    public Duration retryAfter() {
+        double waves = (double) (queued.get() + 1) / maxConcurrent;
+        long estimate = (long) Math.ceil(averageHoldNanos * waves);
+        Duration retryAfter = Duration.ofNanos(estimate);
+        if (retryAfter.compareTo(MIN_RETRY_AFTER) < 0) return MIN_RETRY_AFTER;
+        if (retryAfter.compareTo(MAX_RETRY_AFTER) > 0) return MAX_RETRY_AFTER;
+        return retryAfter;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+
+    private BulkheadRejectedException reject(BulkheadRejectedException.Reason reason) {
+        return new BulkheadRejectedException(name, reason, retryAfter());
+    }
+
+    private void recordHoldTime(long nanos) {
+        double previous = averageHoldNanos;
+        averageHoldNanos = previous == 0 ? nanos : previous + HOLD_TIME_ALPHA * (nanos - previous);
+    }
+
+    /**
+     * 얻은 슬롯. 여러 번 닫아도 한 번만 반환됩니다.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final long acquiredAt = nanoClock.getAsLong();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                recordHoldTime(nanoClock.getAsLong() - acquiredAt);
+                permits.release();
+            }
+        }
+    }
+}
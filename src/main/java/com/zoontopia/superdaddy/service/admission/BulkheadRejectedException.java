@@ -0,0 +1,40 @@
+package com.zoontopia.superdaddy.service.admission;
+
+import java.time.Duration;
+
+/**
+ * 격벽이 호출을 받아들이지 못했을 때 던집니다. 컨트롤러에서 503 + Retry-After로 변환됩니다.
+ */
+public class BulkheadRejectedException extends RuntimeException {
+
+    public enum Reason {
+        /** 대기열이 가득 참 (대기 없이 즉시 거절) */
+        QUEUE_FULL,
+        /** 요청 기한 안에 슬롯을 얻지 못함 */
+        DEADLINE_EXCEEDED
+    }
+
+    private final String bulkhead;
+    private final Reason reason;
+    private final Duration retryAfter;
+
+    public BulkheadRejectedException(String bulkhead, Reason reason, Duration retryAfter) {
+        super(String.format("[%s] bulkhead rejected call: %s (retry after %ds)",
+                bulkhead, reason, retryAfter.toSeconds()));
+        this.bulkhead = bulkhead;
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getBulkhead() {
+        return bulkhead;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,104 @@
+package com.zoontopia.superdaddy.service.admission;
+
+import com.zoontopia.superdaddy.service.metrics.RagMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * 채팅 요청의 입장 제어와 Gemini/Qdrant 호출 격벽입니다.
+ *
+ * <p>요청은 처리를 시작하기 전에 chat 격벽에서 슬롯을 얻어 응답이 끝날 때까지 점유합니다. 슬롯이 없으면 도착 시각 + queue-timeout(요청 기한)까지
+ * 대기열에서 기다리고, 대기열이 가득 찼거나 기한이 지나면 곧바로 BulkheadRejectedException(컨트롤러에서 503 + Retry-After)으로 거절됩니다.
+ * 순간적으로 요청이 몰려도 처리 중인 요청은 정해진 동시성 안에서 계속 진행되고, 넘치는 요청이 오래 붙잡혀 있다가 함께 시간 초과되지 않습니다.
+ * 스트리밍 응답은 이벤트를 보내기 시작한 뒤에는 상태 코드를 바꿀 수 없으므로 입장은 항상 응답 시작 전에 이루어집니다.</p>
+ *
+ * <p>입장한 요청 안에서는 Gemini(임베딩, LLM 리랭킹, 답변 생성)와 Qdrant(벡터 검색, 이웃 청크 조회) 호출이 각자의 격벽으로 한 번 더 제한됩니다.
+ * 이 대기 역시 요청 기한을 넘지 않습니다.</p>
+ */
+@Component
+public class ChatAdmission {
+
+    public static final String OVERLOADED_MESSAGE = "지금 질문이 많이 몰려 답변을 드리기 어려워요. 잠시 후 다시 시도해 주세요.";
+
+    private final Bulkhead requests;
+    private final Bulkhead gemini;
+    private final Bulkhead qdrant;
+    private final Duration queueTimeout;
+    private final RagMetrics metrics;
+
+    @Autowired
+    public ChatAdmission(@Value("${super-daddy.admission.max-concurrent:32}") int maxConcurrent,
+                         @Value("${super-daddy.admission.max-queue:64}") int maxQueue,
+                         @Value("${super-daddy.admission.queue-timeout:5s}") Duration queueTimeout,
+                         @Value("${super-daddy.admission.gemini.max-concurrent:16}") int geminiMaxConcurrent,
+                         @Value("${super-daddy.admission.qdrant.max-concurrent:32}") int qdrantMaxConcurrent,
+                         RagMetrics metrics) {
+        // 의존성 격벽을 기다리는 요청 수는 입장한 요청 수를 넘을 수 없으므로 대기열 크기로는 거절하지 않음 (기한으로만 거절)
+        this(new Bulkhead("chat", maxConcurrent, maxQueue),
+                new Bulkhead("gemini", geminiMaxConcurrent, maxConcurrent),
+                new Bulkhead("qdrant", qdrantMaxConcurrent, maxConcurrent),
+                queueTimeout, metrics);
+    }
+
+    public ChatAdmission(Bulkhead requests, Bulkhead gemini, Bulkhead qdrant, Duration queueTimeout, RagMetrics metrics) {
+        this.requests = requests;
+        this.gemini = gemini;
+        this.qdrant = qdrant;
+        this.queueTimeout = queueTimeout;
+        this.metrics = metrics;
+        metrics.registerBulkhead(requests);
+        metrics.registerBulkhead(gemini);
+        metrics.registerBulkhead(qdrant);
+    }
+
+    /**
+     * 요청을 입장시킵니다. 반환된 Ticket은 응답이 끝날 때(스트리밍은 완료/실패/취소 시) 닫아야 합니다.
+     */
+    public Ticket admit() {
+        Instant deadline = Instant.now().plus(queueTimeout);
+        return new Ticket(deadline, acquire(requests, deadline));
+    }
+
+    public Bulkhead.Permit acquireGemini(Instant deadline) {
+        return acquire(gemini, deadline);
+    }
+
+    public <T> T gemini(Instant deadline, Supplier<T> call) {
+        return call(gemini, deadline, call);
+    }
+
+    public <T> T qdrant(Instant deadline, Supplier<T> call) {
+        return call(qdrant, deadline, call);
+    }
+
+    private <T> T call(Bulkhead bulkhead, Instant deadline, Supplier<T> call) {
+        try (Bulkhead.Permit ignored = acquire(bulkhead, deadline)) {
+            return call.get();
+        }
+    }
+
+    private Bulkhead.Permit acquire(Bulkhead bulkhead, Instant deadline) {
+        try {
+            return bulkhead.acquire(deadline);
+        } catch (BulkheadRejectedException e) {
+            metrics.recordRejected(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 입장한 요청의 기한과 chat 격벽 슬롯
+     */
+    public record Ticket(Instant deadline, Bulkhead.Permit permit) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            permit.close();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.zoontopia.superdaddy.service.budget;
+
+/**
+ * 지연 예산이 부족해 요청 처리 중 적용한 품질 저하 단계입니다. 응답(JSON의 degradations, 스트리밍의 degraded 이벤트)에 code로 기록됩니다.
+ */
+public enum Degradation {
+
+    /** 벡터 검색이 제한 시간 안에 끝나지 않아 BM25 키워드 검색 결과만 사용 */
+    SKIPPED_VECTOR_SEARCH("skipped_vector_search", true),
+    /** 벡터 검색이 늦어 같은 검색을 한 번 더 보냈음 (먼저 끝난 결과 사용, 답변 품질에는 영향 없음) */
+    HEDGED_VECTOR_SEARCH("hedged_vector_search", false),
+    /** LLM 리랭킹을 건너뛰고 로컬 리랭커/검색 순위만 사용 */
+    SKIPPED_LLM_RERANK("skipped_llm_rerank", true),
+    /** 이웃 청크로 문맥을 확장하지 않고 선택된 청크만 사용 */
+    SKIPPED_EXPANSION("skipped_expansion", true),
+    /** 답변 생성이 빨리 시작되도록 문맥 길이를 제한 */
+    CAPPED_CONTEXT("capped_context", true);
+
+    private final String code;
+    private final boolean affectsAnswer;
+
+    Degradation(String code, boolean affectsAnswer) {
+        this.code = code;
+        this.affectsAnswer = affectsAnswer;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    /**
+     * 답변 내용이 달라질 수 있는 저하인지 (이런 답변은 답변 캐시에 저장하지 않음)
+     */
+    public boolean affectsAnswer() {
+        return affectsAnswer;
+    }
+}
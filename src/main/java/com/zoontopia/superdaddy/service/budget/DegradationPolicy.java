@@ -0,0 +1,81 @@
+package com.zoontopia.superdaddy.service.budget;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 남은 지연 예산에 따라 채팅 파이프라인의 각 단계를 얼마나 줄일지 정합니다.
+ *
+ * <p>답변 생성(Gemini)은 생략할 수 없으므로 항상 generation-reserve만큼을 남겨 두고,
+ * 그 앞 단계들이 예산을 다 쓰지 않도록 LLM 리랭킹 → 문맥 확장 → 문맥 토큰 수 순서로 덜 중요한 작업부터 포기합니다.
+ * Qdrant 호출은 hedge-delay가 지나도 끝나지 않으면 헤징하고, 생성 몫을 침범하기 전까지만 기다립니다.</p>
+ */
+@Component
+public class DegradationPolicy {
+
+    private final Duration budget;
+    private final Duration generationReserve;
+    private final Duration llmRerankMinRemaining;
+    private final Duration expansionMinRemaining;
+    private final Duration fullContextMinRemaining;
+    private final int cappedContextTokens;
+    private final Duration hedgeDelay;
+
+    @Autowired
+    public DegradationPolicy(@Value("${super-daddy.chat.latency-budget:4s}") Duration budget,
+                             @Value("${super-daddy.chat.degrade.generation-reserve:1500ms}") Duration generationReserve,
+                             @Value("${super-daddy.chat.degrade.llm-rerank-min-remaining:3s}") Duration llmRerankMinRemaining,
+                             @Value("${super-daddy.chat.degrade.expansion-min-remaining:2s}") Duration expansionMinRemaining,
+                             @Value("${super-daddy.chat.degrade.full-context-min-remaining:1500ms}") Duration fullContextMinRemaining,
+                             @Value("${super-daddy.chat.degrade.capped-context-tokens:1000}") int cappedContextTokens,
+                             @Value("${super-daddy.chat.degrade.hedge-delay:300ms}") Duration hedgeDelay) {
+        this.budget = budget;
+        this.generationReserve = generationReserve;
+        this.llmRerankMinRemaining = llmRerankMinRemaining;
+        this.expansionMinRemaining = expansionMinRemaining;
+        this.fullContextMinRemaining = fullContextMinRemaining;
+        this.cappedContextTokens = cappedContextTokens;
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    /**
+     * 예산 제한 없이 모든 단계를 수행하는 정책 (벤치마크 등)
+     */
+    public static DegradationPolicy disabled() {
+        Duration none = Duration.ZERO;
+        return new DegradationPolicy(Duration.ofDays(1), none, none, none, none, Integer.MAX_VALUE, Duration.ofDays(1));
+    }
+
+    public LatencyBudget startBudget() {
+        return LatencyBudget.start(budget);
+    }
+
+    public boolean allowLlmRerank(LatencyBudget budget) {
+        return budget.hasAtLeast(llmRerankMinRemaining);
+    }
+
+    public boolean allowExpansion(LatencyBudget budget) {
+        return budget.hasAtLeast(expansionMinRemaining);
+    }
+
+    /**
+     * 문맥 최대 토큰 수. 예산이 넉넉하면 제한 없음 (super-daddy.context.max-tokens만 적용).
+     */
+    public int contextTokenLimit(LatencyBudget budget) {
+        return budget.hasAtLeast(fullContextMinRemaining) ? Integer.MAX_VALUE : cappedContextTokens;
+    }
+
+    /**
+     * Qdrant 호출을 기다릴 수 있는 최대 시간: 남은 예산에서 답변 생성 몫을 뺀 만큼. 0 이하이면 호출하지 않습니다.
+     */
+    public Duration retrievalTimeout(LatencyBudget budget) {
+        return budget.remaining().minus(generationReserve);
+    }
+
+    public Duration hedgeDelay() {
+        return hedgeDelay;
+    }
+}
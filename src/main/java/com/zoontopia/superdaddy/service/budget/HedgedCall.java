@@ -0,0 +1,96 @@
+package com.zoontopia.superdaddy.service.budget;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 읽기 전용 호출(Qdrant 검색/조회)을 지연 헤징으로 실행합니다.
+ * 첫 시도가 hedgeDelay 안에 끝나지 않으면 같은 호출을 한 번 더 보내고 먼저 성공한 결과를 사용하므로,
+ * 일부 요청만 느려지는 꼬리 지연(GC, 세그먼트 병합, 한쪽 노드 지연 등)을 잘라냅니다.
+ * 전체 대기 시간은 timeout으로 제한하며, 늦게 끝난 시도의 결과는 버립니다.
+ */
+public final class HedgedCall {
+
+    // 호출마다 가상 스레드를 씀. 동시 호출 수는 호출 안에서 얻는 Qdrant 격벽 슬롯이 제한
+    private static final Executor EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private HedgedCall() {
+    }
+
+    public record Result<T>(T value, boolean hedged) {}
+
+    /**
+     * @throws TimeoutException 두 시도 모두 timeout 안에 끝나지 않은 경우
+     * @throws RuntimeException 두 시도가 모두 실패한 경우 먼저 실패한 시도의 예외
+     */
+    public static <T> Result<T> call(Supplier<T> call, Duration hedgeDelay, Duration timeout) throws TimeoutException {
+        return call(call, hedgeDelay, timeout, EXECUTOR);
+    }
+
+    static <T> Result<T> call(Supplier<T> call, Duration hedgeDelay, Duration timeout, Executor executor)
+            throws TimeoutException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+
+        CompletableFuture.supplyAsync(call, executor).whenComplete((value, error) -> settle(result, pending, value, error));
+        if (await(result, Math.min(hedgeDelay.toNanos(), timeout.toNanos()))) {
+            return new Result<>(join(result), false);
+        }
+
+        if (deadline - System.nanoTime() <= 0) {
+            result.cancel(false);
+            throw new TimeoutException("call did not complete within " + timeout.toMillis() + " ms");
+        }
+
+        // 헤지 시작: 먼저 끝난 성공 결과를 쓰고, 둘 다 실패해야 실패로 처리
+        pending.incrementAndGet();
+        CompletableFuture.supplyAsync(call, executor).whenComplete((value, error) -> settle(result, pending, value, error));
+        if (await(result, deadline - System.nanoTime())) {
+            return new Result<>(join(result), true);
+        }
+        result.cancel(false);
+        throw new TimeoutException("hedged call did not complete within " + timeout.toMillis() + " ms");
+    }
+
+    private static <T> void settle(CompletableFuture<T> result, AtomicInteger pending, T value, Throwable error) {
+        if (error == null) {
+            result.complete(value);
+        } else if (pending.decrementAndGet() == 0) {
+            result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+        }
+    }
+
+    private static boolean await(CompletableFuture<?> future, long nanos) {
+        if (nanos <= 0) return future.isDone();
+        try {
+            future.get(nanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return future.isDone();
+        } catch (ExecutionException ignored) {
+            // 실패도 완료로 취급하고 join에서 다시 던짐
+        }
+        return true;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw e;
+        }
+    }
+}
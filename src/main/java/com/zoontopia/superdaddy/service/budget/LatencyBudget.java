@@ -0,0 +1,62 @@
+package com.zoontopia.superdaddy.service.budget;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * 요청 하나의 지연 예산(도착 시각부터)과, 예산이 부족해 적용한 품질 저하 목록입니다.
+ * 단계마다 {@link #remaining()}을 보고 다음 단계를 줄일지 결정합니다.
+ */
+public class LatencyBudget {
+
+    private final long startNanos;
+    private final long budgetNanos;
+    private final LongSupplier nanoClock;
+    private final List<Degradation> degradations = new ArrayList<>();
+
+    LatencyBudget(Duration budget, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+        this.budgetNanos = budget.toNanos();
+    }
+
+    public static LatencyBudget start(Duration budget) {
+        return new LatencyBudget(budget, System::nanoTime);
+    }
+
+    /**
+     * 예산 제한이 없는 요청 (벤치마크 등)
+     */
+    public static LatencyBudget unbounded() {
+        return start(Duration.ofDays(1));
+    }
+
+    public Duration elapsed() {
+        return Duration.ofNanos(nanoClock.getAsLong() - startNanos);
+    }
+
+    /**
+     * 남은 예산. 이미 초과했으면 음수입니다.
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(budgetNanos - (nanoClock.getAsLong() - startNanos));
+    }
+
+    public boolean hasAtLeast(Duration duration) {
+        return remaining().compareTo(duration) >= 0;
+    }
+
+    public synchronized void degrade(Degradation degradation) {
+        if (!degradations.contains(degradation)) degradations.add(degradation);
+    }
+
+    public synchronized List<Degradation> degradations() {
+        return List.copyOf(degradations);
+    }
+
+    public synchronized boolean affectsAnswer() {
+        return degradations.stream().anyMatch(Degradation::affectsAnswer);
+    }
+}
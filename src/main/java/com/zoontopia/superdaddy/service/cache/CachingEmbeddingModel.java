@@ -0,0 +1,122 @@
+package com.zoontopia.superdaddy.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 단일 문자열 임베딩(검색 질의) 결과를 재사용하는 EmbeddingModel 데코레이터입니다.
+ * VectorStore는 similaritySearch마다 embed(query)를 호출하므로, 요청이 이미 계산한 질의 벡터를 {@link #pin}으로
+ * 고정해 두면 그 요청이 끝날 때까지 헤징/문맥 확장 검색도 같은 벡터를 씁니다. 고정된 벡터는 LRU 용량이나 설정과 관계없이
+ * 항상 먼저 확인합니다. 그 밖의 질의는 LRU(max-entries, 0이면 사용 안 함)로 요청 사이에서도 재사용합니다.
+ * 문서 임베딩(수집 단계)은 캐시를 거치지 않고 그대로 위임합니다.
+ */
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final int maxEntries;
+    private final Map<String, float[]> cache;
+    // 진행 중인 요청이 고정한 질의 벡터 (같은 질의를 동시에 고정한 요청 수를 함께 기록)
+    private final Map<String, Pinned> pinned = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter pinnedHits;
+
+    public CachingEmbeddingModel(EmbeddingModel delegate, int maxEntries, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("superdaddy.embedding.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("superdaddy.embedding.cache").tag("result", "miss").register(meterRegistry);
+        this.pinnedHits = Counter.builder("superdaddy.embedding.cache").tag("result", "pinned").register(meterRegistry);
+    }
+
+    /**
+     * 요청이 계산해 둔 질의 벡터를 반환된 Pin을 닫을 때까지 고정합니다. model이 CachingEmbeddingModel이 아니면 아무것도 하지 않습니다.
+     */
+    public static Pin pin(EmbeddingModel model, String text, float[] embedding) {
+        if (!(model instanceof CachingEmbeddingModel caching)) return () -> { };
+        float[] copy = embedding.clone();
+        caching.pinned.compute(text, (key, current) ->
+                current == null ? new Pinned(copy, 1) : new Pinned(current.embedding(), current.count() + 1));
+        return () -> caching.pinned.computeIfPresent(text, (key, current) ->
+                current.count() == 1 ? null : new Pinned(current.embedding(), current.count() - 1));
+    }
+
+    @Override
+    public float[] embed(String text) {
+        Pinned pin = pinned.get(text);
+        if (pin != null) {
+            pinnedHits.increment();
+            return pin.embedding().clone();
+        }
+        if (maxEntries <= 0) {
+            misses.increment();
+            return delegate.embed(text);
+        }
+
+        float[] cached;
+        synchronized (cache) {
+            cached = cache.get(text);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached.clone();
+        }
+
+        misses.increment();
+        float[] embedding = delegate.embed(text);
+        synchronized (cache) {
+            cache.put(text, embedding.clone());
+        }
+        return embedding;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        return delegate.call(request);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return delegate.embed(document);
+    }
+
+    @Override
+    public List<float[]> embed(List<Document> documents, EmbeddingOptions options, BatchingStrategy batchingStrategy) {
+        return delegate.embed(documents, options, batchingStrategy);
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+
+    /**
+     * 고정한 질의 벡터를 놓습니다. 한 번만 닫아야 합니다.
+     */
+    @FunctionalInterface
+    public interface Pin extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private record Pinned(float[] embedding, int count) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.zoontopia.superdaddy.service.cache;
+
+import com.zoontopia.superdaddy.service.vectorstore.VectorMath;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 질문 임베딩을 키로 하는 답변 캐시입니다.
+ * 표현만 조금 다른 같은 질문(예: "목욕물 온도", "목욕물 몇 도")은 코사인 거리가 가까우므로
+ * 임계치(max-distance) 이내의 캐시된 질문이 있으면 검색/리랭킹/생성을 모두 건너뛰고 저장된 답변을 반환합니다.
+ */
+@Component
+public class SemanticAnswerCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SemanticAnswerCache.class);
+
+    private final boolean enabled;
+    private final double maxDistance;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+
+    // access-order LinkedHashMap: 조회될 때마다 뒤로 이동하므로 맨 앞이 가장 오래 사용되지 않은(LRU) 항목
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long nextId = 0;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter invalidations;
+
+    @Autowired
+    public SemanticAnswerCache(@Value("${super-daddy.answer-cache.enabled:true}") boolean enabled,
+                               @Value("${super-daddy.answer-cache.max-distance:0.06}") double maxDistance,
+                               @Value("${super-daddy.answer-cache.max-entries:500}") int maxEntries,
+                               @Value("${super-daddy.answer-cache.ttl:6h}") Duration ttl,
+                               ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this(enabled, maxDistance, maxEntries, ttl,
+                meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry), Clock.systemUTC());
+    }
+
+    SemanticAnswerCache(boolean enabled, double maxDistance, int maxEntries, Duration ttl,
+                        MeterRegistry meterRegistry, Clock clock) {
+        this.enabled = enabled;
+        this.maxDistance = maxDistance;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+
+        this.hits = Counter.builder("superdaddy.answer.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("superdaddy.answer.cache").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("superdaddy.answer.cache.evictions").register(meterRegistry);
+        this.invalidations = Counter.builder("superdaddy.answer.cache.invalidations").register(meterRegistry);
+        Gauge.builder("superdaddy.answer.cache.size", this, SemanticAnswerCache::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 주어진 질문 임베딩과 코사인 거리가 max-distance 이내인 가장 가까운 캐시 답변을 찾습니다.
+     */
+    public synchronized Optional<String> find(float[] queryEmbedding) {
+        if (!enabled) return Optional.empty();
+
+        float[] query = VectorMath.normalize(queryEmbedding);
+        long now = clock.millis();
+        Long bestId = null;
+        double bestDistance = Double.MAX_VALUE;
+
+        Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Entry> e = it.next();
+            if (e.getValue().isExpired(now)) {
+                it.remove();
+                evictions.increment();
+                continue;
+            }
+            float[] embedding = e.getValue().embedding();
+            // 저장된 임베딩은 정규화되어 있으므로 내적이 곧 코사인 유사도 (길이가 다르면 다른 임베딩 모델이므로 비교하지 않음)
+            if (embedding.length != query.length) continue;
+            double distance = 1.0 - VectorMath.dot(query, embedding, query.length);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestId = e.getKey();
+            }
+        }
+
+        if (bestId != null && bestDistance <= maxDistance) {
+            hits.increment();
+            // get()으로 접근 순서를 갱신 (LRU)
+            Entry hit = entries.get(bestId);
+            logger.info("답변 캐시 적중 (cosine distance: {})", String.format("%.4f", bestDistance));
+            return Optional.of(hit.answer());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * 생성된 답변을 저장합니다. sources는 답변 문맥에 사용된 문서의 source 목록으로, 재수집 시 무효화에 사용됩니다.
+     */
+    public synchronized void put(float[] queryEmbedding, String answer, Set<String> sources) {
+        if (!enabled || answer == null || answer.isBlank()) return;
+
+        entries.put(nextId++, new Entry(VectorMath.normalize(queryEmbedding), answer, Set.copyOf(sources),
+                clock.millis() + ttl.toMillis()));
+
+        while (entries.size() > maxEntries) {
+            Iterator<Long> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * 해당 source에 새 데이터가 기록되면 그 source를 참조한 답변과,
+     * 가이드북 문맥 없이 생성된 답변(새 데이터로 답할 수 있게 되었을 수 있음)을 제거합니다.
+     */
+    public synchronized void invalidateSource(String source) {
+        int before = entries.size();
+        entries.values().removeIf(e -> e.sources().isEmpty() || e.sources().contains(source));
+        int removed = before - entries.size();
+        if (removed > 0) {
+            invalidations.increment(removed);
+            logger.info("답변 캐시 무효화: source={}, {}개 항목 제거", source, removed);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry(float[] embedding, String answer, Set<String> sources, long expiresAt) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
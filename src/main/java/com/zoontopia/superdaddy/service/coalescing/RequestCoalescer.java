@@ -0,0 +1,201 @@
+package com.zoontopia.superdaddy.service.coalescing;
+
+import com.zoontopia.superdaddy.service.metrics.RagMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 같은 질문이 동시에 여러 번 들어오면(푸시 알림 직후 등) 파이프라인을 한 번만 실행하고 결과를 함께 쓰게 합니다 (single-flight).
+ *
+ * <p>정규화한 질문(유니코드 NFKC, 소문자, 공백 정리, 끝 문장부호 제거)이 같은 요청 중 먼저 온 요청(leader)만 파이프라인을 실행하고,
+ * 실행 중에 도착한 요청(follower)은 입장 제어를 거치지 않고 그 결과를 기다립니다.
+ * leader가 거절되거나 실패하면 follower도 같은 예외를 받습니다. 실행이 끝나면 곧바로 목록에서 빠지므로
+ * 이후 요청은 답변 캐시를 통해 재사용됩니다.</p>
+ *
+ * <p>스트리밍 응답은 leader의 이벤트를 처음부터 다시 보여 준 뒤(replay) 이어지는 이벤트를 함께 받습니다.
+ * 파이프라인이 만든 Flux는 한 번만 구독하므로, 끝난 뒤에 구독한 follower도 다시 실행하지 않고 기록된 이벤트를 받습니다.
+ * 모든 구독자가 연결을 끊으면 생성도 취소되며, 그 뒤에 구독한 follower는 직접 파이프라인을 실행합니다.</p>
+ *
+ * <p>follower는 max-wait까지만 기다립니다. 일반 응답은 그때까지 결과가 없으면 직접 파이프라인을 실행하고,
+ * 스트리밍 응답은 max-wait 동안 다음 이벤트가 오지 않으면 TimeoutException으로 끝납니다.</p>
+ */
+@Component
+public class RequestCoalescer {
+
+    public static final String MODE_CHAT = "chat";
+    public static final String MODE_STREAM = "stream";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s?!.~…]+$");
+
+    private final boolean enabled;
+    private final Duration maxWait;
+    private final RagMetrics metrics;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<SharedStream<?>>> streams = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(@Value("${super-daddy.coalescing.enabled:true}") boolean enabled,
+                            @Value("${super-daddy.coalescing.max-wait:15s}") Duration maxWait,
+                            RagMetrics metrics) {
+        this.enabled = enabled;
+        this.maxWait = maxWait;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 같은 질문을 처리 중인 요청이 있으면 그 결과를, 없으면 pipeline을 직접 실행한 결과를 반환합니다.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T call(String message, Supplier<T> pipeline) {
+        if (!enabled) return pipeline.get();
+
+        String key = key(message);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = calls.putIfAbsent(key, flight);
+        if (existing == null) {
+            metrics.recordCoalescing(MODE_CHAT, "leader");
+            try {
+                T result = pipeline.get();
+                flight.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                calls.remove(key, flight);
+            }
+        }
+
+        try {
+            T result = (T) await(existing);
+            metrics.recordCoalescing(MODE_CHAT, "follower");
+            return result;
+        } catch (TimeoutException e) {
+            metrics.recordCoalescing(MODE_CHAT, "timeout");
+            return pipeline.get();
+        }
+    }
+
+    /**
+     * 같은 질문의 스트리밍 응답이 진행 중이면 그 이벤트를 처음부터 함께 받는 Flux를, 없으면 pipeline이 만든 Flux를 공유 가능하게 감싸 반환합니다.
+     * pipeline은 호출 스레드에서 바로 실행되므로(입장 제어 포함) 거절 예외는 응답을 시작하기 전에 던져집니다.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Flux<T> stream(String message, Supplier<Flux<T>> pipeline) {
+        if (!enabled) return pipeline.get();
+
+        String key = key(message);
+        CompletableFuture<SharedStream<?>> flight = new CompletableFuture<>();
+        CompletableFuture<SharedStream<?>> existing = streams.putIfAbsent(key, flight);
+        if (existing == null) {
+            metrics.recordCoalescing(MODE_STREAM, "leader");
+            try {
+                SharedStream<T> shared = new SharedStream<>(pipeline.get()
+                        // 완료/실패/모든 구독자 취소 시 새 요청이 합류하지 않도록 제거
+                        .doFinally(signal -> streams.remove(key, flight)));
+                flight.complete(shared);
+                return shared.leader();
+            } catch (RuntimeException | Error e) {
+                streams.remove(key, flight);
+                flight.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            SharedStream<T> shared = (SharedStream<T>) await(existing);
+            metrics.recordCoalescing(MODE_STREAM, "follower");
+            return shared.follower(pipeline).timeout(maxWait);
+        } catch (TimeoutException e) {
+            metrics.recordCoalescing(MODE_STREAM, "timeout");
+            return pipeline.get();
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> flight) throws TimeoutException {
+        try {
+            return flight.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("interrupted while waiting for in-flight request");
+        }
+    }
+
+    /**
+     * 진행 중인 스트리밍 응답 하나. 원본은 첫 구독 때 한 번만 연결하고(autoConnect) 다시 연결하지 않으므로,
+     * 입장 제어를 거친 한 번의 실행만 이벤트를 만듭니다. leader는 만들 때부터 구독자로 세어, leader가 구독하기 전에
+     * follower가 끊어도 생성이 취소되지 않게 합니다.
+     */
+    private static final class SharedStream<T> {
+
+        private final Flux<T> replayed;
+        private Disposable connection;
+        private int subscribers = 1;
+        private boolean cancelled;
+
+        SharedStream(Flux<T> source) {
+            this.replayed = source.replay().autoConnect(1, this::connected);
+        }
+
+        Flux<T> leader() {
+            return replayed.doFinally(this::leave);
+        }
+
+        /**
+         * 이미 취소된 스트림에 합류하려 하면 fallback을 구독 시점에 실행합니다.
+         */
+        Flux<T> follower(Supplier<Flux<T>> fallback) {
+            return Flux.defer(() -> join() ? replayed.doFinally(this::leave) : fallback.get());
+        }
+
+        private synchronized void connected(Disposable connection) {
+            this.connection = connection;
+        }
+
+        private synchronized boolean join() {
+            if (cancelled) return false;
+            subscribers++;
+            return true;
+        }
+
+        private void leave(SignalType signal) {
+            Disposable toCancel = null;
+            synchronized (this) {
+                if (--subscribers == 0 && signal == SignalType.CANCEL) {
+                    cancelled = true;
+                    toCancel = connection;
+                }
+            }
+            if (toCancel != null) toCancel.dispose();
+        }
+    }
+
+    /**
+     * 같은 질문으로 볼 키: 표기 차이(전각/반각, 대소문자, 공백, 끝 문장부호)만 다른 질문을 하나로 묶습니다.
+     */
+    static String key(String message) {
+        if (message == null) return "";
+        String normalized = Normalizer.normalize(message, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalized = WHITESPACE.matcher(normalized.strip()).replaceAll(" ");
+        return TRAILING_PUNCTUATION.matcher(normalized).replaceAll("");
+    }
+}
@@ -0,0 +1,251 @@
+package com.zoontopia.superdaddy.service.context;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import com.zoontopia.superdaddy.service.retrieval.KoreanTokenizer;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 리랭킹 후보군과 답변 문맥을 프롬프트에 넣기 전에 압축하고 토큰 예산 안에 담습니다.
+ *
+ * <ul>
+ *     <li>청크마다 임베딩용으로 붙여 둔 머리글(섹션 제목 줄, "핵심 키워드:" 줄, "본문:" 접두어)을 걷어냅니다.
+ *     섹션 제목은 문맥에서 섹션이 바뀔 때 한 번만 씁니다.</li>
+ *     <li>이미 고른 청크와 본문이 거의 같은(문자 2-gram Jaccard 유사도가 기준 이상인) 청크는 버립니다.
+ *     여러 페이지에 반복되는 안내 문구나 이전 형식의 윈도우 검색 결과가 주로 걸립니다.</li>
+ *     <li>문서 순서로 이어지는 두 청크의 끝과 시작이 겹치면 겹친 부분을 한 번만 남깁니다.</li>
+ *     <li>관련도 순서(넣은 순서)대로 토큰 예산이 찰 때까지만 담습니다.</li>
+ * </ul>
+ *
+ * <p>토큰 수는 TokenTextSplitter가 청크 크기를 잴 때 쓰는 것과 같은 cl100k 인코딩으로 셉니다.
+ * Gemini 토크나이저와 정확히 같지는 않지만 청크 크기 설정과 단위가 같아 예산을 정하기 쉽습니다.</p>
+ */
+@Component
+public class ContextCompactor {
+
+    private static final String KEYWORDS_PREFIX = "핵심 키워드:";
+    private static final String BODY_PREFIX = "본문:";
+    // 이보다 짧은 끝/시작 일치는 우연의 일치로 보고 그대로 둠
+    private static final int MIN_OVERLAP_CHARS = 20;
+
+    private static final Encoding ENCODING = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+
+    private final int contextMaxTokens;
+    private final int rerankMaxTokens;
+    private final double nearDuplicateSimilarity;
+
+    public ContextCompactor(@Value("${super-daddy.context.max-tokens:2500}") int contextMaxTokens,
+                            @Value("${super-daddy.context.rerank-max-tokens:4000}") int rerankMaxTokens,
+                            @Value("${super-daddy.context.near-duplicate-similarity:0.85}") double nearDuplicateSimilarity) {
+        this.contextMaxTokens = contextMaxTokens;
+        this.rerankMaxTokens = rerankMaxTokens;
+        this.nearDuplicateSimilarity = nearDuplicateSimilarity;
+    }
+
+    /**
+     * 답변 문맥에 쓸 수 있는 최대 토큰 수 (설정값)
+     */
+    public int contextMaxTokens() {
+        return contextMaxTokens;
+    }
+
+    /**
+     * @param prioritized 관련도 순서의 청크 (리랭커가 고른 문서 → 이웃 청크)
+     * @param maxTokens   담을 수 있는 최대 토큰 수
+     */
+    public Packed pack(Collection<Document> prioritized, int maxTokens) {
+        List<Passage> kept = new ArrayList<>();
+        int tokens = 0;
+        int duplicates = 0;
+        boolean truncated = false;
+
+        for (Document doc : prioritized) {
+            Passage passage = Passage.of(doc);
+            if (passage.body.isEmpty() || isNearDuplicate(passage, kept)) {
+                duplicates++;
+                continue;
+            }
+            int passageTokens = countTokens(passage.body);
+            if (tokens + passageTokens <= maxTokens) {
+                kept.add(passage);
+                tokens += passageTokens;
+            } else if (kept.isEmpty()) {
+                // 가장 관련 있는 청크 하나가 예산보다 길면 잘라서라도 사용
+                kept.add(passage.withBody(truncateToTokens(passage.body, passageTokens, maxTokens)));
+                tokens = maxTokens;
+                truncated = true;
+            } else {
+                truncated = true;
+            }
+        }
+
+        // source -> 페이지 -> chunk_index 순서대로 정렬하여 가독성 확보
+        kept.sort(Comparator.comparing((Passage p) -> p.source)
+                .thenComparingInt(p -> p.page)
+                .thenComparingInt(p -> p.chunkIndex));
+
+        StringBuilder sb = new StringBuilder();
+        Passage previous = null;
+        for (Passage passage : kept) {
+            String body = passage.body;
+            if (previous != null && previous.source.equals(passage.source)) {
+                body = body.substring(overlap(previous.body, body));
+                if (body.isBlank()) continue;
+            }
+            if (!sb.isEmpty()) sb.append("\n\n");
+            if (!passage.title.isEmpty() && (previous == null || !previous.title.equals(passage.title))) {
+                sb.append('[').append(passage.title).append("]\n");
+            }
+            sb.append(body.strip());
+            previous = passage;
+        }
+        String text = sb.toString();
+        return new Packed(text, countTokens(text), kept.size(), duplicates, truncated);
+    }
+
+    /**
+     * 리랭킹 프롬프트용 후보군: 머리글을 걷어낸 본문을 후보 수로 나눈 토큰 몫까지만 남기고, 앞 후보와 거의 같은 후보는 뺍니다.
+     * index는 원래 후보 목록의 위치이므로 모델이 고른 번호를 그대로 후보 목록에 적용할 수 있습니다.
+     */
+    public List<Candidate> compactCandidates(List<Document> candidates) {
+        int share = Math.max(32, rerankMaxTokens / Math.max(1, candidates.size()));
+        List<Passage> kept = new ArrayList<>();
+        List<Candidate> result = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            Passage passage = Passage.of(candidates.get(i));
+            if (isNearDuplicate(passage, kept)) continue;
+            kept.add(passage);
+
+            int tokens = countTokens(passage.body);
+            String body = tokens > share ? truncateToTokens(passage.body, tokens, share) : passage.body;
+            result.add(new Candidate(i, passage.title, passage.keywords, body));
+        }
+        return result;
+    }
+
+    public int countTokens(String text) {
+        return text == null || text.isEmpty() ? 0 : ENCODING.countTokens(text);
+    }
+
+    /**
+     * 임베딩용 머리글(섹션 제목 줄, 핵심 키워드 줄, "본문:" 접두어)을 뺀 청크 본문
+     */
+    public static String body(Document doc) {
+        String text = Objects.requireNonNullElse(doc.getText(), "");
+        String title = String.valueOf(doc.getMetadata().getOrDefault("section_title", "")).strip();
+
+        int bodyStart = text.indexOf(BODY_PREFIX);
+        if (bodyStart >= 0 && text.substring(0, bodyStart).lines().allMatch(line -> isHeaderLine(line, title))) {
+            return text.substring(bodyStart + BODY_PREFIX.length()).strip();
+        }
+        return text.strip();
+    }
+
+    private static boolean isHeaderLine(String line, String title) {
+        String stripped = line.strip();
+        return stripped.isEmpty() || stripped.equals(title) || stripped.startsWith(KEYWORDS_PREFIX);
+    }
+
+    private boolean isNearDuplicate(Passage passage, List<Passage> kept) {
+        for (Passage other : kept) {
+            // Jaccard 유사도는 두 집합 크기 비율을 넘을 수 없으므로 크기 차이가 크면 계산하지 않음
+            int small = Math.min(passage.shingles.size(), other.shingles.size());
+            int large = Math.max(passage.shingles.size(), other.shingles.size());
+            if (large == 0 || (double) small / large < nearDuplicateSimilarity) continue;
+            if (jaccard(passage.shingles, other.shingles) >= nearDuplicateSimilarity) return true;
+        }
+        return false;
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int intersection = 0;
+        for (String s : smaller) {
+            if (larger.contains(s)) intersection++;
+        }
+        return (double) intersection / (a.size() + b.size() - intersection);
+    }
+
+    /**
+     * previous의 끝과 next의 시작이 겹치는 길이 (KMP 실패 함수로 한 번에 계산). 짧은 우연의 일치는 0으로 봅니다.
+     */
+    static int overlap(String previous, String next) {
+        int maxLength = Math.min(previous.length(), next.length());
+        if (maxLength < MIN_OVERLAP_CHARS) return 0;
+
+        String pattern = next.substring(0, maxLength);
+        String combined = pattern + '\u0000' + previous.substring(previous.length() - maxLength);
+        int[] failure = new int[combined.length()];
+        for (int i = 1; i < combined.length(); i++) {
+            int k = failure[i - 1];
+            while (k > 0 && combined.charAt(i) != combined.charAt(k)) k = failure[k - 1];
+            if (combined.charAt(i) == combined.charAt(k)) k++;
+            failure[i] = k;
+        }
+        int length = failure[combined.length() - 1];
+        return length >= MIN_OVERLAP_CHARS ? length : 0;
+    }
+
+    /**
+     * 토큰 비율만큼 문자를 남기고, 가능하면 문장/어절 경계에서 자릅니다.
+     */
+    private static String truncateToTokens(String text, int tokens, int maxTokens) {
+        int end = (int) ((long) text.length() * maxTokens / Math.max(1, tokens));
+        if (end >= text.length()) return text;
+
+        int sentenceEnd = Math.max(text.lastIndexOf(". ", end), text.lastIndexOf('\n', end));
+        if (sentenceEnd > end / 2) return text.substring(0, sentenceEnd + 1).strip();
+        int wordEnd = text.lastIndexOf(' ', end);
+        return text.substring(0, wordEnd > end / 2 ? wordEnd : end).strip();
+    }
+
+    /**
+     * 토큰 예산 안에 담은 문맥
+     *
+     * @param duplicates 거의 같은 본문이라 뺀 청크 수
+     * @param truncated  예산이 모자라 빠지거나 잘린 청크가 있는지
+     */
+    public record Packed(String text, int tokens, int passages, int duplicates, boolean truncated) {}
+
+    public record Candidate(int index, String title, String keywords, String text) {}
+
+    private record Passage(String source, int page, int chunkIndex, String title, String keywords,
+                           String body, Set<String> shingles) {
+
+        static Passage of(Document doc) {
+            String body = ContextCompactor.body(doc);
+            Object keywords = doc.getMetadata().getOrDefault("keywords", "");
+            return new Passage(
+                    String.valueOf(doc.getMetadata().get("source")),
+                    intMetadata(doc, "page_number"),
+                    intMetadata(doc, "chunk_index"),
+                    String.valueOf(doc.getMetadata().getOrDefault("section_title", "")).strip(),
+                    keywords instanceof Collection<?> list
+                            ? String.join(", ", list.stream().map(String::valueOf).toList())
+                            : String.valueOf(keywords),
+                    body,
+                    new HashSet<>(KoreanTokenizer.tokenize(body)));
+        }
+
+        Passage withBody(String newBody) {
+            return new Passage(source, page, chunkIndex, title, keywords, newBody, shingles);
+        }
+
+        private static int intMetadata(Document doc, String key) {
+            Object value = doc.getMetadata().get(key);
+            return value instanceof Number n ? n.intValue() : 0;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.zoontopia.superdaddy.service.conversation;
+
+import com.zoontopia.superdaddy.service.metrics.RagMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * 세션별 대화 기록을 서버 메모리에 보관합니다.
+ *
+ * <p>세션마다 최근 max-turns개의 질문/답변만 그대로 두고, 밀려난 대화는 "질문 → 답변 첫 문장" 한 줄씩 요약에 덧붙입니다
+ * (요약이 summary-max-chars를 넘으면 오래된 줄부터 버림). 매 턴마다 Gemini로 요약하면 답변마다 호출이 하나 더 늘기 때문에
+ * 추출식 요약을 사용합니다. 이어지는 질문에 재사용할 검색 문맥(Topic.context)은 마지막 턴에만 남깁니다.</p>
+ *
+ * <p>세션 수가 max-sessions를 넘으면 가장 오래 사용되지 않은 세션부터(LRU), idle-timeout 동안 사용되지 않은 세션은 조회 시 제거합니다.</p>
+ */
+@Component
+public class ConversationStore {
+
+    // 클라이언트가 보낸 세션 ID는 이 형식일 때만 사용하고, 아니면 새로 발급
+    private static final Pattern SESSION_ID = Pattern.compile("[A-Za-z0-9-]{8,64}");
+    // 요약에 남기는 답변 첫 문장의 최대 길이
+    private static final int SUMMARY_ANSWER_CHARS = 120;
+
+    private final int maxSessions;
+    private final int maxTurns;
+    private final int summaryMaxChars;
+    private final int answerMaxChars;
+    private final Duration idleTimeout;
+    private final Clock clock;
+
+    // access-order LinkedHashMap: 맨 앞이 가장 오래 사용되지 않은(LRU) 세션
+    private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    public ConversationStore(@Value("${super-daddy.conversation.max-sessions:10000}") int maxSessions,
+                             @Value("${super-daddy.conversation.max-turns:4}") int maxTurns,
+                             @Value("${super-daddy.conversation.summary-max-chars:800}") int summaryMaxChars,
+                             @Value("${super-daddy.conversation.answer-max-chars:1000}") int answerMaxChars,
+                             @Value("${super-daddy.conversation.idle-timeout:30m}") Duration idleTimeout,
+                             RagMetrics metrics) {
+        this(maxSessions, maxTurns, summaryMaxChars, answerMaxChars, idleTimeout, Clock.systemUTC());
+        metrics.registerConversations(this);
+    }
+
+    ConversationStore(int maxSessions, int maxTurns, int summaryMaxChars, int answerMaxChars,
+                      Duration idleTimeout, Clock clock) {
+        this.maxSessions = maxSessions;
+        this.maxTurns = maxTurns;
+        this.summaryMaxChars = summaryMaxChars;
+        this.answerMaxChars = answerMaxChars;
+        this.idleTimeout = idleTimeout;
+        this.clock = clock;
+    }
+
+    /**
+     * 클라이언트가 보낸 세션 ID가 올바른 형식이면 그대로, 없거나 형식이 다르면 새 ID를 반환합니다.
+     */
+    public String resolveSessionId(String requested) {
+        if (requested != null && SESSION_ID.matcher(requested).matches()) return requested;
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * 세션의 대화 기록 (없거나 만료된 세션은 빈 대화)
+     */
+    public synchronized Conversation get(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) return Conversation.EMPTY;
+        if (session.isIdle(clock.millis())) {
+            sessions.remove(sessionId);
+            return Conversation.EMPTY;
+        }
+        return session.snapshot();
+    }
+
+    public synchronized void append(String sessionId, Turn turn) {
+        Session session = sessions.get(sessionId);
+        if (session == null || session.isIdle(clock.millis())) {
+            session = new Session();
+            sessions.put(sessionId, session);
+        }
+        session.add(new Turn(turn.question(), truncate(turn.answer(), answerMaxChars), turn.topic()));
+        session.lastUsed = clock.millis();
+
+        while (sessions.size() > maxSessions) {
+            sessions.pollFirstEntry();
+        }
+    }
+
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    private static String truncate(String text, int maxChars) {
+        if (text == null) return "";
+        return text.length() <= maxChars ? text : text.substring(0, maxChars) + "…";
+    }
+
+    private static String firstSentence(String answer) {
+        String flat = answer.replaceAll("\\s+", " ").strip();
+        int end = flat.length();
+        for (String delimiter : List.of(". ", "! ", "? ")) {
+            int index = flat.indexOf(delimiter);
+            if (index >= 0) end = Math.min(end, index + delimiter.length() - 1);
+        }
+        return truncate(flat.substring(0, end), SUMMARY_ANSWER_CHARS);
+    }
+
+    private final class Session {
+
+        private final Deque<Turn> turns = new ArrayDeque<>();
+        private final Deque<String> summary = new ArrayDeque<>();
+        private int summaryChars;
+        private long lastUsed = clock.millis();
+
+        void add(Turn turn) {
+            // 검색 문맥은 마지막 턴에만 보관
+            Turn previous = turns.pollLast();
+            if (previous != null) turns.addLast(previous.withoutContext());
+            turns.addLast(turn);
+
+            while (turns.size() > maxTurns) {
+                Turn oldest = turns.pollFirst();
+                String line = "- " + oldest.question().strip() + " → " + firstSentence(oldest.answer());
+                summary.addLast(line);
+                summaryChars += line.length() + 1;
+                while (summaryChars > summaryMaxChars && summary.size() > 1) {
+                    summaryChars -= summary.pollFirst().length() + 1;
+                }
+            }
+        }
+
+        boolean isIdle(long now) {
+            return now - lastUsed >= idleTimeout.toMillis();
+        }
+
+        Conversation snapshot() {
+            return new Conversation(String.join("\n", summary), List.copyOf(turns));
+        }
+    }
+
+    /**
+     * 세션의 대화 기록 스냅숏. summary는 오래된 대화의 추출식 요약, turns는 최근 대화(오래된 순)입니다.
+     */
+    public record Conversation(String summary, List<Turn> turns) {
+
+        public static final Conversation EMPTY = new Conversation("", List.of());
+
+        public boolean isEmpty() {
+            return summary.isEmpty() && turns.isEmpty();
+        }
+
+        public Optional<Turn> last() {
+            return turns.isEmpty() ? Optional.empty() : Optional.of(turns.get(turns.size() - 1));
+        }
+    }
+
+    /**
+     * 한 번의 질문/답변. topic은 이 답변의 근거가 된 주제로, 이어지는 질문이 같은 주제인지 판단하는 데 씁니다 (없으면 null).
+     */
+    public record Turn(String question, String answer, Topic topic) {
+
+        Turn withoutContext() {
+            return topic == null || topic.context() == null ? this
+                    : new Turn(question, answer, new Topic(topic.question(), topic.embedding(), null));
+        }
+    }
+
+    /**
+     * 검색을 새로 한 질문(question, embedding)과 그때 만든 답변 문맥(context, 재사용할 수 없으면 null).
+     * 같은 주제의 이어지는 질문은 이 문맥을 그대로 쓰고 Topic도 그대로 물려받습니다.
+     */
+    public record Topic(String question, float[] embedding, String context) {}
+}
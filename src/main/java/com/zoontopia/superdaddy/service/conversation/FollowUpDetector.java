@@ -0,0 +1,78 @@
+package com.zoontopia.superdaddy.service.conversation;
+
+import com.zoontopia.superdaddy.service.vectorstore.VectorMath;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 새 질문이 직전 대화와 같은 주제인지 판단해, 검색을 다시 할지 직전 문맥을 재사용할지 정합니다.
+ *
+ * <p>같은 주제의 기준은 새 질문 임베딩과 주제를 처음 검색한 질문 임베딩의 코사인 유사도입니다.
+ * "그럼 몇 도가 적당해?"처럼 지시어/접속사로 시작하는 짧은 질문은 그 자체로 주제어가 거의 없어 유사도가 낮게 나오므로
+ * 더 낮은 기준(follow-up-similarity)을 씁니다.</p>
+ *
+ * <ul>
+ *     <li>같은 주제이고 직전 문맥이 있으면: 검색/리랭킹/문맥 확장 없이 직전 문맥을 재사용</li>
+ *     <li>같은 주제지만 문맥이 없으면(캐시 답변 등): 주제 질문과 새 질문을 이어 붙여 다시 검색</li>
+ *     <li>주제가 바뀌었으면: 새 질문만으로 검색</li>
+ * </ul>
+ */
+@Component
+public class FollowUpDetector {
+
+    // 앞 대화를 가리키는 말로 시작하는 질문
+    private static final List<String> FOLLOW_UP_MARKERS = List.of(
+            "그럼", "그러면", "그런데", "근데", "그래서", "그리고", "그건", "그거", "그게", "그때",
+            "이건", "이거", "이게", "이때", "저건", "거기", "그 다음", "그다음", "또", "아까");
+    // 이보다 긴 질문은 주제어를 충분히 담고 있다고 보고 완화된 기준을 쓰지 않음
+    private static final int FOLLOW_UP_MAX_CHARS = 40;
+
+    private final double topicSimilarity;
+    private final double followUpSimilarity;
+
+    public FollowUpDetector(@Value("${super-daddy.conversation.topic-similarity:0.75}") double topicSimilarity,
+                            @Value("${super-daddy.conversation.follow-up-similarity:0.5}") double followUpSimilarity) {
+        this.topicSimilarity = topicSimilarity;
+        this.followUpSimilarity = followUpSimilarity;
+    }
+
+    public Decision decide(String message, float[] embedding, ConversationStore.Conversation conversation) {
+        ConversationStore.Topic topic = conversation.last().map(ConversationStore.Turn::topic).orElse(null);
+        if (topic == null || !continues(message, embedding, topic)) {
+            return new Decision(null, message);
+        }
+        if (topic.context() != null) {
+            return new Decision(topic, message);
+        }
+        return new Decision(topic, topic.question().strip() + " " + message.strip());
+    }
+
+    boolean continues(String message, float[] embedding, ConversationStore.Topic topic) {
+        if (topic.embedding() == null || embedding == null) return false;
+        double similarity = VectorMath.cosine(embedding, topic.embedding());
+        if (similarity >= topicSimilarity) return true;
+        return isFollowUpPhrase(message) && similarity >= followUpSimilarity;
+    }
+
+    static boolean isFollowUpPhrase(String message) {
+        String stripped = message == null ? "" : message.strip();
+        if (stripped.isEmpty() || stripped.length() > FOLLOW_UP_MAX_CHARS) return false;
+        return FOLLOW_UP_MARKERS.stream().anyMatch(stripped::startsWith);
+    }
+
+    /**
+     * @param topic          이어받을 주제 (주제가 바뀌었으면 null)
+     * @param retrievalQuery 검색할 경우 사용할 질의
+     */
+    public record Decision(ConversationStore.Topic topic, String retrievalQuery) {
+
+        /**
+         * 검색 없이 재사용할 직전 문맥이 있는지
+         */
+        public boolean reusesContext() {
+            return topic != null && topic.context() != null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 여러 페이지를 한 번에 보낸 LLM 응답(JSON 배열)을 원소별로 읽어, 입력 순서에 맞춘 목록으로 돌려줍니다.
+ *
+ * <p>배열 전체를 한 번에 파싱하면 원소 하나만 깨져도(또는 출력이 잘려 배열이 닫히지 않아도) 배치 전체를 잃으므로,
+ * 완성된 원소까지 하나씩 읽고 각 원소의 {@code index}로 입력 위치를 찾습니다. index가 없는 응답은 원소 수가 입력 수와
+ * 같을 때만 순서대로 대응시킵니다. 읽지 못했거나 대응되지 않는 위치는 null로 남겨, 호출한 쪽이 그 페이지만 다시 요청할 수 있게 합니다.</p>
+ */
+public final class BatchResponseParser {
+
+    public static final String INDEX = "index";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private BatchResponseParser() {
+    }
+
+    /**
+     * @param expected 요청한 원소 수 (반환 목록의 크기)
+     */
+    public static <T> List<T> parse(String response, int expected, Class<T> type) {
+        List<T> results = new ArrayList<>(Collections.nCopies(expected, null));
+        if (response == null) return results;
+
+        List<JsonNode> elements = readElements(response);
+        boolean positional = elements.size() == expected && elements.stream().noneMatch(e -> e.has(INDEX));
+        for (int k = 0; k < elements.size(); k++) {
+            JsonNode element = elements.get(k);
+            int index = element.has(INDEX) && element.get(INDEX).canConvertToInt() ? element.get(INDEX).asInt()
+                    : positional ? k : -1;
+            // 범위를 벗어나거나 같은 index가 반복되면 처음 것만 사용
+            if (index < 0 || index >= expected || results.get(index) != null) continue;
+            try {
+                results.set(index, objectMapper.treeToValue(element, type));
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                // 형식이 맞지 않는 원소는 실패로 남김
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 응답 앞뒤의 Markdown 코드 블록이나 설명 문장을 건너뛰고, 배열의 완성된 객체 원소를 순서대로 읽습니다.
+     */
+    static List<JsonNode> readElements(String response) {
+        List<JsonNode> elements = new ArrayList<>();
+        int start = response.indexOf('[');
+        if (start < 0) return elements;
+
+        try (JsonParser parser = objectMapper.createParser(response.substring(start))) {
+            parser.nextToken(); // START_ARRAY
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token == JsonToken.START_OBJECT) {
+                    elements.add(parser.readValueAsTree());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            // 잘리거나 깨진 원소부터는 버리고, 그 앞까지 읽은 원소만 사용
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,264 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 수집된 페이지의 내용 해시와 해당 페이지에서 만들어진 청크/예상 질문 벡터 ID 목록을 파일에 기록합니다 (source → page_number → 항목).
+ * 다음 수집 때 해시가 같은 페이지는 건너뛰고, 바뀐 페이지만 다시 정제/임베딩하며, 사라진 페이지의 청크는 삭제할 수 있습니다.
+ * 정제가 검증을 통과하지 못해 원문이나 빈 메타데이터로 기록된 페이지({@code degraded})는 해시가 같아도 다시 수집합니다.
+ *
+ * <p>한 페이지의 청크가 여러 upsert 배치에 나뉘어 기록되므로, {@link #beginPage}로 등록한 청크가 모두
+ * {@link #chunksWritten}으로 확인된 뒤에야 해당 페이지를 완료로 기록합니다. 중간에 중단되어도 완료된 페이지만 남습니다.</p>
+ *
+ * <p>{@code version}은 정제 프롬프트/청크 분할 방식을 나타내며, 값이 다르면 기존 기록을 모두 무효로 보고 전체를 다시 수집합니다.</p>
+ */
+public class IngestionManifest {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionManifest.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public record PageEntry(String hash, List<String> chunkIds, List<String> questionIds, boolean degraded) {
+
+        public PageEntry {
+            questionIds = questionIds != null ? questionIds : List.of();
+        }
+
+        public PageEntry(String hash, List<String> chunkIds) {
+            this(hash, chunkIds, List.of(), false);
+        }
+
+        /** 같은 내용으로 온전히 정제되어 기록되었으므로 다시 수집하지 않아도 되는지 */
+        public boolean isCurrent(String contentHash) {
+            return hash.equals(contentHash) && !degraded;
+        }
+
+        /** 이 페이지에서 저장소에 기록된 모든 벡터 ID (청크 + 예상 질문) */
+        public List<String> allIds() {
+            List<String> ids = new ArrayList<>(chunkIds);
+            ids.addAll(questionIds);
+            return ids;
+        }
+    }
+
+    /** 완료된 페이지와, 이전 수집 기록 중 이번에 만들어지지 않아 삭제해야 할 청크/질문 ID */
+    public record CompletedPage(String source, int pageNumber, List<String> staleChunkIds) {
+    }
+
+    /**
+     * 바뀌지 않은 이웃 페이지의 경계 청크에 새로 기록할 앞뒤 청크 ID.
+     * {@code targetId}가 null이면 해당 방향의 이웃이 더 이상 없으므로 메타데이터에서 지웁니다.
+     */
+    public record NeighborLink(String chunkId, String field, String targetId) {
+    }
+
+    /** 파일 저장 형식 */
+    record Snapshot(int version, Map<String, Map<Integer, PageEntry>> sources) {
+    }
+
+    private record PendingPage(String source, int pageNumber, String hash, List<String> chunkIds,
+                               List<String> questionIds, boolean degraded, Set<String> remaining) {
+    }
+
+    private final Path path;
+    private final int version;
+    private final Map<String, TreeMap<Integer, PageEntry>> sources = new HashMap<>();
+    private final Map<String, PendingPage> pendingByChunkId = new HashMap<>();
+    // 여러 파일을 동시에 수집하면 save()가 동시에 불리므로 같은 임시 파일에 겹쳐 쓰지 않도록 직렬화
+    private final Object fileLock = new Object();
+
+    private IngestionManifest(Path path, int version) {
+        this.path = path;
+        this.version = version;
+    }
+
+    public static IngestionManifest load(Path path, int version) {
+        IngestionManifest manifest = new IngestionManifest(path, version);
+        if (!Files.exists(path)) return manifest;
+
+        try {
+            Snapshot snapshot = objectMapper.readValue(path.toFile(), Snapshot.class);
+            if (snapshot.version() != version) {
+                logger.info("Ingestion manifest version changed ({} -> {}). All pages will be re-ingested.",
+                        snapshot.version(), version);
+                return manifest;
+            }
+            snapshot.sources().forEach((source, pages) -> manifest.sources.put(source, new TreeMap<>(pages)));
+        } catch (IOException e) {
+            logger.warn("Ingestion manifest could not be read ({}). All pages will be re-ingested.", e.getMessage());
+        }
+        return manifest;
+    }
+
+    /**
+     * 기록된 페이지가 있는 source 목록
+     */
+    public synchronized Set<String> sources() {
+        return new TreeSet<>(sources.keySet());
+    }
+
+    public synchronized Map<Integer, PageEntry> pages(String source) {
+        return new TreeMap<>(sources.getOrDefault(source, new TreeMap<>()));
+    }
+
+    public synchronized PageEntry page(String source, int pageNumber) {
+        TreeMap<Integer, PageEntry> pages = sources.get(source);
+        return pages != null ? pages.get(pageNumber) : null;
+    }
+
+    public CompletedPage beginPage(String source, int pageNumber, String hash, List<String> chunkIds) {
+        return beginPage(source, pageNumber, hash, chunkIds, List.of());
+    }
+
+    public CompletedPage beginPage(String source, int pageNumber, String hash, List<String> chunkIds,
+                                   List<String> questionIds) {
+        return beginPage(source, pageNumber, hash, chunkIds, questionIds, false);
+    }
+
+    /**
+     * 분할이 끝난 페이지를 등록합니다. 청크가 하나도 없는 페이지는 바로 완료로 기록합니다.
+     * 예상 질문은 청크와 같은 배치에 기록되므로 완료 여부는 청크 기준으로만 판단합니다.
+     *
+     * @param degraded 정제 결과가 검증을 통과하지 못해 원문이나 빈 메타데이터로 기록하는 페이지 (다음 수집 때 다시 정제)
+     */
+    public synchronized CompletedPage beginPage(String source, int pageNumber, String hash, List<String> chunkIds,
+                                                List<String> questionIds, boolean degraded) {
+        if (chunkIds.isEmpty()) {
+            return complete(new PendingPage(source, pageNumber, hash, List.of(), List.of(), degraded, Set.of()));
+        }
+        PendingPage pending = new PendingPage(source, pageNumber, hash, List.copyOf(chunkIds),
+                List.copyOf(questionIds), degraded, new HashSet<>(chunkIds));
+        chunkIds.forEach(id -> pendingByChunkId.put(id, pending));
+        return null;
+    }
+
+    /**
+     * 기록된 청크를 반영하고, 이로써 모든 청크가 기록된 페이지들을 반환합니다.
+     */
+    public synchronized List<CompletedPage> chunksWritten(List<String> chunkIds) {
+        List<CompletedPage> completed = new ArrayList<>();
+        for (String id : chunkIds) {
+            PendingPage pending = pendingByChunkId.remove(id);
+            if (pending == null) continue;
+            pending.remaining().remove(id);
+            if (pending.remaining().isEmpty()) completed.add(complete(pending));
+        }
+        return completed;
+    }
+
+    public synchronized void removePage(String source, int pageNumber) {
+        TreeMap<Integer, PageEntry> pages = sources.get(source);
+        if (pages != null) pages.remove(pageNumber);
+    }
+
+    public synchronized void removeSource(String source) {
+        sources.remove(source);
+    }
+
+    private CompletedPage complete(PendingPage pending) {
+        TreeMap<Integer, PageEntry> pages = sources.computeIfAbsent(pending.source(), s -> new TreeMap<>());
+        PageEntry entry = new PageEntry(pending.hash(), pending.chunkIds(), pending.questionIds(), pending.degraded());
+        PageEntry previous = pages.put(pending.pageNumber(), entry);
+
+        List<String> stale = new ArrayList<>();
+        if (previous != null) {
+            Set<String> current = new HashSet<>(entry.allIds());
+            previous.allIds().stream().filter(id -> !current.contains(id)).forEach(stale::add);
+        }
+        return new CompletedPage(pending.source(), pending.pageNumber(), stale);
+    }
+
+    /**
+     * 이번 수집에서 다시 기록되었거나 사라진 페이지의 첫/마지막 청크가 이전 기록과 달라졌다면, 그 페이지를 가리키던
+     * 이웃 페이지의 경계 청크(앞 페이지의 마지막 청크의 next_chunk_id, 뒤 페이지의 첫 청크의 prev_chunk_id)를 고칠 목록을 만듭니다.
+     * 이웃 페이지도 이번에 다시 기록되었다면 파이프라인에서 이미 서로 연결했으므로 제외합니다.
+     *
+     * @param previousPages  수집 전의 페이지 기록 ({@link #pages}로 미리 떠 둔 것)
+     * @param rewrittenPages 이번 수집에서 다시 기록한 페이지 번호
+     */
+    public synchronized List<NeighborLink> staleNeighborLinks(String source, Map<Integer, PageEntry> previousPages,
+                                                              Set<Integer> rewrittenPages) {
+        TreeMap<Integer, PageEntry> current = sources.getOrDefault(source, new TreeMap<>());
+        Set<Integer> changed = new TreeSet<>(rewrittenPages);
+        previousPages.keySet().stream().filter(page -> !current.containsKey(page)).forEach(changed::add);
+
+        List<NeighborLink> links = new ArrayList<>();
+        for (int page : changed) {
+            PageEntry before = previousPages.get(page);
+            PageEntry after = current.get(page);
+            String firstBefore = firstChunkId(before), firstAfter = firstChunkId(after);
+            String lastBefore = lastChunkId(before), lastAfter = lastChunkId(after);
+
+            PageEntry previousPage = changed.contains(page - 1) ? null : current.get(page - 1);
+            if (!Objects.equals(firstBefore, firstAfter) && lastChunkId(previousPage) != null) {
+                links.add(new NeighborLink(lastChunkId(previousPage), "next_chunk_id", firstAfter));
+            }
+            PageEntry nextPage = changed.contains(page + 1) ? null : current.get(page + 1);
+            if (!Objects.equals(lastBefore, lastAfter) && firstChunkId(nextPage) != null) {
+                links.add(new NeighborLink(firstChunkId(nextPage), "prev_chunk_id", lastAfter));
+            }
+        }
+        return links;
+    }
+
+    private static String firstChunkId(PageEntry entry) {
+        return entry == null || entry.chunkIds().isEmpty() ? null : entry.chunkIds().getFirst();
+    }
+
+    private static String lastChunkId(PageEntry entry) {
+        return entry == null || entry.chunkIds().isEmpty() ? null : entry.chunkIds().getLast();
+    }
+
+    /**
+     * 임시 파일에 쓴 뒤 교체하여, 쓰는 도중 종료되어도 기존 기록이 깨지지 않도록 합니다.
+     * 파일 쓰기는 기록 갱신(beginPage/chunksWritten)을 막지 않도록 별도 잠금에서 하며, 스냅샷도 같은 잠금 안에서 떠서
+     * 먼저 뜬 스냅샷이 나중 것을 덮어쓰지 않게 합니다.
+     */
+    public void save() {
+        synchronized (fileLock) {
+            Snapshot snapshot;
+            synchronized (this) {
+                Map<String, Map<Integer, PageEntry>> copy = new TreeMap<>();
+                sources.forEach((source, pages) -> copy.put(source, new TreeMap<>(pages)));
+                snapshot = new Snapshot(version, copy);
+            }
+            try {
+                Path parent = path.toAbsolutePath().getParent();
+                if (parent != null) Files.createDirectories(parent);
+                Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+                objectMapper.writeValue(tmp.toFile(), snapshot);
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                logger.error("Failed to write ingestion manifest: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    public static String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 수집 과정을 load → refine → split → embed/upsert 단계로 나누어 가상 스레드에서 동시에 실행합니다.
+ * 단계 사이는 크기가 제한된 큐로 연결되어 뒤 단계가 느리면 앞 단계가 자연스럽게 대기(back-pressure)하고,
+ * 외부 API 호출의 속도 제한은 각 단계 함수(Refiner, Writer)가 {@link RateLimitedCaller}로 적용합니다
+ * (캐시된 정제 결과처럼 API를 호출하지 않는 경우에는 한도를 소모하지 않도록).
+ *
+ * <p>refine 작업자들은 순서와 무관하게 끝나므로 split 단계에서 페이지 순서를 복원한 뒤
+ * 청크를 나누고, 페이지 경계를 넘어 앞뒤 청크 ID(prev_chunk_id/next_chunk_id)를 연결합니다.
+ * 바뀐 페이지만 다시 수집하는 경우처럼 중간 페이지가 빠져 있으면(page_number가 연속하지 않으면) 연결하지 않습니다.
+ * 어느 단계든 실패하면 나머지 단계를 모두 중단하고 예외를 그대로 전달합니다.</p>
+ */
+public class IngestionPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionPipeline.class);
+
+    public record Settings(int queueCapacity,
+                           int refineBatchSize, int refineConcurrency,
+                           int upsertBatchSize, int upsertConcurrency) {
+    }
+
+    @FunctionalInterface
+    public interface Refiner {
+        /** 페이지 배치를 정제하여 같은 순서, 같은 개수로 반환합니다. */
+        List<Document> refine(List<Document> pages) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Splitter {
+        /** 정제된 한 페이지를 청크로 나눕니다. */
+        List<Document> split(Document page);
+    }
+
+    @FunctionalInterface
+    public interface Writer {
+        /** 청크 배치를 임베딩하여 저장합니다. */
+        void write(List<Document> chunks) throws Exception;
+    }
+
+    public record Result(int pages, int chunks) {
+    }
+
+    /** 큐 종료 표시. 같은 단계의 작업자 수만큼 넣어 모든 작업자가 종료되도록 합니다. */
+    private record Batch(int firstPageIndex, List<Document> documents) {
+        static final Batch END = new Batch(-1, List.of());
+    }
+
+    private final Settings settings;
+    private final RefineBatchPlanner batchPlanner;
+
+    public IngestionPipeline(Settings settings) {
+        this(settings, RefineBatchPlanner.pages(settings.refineBatchSize()));
+    }
+
+    /**
+     * @param batchPlanner refine 배치를 나누는 기준 (페이지 수 상한은 batchPlanner의 값을 따름)
+     */
+    public IngestionPipeline(Settings settings, RefineBatchPlanner batchPlanner) {
+        this.settings = settings;
+        this.batchPlanner = batchPlanner;
+    }
+
+    public Result run(Iterator<Document> pages, Refiner refiner, Splitter splitter, Writer writer) throws Exception {
+        BlockingQueue<Batch> pageQueue = new ArrayBlockingQueue<>(settings.queueCapacity());
+        BlockingQueue<Batch> refinedQueue = new ArrayBlockingQueue<>(settings.queueCapacity());
+        BlockingQueue<Batch> chunkQueue = new ArrayBlockingQueue<>(settings.queueCapacity());
+
+        AtomicInteger pageCount = new AtomicInteger();
+        AtomicInteger refinedCount = new AtomicInteger();
+        AtomicInteger chunkCount = new AtomicInteger();
+
+        List<Callable<Void>> stages = new ArrayList<>();
+
+        // 1. load: 페이지를 refine 배치 단위(예상 토큰 수 기준)로 묶어 전달
+        stages.add(() -> {
+            RefineBatchPlanner.Batcher batcher = batchPlanner.batcher();
+            int firstIndex = 0;
+            while (pages.hasNext()) {
+                List<Document> closed = batcher.add(pages.next());
+                if (closed != null) {
+                    pageQueue.put(new Batch(firstIndex, closed));
+                    firstIndex += closed.size();
+                }
+            }
+            List<Document> batch = batcher.drain();
+            if (!batch.isEmpty()) {
+                pageQueue.put(new Batch(firstIndex, batch));
+                firstIndex += batch.size();
+            }
+            pageCount.set(firstIndex);
+            for (int i = 0; i < settings.refineConcurrency(); i++) pageQueue.put(Batch.END);
+            return null;
+        });
+
+        // 2. refine: 여러 작업자가 병렬로 정제
+        for (int w = 0; w < settings.refineConcurrency(); w++) {
+            stages.add(() -> {
+                try {
+                    for (Batch batch = pageQueue.take(); batch != Batch.END; batch = pageQueue.take()) {
+                        Batch input = batch;
+                        List<Document> refined = refiner.refine(input.documents());
+                        refinedQueue.put(new Batch(input.firstPageIndex(), refined));
+                        logger.info("Refined pages {}-{} ({} done)", pageNumber(input.documents().getFirst()),
+                                pageNumber(input.documents().getLast()), refinedCount.addAndGet(refined.size()));
+                    }
+                } finally {
+                    refinedQueue.put(Batch.END);
+                }
+                return null;
+            });
+        }
+
+        // 3. split: 페이지 순서를 복원하여 청크로 나누고 앞뒤 청크를 연결
+        stages.add(() -> {
+            TreeMap<Integer, Batch> reorderBuffer = new TreeMap<>();
+            int nextPageIndex = 0;
+            int finishedRefiners = 0;
+            Document pending = null; // 다음 청크 ID를 알아야 기록할 수 있으므로 하나씩 늦게 내보냄
+            Document previousPage = null;
+            List<Document> out = new ArrayList<>(settings.upsertBatchSize());
+
+            while (finishedRefiners < settings.refineConcurrency()) {
+                Batch batch = refinedQueue.take();
+                if (batch == Batch.END) {
+                    finishedRefiners++;
+                    continue;
+                }
+                reorderBuffer.put(batch.firstPageIndex(), batch);
+
+                while (!reorderBuffer.isEmpty() && reorderBuffer.firstKey() == nextPageIndex) {
+                    Batch ready = reorderBuffer.pollFirstEntry().getValue();
+                    for (Document page : ready.documents()) {
+                        boolean adjacent = previousPage != null && isNextPage(previousPage, page);
+                        List<Document> chunks = splitter.split(page);
+                        for (int i = 0; i < chunks.size(); i++) {
+                            Document chunk = chunks.get(i);
+                            if (pending != null) {
+                                if (i > 0 || adjacent) link(pending, chunk);
+                                emit(pending, out, chunkQueue);
+                            }
+                            pending = chunk;
+                        }
+                        previousPage = page;
+                        nextPageIndex++;
+                    }
+                }
+            }
+            if (pending != null) emit(pending, out, chunkQueue);
+            if (!out.isEmpty()) chunkQueue.put(new Batch(-1, out));
+            for (int i = 0; i < settings.upsertConcurrency(); i++) chunkQueue.put(Batch.END);
+            return null;
+        });
+
+        // 4. embed/upsert: 여러 작업자가 병렬로 기록
+        for (int w = 0; w < settings.upsertConcurrency(); w++) {
+            stages.add(() -> {
+                for (Batch batch = chunkQueue.take(); batch != Batch.END; batch = chunkQueue.take()) {
+                    List<Document> chunks = batch.documents();
+                    writer.write(chunks);
+                    logger.info("Upserted {} chunks ({} total)", chunks.size(), chunkCount.addAndGet(chunks.size()));
+                }
+                return null;
+            });
+        }
+
+        runAll(stages);
+        return new Result(pageCount.get(), chunkCount.get());
+    }
+
+    private void emit(Document chunk, List<Document> out, BlockingQueue<Batch> chunkQueue) throws InterruptedException {
+        out.add(chunk);
+        if (out.size() == settings.upsertBatchSize()) {
+            chunkQueue.put(new Batch(-1, new ArrayList<>(out)));
+            out.clear();
+        }
+    }
+
+    private static Object pageNumber(Document page) {
+        return page.getMetadata().getOrDefault("page_number", "?");
+    }
+
+    private static boolean isNextPage(Document previous, Document next) {
+        Object previousNumber = previous.getMetadata().get("page_number");
+        Object nextNumber = next.getMetadata().get("page_number");
+        if (!(previousNumber instanceof Number p) || !(nextNumber instanceof Number n)) return true;
+        return n.intValue() == p.intValue() + 1;
+    }
+
+    private static void link(Document previous, Document next) {
+        previous.getMetadata().put("next_chunk_id", next.getId());
+        next.getMetadata().put("prev_chunk_id", previous.getId());
+    }
+
+    /**
+     * 모든 단계를 가상 스레드에서 실행하고, 하나라도 실패하면 나머지를 인터럽트하여 중단합니다.
+     */
+    private static void runAll(List<Callable<Void>> stages) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var completion = new ExecutorCompletionService<Void>(executor);
+            stages.forEach(completion::submit);
+            try {
+                for (int i = 0; i < stages.size(); i++) {
+                    completion.take().get();
+                }
+            } catch (ExecutionException e) {
+                executor.shutdownNow();
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 백그라운드 수집 작업의 진행 상황을 기록하고, /api/ingestion/status 응답용 스냅샷을 만듭니다.
+ * 수집 작업자(가상 스레드)들이 갱신하고 HTTP 요청 스레드가 읽으므로 모든 메서드는 동기화되어 있습니다.
+ */
+@Component
+public class IngestionProgress {
+
+    public enum State { IDLE, RUNNING, COMPLETED, FAILED }
+
+    private static final int MAX_ERRORS = 20;
+
+    /**
+     * @param ready          벡터 저장소에 답변에 쓸 수 있는 데이터가 있는지 (이전 수집분 포함, 수집 중에도 true일 수 있음)
+     * @param filesTotal     이번 수집 대상 PDF 파일 수
+     * @param filesDone      처리가 끝난 (실패 포함) 파일 수
+     * @param totalPages     지금까지 읽은 페이지 수 (파일을 한 페이지씩 읽으므로 수집이 진행되며 늘어남)
+     * @param pagesSkipped   내용이 바뀌지 않아 건너뛴 페이지 수
+     * @param pagesPending   이번에 처리해야 하는 (새로 추가되었거나 바뀐) 페이지 수
+     * @param pagesDone      처리 대상 중 모든 청크 기록까지 완료된 페이지 수
+     * @param etaSeconds     지금까지의 처리 속도 기준 남은 예상 시간 (이미 읽은 페이지 기준, 계산할 수 없으면 null)
+     */
+    public record Status(State state, boolean ready, String source, int filesTotal, int filesDone,
+                         int totalPages, int pagesSkipped, int pagesPending, int pagesDone, int chunksUpserted,
+                         Instant startedAt, Instant finishedAt, Long elapsedSeconds, Long etaSeconds,
+                         List<String> errors) {
+    }
+
+    private final Clock clock;
+
+    private State state = State.IDLE;
+    private boolean ready;
+    private String source;
+    private int filesTotal;
+    private int filesDone;
+    private int totalPages;
+    private int pagesSkipped;
+    private int pagesPending;
+    private int pagesDone;
+    private int chunksUpserted;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private final Deque<String> errors = new ArrayDeque<>();
+
+    public IngestionProgress() {
+        this(Clock.systemUTC());
+    }
+
+    IngestionProgress(Clock clock) {
+        this.clock = clock;
+    }
+
+    public synchronized void start(String source) {
+        this.state = State.RUNNING;
+        this.source = source;
+        this.filesTotal = 0;
+        this.filesDone = 0;
+        this.totalPages = 0;
+        this.pagesSkipped = 0;
+        this.pagesPending = 0;
+        this.pagesDone = 0;
+        this.chunksUpserted = 0;
+        this.startedAt = clock.instant();
+        this.finishedAt = null;
+        this.errors.clear();
+    }
+
+    public synchronized void planned(int totalPages, int pagesPending) {
+        this.totalPages = totalPages;
+        this.pagesPending = pagesPending;
+        this.pagesSkipped = totalPages - pagesPending;
+    }
+
+    public synchronized void filesPlanned(int filesTotal) {
+        this.filesTotal = filesTotal;
+    }
+
+    public synchronized void fileDone() {
+        this.filesDone++;
+    }
+
+    /**
+     * 내용이 바뀌지 않아 건너뛴 페이지를 더합니다. (페이지를 읽는 대로 호출)
+     */
+    public synchronized void pagesSkipped(int count) {
+        this.totalPages += count;
+        this.pagesSkipped += count;
+    }
+
+    /**
+     * 새로 처리해야 하는 페이지를 더합니다. (페이지를 읽는 대로 호출)
+     */
+    public synchronized void pagesQueued(int count) {
+        this.totalPages += count;
+        this.pagesPending += count;
+    }
+
+    public synchronized void markReady() {
+        this.ready = true;
+    }
+
+    public synchronized void pagesCompleted(int count) {
+        this.pagesDone += count;
+    }
+
+    public synchronized void chunksUpserted(int count) {
+        this.chunksUpserted += count;
+        if (count > 0) this.ready = true;
+    }
+
+    public synchronized void recordError(String message) {
+        if (errors.size() == MAX_ERRORS) errors.removeFirst();
+        errors.addLast(clock.instant() + " " + message);
+    }
+
+    public synchronized void completed() {
+        this.state = State.COMPLETED;
+        this.finishedAt = clock.instant();
+    }
+
+    public synchronized void failed(String message) {
+        recordError(message);
+        this.state = State.FAILED;
+        this.finishedAt = clock.instant();
+    }
+
+    public synchronized Status status() {
+        Long elapsed = null;
+        Long eta = null;
+        if (startedAt != null) {
+            Instant end = finishedAt != null ? finishedAt : clock.instant();
+            elapsed = Duration.between(startedAt, end).toSeconds();
+            if (state == State.RUNNING && pagesDone > 0) {
+                double secondsPerPage = Duration.between(startedAt, end).toMillis() / 1000.0 / pagesDone;
+                eta = Math.round(secondsPerPage * Math.max(0, pagesPending - pagesDone));
+            }
+        }
+        return new Status(state, ready, source, filesTotal, filesDone, totalPages, pagesSkipped, pagesPending, pagesDone, chunksUpserted,
+                startedAt, finishedAt, elapsed, eta, List.copyOf(errors));
+    }
+}
@@ -0,0 +1,120 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.reader.ExtractedTextFormatter;
+import org.springframework.ai.reader.pdf.PagePdfDocumentReader;
+import org.springframework.ai.reader.pdf.layout.PDFLayoutTextStripperByArea;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StringUtils;
+
+import java.awt.Rectangle;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * PDF를 한 페이지씩 읽습니다.
+ *
+ * <p>PagePdfDocumentReader.get()은 모든 페이지를 목록으로 만들어 반환하므로, 같은 방식(페이지 전체 영역의 레이아웃 텍스트 +
+ * 기본 ExtractedTextFormatter)으로 추출하되 next()를 호출할 때마다 한 페이지만 추출합니다. 추출 결과가 같아야
+ * 매니페스트의 페이지 해시가 바뀌지 않습니다. 텍스트가 없는 페이지는 건너뛰며 page_number는 실제 쪽 번호입니다.</p>
+ *
+ * <p>파일은 임시 파일 스트림 캐시로 열어 큰 PDF도 힙에 통째로 올리지 않습니다. (클래스패스 리소스처럼 파일이 아닌 경우는 메모리 버퍼)</p>
+ */
+public final class PdfPageReader implements Iterator<Document>, Closeable {
+
+    private static final String PAGE_REGION = "pdfPageRegion";
+
+    private final PDDocument document;
+    private final String fileName;
+    private final Iterator<PDPage> pages;
+    private final PDFLayoutTextStripperByArea stripper = new PDFLayoutTextStripperByArea();
+    private final ExtractedTextFormatter formatter = ExtractedTextFormatter.defaults();
+
+    private int pageNumber;
+    private Document next;
+
+    private PdfPageReader(PDDocument document, String fileName) throws IOException {
+        this.document = document;
+        this.fileName = fileName;
+        this.pages = document.getPages().iterator();
+    }
+
+    public static PdfPageReader open(Resource resource) throws IOException {
+        PDDocument document;
+        if (resource.isFile()) {
+            document = Loader.loadPDF(resource.getFile(), IOUtils.createTempFileOnlyStreamCache());
+        } else {
+            try (InputStream in = resource.getInputStream()) {
+                document = Loader.loadPDF(new RandomAccessReadBuffer(in));
+            }
+        }
+        try {
+            return new PdfPageReader(document, resource.getFilename());
+        } catch (IOException | RuntimeException e) {
+            document.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 빈 페이지를 포함한 전체 쪽 수
+     */
+    public int pageCount() {
+        return document.getNumberOfPages();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && pages.hasNext()) {
+            PDPage page = pages.next();
+            pageNumber++;
+            try {
+                next = extract(page, pageNumber);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read page " + pageNumber + " of " + fileName, e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Document next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Document page = next;
+        next = null;
+        return page;
+    }
+
+    private Document extract(PDPage page, int number) throws IOException {
+        PDRectangle box = page.getMediaBox();
+        stripper.addRegion(PAGE_REGION, new Rectangle((int) box.getLowerLeftX(), (int) box.getLowerLeftY(),
+                (int) box.getWidth(), (int) box.getHeight()));
+        try {
+            stripper.extractRegions(page);
+            String text = stripper.getTextForRegion(PAGE_REGION);
+            if (!StringUtils.hasText(text)) return null;
+
+            Document document = new Document(formatter.format(text, number));
+            document.getMetadata().put(PagePdfDocumentReader.METADATA_START_PAGE_NUMBER, number);
+            if (fileName != null) document.getMetadata().put(PagePdfDocumentReader.METADATA_FILE_NAME, fileName);
+            return document;
+        } finally {
+            stripper.removeRegion(PAGE_REGION);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        document.close();
+    }
+}
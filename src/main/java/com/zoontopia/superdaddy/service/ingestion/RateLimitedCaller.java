@@ -0,0 +1,120 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import com.google.genai.errors.ApiException;
+import io.grpc.Status;
+import io.grpc.StatusException;
+import io.grpc.StatusRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 토큰 버킷으로 호출 속도를 맞추고, 429/RESOURCE_EXHAUSTED 응답에는 적응형 백오프로 대응합니다.
+ * 백오프 간격은 작업자들이 공유하여 연속으로 한도에 걸리면 두 배씩 늘어나고, 성공이 이어지면 다시 줄어듭니다.
+ * 한도 초과가 아닌 예외는 재시도하지 않고 그대로 던집니다.
+ */
+public class RateLimitedCaller {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitedCaller.class);
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final String name;
+    private final TokenBucket bucket;
+    private final int maxRetries;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private long backoffMillis;
+
+    public RateLimitedCaller(String name, TokenBucket bucket, int maxRetries,
+                             Duration initialBackoff, Duration maxBackoff) {
+        this.name = name;
+        this.bucket = bucket;
+        this.maxRetries = maxRetries;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.backoffMillis = initialBackoffMillis;
+    }
+
+    public <T> T call(int permits, Callable<T> call) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            bucket.acquire(permits);
+            try {
+                T result = call.call();
+                onSuccess();
+                return result;
+            } catch (Exception e) {
+                if (!isRateLimited(e) || attempt >= maxRetries) throw e;
+
+                long delay = nextBackoff();
+                logger.warn("[{}] Rate limited ({}). Backing off {} ms (attempt {}/{})",
+                        name, e.getMessage(), delay, attempt + 1, maxRetries);
+                bucket.pause(Duration.ofMillis(delay));
+            }
+        }
+    }
+
+    public void run(int permits, ThrowingRunnable runnable) throws Exception {
+        call(permits, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    private synchronized long nextBackoff() {
+        long base = backoffMillis;
+        backoffMillis = Math.min(maxBackoffMillis, backoffMillis * 2);
+        // 여러 작업자가 같은 시각에 재개하지 않도록 ±20% 지터
+        return (long) (base * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+
+    private synchronized void onSuccess() {
+        if (backoffMillis > initialBackoffMillis) {
+            backoffMillis = Math.max(initialBackoffMillis, backoffMillis / 2);
+        }
+    }
+
+    /**
+     * 원인 체인에서 한도 초과를 나타내는 응답 코드를 찾습니다. 메시지 문자열은 보지 않으므로 본문에 "429"나 "quota"가
+     * 들어 있는 다른 오류를 한도 초과로 오인하지 않습니다.
+     * <ul>
+     *   <li>Gemini(Google GenAI SDK): {@link ApiException#code()} 429</li>
+     *   <li>Spring HTTP 클라이언트: 응답 상태 429</li>
+     *   <li>gRPC(Qdrant): {@link Status.Code#RESOURCE_EXHAUSTED}. 단, 메시지 크기 한도 초과도 같은 코드로 오며
+     *       이는 다시 보내도 같으므로 제외</li>
+     * </ul>
+     */
+    public static boolean isRateLimited(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ApiException api && api.code() == TOO_MANY_REQUESTS) return true;
+            if (t instanceof RestClientResponseException http && http.getStatusCode().value() == TOO_MANY_REQUESTS) {
+                return true;
+            }
+            Status status = t instanceof StatusRuntimeException runtime ? runtime.getStatus()
+                    : t instanceof StatusException checked ? checked.getStatus() : null;
+            if (status != null && status.getCode() == Status.Code.RESOURCE_EXHAUSTED && !isMessageTooLarge(status)) {
+                return true;
+            }
+            if (t.getCause() == t) break;
+        }
+        return false;
+    }
+
+    private static boolean isMessageTooLarge(Status status) {
+        String description = status.getDescription();
+        if (description == null) return false;
+        String lower = description.toLowerCase(Locale.ROOT);
+        return lower.contains("larger than max") || lower.contains("exceeds maximum size") || lower.contains("too large");
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
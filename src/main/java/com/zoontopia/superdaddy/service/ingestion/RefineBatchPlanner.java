@@ -0,0 +1,96 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * 정제 배치를 페이지 수가 아니라 예상 토큰 수로 나눕니다.
+ *
+ * <p>짧은 페이지는 한 번의 호출에 더 많이 묶고(최대 max-pages), 긴 페이지는 입력 토큰 예산이나 예상 출력 토큰 예산
+ * (정제 본문은 원문과 비슷한 길이 + 제목/키워드/예상 질문)을 넘기 전에 배치를 닫습니다.
+ * 예산보다 큰 페이지 하나는 단독 배치가 됩니다.</p>
+ */
+public final class RefineBatchPlanner {
+
+    // 정제 본문은 원문보다 약간 길어질 수 있음 (잘린 단어 복구, 문장부호 보정)
+    static final double OUTPUT_RATIO = 1.1;
+    // 페이지마다 덧붙는 section_title, keywords, questions와 JSON 구조
+    static final int PAGE_OUTPUT_OVERHEAD = 250;
+
+    private final int maxPages;
+    private final int maxInputTokens;
+    private final int maxOutputTokens;
+    private final ToIntFunction<String> tokenCounter;
+
+    public RefineBatchPlanner(int maxPages, int maxInputTokens, int maxOutputTokens, ToIntFunction<String> tokenCounter) {
+        if (maxPages <= 0) throw new IllegalArgumentException("maxPages must be positive");
+        this.maxPages = maxPages;
+        this.maxInputTokens = maxInputTokens;
+        this.maxOutputTokens = maxOutputTokens;
+        this.tokenCounter = tokenCounter;
+    }
+
+    /**
+     * 페이지 수로만 나누는 계획 (토큰 예산 없음)
+     */
+    public static RefineBatchPlanner pages(int maxPages) {
+        return new RefineBatchPlanner(maxPages, Integer.MAX_VALUE, Integer.MAX_VALUE, text -> 0);
+    }
+
+    public int maxPages() {
+        return maxPages;
+    }
+
+    static int estimateOutputTokens(int inputTokens) {
+        return (int) Math.ceil(inputTokens * OUTPUT_RATIO) + PAGE_OUTPUT_OVERHEAD;
+    }
+
+    public Batcher batcher() {
+        return new Batcher();
+    }
+
+    /**
+     * 페이지를 순서대로 받아 예산이 찰 때마다 배치를 내보냅니다. 한 스레드에서만 사용합니다.
+     */
+    public final class Batcher {
+
+        private List<Document> batch = new ArrayList<>();
+        private long inputTokens;
+        private long outputTokens;
+
+        /**
+         * 페이지를 더합니다. 이 페이지가 현재 배치에 들어가지 않으면 현재 배치를 닫아 반환하고 새 배치를 시작합니다.
+         *
+         * @return 닫힌 배치 (없으면 null)
+         */
+        public List<Document> add(Document page) {
+            int pageInput = page.getText() == null ? 0 : tokenCounter.applyAsInt(page.getText());
+            int pageOutput = estimateOutputTokens(pageInput);
+
+            List<Document> closed = null;
+            if (!batch.isEmpty() && (batch.size() >= maxPages
+                    || inputTokens + pageInput > maxInputTokens
+                    || outputTokens + pageOutput > maxOutputTokens)) {
+                closed = drain();
+            }
+            batch.add(page);
+            inputTokens += pageInput;
+            outputTokens += pageOutput;
+            return closed;
+        }
+
+        /**
+         * 남은 배치를 반환하고 비웁니다 (비어 있으면 빈 목록).
+         */
+        public List<Document> drain() {
+            List<Document> closed = batch;
+            batch = new ArrayList<>();
+            inputTokens = 0;
+            outputTokens = 0;
+            return closed;
+        }
+    }
+}
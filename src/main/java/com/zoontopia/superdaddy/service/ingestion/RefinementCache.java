@@ -0,0 +1,179 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * LLM 정제 결과를 디스크에 보관하는 추가 전용(append-only) 저장소입니다.
+ * 재수집(스키마 변경, 임베딩 모델/청크 크기 변경 등) 시 같은 페이지를 다시 정제하지 않도록 키(페이지 해시 + 프롬프트 버전)로 조회합니다.
+ *
+ * <p>파일 형식: 헤더(magic, version) 뒤에 레코드가 이어집니다.
+ * 레코드 = [본문 길이 int][키 길이 short][키 UTF-8][값 UTF-8][CRC32 int].
+ * 열 때 파일을 한 번 순차로 읽어 키 → 값 위치 색인을 메모리에 만들고, 조회는 해당 위치만 읽습니다.
+ * 같은 키가 다시 기록되면 마지막 레코드가 유효하며, 기록 도중 종료되어 끝이 잘린 레코드는 열 때 잘라냅니다.</p>
+ *
+ * <p>여러 수집 작업자가 동시에 사용할 수 있습니다.</p>
+ */
+public class RefinementCache implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefinementCache.class);
+
+    private static final int MAGIC = 0x52464331; // "RFC1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private record Location(long valueOffset, int valueLength) {
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Map<String, Location> index = new HashMap<>();
+    private long end;
+    private int hits;
+    private int misses;
+
+    private RefinementCache(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    public static RefinementCache open(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        RefinementCache cache = new RefinementCache(path, channel);
+        try {
+            cache.loadIndex();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return cache;
+    }
+
+    public synchronized Optional<String> get(String key) {
+        Location location = index.get(key);
+        if (location == null) {
+            misses++;
+            return Optional.empty();
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(location.valueLength());
+            readFully(buffer, location.valueOffset());
+            hits++;
+            return Optional.of(new String(buffer.array(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Refinement cache read failed for {}: {}", key, e.getMessage());
+            misses++;
+            return Optional.empty();
+        }
+    }
+
+    public synchronized void put(String key, String value) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 2 + keyBytes.length + valueBytes.length;
+
+        CRC32 crc = new CRC32();
+        crc.update(keyBytes);
+        crc.update(valueBytes);
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 + bodyLength + 4);
+        buffer.putInt(bodyLength).putShort((short) keyBytes.length).put(keyBytes).put(valueBytes)
+                .putInt((int) crc.getValue()).flip();
+
+        long recordOffset = end;
+        while (buffer.hasRemaining()) {
+            end += channel.write(buffer, end);
+        }
+        index.put(key, new Location(recordOffset + 4 + 2 + keyBytes.length, valueBytes.length));
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) return;
+        channel.force(false);
+        channel.close();
+        logger.info("Refinement cache closed: {} entries ({} hits, {} misses)", index.size(), hits, misses);
+    }
+
+    private void loadIndex() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+            channel.write(header, 0);
+            end = HEADER_SIZE;
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+            throw new IOException("Not a refinement cache file: " + path);
+        }
+
+        long offset = HEADER_SIZE;
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        while (offset + 4 <= size) {
+            lengthBuffer.clear();
+            readFully(lengthBuffer, offset);
+            int bodyLength = lengthBuffer.flip().getInt();
+            if (bodyLength < 2 || bodyLength > MAX_RECORD_SIZE || offset + 4 + bodyLength + 4 > size) break;
+
+            ByteBuffer record = ByteBuffer.allocate(bodyLength + 4);
+            readFully(record, offset + 4);
+            record.flip();
+            int keyLength = Short.toUnsignedInt(record.getShort());
+            if (keyLength > bodyLength - 2) break;
+            byte[] keyBytes = new byte[keyLength];
+            record.get(keyBytes);
+            byte[] valueBytes = new byte[bodyLength - 2 - keyLength];
+            record.get(valueBytes);
+
+            CRC32 crc = new CRC32();
+            crc.update(keyBytes);
+            crc.update(valueBytes);
+            if ((int) crc.getValue() != record.getInt()) break;
+
+            index.put(new String(keyBytes, StandardCharsets.UTF_8),
+                    new Location(offset + 4 + 2 + keyLength, valueBytes.length));
+            offset += 4 + bodyLength + 4;
+        }
+
+        if (offset < size) {
+            logger.warn("Refinement cache {} has a truncated or corrupt tail at {} (size {}). Discarding it.",
+                    path, offset, size);
+            channel.truncate(offset);
+        }
+        end = offset;
+        logger.info("Refinement cache opened: {} ({} entries)", path, index.size());
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) throw new IOException("Unexpected end of refinement cache file");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 토큰 버킷 방식의 처리율 제한기입니다. 여러 가상 스레드가 하나의 버킷을 공유하며,
+ * 허용량(분당 요청 수 등)만큼은 쉬지 않고 호출하고 초과분만 대기합니다.
+ * 공급자가 429를 반환하면 {@link #pause(Duration)}로 버킷을 공유하는 모든 작업자를 함께 멈춥니다.
+ */
+public class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+
+    private double available;
+    private long lastRefill;
+    private long pausedUntil;
+
+    /**
+     * @param permitsPerMinute 분당 허용량 (요청 수 또는 항목 수)
+     * @param burst            한 번에 몰아서 쓸 수 있는 최대 허용량
+     */
+    public TokenBucket(double permitsPerMinute, int burst) {
+        this(permitsPerMinute, burst, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerMinute, int burst, LongSupplier nanoClock) {
+        if (permitsPerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerMinute and burst must be positive");
+        }
+        this.permitsPerNano = permitsPerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.capacity = burst;
+        this.nanoClock = nanoClock;
+        this.available = burst;
+        this.lastRefill = nanoClock.getAsLong();
+        this.pausedUntil = lastRefill;
+    }
+
+    /**
+     * 허용량을 확보할 때까지 대기합니다. 버스트보다 큰 요청은 버스트 크기로 잘라 계산합니다.
+     */
+    public void acquire(int permits) throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryReserve(permits)) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * 허용량을 즉시 차감할 수 있으면 차감하고 0을, 아니면 다시 시도하기까지 기다려야 할 시간(ns)을 반환합니다.
+     */
+    synchronized long tryReserve(int permits) {
+        long now = nanoClock.getAsLong();
+        if (now < pausedUntil) return pausedUntil - now;
+
+        refill(now);
+        double needed = Math.min(permits, capacity);
+        if (available >= needed) {
+            available -= needed;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((needed - available) / permitsPerNano));
+    }
+
+    /**
+     * 지정한 시간 동안 모든 acquire를 보류하고, 재개 시 버스트로 몰리지 않도록 적립분을 비웁니다.
+     */
+    public synchronized void pause(Duration duration) {
+        long now = nanoClock.getAsLong();
+        pausedUntil = Math.max(pausedUntil, now + duration.toNanos());
+        available = 0;
+        lastRefill = pausedUntil;
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            available = Math.min(capacity, available + (now - lastRefill) * permitsPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.zoontopia.superdaddy.service.loadtest;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 부하 테스트(loadtest 프로필)에서 Gemini 대신 사용하는 ChatModel입니다.
+ * 첫 토큰까지의 지연과 초당 토큰 수를 설정값대로 흉내 내어, 외부 API 없이 서버 쪽 파이프라인의 처리량과 지연을 측정할 수 있게 합니다.
+ *
+ * <p>토큰 사용량은 실제 토크나이저 대신 글자 수로 근사해 응답 메타데이터에 기록합니다.</p>
+ */
+public class FakeChatModel implements ChatModel {
+
+    private static final String MODEL = "fake-chat";
+    private static final String[] WORDS = {
+            "아기가 ", "편안하게 ", "잠들 ", "수 ", "있도록 ", "방 ", "온도를 ", "22~24도로 ", "맞춰 ", "주세요. ",
+            "수유 ", "후에는 ", "트림을 ", "꼭 ", "시켜 ", "주시고, ", "걱정되는 ", "증상이 ", "있으면 ", "소아과에 ",
+            "문의해 ", "보세요. ",
+    };
+
+    private final Duration firstTokenLatency;
+    private final double tokensPerSecond;
+    private final int responseTokens;
+
+    /**
+     * @param firstTokenLatency 요청 후 첫 토큰이 나오기까지의 지연 (프롬프트 처리 시간)
+     * @param tokensPerSecond   이후 토큰 생성 속도 (0 이하이면 지연 없이 한 번에 생성)
+     * @param responseTokens    응답 토큰 수
+     */
+    public FakeChatModel(Duration firstTokenLatency, double tokensPerSecond, int responseTokens) {
+        this.firstTokenLatency = firstTokenLatency;
+        this.tokensPerSecond = tokensPerSecond;
+        this.responseTokens = responseTokens;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        sleep(firstTokenLatency.plus(tokenInterval().multipliedBy(responseTokens)));
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < responseTokens; i++) {
+            text.append(token(i));
+        }
+        return response(text.toString(), usage(prompt, responseTokens));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        Flux<Integer> indices = Flux.range(0, responseTokens);
+        Duration interval = tokenInterval();
+        if (!interval.isZero()) indices = indices.delayElements(interval);
+
+        return indices
+                .map(i -> response(token(i), i == responseTokens - 1 ? usage(prompt, responseTokens) : null))
+                .delaySubscription(firstTokenLatency);
+    }
+
+    private Duration tokenInterval() {
+        return tokensPerSecond > 0 ? Duration.ofNanos((long) (1_000_000_000L / tokensPerSecond)) : Duration.ZERO;
+    }
+
+    private static String token(int index) {
+        return WORDS[index % WORDS.length];
+    }
+
+    private static DefaultUsage usage(Prompt prompt, int completionTokens) {
+        return new DefaultUsage(estimateTokens(prompt.getContents()), completionTokens);
+    }
+
+    /**
+     * 한국어 텍스트 기준 대략 글자 2개당 토큰 1개로 근사합니다.
+     */
+    static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + 1) / 2;
+    }
+
+    private static ChatResponse response(String text, DefaultUsage usage) {
+        ChatResponseMetadata.Builder metadata = ChatResponseMetadata.builder().model(MODEL);
+        if (usage != null) metadata.usage(usage);
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))), metadata.build());
+    }
+
+    static void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) return;
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while simulating model latency", e);
+        }
+    }
+}
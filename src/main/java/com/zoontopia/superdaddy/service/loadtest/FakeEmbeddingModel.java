@@ -0,0 +1,62 @@
+package com.zoontopia.superdaddy.service.loadtest;
+
+import com.zoontopia.superdaddy.service.retrieval.KoreanTokenizer;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 부하 테스트(loadtest 프로필)에서 text-embedding-004 대신 사용하는 EmbeddingModel입니다.
+ * 한국어 2-gram 토큰을 해싱해 고정 차원 벡터를 만들기 때문에, 같은 단어를 공유하는 질문과 청크가 실제로 가깝게 검색됩니다.
+ * 호출마다 설정한 지연(네트워크 왕복 + 모델 처리 시간)을 흉내 냅니다.
+ */
+public class FakeEmbeddingModel implements EmbeddingModel {
+
+    private final int dimensions;
+    private final Duration latency;
+
+    public FakeEmbeddingModel(int dimensions, Duration latency) {
+        this.dimensions = dimensions;
+        this.latency = latency;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        FakeChatModel.sleep(latency);
+        List<String> texts = request.getInstructions();
+        List<Embedding> embeddings = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            embeddings.add(new Embedding(vector(texts.get(i)), i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        FakeChatModel.sleep(latency);
+        return vector(document.getText());
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    float[] vector(String text) {
+        float[] vector = new float[dimensions];
+        for (String token : KoreanTokenizer.tokenize(text)) {
+            int hash = token.hashCode();
+            // 해시 충돌이 한쪽으로 쌓이지 않도록 상위 비트로 부호를 정함
+            vector[Math.floorMod(hash, dimensions)] += (hash >>> 31) == 0 ? 1f : -1f;
+        }
+        // 토큰이 없는 입력도 0 벡터가 되지 않도록 (코사인 유사도 계산 시 NaN 방지)
+        vector[0] += 0.01f;
+        return vector;
+    }
+}
@@ -0,0 +1,145 @@
+package com.zoontopia.superdaddy.service.loadtest;
+
+import com.zoontopia.superdaddy.service.ingestion.IngestionProgress;
+import com.zoontopia.superdaddy.service.retrieval.KeywordSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 부하 테스트용 합성 코퍼스를 벡터 저장소와 BM25 색인에 적재합니다.
+ * 청크는 실제 수집 결과와 같은 형태(임베딩 본문 형식, source/page_number/chunk_index/section_title/keywords,
+ * chunk_id와 앞뒤 청크 ID)를 가지므로 검색 → 리랭킹 → 문맥 확장 경로가 운영과 같은 코드로 실행됩니다.
+ *
+ * <p>청크 ID가 결정적이므로 재시작할 때마다 다시 적재해도 같은 청크를 덮어씁니다.
+ * 요청을 받기 전에 적재가 끝나도록 (백그라운드 수집과 달리) 애플리케이션 시작 과정에서 동기로 실행합니다.</p>
+ */
+public class SyntheticCorpusSeeder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticCorpusSeeder.class);
+
+    static final String SOURCE = "loadtest_corpus.pdf";
+    private static final int BATCH_SIZE = 100;
+
+    private record Topic(String title, List<String> keywords, List<String> sentences) {
+    }
+
+    private static final List<Topic> TOPICS = List.of(
+            new Topic("신생아 목욕", List.of("목욕", "목욕물", "배꼽"), List.of(
+                    "목욕물 온도는 38~40도가 적당하며 팔꿈치를 담가 확인합니다.",
+                    "배꼽이 떨어지기 전에는 부분 목욕을 하고 목욕 후 배꼽을 잘 말려 줍니다.",
+                    "목욕 시간은 5~10분 이내로 짧게 하고 체온이 떨어지지 않도록 바로 감싸 줍니다.")),
+            new Topic("모유 수유와 분유", List.of("수유", "분유", "트림"), List.of(
+                    "생후 한 달까지 수유 간격은 2~3시간이 일반적입니다.",
+                    "분유는 70도 이상으로 끓였다 식힌 물로 타고 손목 안쪽에 떨어뜨려 온도를 확인합니다.",
+                    "수유 중간과 수유 후에는 아기를 어깨에 기대게 하고 트림을 시킵니다.")),
+            new Topic("아기 수면", List.of("수면", "낮잠", "밤잠"), List.of(
+                    "아기는 반드시 등을 대고 똑바로 눕혀 재웁니다.",
+                    "생후 6~8주부터 밤잠과 낮잠의 구분이 생기므로 낮에는 밝게 밤에는 어둡게 해 줍니다.",
+                    "잠들기 전 목욕, 수유, 자장가 순서의 수면 의식을 매일 같은 시간에 반복합니다.")),
+            new Topic("발열과 응급 상황", List.of("발열", "해열제", "응급"), List.of(
+                    "생후 3개월 미만 아기가 38도 이상 열이 나면 바로 진료를 받아야 합니다.",
+                    "해열제는 체중에 맞는 용량을 지키고 4~6시간 간격을 둡니다.",
+                    "경련, 호흡 곤란, 처짐이 보이면 지체 없이 응급실을 찾습니다.")),
+            new Topic("이유식 시작", List.of("이유식", "쌀미음", "알레르기"), List.of(
+                    "이유식은 생후 4~6개월 사이에 쌀미음부터 시작합니다.",
+                    "새로운 재료는 한 가지씩 3일 간격으로 추가하며 알레르기 반응을 살핍니다.",
+                    "이유식 초기에는 하루 한 번, 한두 숟가락으로 시작해 양을 늘려 갑니다.")),
+            new Topic("예방접종", List.of("예방접종", "BCG", "접종"), List.of(
+                    "BCG 접종은 생후 4주 이내에 하는 것이 권장됩니다.",
+                    "접종 후 접종 부위가 붓거나 미열이 날 수 있으며 대부분 2~3일 내에 가라앉습니다.",
+                    "예방접종 일정은 아기수첩이나 예방접종 도우미 앱으로 관리합니다.")),
+            new Topic("기저귀와 피부", List.of("기저귀", "발진", "피부"), List.of(
+                    "기저귀 발진을 예방하려면 자주 갈아 주고 엉덩이를 충분히 말립니다.",
+                    "물티슈보다 미온수로 씻기고 톡톡 두드려 말리는 것이 피부 자극이 적습니다.",
+                    "발진이 3일 이상 지속되거나 진물이 나면 진료를 받습니다.")),
+            new Topic("아빠의 역할", List.of("아빠", "육아휴직", "산후"), List.of(
+                    "아빠가 목욕과 재우기를 전담하면 엄마의 산후 회복에 큰 도움이 됩니다.",
+                    "육아휴직 제도를 미리 확인하고 출산 전 부부가 역할을 나눠 둡니다.",
+                    "산후 우울 신호를 알아 두고 배우자의 감정 변화를 세심하게 살핍니다.")));
+
+    private final VectorStore vectorStore;
+    private final KeywordSearchService keywordSearchService;
+    private final IngestionProgress progress;
+    private final int pages;
+    private final int chunksPerPage;
+
+    public SyntheticCorpusSeeder(VectorStore vectorStore, KeywordSearchService keywordSearchService,
+                                 IngestionProgress progress, int pages, int chunksPerPage) {
+        this.vectorStore = vectorStore;
+        this.keywordSearchService = keywordSearchService;
+        this.progress = progress;
+        this.pages = pages;
+        this.chunksPerPage = chunksPerPage;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        progress.start(SOURCE);
+        progress.planned(pages, pages);
+
+        List<Document> chunks = generate(pages, chunksPerPage);
+        for (int i = 0; i < chunks.size(); i += BATCH_SIZE) {
+            List<Document> batch = chunks.subList(i, Math.min(i + BATCH_SIZE, chunks.size()));
+            vectorStore.add(batch);
+            keywordSearchService.index(batch);
+            progress.chunksUpserted(batch.size());
+        }
+        progress.pagesCompleted(pages);
+        progress.completed();
+        logger.info("Seeded synthetic load-test corpus: {} pages, {} chunks in {} ms",
+                pages, chunks.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 페이지마다 주제를 돌아가며 chunksPerPage개의 청크를 만들고, 문서 전체에 걸쳐 앞뒤 청크 ID를 연결합니다.
+     */
+    static List<Document> generate(int pages, int chunksPerPage) {
+        List<String> ids = new ArrayList<>(pages * chunksPerPage);
+        for (int page = 1; page <= pages; page++) {
+            for (int index = 0; index < chunksPerPage; index++) {
+                String key = SOURCE + "#" + page + "#" + index;
+                ids.add(UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString());
+            }
+        }
+
+        List<Document> chunks = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            int page = i / chunksPerPage + 1;
+            int index = i % chunksPerPage;
+            Topic topic = TOPICS.get((page - 1) % TOPICS.size());
+
+            StringBuilder body = new StringBuilder();
+            for (int s = 0; s < topic.sentences().size(); s++) {
+                body.append(topic.sentences().get((index + s) % topic.sentences().size())).append(' ');
+            }
+            body.append("(").append(page).append("쪽 ").append(index + 1).append("번째 단락)");
+
+            String title = topic.title() + " " + ((page - 1) / TOPICS.size() + 1);
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("source", SOURCE);
+            metadata.put("page_number", page);
+            metadata.put("chunk_index", index);
+            metadata.put("section_title", title);
+            metadata.put("keywords", topic.keywords());
+            metadata.put("chunk_id", ids.get(i));
+            if (i > 0) metadata.put("prev_chunk_id", ids.get(i - 1));
+            if (i < ids.size() - 1) metadata.put("next_chunk_id", ids.get(i + 1));
+
+            String text = title + "\n핵심 키워드: " + String.join(", ", topic.keywords()) + "\n본문: " + body;
+            chunks.add(new Document(ids.get(i), text, metadata));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,265 @@
+package com.zoontopia.superdaddy.service.metrics;
+
+import com.zoontopia.superdaddy.service.admission.Bulkhead;
+import com.zoontopia.superdaddy.service.admission.BulkheadRejectedException;
+import com.zoontopia.superdaddy.service.budget.Degradation;
+import com.zoontopia.superdaddy.service.conversation.ConversationStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * RAG 파이프라인(채팅 응답, 문서 수집)의 단계별 지연과 검색/문맥/토큰 지표를 기록합니다.
+ *
+ * <p>단계 시간은 Observation("superdaddy.rag.stage", 태그 pipeline/stage)으로 기록하므로 Actuator 환경에서는
+ * 같은 이름의 Timer(히스토그램은 application.yml의 percentiles-histogram 설정)가 만들어지고,
+ * 트레이싱 브리지가 설정되어 있으면 단계마다 스팬이 생성됩니다. Spring AI가 만드는 모델/벡터 저장소 호출 스팬은 그 하위에 놓입니다.</p>
+ *
+ * <p>토큰 사용량은 TokenUsageAdvisor가 ChatResponse 메타데이터에서 읽어 operation(answer/rerank/refine)별로 넘겨 주며,
+ * 설정한 100만 토큰당 단가로 예상 비용(USD)도 함께 누적합니다.</p>
+ */
+@Component
+public class RagMetrics {
+
+    public static final String PIPELINE_CHAT = "chat";
+    public static final String PIPELINE_INGESTION = "ingestion";
+
+    public static final String OPERATION_ANSWER = "answer";
+    public static final String OPERATION_RERANK = "rerank";
+    public static final String OPERATION_REFINE = "refine";
+
+    static final String STAGE_OBSERVATION = "superdaddy.rag.stage";
+
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final double promptCostPerMillion;
+    private final double completionCostPerMillion;
+
+    private final DistributionSummary selectedDocuments;
+    private final DistributionSummary contextLength;
+    private final DistributionSummary contextTokens;
+    private final DistributionSummary windowSearches;
+    private final Timer firstToken;
+
+    @Autowired
+    public RagMetrics(ObjectProvider<MeterRegistry> meterRegistryProvider,
+                      ObjectProvider<ObservationRegistry> observationRegistryProvider,
+                      @Value("${super-daddy.metrics.cost.prompt-per-million:0.30}") double promptCostPerMillion,
+                      @Value("${super-daddy.metrics.cost.completion-per-million:2.50}") double completionCostPerMillion) {
+        this(meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry),
+                observationRegistryProvider.getIfAvailable(() -> ObservationRegistry.NOOP),
+                promptCostPerMillion, completionCostPerMillion);
+    }
+
+    public RagMetrics(MeterRegistry meterRegistry, ObservationRegistry observationRegistry,
+                      double promptCostPerMillion, double completionCostPerMillion) {
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        this.promptCostPerMillion = promptCostPerMillion;
+        this.completionCostPerMillion = completionCostPerMillion;
+
+        this.selectedDocuments = DistributionSummary.builder("superdaddy.rag.selected.documents")
+                .description("Documents kept by the reranker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.contextLength = DistributionSummary.builder("superdaddy.rag.context.length")
+                .description("Characters of merged context passed to the answer prompt")
+                .baseUnit("characters")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.contextTokens = DistributionSummary.builder("superdaddy.rag.context.tokens")
+                .description("Tokens of packed context passed to the answer prompt")
+                .baseUnit("tokens")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.windowSearches = DistributionSummary.builder("superdaddy.rag.expansion.window.searches")
+                .description("Filter searches issued to expand legacy chunks without chunk ids")
+                .register(meterRegistry);
+        this.firstToken = Timer.builder("superdaddy.rag.first.token")
+                .description("Time from a streaming chat request to its first answer token")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public <T> T time(String pipeline, String stage, Supplier<T> work) {
+        return stage(pipeline, stage).observe(work);
+    }
+
+    public void time(String pipeline, String stage, Runnable work) {
+        stage(pipeline, stage).observe(work);
+    }
+
+    public <T, E extends Throwable> T timeChecked(String pipeline, String stage,
+                                                   Observation.CheckedCallable<T, E> work) throws E {
+        return stage(pipeline, stage).observeChecked(work);
+    }
+
+    /**
+     * 비동기로 끝나는 단계(스트리밍 생성 등)를 시작합니다. 호출자가 완료 시 stop()을, 실패 시 error() 후 stop()을 호출해야 합니다.
+     */
+    public Observation start(String pipeline, String stage) {
+        return stage(pipeline, stage).start();
+    }
+
+    /**
+     * 검색 경로별 후보 수 (vector, keyword, fused)
+     */
+    public void recordRetrieved(String source, int count) {
+        DistributionSummary.builder("superdaddy.rag.retrieved.documents")
+                .description("Candidates returned by each retrieval path")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(count);
+    }
+
+    public void recordSelected(int count) {
+        selectedDocuments.record(count);
+    }
+
+    public void recordContextLength(int characters) {
+        contextLength.record(characters);
+    }
+
+    public void recordContextTokens(int tokens) {
+        contextTokens.record(tokens);
+    }
+
+    public void recordWindowSearches(int count) {
+        windowSearches.record(count);
+    }
+
+    public void recordFirstToken(Duration elapsed) {
+        firstToken.record(elapsed);
+    }
+
+    /**
+     * 지연 예산 부족으로 적용한 품질 저하 (요청당 종류별 1회)
+     */
+    public void recordDegradation(Degradation degradation) {
+        Counter.builder("superdaddy.rag.degradations")
+                .description("Chat requests that skipped or reduced a stage to stay within the latency budget")
+                .tag("type", degradation.code())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 격벽별 처리 중/대기 중 호출 수
+     */
+    public void registerBulkhead(Bulkhead bulkhead) {
+        Gauge.builder("superdaddy.bulkhead.active", bulkhead, Bulkhead::active)
+                .description("Calls currently holding a bulkhead slot")
+                .tag("bulkhead", bulkhead.name())
+                .register(meterRegistry);
+        Gauge.builder("superdaddy.bulkhead.queued", bulkhead, Bulkhead::queued)
+                .description("Calls waiting for a bulkhead slot")
+                .tag("bulkhead", bulkhead.name())
+                .register(meterRegistry);
+    }
+
+    public void recordRejected(BulkheadRejectedException rejected) {
+        Counter.builder("superdaddy.bulkhead.rejected")
+                .description("Calls shed by a bulkhead (queue full or request deadline exceeded)")
+                .tag("bulkhead", rejected.getBulkhead())
+                .tag("reason", rejected.getReason().name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 세션별 대화 기록 수
+     */
+    public void registerConversations(ConversationStore conversations) {
+        Gauge.builder("superdaddy.conversation.sessions", conversations, ConversationStore::size)
+                .description("Chat sessions with conversation history held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 직전과 같은 주제의 이어지는 질문 (reused: 직전 문맥 재사용, retrieved: 주제 질문을 붙여 다시 검색)
+     */
+    public void recordFollowUp(boolean reusedContext) {
+        Counter.builder("superdaddy.conversation.followups")
+                .description("Follow-up questions on the previous topic by how their context was built")
+                .tag("context", reusedContext ? "reused" : "retrieved")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 같은 질문 합치기 결과 (leader: 직접 실행, follower: 실행 중인 결과를 공유, timeout: 기다리다 직접 실행)
+     */
+    public void recordCoalescing(String mode, String role) {
+        Counter.builder("superdaddy.coalescing.requests")
+                .description("Chat requests by single-flight role for identical in-flight questions")
+                .tag("mode", mode)
+                .tag("role", role)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 정제 결과별 페이지 수 (cached: 캐시 사용, refined: 정제 성공, retried: 실패하여 작은 배치로 다시 보냄, fallback: 원문 사용)
+     */
+    public void recordRefinedPages(String outcome, int pages) {
+        if (pages <= 0) return;
+        Counter.builder("superdaddy.ingestion.refine.pages")
+                .description("Pages processed by the ingestion refine stage by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment(pages);
+    }
+
+    /**
+     * ChatResponse 메타데이터의 토큰 사용량과 예상 비용을 기록합니다. 사용량이 없는 응답은 무시합니다.
+     */
+    public void recordUsage(String operation, ChatResponse response) {
+        if (response == null || response.getMetadata() == null) return;
+        Usage usage = response.getMetadata().getUsage();
+        if (usage == null) return;
+
+        int promptTokens = usage.getPromptTokens() != null ? usage.getPromptTokens() : 0;
+        int completionTokens = usage.getCompletionTokens() != null ? usage.getCompletionTokens() : 0;
+        if (promptTokens == 0 && completionTokens == 0) return;
+
+        tokens(operation, "prompt").increment(promptTokens);
+        tokens(operation, "completion").increment(completionTokens);
+        Counter.builder("superdaddy.llm.cost")
+                .description("Estimated LLM cost from token usage and configured prices")
+                .baseUnit("usd")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment((promptTokens * promptCostPerMillion + completionTokens * completionCostPerMillion) / 1_000_000);
+    }
+
+    private Counter tokens(String operation, String type) {
+        return Counter.builder("superdaddy.llm.tokens")
+                .description("LLM tokens reported in ChatResponse usage metadata")
+                .baseUnit("tokens")
+                .tag("operation", operation)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private Observation stage(String pipeline, String stage) {
+        return Observation.createNotStarted(STAGE_OBSERVATION, observationRegistry)
+                .contextualName(pipeline + " " + stage)
+                .lowCardinalityKeyValue("pipeline", pipeline)
+                .lowCardinalityKeyValue("stage", stage);
+    }
+}
@@ -0,0 +1,68 @@
+package com.zoontopia.superdaddy.service.metrics;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 모든 ChatClient 호출의 응답에서 토큰 사용량을 읽어 RagMetrics에 기록하는 어드바이저입니다.
+ * 호출 측은 응답 본문만 쓰던 기존 코드(.content())를 그대로 유지하고, 어떤 용도의 호출인지만
+ * {@code .advisors(a -> a.param(TokenUsageAdvisor.OPERATION, ...))}로 알려 줍니다. (없으면 "unknown")
+ *
+ * <p>스트리밍 응답은 사용량이 마지막 조각(또는 누적값으로 여러 조각)에 실리므로, 마지막으로 받은 사용량을 완료 시 한 번 기록합니다.</p>
+ */
+public class TokenUsageAdvisor implements CallAdvisor, StreamAdvisor {
+
+    public static final String OPERATION = "superdaddy.operation";
+
+    private final RagMetrics metrics;
+
+    public TokenUsageAdvisor(RagMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        ChatClientResponse response = chain.nextCall(request);
+        metrics.recordUsage(operation(request), response.chatResponse());
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        AtomicReference<ChatResponse> lastWithUsage = new AtomicReference<>();
+        return chain.nextStream(request)
+                .doOnNext(response -> {
+                    ChatResponse chatResponse = response.chatResponse();
+                    if (chatResponse != null && chatResponse.getMetadata() != null
+                            && chatResponse.getMetadata().getUsage() != null) {
+                        lastWithUsage.set(chatResponse);
+                    }
+                })
+                .doOnComplete(() -> metrics.recordUsage(operation(request), lastWithUsage.get()));
+    }
+
+    @Override
+    public String getName() {
+        return "tokenUsageAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        // 모델 호출에 가장 가까운 위치에서 실제 응답을 관찰
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+
+    private static String operation(ChatClientRequest request) {
+        Object operation = request.context().get(OPERATION);
+        return operation != null ? operation.toString() : "unknown";
+    }
+}
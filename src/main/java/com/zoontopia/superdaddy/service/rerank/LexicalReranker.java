@@ -0,0 +1,147 @@
+package com.zoontopia.superdaddy.service.rerank;
+
+import com.zoontopia.superdaddy.service.retrieval.KoreanTokenizer;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 네트워크 호출 없이 CPU에서 동작하는 리랭커입니다.
+ * 검색 단계 점수(벡터 유사도 또는 RRF 융합 점수)에 질문 토큰이 본문/키워드/섹션 제목에 얼마나 포함되는지(후보군 내 IDF 가중)를 더해 점수를 매기고,
+ * MMR(Maximal Marginal Relevance)로 서로 비슷한 청크가 중복 선택되지 않도록 다양화합니다.
+ */
+public class LexicalReranker implements Reranker {
+
+    private static final double RETRIEVAL_WEIGHT = 0.35;
+    private static final double BODY_WEIGHT = 0.30;
+    private static final double KEYWORD_WEIGHT = 0.20;
+    private static final double TITLE_WEIGHT = 0.15;
+
+    private final int maxSelected;
+    private final double minScore;
+    private final double relativeCutoff;
+    private final double mmrLambda;
+
+    /**
+     * @param maxSelected    최대 선택 문서 수
+     * @param minScore       1순위 점수가 이보다 낮으면 관련 문서가 없다고 판단 (LLM 리랭커의 'NONE'에 해당)
+     * @param relativeCutoff 1순위 점수 대비 이 비율 미만인 문서는 제외
+     * @param mmrLambda      1에 가까울수록 관련도, 0에 가까울수록 다양성 우선
+     */
+    public LexicalReranker(int maxSelected, double minScore, double relativeCutoff, double mmrLambda) {
+        this.maxSelected = maxSelected;
+        this.minScore = minScore;
+        this.relativeCutoff = relativeCutoff;
+        this.mmrLambda = mmrLambda;
+    }
+
+    @Override
+    public List<Document> rerank(String query, List<Document> candidates) {
+        if (candidates.isEmpty()) return List.of();
+
+        Set<String> queryTokens = new HashSet<>(KoreanTokenizer.tokenize(query));
+        int n = candidates.size();
+        List<Set<String>> bodyTokens = new ArrayList<>(n);
+        List<Set<String>> keywordTokens = new ArrayList<>(n);
+        List<Set<String>> titleTokens = new ArrayList<>(n);
+
+        for (Document d : candidates) {
+            bodyTokens.add(new HashSet<>(KoreanTokenizer.tokenize(d.getText())));
+            keywordTokens.add(new HashSet<>(KoreanTokenizer.tokenize(keywordText(d))));
+            titleTokens.add(new HashSet<>(KoreanTokenizer.tokenize(
+                    String.valueOf(d.getMetadata().getOrDefault("section_title", "")))));
+        }
+
+        // 후보군 안에서 흔한 토큰(예: 모든 청크에 나오는 "아기")은 낮게, 드문 토큰은 높게 가중
+        Map<String, Double> idf = new HashMap<>();
+        double idfTotal = 0;
+        for (String token : queryTokens) {
+            int df = 0;
+            for (int i = 0; i < n; i++) {
+                if (bodyTokens.get(i).contains(token) || keywordTokens.get(i).contains(token)
+                        || titleTokens.get(i).contains(token)) {
+                    df++;
+                }
+            }
+            double weight = Math.log(1.0 + (n + 1.0) / (df + 0.5));
+            idf.put(token, weight);
+            idfTotal += weight;
+        }
+
+        double[] scores = new double[n];
+        for (int i = 0; i < n; i++) {
+            Double retrievalScore = candidates.get(i).getScore();
+            scores[i] = RETRIEVAL_WEIGHT * (retrievalScore != null ? retrievalScore : 0.0)
+                    + BODY_WEIGHT * coverage(bodyTokens.get(i), idf, idfTotal)
+                    + KEYWORD_WEIGHT * coverage(keywordTokens.get(i), idf, idfTotal)
+                    + TITLE_WEIGHT * coverage(titleTokens.get(i), idf, idfTotal);
+        }
+
+        List<Integer> pool = new ArrayList<>();
+        for (int i = 0; i < n; i++) pool.add(i);
+        pool.sort(Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+
+        double topScore = scores[pool.get(0)];
+        if (topScore < minScore) return List.of();
+
+        double cutoff = topScore * relativeCutoff;
+        pool.removeIf(i -> scores[i] < cutoff);
+
+        // MMR: 관련도가 높으면서 이미 선택된 문서와 겹치지 않는 문서를 차례로 선택
+        List<Integer> selected = new ArrayList<>();
+        while (selected.size() < maxSelected && !pool.isEmpty()) {
+            int best = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i : pool) {
+                double redundancy = 0;
+                for (int j : selected) {
+                    redundancy = Math.max(redundancy, jaccard(bodyTokens.get(i), bodyTokens.get(j)));
+                }
+                double value = mmrLambda * (scores[i] / topScore) - (1 - mmrLambda) * redundancy;
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = i;
+                }
+            }
+            selected.add(best);
+            pool.remove(Integer.valueOf(best));
+        }
+
+        return selected.stream()
+                .map(i -> candidates.get(i).mutate().score(scores[i]).build())
+                .toList();
+    }
+
+    private static String keywordText(Document d) {
+        Object keywords = d.getMetadata().getOrDefault("keywords", "");
+        return keywords instanceof Collection<?> list ? String.join(" ", list.stream().map(String::valueOf).toList())
+                : String.valueOf(keywords);
+    }
+
+    private static double coverage(Set<String> fieldTokens, Map<String, Double> idf, double idfTotal) {
+        if (idfTotal == 0) return 0;
+        double matched = 0;
+        for (Map.Entry<String, Double> e : idf.entrySet()) {
+            if (fieldTokens.contains(e.getKey())) matched += e.getValue();
+        }
+        return matched / idfTotal;
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) return 0;
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int intersection = 0;
+        for (String token : smaller) {
+            if (larger.contains(token)) intersection++;
+        }
+        return (double) intersection / (a.size() + b.size() - intersection);
+    }
+}
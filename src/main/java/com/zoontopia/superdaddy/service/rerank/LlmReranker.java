@@ -0,0 +1,105 @@
+package com.zoontopia.superdaddy.service.rerank;
+
+import com.zoontopia.superdaddy.service.context.ContextCompactor;
+import com.zoontopia.superdaddy.service.metrics.RagMetrics;
+import com.zoontopia.superdaddy.service.metrics.TokenUsageAdvisor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gemini에게 후보군 전체를 보여주고 관련 있는 문서 번호를 고르게 하는 리랭커입니다.
+ * 호출 한 번에 수 초가 걸리므로 단독으로 쓰지 않고, LexicalReranker가 추린 상위 몇 개에 대한 2단계로만 사용합니다.
+ * 후보 본문은 ContextCompactor로 머리글과 거의 같은 후보를 걷어내고 후보당 토큰 몫까지만 보여 줍니다.
+ */
+public class LlmReranker implements Reranker {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmReranker.class);
+
+    private static final String RERANK_SYSTEM_PROMPT = """
+            당신은 정보 필터링 전문가입니다.
+            [사용자 질문]과 관련이 있는 모든 [후보군]의 번호를 골라주세요.
+
+            선택 기준:
+            1. 질문에 직접적인 해답을 주거나, 답변을 구성하는 데 도움이 되는 보조 정보를 포함하는 경우.
+            2. 서로 다른 측면(예: 하나는 원인, 하나는 해결책)을 다루고 있다면 모두 선택하세요.
+            3. 관련이 없는 문서는 과감히 제외하세요.
+
+            오직 번호들을 쉼표로 구분하여 출력하세요 (예: 0, 3, 5).
+            관련 문서가 하나도 없다면 'NONE'이라고 답하세요.
+            """;
+
+    private final ChatClient chatClient;
+    private final ContextCompactor compactor;
+
+    public LlmReranker(ChatClient chatClient, ContextCompactor compactor) {
+        this.chatClient = chatClient;
+        this.compactor = compactor;
+    }
+
+    @Override
+    public List<Document> rerank(String query, List<Document> candidates) {
+        if (candidates.isEmpty()) return List.of();
+
+        String response = chatClient.prompt()
+                .advisors(a -> a.param(TokenUsageAdvisor.OPERATION, RagMetrics.OPERATION_RERANK))
+                .system(RERANK_SYSTEM_PROMPT)
+                .user(String.format("질문: %s\n\n[후보군]\n%s", query, buildCandidatePrompt(candidates, compactor)))
+                .call()
+                .content();
+
+        return parseSelection(response, candidates);
+    }
+
+    @Override
+    public boolean callsModel() {
+        return true;
+    }
+
+    /**
+     * 모델 없이는 검색 순위를 그대로 사용
+     */
+    @Override
+    public Reranker withoutModel() {
+        return (query, candidates) -> candidates;
+    }
+
+    /**
+     * 번호는 원래 후보 목록의 위치를 그대로 씁니다 (거의 같은 후보를 빼도 parseSelection이 같은 목록에 적용됨).
+     */
+    static String buildCandidatePrompt(List<Document> candidates, ContextCompactor compactor) {
+        StringBuilder sb = new StringBuilder();
+        for (ContextCompactor.Candidate c : compactor.compactCandidates(candidates)) {
+            sb.append(String.format("[%d] 제목: %s\n키워드: %s\n내용: %s\n\n",
+                    c.index(), c.title(), c.keywords(), c.text()));
+        }
+        return sb.toString();
+    }
+
+    static List<Document> parseSelection(String rawResponse, List<Document> candidates) {
+        String response = rawResponse == null ? "" : rawResponse.toUpperCase().trim();
+
+        List<Document> result = new ArrayList<>();
+        if (response.contains("NONE")) return result;
+
+        try {
+            // 쉼표로 구분된 인덱스 파싱
+            String[] indices = response.split(",");
+            for (String indexPart : indices) {
+                int idx = Integer.parseInt(indexPart.replaceAll("[^0-9]", ""));
+                if (idx >= 0 && idx < candidates.size()) {
+                    result.add(candidates.get(idx));
+                }
+            }
+            logger.info("LLM 리랭킹 완료: {}개의 문서 선택됨", result.size());
+        } catch (Exception e) {
+            logger.warn("인덱스 파싱 실패: {}. 1순위 문서만 사용.", response);
+            result.add(candidates.get(0));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,28 @@
+package com.zoontopia.superdaddy.service.rerank;
+
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+
+/**
+ * 벡터 검색 후보군 중 질문에 답하는 데 필요한 문서만 골라 관련도 순으로 반환합니다.
+ * 관련 문서가 하나도 없다고 판단되면 빈 리스트를 반환합니다.
+ */
+public interface Reranker {
+
+    List<Document> rerank(String query, List<Document> candidates);
+
+    /**
+     * 외부 모델(Gemini)을 호출하는지 여부. true이면 호출 측이 Gemini 격벽 안에서 실행합니다.
+     */
+    default boolean callsModel() {
+        return false;
+    }
+
+    /**
+     * 외부 모델을 호출하지 않는 대체 리랭커 (지연 예산이 부족할 때 사용)
+     */
+    default Reranker withoutModel() {
+        return this;
+    }
+}
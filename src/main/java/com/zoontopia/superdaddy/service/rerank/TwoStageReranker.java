@@ -0,0 +1,56 @@
+package com.zoontopia.superdaddy.service.rerank;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+
+/**
+ * 1단계(로컬) 리랭커가 추린 상위 topN개만 2단계(LLM) 리랭커에 넘깁니다.
+ * 1단계는 2단계에 넘길 후보를 넉넉히 남기므로, 2단계 호출이 실패하거나 지연 예산이 부족해 모델 없이 실행할 때는
+ * 최종 선택 개수(max-selected)로 고르는 대체 리랭커를 씁니다.
+ */
+public class TwoStageReranker implements Reranker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoStageReranker.class);
+
+    private final Reranker firstStage;
+    private final Reranker secondStage;
+    private final int secondStageTopN;
+    private final Reranker fallback;
+
+    /**
+     * @param fallback 2단계 없이 최종 문서를 고르는 리랭커 (모델을 호출하지 않아야 함)
+     */
+    public TwoStageReranker(Reranker firstStage, Reranker secondStage, int secondStageTopN, Reranker fallback) {
+        this.firstStage = firstStage;
+        this.secondStage = secondStage;
+        this.secondStageTopN = secondStageTopN;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public List<Document> rerank(String query, List<Document> candidates) {
+        List<Document> shortlisted = firstStage.rerank(query, candidates);
+        if (shortlisted.isEmpty()) return shortlisted;
+
+        List<Document> topN = shortlisted.subList(0, Math.min(secondStageTopN, shortlisted.size()));
+        try {
+            return secondStage.rerank(query, topN);
+        } catch (Exception e) {
+            logger.warn("2단계 리랭킹 실패, 대체 리랭커 결과 사용: {}", e.getMessage());
+            return fallback.rerank(query, shortlisted);
+        }
+    }
+
+    @Override
+    public boolean callsModel() {
+        return firstStage.callsModel() || secondStage.callsModel();
+    }
+
+    @Override
+    public Reranker withoutModel() {
+        return fallback.withoutModel();
+    }
+}
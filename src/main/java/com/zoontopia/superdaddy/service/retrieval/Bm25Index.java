@@ -0,0 +1,344 @@
+package com.zoontopia.superdaddy.service.retrieval;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.ai.document.Document;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 청크 본문과 keywords 메타데이터에 대한 메모리 내 BM25 역색인입니다.
+ * 토큰은 KoreanTokenizer의 문자 2-gram이며, 포스팅은 용어별 int 배열(docNum, 빈도)로 보관해
+ * 박싱 없이 점수를 누적합니다. 같은 ID로 다시 색인하면 이전 문서는 삭제 표시 후 교체됩니다.
+ */
+public class Bm25Index {
+
+    private static final int SNAPSHOT_MAGIC = 0x424D3235; // "BM25"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // keywords는 검색 의도를 직접 요약한 필드이므로 본문보다 가중
+    private static final int KEYWORD_BOOST = 2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // docNum -> 문서 (삭제된 문서는 deleted 비트로 표시)
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<String, Integer> docNumById = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private int[] docLengths = new int[64];
+    private long totalLength = 0;
+    private int liveCount = 0;
+
+    // 용어 사전과 용어별 포스팅
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<Postings> postings = new ArrayList<>();
+
+    public void addAll(Collection<Document> docs) {
+        lock.writeLock().lock();
+        try {
+            for (Document doc : docs) {
+                removeInternal(doc.getId());
+                addInternal(doc, termFrequencies(doc));
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(Collection<String> ids) {
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::removeInternal);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * metadata의 source가 일치하는 문서를 모두 제거합니다.
+     */
+    public void removeSource(String source) {
+        lock.writeLock().lock();
+        try {
+            List<String> ids = new ArrayList<>();
+            for (int docNum = 0; docNum < documents.size(); docNum++) {
+                Document doc = documents.get(docNum);
+                if (!deleted.get(docNum) && source.equals(doc.getMetadata().get("source"))) ids.add(doc.getId());
+            }
+            ids.forEach(this::removeInternal);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Document> search(String query, int topK) {
+        Set<String> queryTerms = new LinkedHashSet<>(KoreanTokenizer.tokenize(query));
+
+        lock.readLock().lock();
+        try {
+            if (liveCount == 0 || queryTerms.isEmpty()) return List.of();
+
+            int docCount = documents.size();
+            double avgLength = (double) totalLength / liveCount;
+            float[] scores = new float[docCount];
+
+            for (String term : queryTerms) {
+                Integer termId = termIds.get(term);
+                if (termId == null) continue;
+
+                Postings p = postings.get(termId);
+                // 삭제 표시된 포스팅은 빼고 살아있는 문서 수로 IDF 계산 (교체가 반복되어도 점수가 변하지 않음)
+                double idf = Math.log(1.0 + (liveCount - p.liveDocs + 0.5) / (p.liveDocs + 0.5));
+                for (int i = 0; i < p.size; i++) {
+                    int doc = p.docs[i];
+                    if (deleted.get(doc)) continue;
+                    int tf = p.freqs[i];
+                    double norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                    scores[doc] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+                }
+            }
+
+            // 상위 topK만 유지하는 최소 힙
+            PriorityQueue<Integer> heap = new PriorityQueue<>(topK + 1, (a, b) -> Float.compare(scores[a], scores[b]));
+            for (int doc = 0; doc < docCount; doc++) {
+                if (scores[doc] <= 0) continue;
+                heap.offer(doc);
+                if (heap.size() > topK) heap.poll();
+            }
+
+            Document[] result = new Document[heap.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                int doc = heap.poll();
+                result[i] = documents.get(doc).mutate().score((double) scores[doc]).build();
+            }
+            return Arrays.asList(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String id) {
+        lock.readLock().lock();
+        try {
+            return docNumById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 살아있는 문서와 포스팅을 스냅샷으로 기록합니다. 읽을 때 다시 토큰화하지 않도록 포스팅 배열을 그대로 씁니다.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.writeLock().lock();
+        try {
+            rebuild();
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+
+            out.writeInt(documents.size());
+            for (int doc = 0; doc < documents.size(); doc++) {
+                Document d = documents.get(doc);
+                out.writeUTF(d.getId());
+                writeBytes(out, d.getText().getBytes(StandardCharsets.UTF_8));
+                writeBytes(out, objectMapper.writeValueAsBytes(d.getMetadata()));
+                out.writeInt(docLengths[doc]);
+            }
+
+            String[] terms = new String[termIds.size()];
+            termIds.forEach((term, id) -> terms[id] = term);
+            out.writeInt(terms.length);
+            for (int termId = 0; termId < terms.length; termId++) {
+                Postings p = postings.get(termId);
+                out.writeUTF(terms[termId]);
+                out.writeInt(p.size);
+                for (int i = 0; i < p.size; i++) {
+                    out.writeInt(p.docs[i]);
+                    out.writeInt(p.freqs[i]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("Not a BM25 snapshot");
+        int version = in.readInt();
+        if (version != SNAPSHOT_VERSION) throw new IOException("Unsupported BM25 snapshot version: " + version);
+
+        lock.writeLock().lock();
+        try {
+            clear();
+            int docCount = in.readInt();
+            docLengths = new int[Math.max(64, docCount)];
+            for (int doc = 0; doc < docCount; doc++) {
+                String id = in.readUTF();
+                String text = new String(readBytes(in), StandardCharsets.UTF_8);
+                Map<String, Object> metadata = objectMapper.readValue(readBytes(in), new TypeReference<>() {});
+                documents.add(new Document(id, text, metadata));
+                docNumById.put(id, doc);
+                docLengths[doc] = in.readInt();
+                totalLength += docLengths[doc];
+            }
+            liveCount = docCount;
+
+            int termCount = in.readInt();
+            for (int termId = 0; termId < termCount; termId++) {
+                termIds.put(in.readUTF(), termId);
+                int size = in.readInt();
+                Postings p = new Postings(Math.max(4, size));
+                for (int i = 0; i < size; i++) {
+                    p.add(in.readInt(), in.readInt());
+                }
+                postings.add(p);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<String, Integer> termFrequencies(Document doc) {
+        Map<String, Integer> tf = new HashMap<>();
+        for (String token : KoreanTokenizer.tokenize(doc.getText())) {
+            tf.merge(token, 1, Integer::sum);
+        }
+        Object keywords = doc.getMetadata().get("keywords");
+        if (keywords instanceof Collection<?> list) {
+            for (Object keyword : list) {
+                for (String token : KoreanTokenizer.tokenize(String.valueOf(keyword))) {
+                    tf.merge(token, KEYWORD_BOOST, Integer::sum);
+                }
+            }
+        }
+        return tf;
+    }
+
+    private void addInternal(Document doc, Map<String, Integer> tf) {
+        int docNum = documents.size();
+        documents.add(doc);
+        docNumById.put(doc.getId(), docNum);
+
+        int length = 0;
+        for (Map.Entry<String, Integer> e : tf.entrySet()) {
+            int termId = termIds.computeIfAbsent(e.getKey(), k -> {
+                postings.add(new Postings(4));
+                return postings.size() - 1;
+            });
+            postings.get(termId).add(docNum, e.getValue());
+            length += e.getValue();
+        }
+
+        if (docNum >= docLengths.length) {
+            docLengths = Arrays.copyOf(docLengths, docLengths.length * 2);
+        }
+        docLengths[docNum] = length;
+        totalLength += length;
+        liveCount++;
+    }
+
+    private void removeInternal(String id) {
+        Integer docNum = docNumById.remove(id);
+        if (docNum == null) return;
+        deleted.set(docNum);
+        for (String term : termFrequencies(documents.get(docNum)).keySet()) {
+            postings.get(termIds.get(term)).liveDocs--;
+        }
+        totalLength -= docLengths[docNum];
+        liveCount--;
+    }
+
+    // 삭제 표시된 문서가 절반을 넘으면 살아있는 문서만으로 다시 구성
+    private void compactIfNeeded() {
+        if (deleted.cardinality() > documents.size() / 2) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        if (deleted.isEmpty()) return;
+        List<Document> live = new ArrayList<>(liveCount);
+        for (int doc = 0; doc < documents.size(); doc++) {
+            if (!deleted.get(doc)) live.add(documents.get(doc));
+        }
+        clear();
+        for (Document doc : live) {
+            addInternal(doc, termFrequencies(doc));
+        }
+    }
+
+    private void clear() {
+        documents.clear();
+        docNumById.clear();
+        deleted.clear();
+        termIds.clear();
+        postings.clear();
+        docLengths = new int[64];
+        totalLength = 0;
+        liveCount = 0;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static final class Postings {
+        int[] docs;
+        int[] freqs;
+        int size;
+        // 삭제 표시되지 않은 문서 수 (문서 빈도)
+        int liveDocs;
+
+        Postings(int capacity) {
+            docs = new int[capacity];
+            freqs = new int[capacity];
+        }
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+            liveDocs++;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.zoontopia.superdaddy.service.retrieval;
+
+import org.springframework.ai.document.Document;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 청크 ID로 문서를 직접 조회합니다. (유사도 검색 없이 위치를 이미 아는 이웃 청크를 가져올 때 사용)
+ */
+public interface ChunkLookup {
+
+    /**
+     * 주어진 ID들의 청크를 한 번에 조회합니다. 존재하지 않는 ID는 결과에서 빠집니다.
+     */
+    Map<String, Document> findByIds(Collection<String> ids);
+
+    /**
+     * 청크가 다시 기록되었을 때 로컬에 보관 중인 사본을 버립니다.
+     */
+    default void evict(Collection<String> ids) {
+    }
+
+    /**
+     * 저장된 모든 청크를 배치 단위로 훑습니다. 지원하지 않는 저장소에서는 아무것도 하지 않습니다.
+     */
+    default void scanAll(Consumer<List<Document>> batchConsumer) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.zoontopia.superdaddy.service.retrieval;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * BM25 키워드 검색 서비스입니다.
+ * 시작 시 스냅샷 파일에서 색인을 읽고, 스냅샷이 없으면 벡터 저장소의 청크를 훑어 한 번 구성합니다.
+ * 수집(IngestionService)이 배치를 기록할 때마다 증분 색인하고, 수집이 끝나면 스냅샷을 다시 씁니다.
+ */
+@Service
+public class KeywordSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeywordSearchService.class);
+
+    private final Bm25Index index = new Bm25Index();
+    private final ChunkLookup chunkLookup;
+    private final Path snapshotPath;
+
+    public KeywordSearchService(ChunkLookup chunkLookup,
+                                @Value("${super-daddy.bm25.snapshot-path:data/bm25-index.bin.gz}") String snapshotPath) {
+        this.chunkLookup = chunkLookup;
+        this.snapshotPath = Path.of(snapshotPath);
+    }
+
+    @PostConstruct
+    void loadSnapshot() {
+        if (!Files.exists(snapshotPath)) return;
+
+        long start = System.currentTimeMillis();
+        try (var in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath))))) {
+            index.readFrom(in);
+            logger.info("BM25 index loaded from {}: {} chunks in {} ms",
+                    snapshotPath, index.size(), System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            logger.warn("BM25 snapshot could not be read ({}). Index will be rebuilt.", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void bootstrapFromVectorStore() {
+        if (index.size() > 0) return;
+
+        // 스냅샷 도입 이전에 수집된 데이터: 저장소의 청크를 한 번 훑어 색인 구성
+        try {
+            chunkLookup.scanAll(this::index);
+        } catch (Exception e) {
+            logger.warn("BM25 bootstrap from vector store failed: {}. Keyword search disabled until next ingestion.",
+                    e.getMessage());
+        }
+        if (index.size() > 0) {
+            logger.info("BM25 index built from vector store: {} chunks", index.size());
+            saveSnapshot();
+        }
+    }
+
+    public List<Document> search(String query, int topK) {
+        return index.search(query, topK);
+    }
+
+    /**
+     * 청크를 색인합니다. 예상 질문 벡터({@link SyntheticQuestions})는 원래 청크의 본문과 겹치므로 색인하지 않습니다.
+     */
+    public void index(Collection<Document> documents) {
+        index.addAll(documents.stream().filter(doc -> !SyntheticQuestions.isQuestion(doc)).toList());
+    }
+
+    public void remove(Collection<String> ids) {
+        index.removeAll(ids);
+    }
+
+    /**
+     * 색인에 없는 ID만 골라 반환합니다. 스냅샷을 쓰기 전에 수집이 중단된 경우 빠진 청크를 다시 채우는 데 사용합니다.
+     */
+    public List<String> missing(Collection<String> ids) {
+        return ids.stream().filter(id -> !index.contains(id)).toList();
+    }
+
+    public void removeSource(String source) {
+        index.removeSource(source);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * 임시 파일에 쓴 뒤 교체하여, 쓰는 도중 종료되어도 기존 스냅샷이 깨지지 않도록 합니다.
+     */
+    public synchronized void saveSnapshot() {
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+
+            try (var out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))) {
+                index.writeTo(out);
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("BM25 snapshot written: {} ({} chunks)", snapshotPath, index.size());
+        } catch (IOException e) {
+            logger.error("Failed to write BM25 snapshot: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.zoontopia.superdaddy.service.retrieval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 형태소 분석기 없이 동작하는 한국어 토크나이저입니다.
+ * 조사/어미가 붙어 어절 형태가 자주 바뀌는 한국어 특성상("목욕물은", "목욕물을") 어절 단위 비교 대신
+ * 어절 내부의 문자 2-gram을 토큰으로 사용합니다. 한 글자 어절은 그대로 토큰이 됩니다.
+ */
+public final class KoreanTokenizer {
+
+    private KoreanTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) return tokens;
+
+        String normalized = text.toLowerCase(Locale.ROOT);
+        int length = normalized.length();
+        int wordStart = -1;
+
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && wordStart < 0) {
+                wordStart = i;
+            } else if (!wordChar && wordStart >= 0) {
+                addBigrams(normalized, wordStart, i, tokens);
+                wordStart = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addBigrams(String text, int start, int end, List<String> tokens) {
+        if (end - start == 1) {
+            tokens.add(text.substring(start, end));
+            return;
+        }
+        for (int i = start; i < end - 1; i++) {
+            tokens.add(text.substring(i, i + 2));
+        }
+    }
+}
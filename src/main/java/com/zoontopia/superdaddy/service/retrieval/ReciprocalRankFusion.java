@@ -0,0 +1,43 @@
+package com.zoontopia.superdaddy.service.retrieval;
+
+import org.springframework.ai.document.Document;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 여러 검색 결과 순위를 RRF(Reciprocal Rank Fusion)로 합칩니다.
+ * 점수 척도가 다른 벡터 유사도와 BM25 점수를 직접 비교하지 않고 순위만 사용합니다: score(d) = Σ 1 / (k + rank)
+ */
+public final class ReciprocalRankFusion {
+
+    private ReciprocalRankFusion() {
+    }
+
+    /**
+     * 반환되는 문서의 score는 1위 문서 대비 비율(0~1)로 정규화된 융합 점수입니다.
+     */
+    @SafeVarargs
+    public static List<Document> fuse(int k, int topK, List<Document>... rankings) {
+        Map<String, Document> documents = new LinkedHashMap<>();
+        Map<String, Double> scores = new LinkedHashMap<>();
+
+        for (List<Document> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                Document doc = ranking.get(rank);
+                documents.putIfAbsent(doc.getId(), doc);
+                scores.merge(doc.getId(), 1.0 / (k + rank + 1), Double::sum);
+            }
+        }
+        if (scores.isEmpty()) return List.of();
+
+        double maxScore = scores.values().stream().mapToDouble(Double::doubleValue).max().orElse(1.0);
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()))
+                .limit(topK)
+                .map(e -> documents.get(e.getKey()).mutate().score(e.getValue() / maxScore).build())
+                .toList();
+    }
+}
@@ -0,0 +1,145 @@
+package com.zoontopia.superdaddy.service.retrieval;
+
+import org.springframework.ai.document.Document;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 청크마다 사용자가 물어볼 법한 질문을 별도 벡터로 저장하고, 검색에서 질문이 걸리면 원래 청크로 되돌립니다.
+ *
+ * <p>사용자 질문과 가이드북 문장은 임베딩 공간에서 거리가 멀어 상위 몇 개만으로는 재현율이 낮습니다.
+ * 수집 시 정제 단계에서 페이지별 예상 질문을 함께 만들고, 각 질문을 어휘가 가장 많이 겹치는 청크에 배정해
+ * "질문 → 질문" 유사도로 찾을 수 있게 합니다. 질문 벡터는 {@code doc_type=question}과 {@code parent_chunk_id}만 가지며,
+ * BM25 색인과 이웃 청크 연결에는 포함하지 않습니다.</p>
+ */
+public final class SyntheticQuestions {
+
+    public static final String DOC_TYPE = "doc_type";
+    public static final String QUESTION = "question";
+    public static final String PARENT_CHUNK_ID = "parent_chunk_id";
+    // 정제 결과 → 청크 → 기록 직전까지 질문 목록을 실어 나르는 임시 메타데이터 (저장 전에 제거)
+    public static final String PENDING = "synthetic_questions";
+
+    private SyntheticQuestions() {
+    }
+
+    public static boolean isQuestion(Document doc) {
+        return QUESTION.equals(doc.getMetadata().get(DOC_TYPE));
+    }
+
+    /**
+     * 청크 ID와 순번으로 결정되는 질문 ID (재수집해도 같은 질문 자리는 같은 ID)
+     */
+    public static String questionId(String chunkId, int index) {
+        String key = chunkId + "#q" + index;
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * 페이지의 질문들을 바이그램이 가장 많이 겹치는 청크에 배정해 각 청크의 임시 메타데이터에 기록합니다.
+     * 겹치는 청크가 없으면 첫 청크에 배정합니다.
+     */
+    public static void assign(List<Document> chunks, List<String> questions) {
+        if (chunks.isEmpty() || questions == null || questions.isEmpty()) return;
+
+        List<Set<String>> chunkTokens = chunks.stream()
+                .map(chunk -> (Set<String>) new HashSet<>(KoreanTokenizer.tokenize(chunk.getText())))
+                .toList();
+        Map<Integer, List<String>> assigned = new HashMap<>();
+        for (String question : questions) {
+            if (question == null || question.isBlank()) continue;
+            List<String> tokens = KoreanTokenizer.tokenize(question);
+            int best = 0;
+            long bestOverlap = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                long overlap = tokens.stream().filter(chunkTokens.get(i)::contains).count();
+                if (overlap > bestOverlap) {
+                    best = i;
+                    bestOverlap = overlap;
+                }
+            }
+            assigned.computeIfAbsent(best, k -> new ArrayList<>()).add(question.strip());
+        }
+        assigned.forEach((i, list) -> chunks.get(i).getMetadata().put(PENDING, List.copyOf(list)));
+    }
+
+    /**
+     * 청크들에 배정된 질문의 ID (매니페스트에 기록하여, 질문 수가 줄어든 페이지의 남은 질문 벡터를 지울 수 있게 함)
+     */
+    public static List<String> questionIds(List<Document> chunks) {
+        List<String> ids = new ArrayList<>();
+        for (Document chunk : chunks) {
+            int count = pending(chunk).size();
+            for (int i = 0; i < count; i++) ids.add(questionId(chunk.getId(), i));
+        }
+        return ids;
+    }
+
+    /**
+     * 청크의 임시 메타데이터를 제거하고, 청크 뒤에 배정된 질문 문서를 덧붙인 목록을 반환합니다.
+     */
+    public static List<Document> withQuestions(List<Document> chunks) {
+        List<Document> documents = new ArrayList<>(chunks);
+        for (Document chunk : chunks) {
+            List<String> questions = pending(chunk);
+            chunk.getMetadata().remove(PENDING);
+            for (int i = 0; i < questions.size(); i++) {
+                Map<String, Object> metadata = new HashMap<>();
+                metadata.put(DOC_TYPE, QUESTION);
+                metadata.put(PARENT_CHUNK_ID, chunk.getId());
+                copy(chunk, metadata, "source");
+                copy(chunk, metadata, "page_number");
+                documents.add(new Document(questionId(chunk.getId(), i), questions.get(i), metadata));
+            }
+        }
+        return documents;
+    }
+
+    /**
+     * 검색 결과의 질문 문서를 원래 청크로 바꿉니다. 순위는 그대로 두고(같은 청크가 여러 번 걸리면 처음 순위만),
+     * 원래 청크에는 질문의 유사도 점수를 붙입니다. 조회되지 않은 청크의 질문은 버립니다.
+     *
+     * @param lookup 청크 ID로 청크를 일괄 조회하는 함수 (질문이 하나도 없으면 호출하지 않음)
+     */
+    public static List<Document> resolveParents(List<Document> hits,
+                                                Function<Collection<String>, Map<String, Document>> lookup) {
+        Set<String> parentIds = new LinkedHashSet<>();
+        for (Document hit : hits) {
+            if (isQuestion(hit)) parentIds.add(hit.getMetadata().get(PARENT_CHUNK_ID).toString());
+        }
+        if (parentIds.isEmpty()) return hits;
+
+        Map<String, Document> parents = lookup.apply(parentIds);
+        Map<String, Document> resolved = new LinkedHashMap<>();
+        for (Document hit : hits) {
+            if (!isQuestion(hit)) {
+                resolved.putIfAbsent(hit.getId(), hit);
+                continue;
+            }
+            Document parent = parents.get(hit.getMetadata().get(PARENT_CHUNK_ID).toString());
+            if (parent != null) resolved.putIfAbsent(parent.getId(), parent.mutate().score(hit.getScore()).build());
+        }
+        return new ArrayList<>(resolved.values());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> pending(Document chunk) {
+        return chunk.getMetadata().get(PENDING) instanceof List<?> list ? (List<String>) list : List.of();
+    }
+
+    private static void copy(Document chunk, Map<String, Object> metadata, String key) {
+        Object value = chunk.getMetadata().get(key);
+        if (value != null) metadata.put(key, value);
+    }
+}
@@ -0,0 +1,214 @@
+package com.zoontopia.superdaddy.service.retrieval;
+
+import com.zoontopia.superdaddy.service.vectorstore.EmbeddedVectorStore;
+import io.qdrant.client.PointIdFactory;
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.WithPayloadSelectorFactory;
+import io.qdrant.client.grpc.JsonWithInt;
+import io.qdrant.client.grpc.Points;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * 청크 ID 일괄 조회 구현체입니다.
+ * Qdrant를 사용하는 경우 포인트 ID로 한 번에 retrieve 하고(벡터 연산 없음),
+ * 내장 저장소(EmbeddedVectorStore)는 메모리에서 바로 조회하며, 그 외 VectorStore에서는 chunk_id 메타데이터 필터를 건 검색 한 번으로 조회합니다.
+ * 자주 참조되는 청크는 로컬 LRU에 보관하여 네트워크 왕복을 줄입니다.
+ */
+@Component
+public class VectorStoreChunkLookup implements ChunkLookup {
+
+    private static final Logger logger = LoggerFactory.getLogger(VectorStoreChunkLookup.class);
+
+    // QdrantVectorStore가 본문을 저장하는 페이로드 키
+    private static final String CONTENT_FIELD_NAME = "doc_content";
+    // 필터 조회 시 사용하는 고정 질의 (임베딩 캐시에 한 번만 계산됨)
+    private static final String LOOKUP_QUERY = "chunk lookup";
+    private static final int SCROLL_BATCH_SIZE = 256;
+
+    private final VectorStore vectorStore;
+    private final String collectionName;
+    private final Map<String, Document> hotChunks;
+
+    public VectorStoreChunkLookup(VectorStore vectorStore,
+                                  @Value("${spring.ai.vectorstore.qdrant.collection-name:vector_store}") String collectionName,
+                                  @Value("${super-daddy.chunk-cache.max-entries:2000}") int maxEntries) {
+        this.vectorStore = vectorStore;
+        this.collectionName = collectionName;
+        this.hotChunks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Document> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Map<String, Document> findByIds(Collection<String> ids) {
+        Map<String, Document> result = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+
+        synchronized (hotChunks) {
+            for (String id : ids) {
+                Document cached = hotChunks.get(id);
+                if (cached != null) {
+                    result.put(id, cached);
+                } else {
+                    missing.add(id);
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<Document> fetched = fetch(missing);
+            synchronized (hotChunks) {
+                for (Document doc : fetched) {
+                    hotChunks.put(doc.getId(), doc);
+                }
+            }
+            for (Document doc : fetched) {
+                result.put(doc.getId(), doc);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void evict(Collection<String> ids) {
+        synchronized (hotChunks) {
+            ids.forEach(hotChunks::remove);
+        }
+    }
+
+    @Override
+    public void scanAll(Consumer<List<Document>> batchConsumer) {
+        Optional<Object> nativeClient = vectorStore.getNativeClient();
+        if (nativeClient.isPresent() && nativeClient.get() instanceof EmbeddedVectorStore embeddedStore) {
+            embeddedStore.scanAll(SCROLL_BATCH_SIZE, batchConsumer);
+            return;
+        }
+        if (nativeClient.isEmpty() || !(nativeClient.get() instanceof QdrantClient qdrantClient)) return;
+
+        Points.PointId offset = null;
+        try {
+            do {
+                Points.ScrollPoints.Builder request = Points.ScrollPoints.newBuilder()
+                        .setCollectionName(collectionName)
+                        .setLimit(SCROLL_BATCH_SIZE)
+                        .setWithPayload(WithPayloadSelectorFactory.enable(true));
+                if (offset != null) request.setOffset(offset);
+
+                Points.ScrollResponse response = qdrantClient.scrollAsync(request.build()).get();
+                batchConsumer.accept(response.getResultList().stream()
+                        .map(VectorStoreChunkLookup::toDocument)
+                        .toList());
+                offset = response.hasNextPageOffset() ? response.getNextPageOffset() : null;
+            } while (offset != null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Qdrant scroll interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Qdrant scroll failed", e.getCause());
+        }
+    }
+
+    private List<Document> fetch(List<String> ids) {
+        Optional<Object> nativeClient = vectorStore.getNativeClient();
+        if (nativeClient.isPresent() && nativeClient.get() instanceof QdrantClient qdrantClient) {
+            return retrievePoints(qdrantClient, ids);
+        }
+        if (nativeClient.isPresent() && nativeClient.get() instanceof EmbeddedVectorStore embeddedStore) {
+            return new ArrayList<>(embeddedStore.findByIds(ids).values());
+        }
+
+        FilterExpressionBuilder eb = new FilterExpressionBuilder();
+        Filter.Expression filter = eb.in("chunk_id", ids.toArray()).build();
+        return vectorStore.similaritySearch(
+                SearchRequest.builder()
+                        .query(LOOKUP_QUERY)
+                        .topK(ids.size())
+                        .filterExpression(filter)
+                        .build()
+        );
+    }
+
+    private List<Document> retrievePoints(QdrantClient qdrantClient, List<String> ids) {
+        List<Points.PointId> pointIds = new ArrayList<>();
+        for (String id : ids) {
+            try {
+                pointIds.add(PointIdFactory.id(UUID.fromString(id)));
+            } catch (IllegalArgumentException e) {
+                logger.warn("UUID 형식이 아닌 청크 ID는 건너뜁니다: {}", id);
+            }
+        }
+        if (pointIds.isEmpty()) return List.of();
+
+        try {
+            List<Points.RetrievedPoint> points = qdrantClient
+                    .retrieveAsync(collectionName, pointIds, true, false, null)
+                    .get();
+            return points.stream().map(VectorStoreChunkLookup::toDocument).toList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Qdrant point retrieve interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Qdrant point retrieve failed", e.getCause());
+        }
+    }
+
+    private static Document toDocument(Points.RetrievedPoint point) {
+        Map<String, Object> metadata = new HashMap<>();
+        String content = "";
+        for (Map.Entry<String, JsonWithInt.Value> entry : point.getPayloadMap().entrySet()) {
+            if (CONTENT_FIELD_NAME.equals(entry.getKey())) {
+                content = entry.getValue().getStringValue();
+                continue;
+            }
+            Object value = toObject(entry.getValue());
+            if (value != null) {
+                metadata.put(entry.getKey(), value);
+            }
+        }
+        String id = point.getId().hasUuid() ? point.getId().getUuid() : String.valueOf(point.getId().getNum());
+        return new Document(id, content, metadata);
+    }
+
+    private static Object toObject(JsonWithInt.Value value) {
+        return switch (value.getKindCase()) {
+            case STRING_VALUE -> value.getStringValue();
+            case INTEGER_VALUE -> value.getIntegerValue();
+            case DOUBLE_VALUE -> value.getDoubleValue();
+            case BOOL_VALUE -> value.getBoolValue();
+            case LIST_VALUE -> value.getListValue().getValuesList().stream()
+                    .map(VectorStoreChunkLookup::toObject)
+                    .toList();
+            case STRUCT_VALUE -> {
+                Map<String, Object> struct = new HashMap<>();
+                value.getStructValue().getFieldsMap().forEach((k, v) -> {
+                    Object converted = toObject(v);
+                    if (converted != null) struct.put(k, converted);
+                });
+                yield struct;
+            }
+            default -> null;
+        };
+    }
+}
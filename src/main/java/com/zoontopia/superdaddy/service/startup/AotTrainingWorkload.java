@@ -0,0 +1,111 @@
+package com.zoontopia.superdaddy.service.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * JDK AOT 캐시 학습 실행(./gradlew aotCache -PfastStartup)에서, 요청 경로의 클래스가 캐시에 담기도록 자기 자신에게
+ * 정해진 요청(화면, 정적 파일, 일반/스트리밍 채팅, 수집 상태)을 보낸 뒤 애플리케이션을 종료합니다.
+ *
+ * <p>super-daddy.startup.training-requests가 0보다 클 때만 동작합니다. 학습 실행은 Gemini/Qdrant 없이 끝나야 하므로
+ * loadtest 프로필(가짜 모델, 내장 벡터 저장소, 합성 코퍼스)과 함께 사용합니다. JVM은 종료하면서 AOT 캐시를 기록합니다.</p>
+ */
+@Component
+public class AotTrainingWorkload {
+
+    private static final Logger logger = LoggerFactory.getLogger(AotTrainingWorkload.class);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final List<String> QUESTIONS = List.of(
+            "신생아 목욕물 온도는 몇 도가 적당해?",
+            "분유는 몇 도 물로 타야 해?",
+            "아기가 열이 나면 언제 병원에 가야 해?",
+            "이유식은 언제부터 시작해?");
+
+    private final int requests;
+
+    public AotTrainingWorkload(@Value("${super-daddy.startup.training-requests:0}") int requests) {
+        this.requests = requests;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start(ApplicationReadyEvent event) {
+        if (requests <= 0) return;
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        if (!(context instanceof WebServerApplicationContext webContext)) {
+            logger.warn("AOT training workload needs a web server. Skipping.");
+            return;
+        }
+        URI baseUri = URI.create("http://localhost:" + webContext.getWebServer().getPort());
+        Thread.ofVirtual().name("aot-training").start(() -> {
+            int exitCode = 0;
+            try {
+                run(baseUri);
+            } catch (Exception e) {
+                logger.error("AOT training workload failed: {}", e.getMessage(), e);
+                exitCode = 1;
+            }
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        });
+    }
+
+    /**
+     * @return 보낸 요청 수
+     */
+    int run(URI baseUri) throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        int sent = 0;
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build()) {
+            for (int i = 0; i < requests; i++) {
+                String body = "{\"message\":\"" + QUESTIONS.get(i % QUESTIONS.size()) + "\"}";
+                send(client, get(baseUri, "/"));
+                send(client, get(baseUri, "/js/script.js"));
+                send(client, get(baseUri, "/css/style.css"));
+                send(client, post(baseUri, "/api/chat", body).header("Accept", "application/json").build());
+                send(client, post(baseUri, "/api/chat/stream", body).header("Accept", "text/event-stream").build());
+                send(client, get(baseUri, "/api/ingestion/status"));
+                sent += 6;
+            }
+        }
+        logger.info("AOT training workload sent {} requests in {} ms", sent, System.currentTimeMillis() - start);
+        return sent;
+    }
+
+    private static HttpRequest get(URI baseUri, String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private static HttpRequest.Builder post(URI baseUri, String path, String body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private static void send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        // 스트리밍 응답도 끝까지 읽어 요청 처리 경로 전체를 실행
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(request.method() + " " + request.uri().getPath() + " returned " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.zoontopia.superdaddy.service.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * JVM 시작부터 첫 요청을 처리하기까지 걸린 시간(time-to-first-served-request)을 기록합니다.
+ *
+ * <p>Spring Boot가 기록하는 application.ready.time은 컨텍스트 준비까지이므로, 지연 초기화된 빈 생성이나 첫 호출의
+ * 클래스 로딩까지 포함한 실제 첫 응답 시간을 superdaddy.startup.first.request 게이지(초, 첫 요청 전에는 NaN)와 로그로 남깁니다.
+ * 상태 확인(/actuator/**) 요청은 사용자 트래픽이 아니므로 세지 않습니다. 스트리밍 응답은 응답을 시작한 시점까지입니다.</p>
+ */
+@Component
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(FirstRequestTimer.class);
+
+    private final LongSupplier uptimeMillis;
+    private final AtomicBoolean served = new AtomicBoolean();
+    private volatile double firstRequestSeconds = Double.NaN;
+
+    @Autowired
+    public FirstRequestTimer(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this(meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry),
+                ManagementFactory.getRuntimeMXBean()::getUptime);
+    }
+
+    FirstRequestTimer(MeterRegistry meterRegistry, LongSupplier uptimeMillis) {
+        this.uptimeMillis = uptimeMillis;
+        TimeGauge.builder("superdaddy.startup.first.request", this, TimeUnit.SECONDS, timer -> timer.firstRequestSeconds)
+                .description("Time from JVM start until the first non-actuator request was served")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return served.get() || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (served.compareAndSet(false, true)) {
+                long uptime = uptimeMillis.getAsLong();
+                firstRequestSeconds = uptime / 1000.0;
+                logger.info("First request ({} {}) served {} ms after JVM start",
+                        request.getMethod(), request.getRequestURI(), uptime);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.zoontopia.superdaddy.service.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Controller;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 지연 초기화(spring.main.lazy-initialization=true, fast-startup 프로필)로 시작한 뒤, 요청을 받기 시작한 시점부터
+ * 아직 만들어지지 않은 싱글턴을 백그라운드에서 미리 만듭니다.
+ *
+ * <p>지연 초기화만 하면 시작은 빨라지지만 첫 요청이 Gemini 채팅/임베딩 클라이언트, Qdrant gRPC 클라이언트 생성 비용을 치르므로,
+ * 요청 진입점(컨트롤러)과 그 의존 빈부터 만들고 나머지를 만듭니다. 싱글턴 생성은 빈 팩토리가 동기화하므로 생성 도중 들어온 요청은
+ * 같은 빈이 만들어지기를 기다렸다가 사용합니다. 지연 초기화를 쓰지 않으면 아무것도 하지 않습니다.</p>
+ */
+@Component
+public class StartupWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private final ConfigurableListableBeanFactory beanFactory;
+    private final boolean enabled;
+
+    public StartupWarmup(ConfigurableListableBeanFactory beanFactory,
+                         @Value("${spring.main.lazy-initialization:false}") boolean lazyInitialization,
+                         @Value("${super-daddy.startup.warm-up:true}") boolean enabled) {
+        this.beanFactory = beanFactory;
+        // 지연 초기화를 쓰지 않으면 남은 지연 빈은 의도적으로 @Lazy인 빈뿐이므로 건드리지 않음
+        this.enabled = lazyInitialization && enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        Thread.ofVirtual().name("startup-warmup").start(this::warmUp);
+    }
+
+    /**
+     * @return 새로 만든 빈 수
+     */
+    int warmUp() {
+        long start = System.currentTimeMillis();
+        Set<String> names = new LinkedHashSet<>(Arrays.asList(beanFactory.getBeanNamesForAnnotation(Controller.class)));
+        names.addAll(Arrays.asList(beanFactory.getBeanDefinitionNames()));
+
+        int created = 0;
+        for (String name : names) {
+            if (beanFactory.containsSingleton(name) || !beanFactory.containsBeanDefinition(name)) continue;
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (!definition.isSingleton() || definition.isAbstract() || !definition.isLazyInit()) continue;
+            try {
+                beanFactory.getBean(name);
+                created++;
+            } catch (BeansException e) {
+                // 요청이 실제로 이 빈을 쓸 때 같은 오류가 다시 드러나므로 여기서는 기록만 함
+                logger.warn("Warm-up of bean '{}' failed: {}", name, e.getMessage());
+            }
+        }
+        if (created > 0) {
+            logger.info("Warmed up {} lazily initialized beans in {} ms", created, System.currentTimeMillis() - start);
+        }
+        return created;
+    }
+}
@@ -0,0 +1,542 @@
+package com.zoontopia.superdaddy.service.vectorstore;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
+import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * 프로세스 내장형 VectorStore입니다. Qdrant 없이(오프라인, 테스트) 실행하거나 네트워크 왕복 없이 검색할 때 사용합니다.
+ * spring.ai.vectorstore.type=embedded로 선택하며, 이 경우 Qdrant 자동 구성은 비활성화됩니다.
+ *
+ * <ul>
+ *   <li>벡터: 정규화된 float32를 {@code vectors.f32} 메모리 매핑 파일에 슬롯 단위로 저장 (내적 = 코사인 유사도)</li>
+ *   <li>본문/메타데이터: 추가/삭제는 {@code documents.log}에 레코드로 덧붙이고, 레코드가 쌓이면 {@code documents.bin} 스냅샷으로
+ *       압축. 시작 시 스냅샷을 읽고 로그를 재생 (수천 청크 기준 수십 ms)</li>
+ *   <li>검색: 필터(eq/in 등)를 통과한 문서 전체를 JDK Vector API 내적으로 점수화하고 상위 K개를 선택 (정확한 전수 검색)</li>
+ * </ul>
+ *
+ * <p>검색은 읽기 잠금으로 동시에 수행되고, 추가/삭제는 쓰기 잠금 안에서 벡터 파일 → 문서 로그 순으로 기록합니다.
+ * 같은 ID를 다시 추가하면 새 슬롯에 벡터를 쓰고, 이전 슬롯은 로그 기록이 끝난 뒤에 비우므로 도중에 종료되어도
+ * 기록된 문서가 가리키는 벡터는 덮어써지지 않습니다. 임베딩 계산(외부 호출)은 잠금 밖에서 수행합니다.</p>
+ */
+public class EmbeddedVectorStore extends AbstractObservationVectorStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedVectorStore.class);
+
+    private static final int DOCUMENTS_MAGIC = 0x45565331; // "EVS1"
+    private static final int DOCUMENTS_VERSION = 1;
+    private static final String VECTORS_FILE = "vectors.f32";
+    private static final String DOCUMENTS_FILE = "documents.bin";
+    private static final String LOG_FILE = "documents.log";
+    private static final int LOG_MAGIC = 0x45564C31; // "EVL1"
+    private static final int LOG_HEADER_SIZE = 8;
+    private static final int MAX_LOG_RECORD_SIZE = 64 * 1024 * 1024;
+    private static final byte LOG_PUT = 1;
+    private static final byte LOG_DELETE = 2;
+    // 로그 레코드 수가 이 값과 문서 수 중 큰 값을 넘으면 스냅샷으로 압축 (전체 재작성 비용을 레코드 수에 비례하게 나눔)
+    private static final int COMPACT_MIN_RECORDS = 1024;
+
+    private record Entry(String id, String text, Map<String, Object> metadata, int slot) {
+    }
+
+    private record Scored(Entry entry, float score) {
+    }
+
+    private final Path directory;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final TreeSet<Integer> freeSlots = new TreeSet<>();
+    private VectorFile vectors;
+    private int nextSlot;
+    private FileChannel log;
+    private long logEnd;
+    private int logRecords;
+
+    protected EmbeddedVectorStore(Builder builder) {
+        super(builder);
+        this.directory = builder.directory;
+        try {
+            load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open embedded vector store at " + directory, e);
+        }
+    }
+
+    public static Builder builder(EmbeddingModel embeddingModel, Path directory) {
+        return new Builder(embeddingModel, directory);
+    }
+
+    @Override
+    public void doAdd(List<Document> documents) {
+        if (documents.isEmpty()) return;
+        List<float[]> embeddings = embeddingModel.embed(documents, EmbeddingOptions.builder().build(), batchingStrategy);
+
+        lock.writeLock().lock();
+        try {
+            List<Entry> written = new ArrayList<>(documents.size());
+            List<Integer> replacedSlots = new ArrayList<>();
+            for (int i = 0; i < documents.size(); i++) {
+                Document doc = documents.get(i);
+                float[] vector = VectorMath.normalize(embeddings.get(i));
+                ensureVectorFile(vector.length);
+
+                int slot = allocateSlot();
+                vectors.write(slot, vector);
+                Entry entry = new Entry(doc.getId(), doc.getText(), new HashMap<>(doc.getMetadata()), slot);
+                Entry previous = entries.put(doc.getId(), entry);
+                if (previous != null) replacedSlots.add(previous.slot());
+                written.add(entry);
+            }
+            appendLog(written, List.of());
+            freeSlots.addAll(replacedSlots);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write embedded vector store", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void doDelete(List<String> ids) {
+        lock.writeLock().lock();
+        try {
+            List<Entry> removed = new ArrayList<>();
+            for (String id : ids) {
+                Entry entry = entries.remove(id);
+                if (entry != null) removed.add(entry);
+            }
+            if (removed.isEmpty()) return;
+            appendLog(List.of(), removed.stream().map(Entry::id).toList());
+            removed.forEach(entry -> freeSlots.add(entry.slot()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write embedded vector store", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected void doDelete(Filter.Expression filterExpression) {
+        Predicate<Map<String, Object>> filter = MetadataFilter.compile(filterExpression);
+        List<String> ids;
+        lock.readLock().lock();
+        try {
+            ids = entries.values().stream().filter(e -> filter.test(e.metadata())).map(Entry::id).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+        doDelete(ids);
+    }
+
+    @Override
+    public List<Document> doSimilaritySearch(SearchRequest request) {
+        float[] query = VectorMath.normalize(embeddingModel.embed(request.getQuery()));
+        Predicate<Map<String, Object>> filter = request.hasFilterExpression()
+                ? MetadataFilter.compile(request.getFilterExpression())
+                : metadata -> true;
+        int topK = request.getTopK();
+        double threshold = request.getSimilarityThreshold();
+
+        PriorityQueue<Scored> best = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+        lock.readLock().lock();
+        try {
+            if (vectors == null || entries.isEmpty()) return List.of();
+            int dimensions = vectors.dimensions();
+            if (query.length != dimensions) {
+                throw new IllegalStateException("Query embedding has " + query.length
+                        + " dimensions but the embedded store holds " + dimensions);
+            }
+
+            float[] row = new float[dimensions];
+            for (Entry entry : entries.values()) {
+                if (!filter.test(entry.metadata())) continue;
+                vectors.read(entry.slot(), row);
+                float score = VectorMath.dot(query, row, dimensions);
+                if (score < threshold) continue;
+                if (best.size() < topK) {
+                    best.add(new Scored(entry, score));
+                } else if (score > best.peek().score()) {
+                    best.poll();
+                    best.add(new Scored(entry, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Scored> ranked = new ArrayList<>(best);
+        ranked.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return ranked.stream().map(s -> toDocument(s.entry(), s.score())).toList();
+    }
+
+    /**
+     * ID로 문서를 바로 조회합니다 (벡터 연산 없음). 없는 ID는 결과에서 빠집니다.
+     */
+    public Map<String, Document> findByIds(Collection<String> ids) {
+        Map<String, Document> result = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String id : ids) {
+                Entry entry = entries.get(id);
+                if (entry != null) result.put(id, toDocument(entry, null));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * 저장된 모든 문서를 배치 단위로 전달합니다.
+     */
+    public void scanAll(int batchSize, Consumer<List<Document>> batchConsumer) {
+        List<Document> all;
+        lock.readLock().lock();
+        try {
+            all = entries.values().stream().map(e -> toDocument(e, null)).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (int i = 0; i < all.size(); i += batchSize) {
+            batchConsumer.accept(all.subList(i, Math.min(i + batchSize, all.size())));
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> getNativeClient() {
+        return Optional.of((T) this);
+    }
+
+    @Override
+    public VectorStoreObservationContext.Builder createObservationContextBuilder(String operationName) {
+        return VectorStoreObservationContext.builder("embedded", operationName)
+                .collectionName(directory.getFileName().toString())
+                .dimensions(vectors != null ? vectors.dimensions() : null)
+                .similarityMetric("cosine");
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (vectors != null) vectors.close();
+            if (log != null && log.isOpen()) {
+                log.force(false);
+                log.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Document toDocument(Entry entry, Float score) {
+        Map<String, Object> metadata = new HashMap<>(entry.metadata());
+        if (score != null) metadata.put("distance", 1.0f - score);
+        return Document.builder()
+                .id(entry.id())
+                .text(entry.text())
+                .metadata(metadata)
+                .score(score != null ? score.doubleValue() : null)
+                .build();
+    }
+
+    private int allocateSlot() {
+        Integer free = freeSlots.pollFirst();
+        return free != null ? free : nextSlot++;
+    }
+
+    private void ensureVectorFile(int dimensions) throws IOException {
+        if (vectors == null) {
+            vectors = VectorFile.create(directory.resolve(VECTORS_FILE), dimensions);
+        } else if (vectors.dimensions() != dimensions) {
+            throw new IllegalStateException("Embedding has " + dimensions
+                    + " dimensions but the embedded store holds " + vectors.dimensions()
+                    + ". Delete " + directory + " to rebuild with the new embedding model.");
+        }
+    }
+
+    // --- 파일 입출력 ---
+
+    private void load() throws IOException {
+        long start = System.currentTimeMillis();
+        Files.createDirectories(directory);
+
+        Path vectorsPath = directory.resolve(VECTORS_FILE);
+        Path documentsPath = directory.resolve(DOCUMENTS_FILE);
+        if (VectorFile.exists(vectorsPath)) {
+            vectors = VectorFile.open(vectorsPath);
+        }
+        if (Files.exists(documentsPath)) {
+            readDocuments(documentsPath);
+        }
+        openLog(directory.resolve(LOG_FILE));
+
+        // 문서 파일에 없는 슬롯은 빈 슬롯 (문서 파일 기록 전에 종료된 경우 포함)
+        boolean[] used = new boolean[nextSlot];
+        entries.values().forEach(e -> used[e.slot()] = true);
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (!used[slot]) freeSlots.add(slot);
+        }
+
+        logger.info("Embedded vector store loaded from {}: {} documents in {} ms (SIMD: {})",
+                directory, entries.size(), System.currentTimeMillis() - start, VectorMath.SIMD_AVAILABLE);
+    }
+
+    private void readDocuments(Path path) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != DOCUMENTS_MAGIC || in.readInt() != DOCUMENTS_VERSION) {
+                throw new IOException("Not an embedded store documents file: " + path);
+            }
+            nextSlot = in.readInt();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String id = in.readUTF();
+                int slot = in.readInt();
+                String text = new String(readBytes(in), StandardCharsets.UTF_8);
+                Map<String, Object> metadata = objectMapper.readValue(readBytes(in), new TypeReference<>() {});
+                entries.put(id, new Entry(id, text, metadata, slot));
+            }
+        }
+    }
+
+    /**
+     * 로그를 열고 스냅샷 이후의 레코드를 순서대로 재생합니다. 기록 도중 종료되어 끝이 잘린 레코드는 잘라냅니다.
+     * 스냅샷을 쓴 뒤 로그를 비우기 전에 종료되었다면 이미 반영된 레코드가 다시 재생되지만, 같은 순서로 다시 적용하므로 결과는 같습니다.
+     */
+    private void openLog(Path path) throws IOException {
+        log = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = log.size();
+        if (size == 0) {
+            resetLog();
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+        readFully(header, 0);
+        if (header.flip().getInt() != LOG_MAGIC || header.getInt() != DOCUMENTS_VERSION) {
+            throw new IOException("Not an embedded store log file: " + path);
+        }
+
+        long offset = LOG_HEADER_SIZE;
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        while (offset + 4 <= size) {
+            readFully(lengthBuffer.clear(), offset);
+            int bodyLength = lengthBuffer.flip().getInt();
+            if (bodyLength <= 0 || bodyLength > MAX_LOG_RECORD_SIZE || offset + 4 + bodyLength + 4 > size) break;
+
+            ByteBuffer record = ByteBuffer.allocate(bodyLength + 4);
+            readFully(record, offset + 4);
+            byte[] body = new byte[bodyLength];
+            record.flip().get(body);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if ((int) crc.getValue() != record.getInt()) break;
+
+            replay(body);
+            logRecords++;
+            offset += 4 + bodyLength + 4;
+        }
+        if (offset < size) {
+            logger.warn("Embedded store log {} has a truncated or corrupt tail at {} (size {}). Discarding it.",
+                    path, offset, size);
+            log.truncate(offset);
+        }
+        logEnd = offset;
+    }
+
+    private void replay(byte[] body) throws IOException {
+        var in = new DataInputStream(new ByteArrayInputStream(body));
+        byte op = in.readByte();
+        String id = in.readUTF();
+        if (op == LOG_DELETE) {
+            entries.remove(id);
+            return;
+        }
+        int slot = in.readInt();
+        String text = new String(readBytes(in), StandardCharsets.UTF_8);
+        Map<String, Object> metadata = objectMapper.readValue(readBytes(in), new TypeReference<>() {});
+        entries.put(id, new Entry(id, text, metadata, slot));
+        nextSlot = Math.max(nextSlot, slot + 1);
+    }
+
+    /**
+     * 벡터를 먼저 디스크에 반영한 뒤 추가/삭제 레코드를 로그 끝에 덧붙입니다. 변경량에 비례하는 만큼만 쓰며,
+     * 로그가 충분히 길어지면 스냅샷으로 압축합니다. 도중에 종료되면 로그에 없는 새 슬롯은 빈 슬롯으로 취급됩니다.
+     */
+    private void appendLog(List<Entry> puts, List<String> deletes) throws IOException {
+        if (vectors != null) vectors.force();
+
+        var bytes = new ByteArrayOutputStream();
+        var out = new DataOutputStream(bytes);
+        for (Entry entry : puts) {
+            writeRecord(out, putRecord(entry));
+        }
+        for (String id : deletes) {
+            writeRecord(out, deleteRecord(id));
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        while (buffer.hasRemaining()) {
+            logEnd += log.write(buffer, logEnd);
+        }
+        logRecords += puts.size() + deletes.size();
+
+        if (logRecords > Math.max(COMPACT_MIN_RECORDS, entries.size())) {
+            compact();
+        }
+    }
+
+    private byte[] putRecord(Entry entry) throws IOException {
+        var body = new ByteArrayOutputStream();
+        var out = new DataOutputStream(body);
+        out.writeByte(LOG_PUT);
+        out.writeUTF(entry.id());
+        out.writeInt(entry.slot());
+        writeBytes(out, entry.text() != null ? entry.text().getBytes(StandardCharsets.UTF_8) : new byte[0]);
+        writeBytes(out, objectMapper.writeValueAsBytes(entry.metadata()));
+        return body.toByteArray();
+    }
+
+    private static byte[] deleteRecord(String id) throws IOException {
+        var body = new ByteArrayOutputStream();
+        var out = new DataOutputStream(body);
+        out.writeByte(LOG_DELETE);
+        out.writeUTF(id);
+        return body.toByteArray();
+    }
+
+    private static void writeRecord(DataOutputStream out, byte[] body) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        out.writeInt(body.length);
+        out.write(body);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * 현재 문서 전체를 스냅샷으로 쓴 뒤(임시 파일에 쓰고 교체) 로그를 비웁니다.
+     */
+    private void compact() throws IOException {
+        long start = System.currentTimeMillis();
+        writeSnapshot();
+        resetLog();
+        logger.debug("Embedded store log compacted into a snapshot of {} documents in {} ms",
+                entries.size(), System.currentTimeMillis() - start);
+    }
+
+    private void resetLog() throws IOException {
+        log.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE).putInt(LOG_MAGIC).putInt(DOCUMENTS_VERSION).flip();
+        while (header.hasRemaining()) {
+            log.write(header, header.position());
+        }
+        log.force(false);
+        logEnd = LOG_HEADER_SIZE;
+        logRecords = 0;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = log.read(buffer, position + buffer.position());
+            if (read < 0) throw new IOException("Unexpected end of embedded store log file");
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        Path path = directory.resolve(DOCUMENTS_FILE);
+        Path tmp = directory.resolve(DOCUMENTS_FILE + ".tmp");
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(DOCUMENTS_MAGIC);
+            out.writeInt(DOCUMENTS_VERSION);
+            out.writeInt(nextSlot);
+            out.writeInt(entries.size());
+            for (Entry entry : entries.values()) {
+                out.writeUTF(entry.id());
+                out.writeInt(entry.slot());
+                writeBytes(out, entry.text() != null ? entry.text().getBytes(StandardCharsets.UTF_8) : new byte[0]);
+                writeBytes(out, objectMapper.writeValueAsBytes(entry.metadata()));
+            }
+        }
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    public static final class Builder extends AbstractVectorStoreBuilder<Builder> {
+
+        private final Path directory;
+
+        private Builder(EmbeddingModel embeddingModel, Path directory) {
+            super(embeddingModel);
+            this.directory = directory;
+        }
+
+        @Override
+        public EmbeddedVectorStore build() {
+            return new EmbeddedVectorStore(this);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.zoontopia.superdaddy.service.vectorstore;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Spring AI 필터 식({@link Filter.Expression})을 메타데이터 Map에 대한 조건으로 변환합니다.
+ * 검색마다 식을 해석하지 않도록 한 번 컴파일한 Predicate를 모든 후보 문서에 적용합니다.
+ *
+ * <p>메타데이터 값이 리스트(예: keywords)이면 Qdrant의 keyword 매칭과 같이 원소 중 하나라도 일치하면 참입니다.
+ * 숫자는 타입(Integer/Long/Double)과 무관하게 값으로 비교합니다.</p>
+ */
+final class MetadataFilter {
+
+    private MetadataFilter() {
+    }
+
+    static Predicate<Map<String, Object>> compile(Filter.Expression expression) {
+        return switch (expression.type()) {
+            case AND -> compile(expression.left()).and(compile(expression.right()));
+            case OR -> compile(expression.left()).or(compile(expression.right()));
+            case NOT -> compile(expression.left()).negate();
+            case EQ -> matchAny(key(expression), value -> equalsValue(value, value(expression)));
+            case NE -> matchAny(key(expression), value -> equalsValue(value, value(expression))).negate();
+            case GT -> matchAny(key(expression), value -> compare(value, value(expression)) > 0);
+            case GTE -> matchAny(key(expression), value -> compare(value, value(expression)) >= 0);
+            case LT -> matchAny(key(expression), value -> compare(value, value(expression)) < 0);
+            case LTE -> matchAny(key(expression), value -> compare(value, value(expression)) <= 0);
+            case IN -> matchAny(key(expression), value -> inList(value, value(expression)));
+            case NIN -> matchAny(key(expression), value -> inList(value, value(expression))).negate();
+            case ISNULL -> metadata -> metadata.get(key(expression)) == null;
+            case ISNOTNULL -> metadata -> metadata.get(key(expression)) != null;
+        };
+    }
+
+    private static Predicate<Map<String, Object>> compile(Filter.Operand operand) {
+        if (operand instanceof Filter.Expression expression) return compile(expression);
+        if (operand instanceof Filter.Group group) return compile(group.content());
+        throw new IllegalArgumentException("Unsupported filter operand: " + operand);
+    }
+
+    private static Predicate<Map<String, Object>> matchAny(String key, Predicate<Object> condition) {
+        return metadata -> {
+            Object value = metadata.get(key);
+            if (value == null) return false;
+            if (value instanceof Collection<?> values) {
+                return values.stream().anyMatch(v -> v != null && condition.test(v));
+            }
+            return condition.test(value);
+        };
+    }
+
+    private static String key(Filter.Expression expression) {
+        if (expression.left() instanceof Filter.Key key) {
+            String name = key.key();
+            // 식 문자열로 만든 필터는 따옴표로 감싼 키를 그대로 가질 수 있음
+            if (name.length() > 1 && (name.startsWith("\"") || name.startsWith("'"))) {
+                name = name.substring(1, name.length() - 1);
+            }
+            return name;
+        }
+        throw new IllegalArgumentException("Filter expression must have a key on the left: " + expression);
+    }
+
+    private static Object value(Filter.Expression expression) {
+        if (expression.right() instanceof Filter.Value value) return value.value();
+        throw new IllegalArgumentException("Filter expression must have a value on the right: " + expression);
+    }
+
+    private static boolean inList(Object actual, Object expected) {
+        if (expected instanceof Collection<?> values) {
+            return values.stream().anyMatch(v -> equalsValue(actual, v));
+        }
+        if (expected instanceof Object[] values) {
+            return List.of(values).stream().anyMatch(v -> equalsValue(actual, v));
+        }
+        return equalsValue(actual, expected);
+    }
+
+    private static boolean equalsValue(Object actual, Object expected) {
+        if (actual instanceof Number a && expected instanceof Number e) {
+            return Double.compare(a.doubleValue(), e.doubleValue()) == 0;
+        }
+        if (actual instanceof Number || expected instanceof Number) {
+            return Objects.equals(String.valueOf(actual), String.valueOf(expected));
+        }
+        return Objects.equals(actual, expected);
+    }
+
+    private static int compare(Object actual, Object expected) {
+        if (actual instanceof Number a && expected instanceof Number e) {
+            return Double.compare(a.doubleValue(), e.doubleValue());
+        }
+        return String.valueOf(actual).compareTo(String.valueOf(expected));
+    }
+}
@@ -0,0 +1,191 @@
+package com.zoontopia.superdaddy.service.vectorstore;
+
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.grpc.Collections;
+import io.qdrant.client.grpc.Collections.PayloadSchemaType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Qdrant 컬렉션의 페이로드 색인, 스칼라 양자화, HNSW 설정을 선언한 값과 맞춥니다.
+ *
+ * <p>initialize-schema는 컬렉션을 기본값으로 만들 뿐 페이로드 색인을 만들지 않아, 필터 검색(source, parent_document_id/chunk_index,
+ * chunk_id, doc_type)이 컬렉션이 커질수록 느려집니다. 시작 시(수집보다 먼저) 현재 컬렉션 정보를 읽어 빠진 색인은 만들고,
+ * 타입이 다른 색인은 다시 만들며, HNSW/양자화 설정이 다르면 컬렉션 설정을 갱신합니다. 이미 맞으면 아무것도 하지 않습니다.</p>
+ *
+ * <p>검색 시 ef는 Spring AI의 QdrantVectorStore가 검색 파라미터를 넘기지 않아 Qdrant 기본값(ef_construct)을 따르므로
+ * ef-construct로 함께 조정합니다. Qdrant를 쓰지 않거나(내장 저장소) Qdrant에 연결할 수 없으면 경고만 남기고 계속 실행합니다.</p>
+ */
+@Component
+public class QdrantSchemaManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(QdrantSchemaManager.class);
+
+    /**
+     * 코드에서 필터로 쓰는 페이로드 필드와 색인 타입
+     */
+    static final Map<String, PayloadSchemaType> PAYLOAD_INDEXES = Map.of(
+            "source", PayloadSchemaType.Keyword,
+            "parent_document_id", PayloadSchemaType.Keyword,
+            "chunk_index", PayloadSchemaType.Integer,
+            "chunk_id", PayloadSchemaType.Keyword,
+            "doc_type", PayloadSchemaType.Keyword);
+
+    public record Settings(long hnswM, long hnswEfConstruct,
+                           boolean quantization, float quantile, boolean quantizationAlwaysRam) {
+    }
+
+    /**
+     * 선언과 현재 컬렉션의 차이. hnsw/quantization이 null이면 바꿀 필요가 없다는 뜻입니다.
+     */
+    record Plan(List<String> createIndexes, List<String> recreateIndexes,
+                Collections.HnswConfigDiff hnsw, Collections.QuantizationConfigDiff quantization) {
+
+        boolean isEmpty() {
+            return createIndexes.isEmpty() && recreateIndexes.isEmpty() && hnsw == null && quantization == null;
+        }
+    }
+
+    private final VectorStore vectorStore;
+    private final String collectionName;
+    private final boolean enabled;
+    private final Settings settings;
+
+    public QdrantSchemaManager(VectorStore vectorStore,
+                               @Value("${spring.ai.vectorstore.qdrant.collection-name:vector_store}") String collectionName,
+                               @Value("${super-daddy.qdrant.schema.enabled:true}") boolean enabled,
+                               @Value("${super-daddy.qdrant.schema.hnsw.m:16}") long hnswM,
+                               @Value("${super-daddy.qdrant.schema.hnsw.ef-construct:100}") long hnswEfConstruct,
+                               @Value("${super-daddy.qdrant.schema.quantization.enabled:true}") boolean quantization,
+                               @Value("${super-daddy.qdrant.schema.quantization.quantile:0.99}") float quantile,
+                               @Value("${super-daddy.qdrant.schema.quantization.always-ram:true}") boolean alwaysRam) {
+        this.vectorStore = vectorStore;
+        this.collectionName = collectionName;
+        this.enabled = enabled;
+        this.settings = new Settings(hnswM, hnswEfConstruct, quantization, quantile, alwaysRam);
+    }
+
+    /**
+     * 수집(ApplicationReadyEvent)보다 먼저 실행되도록 가장 높은 우선순위로 등록합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void reconcile() {
+        if (!enabled) return;
+        if (!(vectorStore.getNativeClient().orElse(null) instanceof QdrantClient client)) return;
+
+        try {
+            if (!await(client.collectionExistsAsync(collectionName))) {
+                logger.warn("Qdrant collection '{}' does not exist. Schema reconciliation skipped.", collectionName);
+                return;
+            }
+            Plan plan = plan(await(client.getCollectionInfoAsync(collectionName)), settings);
+            if (plan.isEmpty()) {
+                logger.info("Qdrant collection '{}' matches the declared schema.", collectionName);
+                return;
+            }
+            apply(client, plan);
+        } catch (Exception e) {
+            logger.warn("Qdrant schema reconciliation failed for '{}': {}", collectionName, e.getMessage());
+        }
+    }
+
+    static Plan plan(Collections.CollectionInfo info, Settings settings) {
+        List<String> create = new ArrayList<>();
+        List<String> recreate = new ArrayList<>();
+        PAYLOAD_INDEXES.keySet().stream().sorted().forEach(field -> {
+            Collections.PayloadSchemaInfo current = info.getPayloadSchemaMap().get(field);
+            if (current == null) {
+                create.add(field);
+            } else if (current.getDataType() != PAYLOAD_INDEXES.get(field)) {
+                recreate.add(field);
+            }
+        });
+
+        Collections.HnswConfigDiff currentHnsw = info.getConfig().getHnswConfig();
+        Collections.HnswConfigDiff hnsw = currentHnsw.getM() == settings.hnswM()
+                && currentHnsw.getEfConstruct() == settings.hnswEfConstruct() ? null
+                : Collections.HnswConfigDiff.newBuilder()
+                        .setM(settings.hnswM())
+                        .setEfConstruct(settings.hnswEfConstruct())
+                        .build();
+
+        return new Plan(create, recreate, hnsw, quantizationDiff(info.getConfig(), settings));
+    }
+
+    private static Collections.QuantizationConfigDiff quantizationDiff(Collections.CollectionConfig config,
+                                                                       Settings settings) {
+        boolean quantized = config.hasQuantizationConfig()
+                && config.getQuantizationConfig().getQuantizationCase()
+                != Collections.QuantizationConfig.QuantizationCase.QUANTIZATION_NOT_SET;
+        if (!settings.quantization()) {
+            return quantized
+                    ? Collections.QuantizationConfigDiff.newBuilder()
+                            .setDisabled(Collections.Disabled.getDefaultInstance())
+                            .build()
+                    : null;
+        }
+
+        Collections.ScalarQuantization declared = Collections.ScalarQuantization.newBuilder()
+                .setType(Collections.QuantizationType.Int8)
+                .setQuantile(settings.quantile())
+                .setAlwaysRam(settings.quantizationAlwaysRam())
+                .build();
+        if (quantized && config.getQuantizationConfig().hasScalar()) {
+            Collections.ScalarQuantization current = config.getQuantizationConfig().getScalar();
+            if (current.getType() == declared.getType()
+                    && current.getQuantile() == declared.getQuantile()
+                    && current.getAlwaysRam() == declared.getAlwaysRam()) {
+                return null;
+            }
+        }
+        return Collections.QuantizationConfigDiff.newBuilder().setScalar(declared).build();
+    }
+
+    private void apply(QdrantClient client, Plan plan) throws Exception {
+        for (String field : plan.recreateIndexes()) {
+            await(client.deletePayloadIndexAsync(collectionName, field, true, null, null));
+        }
+        List<String> indexes = new ArrayList<>(plan.recreateIndexes());
+        indexes.addAll(plan.createIndexes());
+        for (String field : indexes) {
+            await(client.createPayloadIndexAsync(collectionName, field, PAYLOAD_INDEXES.get(field),
+                    null, true, null, null));
+        }
+
+        if (plan.hnsw() != null || plan.quantization() != null) {
+            Collections.UpdateCollection.Builder update = Collections.UpdateCollection.newBuilder()
+                    .setCollectionName(collectionName);
+            if (plan.hnsw() != null) update.setHnswConfig(plan.hnsw());
+            if (plan.quantization() != null) update.setQuantizationConfig(plan.quantization());
+            await(client.updateCollectionAsync(update.build()));
+        }
+        logger.info("Qdrant collection '{}' reconciled: created indexes {}, recreated indexes {}, hnsw {}, quantization {}",
+                collectionName, plan.createIndexes(), plan.recreateIndexes(),
+                plan.hnsw() != null ? "updated" : "unchanged", plan.quantization() != null ? "updated" : "unchanged");
+    }
+
+    private static <T> T await(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.zoontopia.superdaddy.service.vectorstore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 고정 차원 float32 벡터를 슬롯 단위로 보관하는 메모리 매핑 파일입니다.
+ * 파일 = 헤더(magic, version, dimensions, reserved) + 슬롯 × dimensions개의 float (little-endian).
+ * 읽기는 OS 페이지 캐시를 그대로 사용하므로 시작 시 벡터를 힙으로 읽어 들이지 않습니다.
+ *
+ * <p>슬롯 쓰기와 파일 확장(다시 매핑)은 호출자가 배타적으로 수행해야 하며, 읽기는 여러 스레드에서 동시에 할 수 있습니다.</p>
+ */
+final class VectorFile implements Closeable {
+
+    private static final int MAGIC = 0x56454331; // "VEC1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int HEADER_FLOATS = HEADER_BYTES / Float.BYTES;
+    private static final int INITIAL_SLOTS = 1024;
+
+    private final FileChannel channel;
+    private final int dimensions;
+    private MappedByteBuffer mapped;
+    private FloatBuffer floats;
+    private int capacity;
+
+    private VectorFile(FileChannel channel, int dimensions) {
+        this.channel = channel;
+        this.dimensions = dimensions;
+    }
+
+    static boolean exists(Path path) {
+        return Files.exists(path);
+    }
+
+    static VectorFile create(Path path, int dimensions) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        VectorFile file = new VectorFile(channel, dimensions);
+        file.map(INITIAL_SLOTS);
+        file.mapped.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, dimensions).putInt(12, 0);
+        return file;
+    }
+
+    static VectorFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not an embedded vector file: " + path);
+            }
+            VectorFile file = new VectorFile(channel, header.getInt(8));
+            file.map((int) ((channel.size() - HEADER_BYTES) / ((long) file.dimensions * Float.BYTES)));
+            return file;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    int dimensions() {
+        return dimensions;
+    }
+
+    void write(int slot, float[] vector) throws IOException {
+        if (slot >= capacity) map(Math.max(slot + 1, capacity * 2));
+        floats.put(offset(slot), vector, 0, dimensions);
+    }
+
+    void read(int slot, float[] target) {
+        floats.get(offset(slot), target, 0, dimensions);
+    }
+
+    void force() {
+        mapped.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private int offset(int slot) {
+        return HEADER_FLOATS + slot * dimensions;
+    }
+
+    private void map(int slots) throws IOException {
+        long size = HEADER_BYTES + (long) slots * dimensions * Float.BYTES;
+        if (size > Integer.MAX_VALUE) throw new IOException("Embedded vector file exceeds 2 GB");
+        if (mapped != null) mapped.force();
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        floats = mapped.asFloatBuffer();
+        capacity = slots;
+    }
+}
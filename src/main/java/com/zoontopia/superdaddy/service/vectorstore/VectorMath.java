@@ -0,0 +1,50 @@
+package com.zoontopia.superdaddy.service.vectorstore;
+
+/**
+ * 벡터 내적/정규화 연산입니다.
+ * JVM이 {@code --add-modules jdk.incubator.vector}로 실행되면 JDK Vector API(SIMD) 구현을 쓰고,
+ * 그렇지 않으면 스칼라 루프로 계산합니다. (SIMD 구현 클래스는 모듈이 있을 때만 로드됨)
+ * 내장 벡터 저장소 밖에서 임베딩을 비교하는 답변 캐시, 후속 질문 판별도 이 연산을 씁니다.
+ */
+public final class VectorMath {
+
+    static final boolean SIMD_AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private VectorMath() {
+    }
+
+    public static float dot(float[] a, float[] b, int length) {
+        return SIMD_AVAILABLE ? SimdVectorMath.dot(a, b, length) : scalarDot(a, b, length);
+    }
+
+    static float scalarDot(float[] a, float[] b, int length) {
+        float sum = 0f;
+        for (int i = 0; i < length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 단위 벡터로 정규화한 사본을 반환합니다. 저장/질의 벡터를 모두 정규화해 두면 내적이 곧 코사인 유사도입니다.
+     */
+    public static float[] normalize(float[] vector) {
+        float norm = (float) Math.sqrt(scalarDot(vector, vector, vector.length));
+        float[] normalized = new float[vector.length];
+        if (norm == 0f) return normalized;
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] / norm;
+        }
+        return normalized;
+    }
+
+    /**
+     * 정규화하지 않은 두 벡터의 코사인 유사도입니다. 길이가 다르거나(다른 임베딩 모델) 영벡터가 있으면 0입니다.
+     */
+    public static float cosine(float[] a, float[] b) {
+        if (a.length != b.length) return 0f;
+        float normA = dot(a, a, a.length);
+        float normB = dot(b, b, b.length);
+        return normA == 0f || normB == 0f ? 0f : dot(a, b, a.length) / (float) Math.sqrt(normA * normB);
+    }
+}
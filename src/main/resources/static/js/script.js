@@ -13,17 +13,209 @@ document.addEventListener('DOMContentLoaded', () => {
     const searchClose = document.getElementById('search-close');
     const searchCount = document.getElementById('search-count');
 
-    let searchMatches = [];
+    let searchQuery = '';
+    let searchMatches = []; // { index: 메시지 위치, occurrence: 메시지 안에서 몇 번째 일치인지 }
     let currentMatchIndex = -1;
     let lastMessageDate = null;
 
+    // 서버가 발급한 대화 세션 ID. 탭을 닫으면 새 대화로 시작합니다.
+    const SESSION_KEY = 'superdaddy.sessionId';
+    let sessionId = sessionStorage.getItem(SESSION_KEY);
+
     // Initialize Marked options
     marked.setOptions({
         breaks: true, // Enable GFM line breaks
         gfm: true
     });
 
+    // --- Message List (Virtualized) ---
+    // 대화 내용은 items 배열(메시지 원문, 렌더링된 HTML, 검색용 텍스트, 측정한 높이)에 두고,
+    // 화면에 보이는 범위(+ 위아래 여유분)의 메시지만 DOM으로 만듭니다. 보이지 않는 부분은 위/아래 여백 요소의 높이로 대신합니다.
+    // 아직 그려 본 적 없는 메시지는 추정 높이를 쓰고, 그려진 뒤 ResizeObserver로 실제 높이를 기록합니다.
+
+    const ESTIMATED_MESSAGE_HEIGHT = 80;
+    const ESTIMATED_DATE_HEIGHT = 50;
+    const OVERSCAN_PX = 600;
+    const BOTTOM_THRESHOLD_PX = 40;
+
+    const items = []; // 날짜 { kind: 'date', text } 또는 메시지 { kind: 'sent' | 'received', html, searchText, time, stream }, 측정 후 height
+    const rendered = new Map(); // item 위치 → 화면에 있는 요소
+    let offsets = [0]; // offsets[i] = i번째 item의 위쪽 위치, offsets[items.length] = 전체 높이
+    let offsetsDirty = false;
+    let followBottom = true; // 맨 아래를 보고 있으면 새 내용이 생길 때 계속 따라 내려감
+    let renderScheduled = false;
+
+    const topSpacer = document.createElement('div');
+    const bottomSpacer = document.createElement('div');
+    topSpacer.classList.add('chat-spacer');
+    bottomSpacer.classList.add('chat-spacer');
+    chatScreen.append(topSpacer, bottomSpacer);
+
+    const resizeObserver = new ResizeObserver(entries => {
+        if (offsetsDirty) rebuildOffsets();
+        let changed = false;
+        for (const entry of entries) {
+            if (entry.target === chatScreen) {
+                changed = true;
+                continue;
+            }
+            const index = Number(entry.target.dataset.index);
+            const height = entry.target.offsetHeight;
+            if (!items[index] || items[index].height === height) continue;
+
+            // 보고 있는 위치보다 위의 메시지 높이가 바뀌면, 보던 내용이 밀리지 않도록 스크롤 위치도 같이 옮김
+            if (!followBottom && offsets[index] < chatScreen.scrollTop) {
+                chatScreen.scrollTop += height - items[index].height;
+            }
+            items[index].height = height;
+            offsetsDirty = true;
+            changed = true;
+        }
+        if (changed) scheduleRender();
+    });
+    resizeObserver.observe(chatScreen);
+
+    function estimatedHeight(item) {
+        return item.kind === 'date' ? ESTIMATED_DATE_HEIGHT : ESTIMATED_MESSAGE_HEIGHT;
+    }
+
+    function rebuildOffsets() {
+        offsets = new Array(items.length + 1);
+        offsets[0] = 0;
+        for (let i = 0; i < items.length; i++) {
+            offsets[i + 1] = offsets[i] + (items[i].height ?? estimatedHeight(items[i]));
+        }
+        offsetsDirty = false;
+    }
+
+    // y 위치에 걸쳐 있는 item의 위치 (이진 탐색)
+    function indexAt(y) {
+        let low = 0;
+        let high = items.length - 1;
+        while (low < high) {
+            const mid = (low + high + 1) >> 1;
+            if (offsets[mid] <= y) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    function scheduleRender() {
+        if (renderScheduled) return;
+        renderScheduled = true;
+        requestAnimationFrame(() => {
+            renderScheduled = false;
+            renderWindow();
+            if (followBottom) scrollToBottom();
+        });
+    }
+
+    function renderWindow() {
+        if (offsetsDirty) rebuildOffsets();
+        if (items.length === 0) return;
+
+        const top = Math.max(0, chatScreen.scrollTop - OVERSCAN_PX);
+        const bottom = chatScreen.scrollTop + chatScreen.clientHeight + OVERSCAN_PX;
+        const start = indexAt(top);
+        const end = indexAt(bottom);
+
+        for (const [index, element] of rendered) {
+            if (index >= start && index <= end) continue;
+            resizeObserver.unobserve(element);
+            element.remove();
+            rendered.delete(index);
+        }
+
+        let previous = topSpacer;
+        for (let i = start; i <= end; i++) {
+            let element = rendered.get(i);
+            if (!element) {
+                element = createItemElement(i);
+                rendered.set(i, element);
+                resizeObserver.observe(element);
+            }
+            if (previous.nextSibling !== element) previous.after(element);
+            previous = element;
+        }
+
+        topSpacer.style.height = `${offsets[start]}px`;
+        bottomSpacer.style.height = `${offsets[items.length] - offsets[end + 1]}px`;
+    }
+
+    function createItemElement(index) {
+        const item = items[index];
+        const element = document.createElement('div');
+        element.classList.add('chat-item');
+        element.dataset.index = index;
+
+        if (item.kind === 'date') {
+            const dateDiv = document.createElement('div');
+            dateDiv.classList.add('chat-date');
+            dateDiv.textContent = item.text;
+            element.appendChild(dateDiv);
+            return element;
+        }
+
+        if (item.kind === 'sent') {
+            // User message: Plain text
+            element.innerHTML = `
+                <div class="message-row sent">
+                    <div class="message-info">
+                        <div class="message-bubble"></div>
+                        <span class="message-time">${item.time}</span>
+                    </div>
+                </div>
+            `;
+        } else {
+            // Bot message: Markdown rendered
+            element.innerHTML = `
+                <div class="message-row received">
+                    <img src="/images/superdaddy_profile.svg" alt="SuperDaddy">
+                    <div class="message-content">
+                        <span class="message-author">Super Daddy</span>
+                        <div class="message-info">
+                            <div class="message-bubble"></div>
+                            <span class="message-time">${item.time}</span>
+                        </div>
+                    </div>
+                </div>
+            `;
+        }
+        fillBubble(index, element.querySelector('.message-bubble'));
+        return element;
+    }
+
+    function fillBubble(index, bubble) {
+        const item = items[index];
+        if (item.stream) {
+            // 스트리밍 중인 답변은 이미 렌더링한 블록 요소를 그대로 옮겨 붙임
+            bubble.replaceChildren(item.stream.committed, item.stream.tail);
+        } else {
+            bubble.innerHTML = item.html;
+            applyHighlights(index, bubble);
+        }
+    }
+
+    function bubbleOf(index) {
+        const element = rendered.get(index);
+        return element ? element.querySelector('.message-bubble') : null;
+    }
+
+    function isNearBottom() {
+        return chatScreen.scrollHeight - chatScreen.scrollTop - chatScreen.clientHeight < BOTTOM_THRESHOLD_PX;
+    }
+
+    chatScreen.addEventListener('scroll', () => {
+        followBottom = isNearBottom();
+        scheduleRender();
+    }, { passive: true });
+
     // --- Search Functionality ---
+    // 검색은 DOM이 아니라 메시지별 검색용 텍스트(items[].searchText)에서 찾고,
+    // 일치 표시는 화면에 그려진 메시지에만 합니다. 스크롤해서 새로 그려지는 메시지에는 그릴 때 표시합니다.
 
     function toggleSearchBar() {
         const isHidden = searchBar.classList.contains('hidden');
@@ -42,38 +234,46 @@ document.addEventListener('DOMContentLoaded', () => {
     }
 
     function clearHighlights() {
-        const highlights = document.querySelectorAll('.highlight');
-        highlights.forEach(span => {
-            const parent = span.parentNode;
-            parent.replaceChild(document.createTextNode(span.textContent), span);
-            parent.normalize(); // Merge adjacent text nodes
-        });
+        const hadQuery = searchQuery !== '';
+        searchQuery = '';
         searchMatches = [];
         currentMatchIndex = -1;
+        if (hadQuery) refreshRenderedBubbles();
         updateSearchCount();
     }
 
+    function refreshRenderedBubbles() {
+        for (const [index, element] of rendered) {
+            const item = items[index];
+            if (item.kind === 'date' || item.stream) continue;
+            fillBubble(index, element.querySelector('.message-bubble'));
+        }
+    }
+
+    function occurrencesOf(text, query) {
+        const positions = [];
+        let from = 0;
+        let at;
+        while ((at = text.indexOf(query, from)) >= 0) {
+            positions.push(at);
+            from = at + query.length;
+        }
+        return positions;
+    }
+
     function performSearch() {
         clearHighlights();
-        const query = searchInput.value.trim();
+        const query = searchInput.value.trim().toLowerCase();
         if (!query) return;
 
-        const bubbles = document.querySelectorAll('.message-bubble');
-        const regex = new RegExp(`(${query})`, 'gi');
-
-        bubbles.forEach(bubble => {
-            if (bubble.textContent.match(regex)) {
-                // Careful replacement to preserve text nodes structure if possible, 
-                // but simple innerHTML replacement is easier for simple text bubbles.
-                // Assuming bubbles contain mostly text.
-                const originalText = bubble.textContent;
-                const newHtml = originalText.replace(regex, '<span class="highlight">$1</span>');
-                bubble.innerHTML = newHtml;
-            }
+        searchQuery = query;
+        items.forEach((item, index) => {
+            if (item.kind === 'date') return;
+            occurrencesOf(item.searchText, query).forEach((_, occurrence) =>
+                searchMatches.push({ index, occurrence }));
         });
 
-        // Re-query for the created highlight spans
-        searchMatches = document.querySelectorAll('.highlight');
+        refreshRenderedBubbles();
         if (searchMatches.length > 0) {
             currentMatchIndex = searchMatches.length - 1; // Start at the latest message (bottom)
             focusMatch(currentMatchIndex);
@@ -81,18 +281,62 @@ document.addEventListener('DOMContentLoaded', () => {
         updateSearchCount();
     }
 
+    // 말풍선의 텍스트 노드들을 이어 붙인 문자열(= textContent = searchText) 기준 위치로 일치 구간을 감쌉니다.
+    // 일치 구간이 <strong> 등으로 나뉘어 있으면 구간마다 span을 만들고 같은 data-occurrence로 묶습니다.
+    function applyHighlights(index, bubble) {
+        if (!searchQuery) return;
+        const positions = occurrencesOf(items[index].searchText, searchQuery);
+        if (positions.length === 0) return;
+
+        const nodes = [];
+        const walker = document.createTreeWalker(bubble, NodeFilter.SHOW_TEXT);
+        let offset = 0;
+        for (let node = walker.nextNode(); node; node = walker.nextNode()) {
+            nodes.push({ node, offset });
+            offset += node.length;
+        }
+
+        const current = searchMatches[currentMatchIndex];
+        // 뒤에서부터 감싸야 앞쪽 텍스트 노드의 위치가 바뀌지 않음
+        for (let occurrence = positions.length - 1; occurrence >= 0; occurrence--) {
+            const start = positions[occurrence];
+            const end = start + searchQuery.length;
+            const active = current && current.index === index && current.occurrence === occurrence;
+            for (let k = nodes.length - 1; k >= 0; k--) {
+                const { node, offset: nodeStart } = nodes[k];
+                const nodeEnd = nodeStart + node.length;
+                if (nodeEnd <= start || nodeStart >= end) continue;
+
+                const range = document.createRange();
+                range.setStart(node, Math.max(start, nodeStart) - nodeStart);
+                range.setEnd(node, Math.min(end, nodeEnd) - nodeStart);
+                const span = document.createElement('span');
+                span.classList.add('highlight');
+                if (active) span.classList.add('active');
+                span.dataset.occurrence = occurrence;
+                range.surroundContents(span);
+            }
+        }
+    }
+
     function focusMatch(index) {
         if (searchMatches.length === 0) return;
+        const match = searchMatches[index];
+
+        // 일치한 메시지가 그려지도록 먼저 그 위치로 이동
+        scrollToItem(match.index);
 
         // Remove active class from all
-        searchMatches.forEach(match => match.classList.remove('active'));
+        chatScreen.querySelectorAll('.highlight.active').forEach(span => span.classList.remove('active'));
 
         // Add active class to current
-        const current = searchMatches[index];
-        current.classList.add('active');
-        
+        const bubble = bubbleOf(match.index);
+        if (!bubble) return;
+        const spans = bubble.querySelectorAll(`.highlight[data-occurrence="${match.occurrence}"]`);
+        spans.forEach(span => span.classList.add('active'));
+
         // Scroll into view
-        current.scrollIntoView({ behavior: 'smooth', block: 'center' });
+        if (spans.length > 0) spans[0].scrollIntoView({ behavior: 'smooth', block: 'center' });
     }
 
     function nextMatch() {
@@ -126,9 +370,17 @@ document.addEventListener('DOMContentLoaded', () => {
     // Event Listeners for Search
     searchBtn.addEventListener('click', toggleSearchBar);
     searchClose.addEventListener('click', closeSearch);
-    
+
+    // 메모리의 텍스트만 찾으므로 입력할 때마다 검색해도 가볍지만, 연속 입력은 잠시 모아서 한 번에 처리
+    let searchTimer = null;
+    searchInput.addEventListener('input', () => {
+        clearTimeout(searchTimer);
+        searchTimer = setTimeout(performSearch, 150);
+    });
+
     searchInput.addEventListener('keydown', (e) => {
         if (e.key === 'Enter') {
+            clearTimeout(searchTimer);
             performSearch();
         }
     });
@@ -145,7 +397,7 @@ document.addEventListener('DOMContentLoaded', () => {
         let minutes = now.getMinutes();
         const ampm = hours >= 12 ? '오후' : '오전';
         hours = hours % 12;
-        hours = hours ? hours : 12; 
+        hours = hours ? hours : 12;
         minutes = minutes < 10 ? '0'+minutes : minutes;
         return `${ampm} ${hours}:${minutes}`;
     }
@@ -157,52 +409,188 @@ document.addEventListener('DOMContentLoaded', () => {
 
     function scrollToBottom() {
         chatScreen.scrollTop = chatScreen.scrollHeight;
+        renderWindow();
+        chatScreen.scrollTop = chatScreen.scrollHeight;
+        followBottom = true;
     }
 
+    function scrollToItem(index) {
+        if (offsetsDirty) rebuildOffsets();
+        const height = offsets[index + 1] - offsets[index];
+        chatScreen.scrollTop = offsets[index] - (chatScreen.clientHeight - height) / 2;
+        renderWindow();
+        followBottom = isNearBottom();
+    }
+
+    function escapeHtml(text) {
+        const div = document.createElement('div');
+        div.textContent = text;
+        return div.innerHTML;
+    }
+
+    // 말풍선에 그려질 때의 textContent와 같은 문자열 (검색 위치를 그대로 DOM에 대응시키기 위해)
+    function searchTextOf(html) {
+        const template = document.createElement('template');
+        template.innerHTML = html;
+        return template.content.textContent.toLowerCase();
+    }
+
+    function appendItem(item) {
+        items.push(item);
+        offsetsDirty = true;
+        return items.length - 1;
+    }
+
+    // 메시지를 추가하고 메시지 위치를 반환합니다.
     function addMessage(text, type) {
         const now = new Date();
         const dateString = getFormattedDate(now);
 
         // Date Divider Logic
         if (lastMessageDate !== dateString) {
-            const dateDiv = document.createElement('div');
-            dateDiv.classList.add('chat-date');
-            dateDiv.textContent = dateString;
-            chatScreen.appendChild(dateDiv);
+            appendItem({ kind: 'date', text: dateString });
             lastMessageDate = dateString;
         }
 
-        const row = document.createElement('div');
-        row.classList.add('message-row', type);
+        // User message: Plain text, Bot message: Markdown rendered
+        const html = type === 'sent' ? escapeHtml(text) : marked.parse(text);
+        const index = appendItem({ kind: type, html, searchText: searchTextOf(html), time: getCurrentTime() });
 
-        const time = getCurrentTime();
+        scrollToBottom();
+        return index;
+    }
 
-        if (type === 'sent') {
-            // User message: Plain text
-            row.innerHTML = `
-                <div class="message-info">
-                    <div class="message-bubble"></div>
-                    <span class="message-time">${time}</span>
-                </div>
-            `;
-            row.querySelector('.message-bubble').textContent = text;
-        } else {
-            // Bot message: Markdown rendered
-            const renderedHtml = marked.parse(text);
-            row.innerHTML = `
-                <img src="/images/superdaddy_profile.svg" alt="SuperDaddy">
-                <div class="message-content">
-                    <span class="message-author">Super Daddy</span>
-                    <div class="message-info">
-                        <div class="message-bubble">${renderedHtml}</div>
-                        <span class="message-time">${time}</span>
-                    </div>
-                </div>
-            `;
+    // 스트리밍 시작 전 진행 상황, 오류처럼 Markdown이 아닌 문구로 말풍선을 바꿉니다.
+    function setMessageText(index, text) {
+        const item = items[index];
+        item.stream = null;
+        item.html = escapeHtml(text);
+        item.searchText = text.toLowerCase();
+        const bubble = bubbleOf(index);
+        if (bubble) fillBubble(index, bubble);
+    }
+
+    // --- Incremental Markdown ---
+    // 토큰이 올 때마다 답변 전체를 다시 파싱하지 않도록, 코드 블록 밖의 빈 줄까지(= 완성된 블록)는 한 번만 파싱해 committed에
+    // 붙이고, 마지막 빈 줄 이후의 짧은 꼬리만 매번 다시 파싱합니다. 블록 사이에 걸치는 참조 링크, 느슨한 목록 등은
+    // 스트리밍 중에 약간 다르게 보일 수 있어, 답변이 끝나면 전체를 한 번 파싱해 최종 HTML로 바꿉니다.
+
+    function createMarkdownStream() {
+        return {
+            text: '',
+            committedLength: 0,
+            committed: document.createElement('div'),
+            tail: document.createElement('div')
+        };
+    }
+
+    // from 이후에서 코드 블록 밖의 마지막 빈 줄 바로 다음 위치 (없으면 from)
+    function lastBlockBoundary(text, from) {
+        let boundary = from;
+        let inFence = false;
+        let lineStart = from;
+        let lineEnd;
+        while ((lineEnd = text.indexOf('\n', lineStart)) >= 0) {
+            const line = text.slice(lineStart, lineEnd).trim();
+            if (line.startsWith('```') || line.startsWith('~~~')) {
+                inFence = !inFence;
+            } else if (line === '' && !inFence) {
+                boundary = lineEnd + 1;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return boundary;
+    }
+
+    function appendMarkdown(index, chunk) {
+        const item = items[index];
+        if (!item.stream) {
+            item.stream = createMarkdownStream();
+            const bubble = bubbleOf(index);
+            if (bubble) fillBubble(index, bubble);
+        }
+        const stream = item.stream;
+        stream.text += chunk;
+
+        const boundary = lastBlockBoundary(stream.text, stream.committedLength);
+        if (boundary > stream.committedLength) {
+            stream.committed.insertAdjacentHTML('beforeend',
+                marked.parse(stream.text.slice(stream.committedLength, boundary)));
+            stream.committedLength = boundary;
+        }
+        stream.tail.innerHTML = marked.parse(stream.text.slice(stream.committedLength));
+    }
+
+    function finishMarkdown(index) {
+        const item = items[index];
+        if (!item.stream) return;
+        const html = marked.parse(item.stream.text);
+        item.stream = null;
+        item.html = html;
+        item.searchText = searchTextOf(html);
+        const bubble = bubbleOf(index);
+        if (bubble) fillBubble(index, bubble);
+    }
+
+    // --- Streaming (SSE) ---
+
+    const STAGE_LABELS = {
+        retrieval: '가이드북에서 관련 내용을 찾고 있어요...',
+        rerank: '가장 도움이 될 내용을 고르고 있어요...',
+        expansion: '앞뒤 문맥을 함께 살펴보고 있어요...',
+        generation: '답변을 작성하고 있어요...'
+    };
+
+    // POST 요청이 필요하므로 EventSource 대신 fetch 스트림을 직접 SSE 형식으로 파싱합니다.
+    async function streamChat(message, onEvent) {
+        const response = await fetch('/api/chat/stream', {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json',
+                'Accept': 'text/event-stream'
+            },
+            body: JSON.stringify({ message: message, sessionId: sessionId })
+        });
+
+        if (response.status === 503) {
+            // 서버 과부하: Retry-After 이후에 다시 시도하도록 안내
+            const body = await response.json().catch(() => ({}));
+            onEvent({ type: 'error', data: body.error || '지금 질문이 많이 몰려 있어요. 잠시 후 다시 시도해 주세요.' });
+            return;
+        }
+        if (!response.ok || !response.body) {
+            throw new Error(`HTTP ${response.status}`);
+        }
+
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+
+        while (true) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += decoder.decode(value, { stream: true }).replace(/\r\n/g, '\n');
+
+            let boundary;
+            while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+                const rawEvent = buffer.slice(0, boundary);
+                buffer = buffer.slice(boundary + 2);
+
+                const data = rawEvent.split('\n')
+                    .filter(line => line.startsWith('data:'))
+                    .map(line => line.slice(5))
+                    .join('\n');
+                if (data) {
+                    const event = JSON.parse(data);
+                    if (event.type === 'session') {
+                        sessionId = event.data;
+                        sessionStorage.setItem(SESSION_KEY, sessionId);
+                    } else {
+                        onEvent(event);
+                    }
+                }
+            }
         }
-        
-        chatScreen.appendChild(row);
-        scrollToBottom();
     }
 
     chatForm.addEventListener('submit', async (e) => {
@@ -217,25 +605,40 @@ document.addEventListener('DOMContentLoaded', () => {
         // Show Loading
         loadingOverlay.classList.remove('hidden');
 
+        let answerIndex = -1;
+        let answered = false;
+
         try {
-            const response = await fetch('/api/chat', {
-                method: 'POST',
-                headers: {
-                    'Content-Type': 'application/json'
-                },
-                body: JSON.stringify({ message: message })
+            await streamChat(message, (event) => {
+                // 첫 이벤트가 도착하면 로딩 화면 대신 말풍선 안에서 진행 상황을 보여줍니다.
+                if (answerIndex < 0) {
+                    loadingOverlay.classList.add('hidden');
+                    answerIndex = addMessage('', 'received');
+                }
+
+                if (event.type === 'stage' && !answered) {
+                    setMessageText(answerIndex, STAGE_LABELS[event.data] || '');
+                } else if (event.type === 'token') {
+                    answered = true;
+                    appendMarkdown(answerIndex, event.data);
+                } else if (event.type === 'error') {
+                    setMessageText(answerIndex, event.data || "오류가 발생했습니다. 다시 시도해주세요.");
+                }
+                // 높이 변화는 ResizeObserver가 반영하고, 맨 아래를 보고 있었다면 계속 따라 내려감
             });
 
-            if (response.ok) {
-                const data = await response.json();
-                addMessage(data.response, 'received');
-            } else {
+            if (answerIndex < 0) {
                 addMessage("오류가 발생했습니다. 다시 시도해주세요.", 'received');
             }
         } catch (error) {
             console.error('Error:', error);
-            addMessage("서버 연결에 실패했습니다.", 'received');
+            if (answerIndex >= 0 && !answered) {
+                setMessageText(answerIndex, "서버 연결에 실패했습니다.");
+            } else if (answerIndex < 0) {
+                addMessage("서버 연결에 실패했습니다.", 'received');
+            }
         } finally {
+            if (answerIndex >= 0) finishMarkdown(answerIndex);
             // Hide Loading
             loadingOverlay.classList.add('hidden');
         }
@@ -243,4 +646,4 @@ document.addEventListener('DOMContentLoaded', () => {
 
     // Initial Welcome Message
     addMessage("안녕하세요! 초보 아빠를 위한 슈퍼 대디입니다. 무엇이든 물어보세요!", 'received');
-});
\ No newline at end of file
+});
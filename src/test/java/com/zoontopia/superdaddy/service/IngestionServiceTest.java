@@ -0,0 +1,211 @@
+package com.zoontopia.superdaddy.service;
+
+import com.zoontopia.superdaddy.service.ingestion.IngestionPipeline;
+import com.zoontopia.superdaddy.service.ingestion.IngestionProgress;
+import com.zoontopia.superdaddy.service.ingestion.RefinementCache;
+import com.zoontopia.superdaddy.service.metrics.RagMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestionServiceTest {
+
+    private static final String SOURCE = "guide.pdf";
+
+    // 분할에 쓰이지 않는 협력 객체(벡터 저장소, 정제 모델, 답변 캐시, 청크 조회, 키워드 검색)는 쓰지 않음
+    private final IngestionService ingestionService = new IngestionService(new NoOpVectorStore(),
+            ChatClient.builder((ChatModel) prompt -> {
+                throw new UnsupportedOperationException();
+            }), null, null, null, new IngestionProgress(),
+            new RagMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP, 0, 0));
+
+    @Test
+    void chunkIdIsDeterministicUuidOfFilePageAndIndex() {
+        String id = IngestionService.chunkId(SOURCE, 3, 0);
+
+        assertThat(UUID.fromString(id).toString()).isEqualTo(id);
+        assertThat(IngestionService.chunkId(SOURCE, 3, 0)).isEqualTo(id);
+        assertThat(List.of(IngestionService.chunkId(SOURCE, 3, 1), IngestionService.chunkId(SOURCE, 4, 0),
+                IngestionService.chunkId("other.pdf", 3, 0))).doesNotContain(id);
+    }
+
+    @Test
+    void reSplittingSamePageProducesSameChunkIds() {
+        Document page = page(5, 3000);
+
+        List<Document> first = ingestionService.splitAndEnrichPage(page, SOURCE);
+        List<Document> second = ingestionService.splitAndEnrichPage(page(5, 3000), SOURCE);
+
+        assertThat(first).hasSizeGreaterThan(1);
+        assertThat(second).extracting(Document::getId).containsExactlyElementsOf(first.stream().map(Document::getId).toList());
+        for (int i = 0; i < first.size(); i++) {
+            assertThat(first.get(i).getId()).isEqualTo(IngestionService.chunkId(SOURCE, 5, i));
+            assertThat(first.get(i).getMetadata())
+                    .containsEntry("chunk_id", first.get(i).getId())
+                    .containsEntry("chunk_index", i)
+                    .containsEntry("source", SOURCE);
+        }
+    }
+
+    @Test
+    void linksSplitChunksInOrderAcrossConsecutivePages() throws Exception {
+        List<Document> written = Collections.synchronizedList(new ArrayList<>());
+        new IngestionPipeline(new IngestionPipeline.Settings(4, 1, 2, 3, 2)).run(
+                List.of(page(1, 1500), page(2, 1500)).iterator(),
+                batch -> batch,
+                page -> ingestionService.splitAndEnrichPage(page, SOURCE),
+                written::addAll);
+
+        Map<String, Document> byId = new HashMap<>();
+        written.forEach(chunk -> byId.put(chunk.getId(), chunk));
+        List<String> ordered = new ArrayList<>();
+        for (int page = 1; page <= 2; page++) {
+            for (int i = 0; byId.containsKey(IngestionService.chunkId(SOURCE, page, i)); i++) {
+                ordered.add(IngestionService.chunkId(SOURCE, page, i));
+            }
+        }
+
+        assertThat(ordered).hasSize(written.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            Map<String, Object> metadata = byId.get(ordered.get(i)).getMetadata();
+            assertThat(metadata.get("prev_chunk_id")).isEqualTo(i > 0 ? ordered.get(i - 1) : null);
+            assertThat(metadata.get("next_chunk_id")).isEqualTo(i < ordered.size() - 1 ? ordered.get(i + 1) : null);
+        }
+    }
+
+    @Test
+    void keepsLastUsableResultWhenSinglePageRetryStaysInvalid(@TempDir Path dir) throws Exception {
+        IngestionService service = refiningService(
+                "[" + refined(0, "정제 0", "\"제목 0\"", "[\"분유\"]") + "," + refined(1, "정제 1 첫 응답", "\"\"", "[]") + "]",
+                "[" + refined(0, "정제 1", "null", "[\"목욕\"]") + "]");
+
+        try (RefinementCache cache = RefinementCache.open(dir.resolve("refinement-cache.bin"))) {
+            List<Document> refined = service.refineBatch(List.of(page(1, 100), page(2, 100)), cache);
+
+            assertThat(refined.get(1).getText()).isEqualTo("정제 1");
+            assertThat(refined.get(1).getMetadata())
+                    .containsEntry("section_title", "")
+                    .containsEntry("keywords", List.of("목욕"))
+                    .containsEntry("refine_degraded", true);
+            // 검증을 통과한 페이지만 캐시
+            assertThat(cache.size()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void keepsEarlierUsableResultWhenRetryCallFails(@TempDir Path dir) throws Exception {
+        IngestionService service = refiningService(
+                "[" + refined(0, "정제 0", "\"제목 0\"", "[\"분유\"]") + "," + refined(1, "정제 1 첫 응답", "\"\"", "[]") + "]");
+
+        try (RefinementCache cache = RefinementCache.open(dir.resolve("refinement-cache.bin"))) {
+            List<Document> refined = service.refineBatch(List.of(page(1, 100), page(2, 100)), cache);
+
+            assertThat(refined).extracting(Document::getText).containsExactly("정제 0", "정제 1 첫 응답");
+            assertThat(refined.get(1).getMetadata())
+                    .containsEntry("section_title", "")
+                    .containsEntry("keywords", List.of());
+        }
+    }
+
+    @Test
+    void fallsBackToRawTextWhenRefinedBodyIsTruncated(@TempDir Path dir) throws Exception {
+        // 300자 페이지에 대해 30%에 못 미치는 본문: 제목/키워드가 있어도 내용이 빠진 것으로 보고 원문을 씀
+        IngestionService service = refiningService(
+                "[" + refined(0, "정제 0", "\"제목 0\"", "[\"분유\"]") + "," + refined(1, "목욕물은 38도", "\"목욕\"", "[\"목욕\"]") + "]",
+                "[" + refined(0, "목욕물은 38도", "null", "[]") + "]");
+        Document truncatedPage = page(2, 300);
+
+        try (RefinementCache cache = RefinementCache.open(dir.resolve("refinement-cache.bin"))) {
+            List<Document> refined = service.refineBatch(List.of(page(1, 100), truncatedPage), cache);
+
+            assertThat(refined.get(1).getText()).isEqualTo(page(2, 300).getText().replaceAll("\\s+", " ").trim());
+            assertThat(refined.get(1).getMetadata()).containsEntry("section_title", "")
+                    .containsEntry("refine_degraded", true);
+            assertThat(refined.get(0).getMetadata()).doesNotContainKey("refine_degraded");
+            assertThat(cache.size()).isEqualTo(1);
+        }
+    }
+
+    /**
+     * 정해 둔 응답을 차례로 돌려주고, 응답이 떨어지면 호출을 실패시키는 정제 모델로 만든 IngestionService.
+     */
+    private static IngestionService refiningService(String... responses) {
+        Queue<String> remaining = new ArrayDeque<>(List.of(responses));
+        IngestionService service = new IngestionService(new NoOpVectorStore(),
+                ChatClient.builder((ChatModel) prompt -> {
+                    String response = remaining.poll();
+                    if (response == null) throw new IllegalStateException("model unavailable");
+                    return new ChatResponse(List.of(new Generation(new AssistantMessage(response))));
+                }), null, null, null, new IngestionProgress(),
+                new RagMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP, 0, 0));
+        ReflectionTestUtils.setField(service, "refineRequestsPerMinute", 60_000);
+        ReflectionTestUtils.setField(service, "refineConcurrency", 1);
+        ReflectionTestUtils.setField(service, "upsertChunksPerMinute", 60_000);
+        ReflectionTestUtils.setField(service, "upsertBatchSize", 1);
+        ReflectionTestUtils.setField(service, "upsertConcurrency", 1);
+        ReflectionTestUtils.setField(service, "initialBackoff", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(service, "maxBackoff", Duration.ofMillis(5));
+        service.initRateLimiters();
+        return service;
+    }
+
+    private static String refined(int index, String text, String sectionTitle, String keywords) {
+        return "{\"index\":" + index + ",\"refined_text\":\"" + text + "\",\"section_title\":" + sectionTitle
+                + ",\"keywords\":" + keywords + ",\"questions\":[]}";
+    }
+
+    private static Document page(int pageNumber, int length) {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < length) {
+            text.append("목욕물 온도는 38도 정도가 적당하며 팔꿈치를 담가 확인합니다. ");
+        }
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("page_number", pageNumber);
+        metadata.put("section_title", "신생아 목욕");
+        metadata.put("keywords", List.of("목욕", "목욕물 온도"));
+        return new Document(text.toString(), metadata);
+    }
+
+    private static class NoOpVectorStore implements VectorStore {
+        @Override
+        public void add(List<Document> documents) {
+        }
+
+        @Override
+        public void delete(List<String> idList) {
+        }
+
+        @Override
+        public void delete(Filter.Expression filterExpression) {
+        }
+
+        @Override
+        public List<Document> similaritySearch(SearchRequest request) {
+            return List.of();
+        }
+    }
+}
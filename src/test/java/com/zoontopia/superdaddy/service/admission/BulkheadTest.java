@@ -0,0 +1,85 @@
+package com.zoontopia.superdaddy.service.admission;
+
+import com.zoontopia.superdaddy.service.metrics.RagMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadTest {
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() {
+        Bulkhead bulkhead = new Bulkhead("gemini", 1, 0);
+        Bulkhead.Permit held = bulkhead.acquire(Instant.now().plusSeconds(10));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> bulkhead.acquire(Instant.now().plusSeconds(10)))
+                .isInstanceOfSatisfying(BulkheadRejectedException.class, e -> {
+                    assertThat(e.getReason()).isEqualTo(BulkheadRejectedException.Reason.QUEUE_FULL);
+                    assertThat(e.getRetryAfter()).isGreaterThanOrEqualTo(Duration.ofSeconds(1));
+                });
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+
+        held.close();
+        held.close(); // 두 번 닫아도 슬롯은 한 번만 반환
+        assertThat(bulkhead.active()).isZero();
+    }
+
+    @Test
+    void queuedCallWaitsOnlyUntilDeadline() {
+        Bulkhead bulkhead = new Bulkhead("qdrant", 1, 4);
+        bulkhead.acquire(Instant.now().plusSeconds(10));
+
+        assertThatThrownBy(() -> bulkhead.acquire(Instant.now().plusMillis(50)))
+                .isInstanceOfSatisfying(BulkheadRejectedException.class, e ->
+                        assertThat(e.getReason()).isEqualTo(BulkheadRejectedException.Reason.DEADLINE_EXCEEDED));
+        assertThat(bulkhead.queued()).isZero();
+    }
+
+    @Test
+    void queuedCallProceedsWhenSlotIsReleased() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("gemini", 1, 1);
+        Bulkhead.Permit held = bulkhead.acquire(Instant.now().plusSeconds(10));
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try (Bulkhead.Permit ignored = bulkhead.acquire(Instant.now().plusSeconds(10))) {
+                acquired.countDown();
+            }
+        });
+
+        while (bulkhead.queued() == 0) Thread.onSpinWait();
+        assertThat(acquired.getCount()).isEqualTo(1);
+        held.close();
+
+        assertThat(acquired.await(5, TimeUnit.SECONDS)).isTrue();
+        waiter.join();
+        assertThat(bulkhead.active()).isZero();
+    }
+
+    @Test
+    void admissionShedsRequestsBeyondConcurrencyAndQueue() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ChatAdmission admission = new ChatAdmission(new Bulkhead("chat", 1, 0),
+                new Bulkhead("gemini", 1, 1), new Bulkhead("qdrant", 1, 1),
+                Duration.ofSeconds(5), new RagMetrics(registry, ObservationRegistry.NOOP, 0, 0));
+
+        ChatAdmission.Ticket admitted = admission.admit();
+        assertThatThrownBy(admission::admit).isInstanceOf(BulkheadRejectedException.class);
+        assertThat(registry.get("superdaddy.bulkhead.rejected").tags("bulkhead", "chat", "reason", "queue_full")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("superdaddy.bulkhead.active").tag("bulkhead", "chat").gauge().value()).isEqualTo(1);
+        assertThat(admission.gemini(admitted.deadline(), () -> "embedded")).isEqualTo("embedded");
+
+        admitted.close();
+        admission.admit().close();
+    }
+}
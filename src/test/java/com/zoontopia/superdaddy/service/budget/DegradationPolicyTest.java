@@ -0,0 +1,52 @@
+package com.zoontopia.superdaddy.service.budget;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DegradationPolicyTest {
+
+    private final DegradationPolicy policy = new DegradationPolicy(Duration.ofSeconds(4), Duration.ofMillis(1500),
+            Duration.ofSeconds(3), Duration.ofSeconds(2), Duration.ofMillis(1500), 1000, Duration.ofMillis(300));
+
+    @Test
+    void dropsLessImportantStagesFirstAsBudgetRunsOut() {
+        AtomicLong now = new AtomicLong();
+        LatencyBudget budget = new LatencyBudget(Duration.ofSeconds(4), now::get);
+
+        advance(now, 500);
+        assertThat(policy.allowLlmRerank(budget)).isTrue();
+        assertThat(policy.retrievalTimeout(budget)).isEqualTo(Duration.ofSeconds(2));
+
+        advance(now, 1500); // 남은 예산 2s
+        assertThat(policy.allowLlmRerank(budget)).isFalse();
+        assertThat(policy.allowExpansion(budget)).isTrue();
+        assertThat(policy.contextTokenLimit(budget)).isEqualTo(Integer.MAX_VALUE);
+
+        advance(now, 1000); // 남은 예산 1s
+        assertThat(policy.allowExpansion(budget)).isFalse();
+        assertThat(policy.contextTokenLimit(budget)).isEqualTo(1000);
+        assertThat(policy.retrievalTimeout(budget)).isNegative();
+    }
+
+    @Test
+    void recordsEachDegradationOnceAndOnlyQualityLossesAffectTheAnswer() {
+        LatencyBudget budget = LatencyBudget.start(Duration.ofSeconds(4));
+
+        budget.degrade(Degradation.HEDGED_VECTOR_SEARCH);
+        assertThat(budget.affectsAnswer()).isFalse();
+
+        budget.degrade(Degradation.SKIPPED_EXPANSION);
+        budget.degrade(Degradation.SKIPPED_EXPANSION);
+        assertThat(budget.degradations())
+                .containsExactly(Degradation.HEDGED_VECTOR_SEARCH, Degradation.SKIPPED_EXPANSION);
+        assertThat(budget.affectsAnswer()).isTrue();
+    }
+
+    private static void advance(AtomicLong clock, long millis) {
+        clock.addAndGet(Duration.ofMillis(millis).toNanos());
+    }
+}
@@ -0,0 +1,82 @@
+package com.zoontopia.superdaddy.service.budget;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgedCallTest {
+
+    @Test
+    void fastCallIsNotHedged() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+
+        HedgedCall.Result<String> result = HedgedCall.call(() -> {
+            attempts.incrementAndGet();
+            return "hit";
+        }, Duration.ofMillis(200), Duration.ofSeconds(2));
+
+        assertThat(result.value()).isEqualTo("hit");
+        assertThat(result.hedged()).isFalse();
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void slowFirstAttemptIsOvertakenByHedge() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch stuck = new CountDownLatch(1);
+
+        long start = System.nanoTime();
+        HedgedCall.Result<String> result = HedgedCall.call(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                await(stuck); // 첫 시도만 꼬리 지연
+                return "slow";
+            }
+            return "hedge";
+        }, Duration.ofMillis(50), Duration.ofSeconds(2));
+        stuck.countDown();
+
+        assertThat(result.value()).isEqualTo("hedge");
+        assertThat(result.hedged()).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void givesUpAtTimeoutAndRethrowsWhenBothAttemptsFail() {
+        CountDownLatch stuck = new CountDownLatch(1);
+        assertThatThrownBy(() -> HedgedCall.call(() -> await(stuck), Duration.ofMillis(20), Duration.ofMillis(100)))
+                .isInstanceOf(TimeoutException.class);
+        stuck.countDown();
+
+        AtomicInteger attempts = new AtomicInteger();
+        assertThatThrownBy(() -> HedgedCall.call(() -> {
+            if (attempts.incrementAndGet() == 1) sleep(100);
+            throw new IllegalStateException("qdrant unavailable " + attempts.get());
+        }, Duration.ofMillis(20), Duration.ofSeconds(2)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(attempts).hasValue(2);
+    }
+
+    private static String await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "late";
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.zoontopia.superdaddy.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingEmbeddingModelTest {
+
+    @Test
+    void embedsSameQueryOnlyOnce() {
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        CachingEmbeddingModel model = new CachingEmbeddingModel(delegate, 2, new SimpleMeterRegistry());
+
+        float[] first = model.embed("신생아 목욕물 온도");
+        float[] second = model.embed("신생아 목욕물 온도");
+
+        assertThat(second).containsExactly(first);
+        assertThat(delegate.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedQuery() {
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        CachingEmbeddingModel model = new CachingEmbeddingModel(delegate, 2, new SimpleMeterRegistry());
+
+        model.embed("a");
+        model.embed("b");
+        model.embed("a");
+        model.embed("c"); // "b" 제거
+        model.embed("a");
+        model.embed("b");
+
+        assertThat(delegate.calls.get()).isEqualTo(4);
+    }
+
+    @Test
+    void usesPinnedRequestVectorEvenWithoutLru() {
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        CachingEmbeddingModel model = new CachingEmbeddingModel(delegate, 0, new SimpleMeterRegistry());
+        float[] vector = {0.6f, 0.8f};
+
+        try (CachingEmbeddingModel.Pin pin = CachingEmbeddingModel.pin(model, "목욕물 온도", vector)) {
+            assertThat(model.embed("목욕물 온도")).containsExactly(vector);
+            assertThat(model.embed("목욕물 온도")).containsExactly(vector);
+        }
+        assertThat(delegate.calls.get()).isZero();
+
+        // 요청이 끝나면 고정이 풀리고, LRU를 끈 상태에서는 매번 임베딩
+        model.embed("목욕물 온도");
+        model.embed("목욕물 온도");
+        assertThat(delegate.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void keepsPinWhileAnotherRequestWithSameQueryIsRunning() {
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        CachingEmbeddingModel model = new CachingEmbeddingModel(delegate, 0, new SimpleMeterRegistry());
+        float[] vector = {1f, 0f};
+
+        CachingEmbeddingModel.Pin first = CachingEmbeddingModel.pin(model, "분유 온도", vector);
+        CachingEmbeddingModel.Pin second = CachingEmbeddingModel.pin(model, "분유 온도", vector);
+        first.close();
+        assertThat(model.embed("분유 온도")).containsExactly(vector);
+        second.close();
+        model.embed("분유 온도");
+
+        assertThat(delegate.calls.get()).isEqualTo(1);
+    }
+
+    private static class CountingEmbeddingModel implements EmbeddingModel {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            calls.incrementAndGet();
+            List<Embedding> embeddings = request.getInstructions().stream()
+                    .map(text -> new Embedding(new float[]{text.length(), 1f}, 0))
+                    .toList();
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getText());
+        }
+    }
+}
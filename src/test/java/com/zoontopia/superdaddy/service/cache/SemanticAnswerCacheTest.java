@@ -0,0 +1,93 @@
+package com.zoontopia.superdaddy.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SemanticAnswerCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private SemanticAnswerCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        cache = new SemanticAnswerCache(true, 0.05, 2, Duration.ofMinutes(10), meterRegistry, clock);
+    }
+
+    @Test
+    void returnsAnswerForSimilarQuestion() {
+        cache.put(new float[]{1f, 0f, 0f}, "38도 정도가 적당해요.", Set.of("parenting_guide.pdf"));
+
+        assertThat(cache.find(new float[]{0.99f, 0.05f, 0f})).contains("38도 정도가 적당해요.");
+        assertThat(cache.find(new float[]{0f, 1f, 0f})).isEmpty();
+
+        assertThat(meterRegistry.counter("superdaddy.answer.cache", "result", "hit").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("superdaddy.answer.cache", "result", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        cache.put(new float[]{1f, 0f, 0f}, "a", Set.of());
+        cache.put(new float[]{0f, 1f, 0f}, "b", Set.of());
+        cache.find(new float[]{1f, 0f, 0f}); // "a"를 최근 사용으로 갱신
+        cache.put(new float[]{0f, 0f, 1f}, "c", Set.of());
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.find(new float[]{1f, 0f, 0f})).contains("a");
+        assertThat(cache.find(new float[]{0f, 1f, 0f})).isEmpty();
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        cache.put(new float[]{1f, 0f, 0f}, "a", Set.of());
+        clock.advance(Duration.ofMinutes(11));
+
+        assertThat(cache.find(new float[]{1f, 0f, 0f})).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void invalidatesEntriesForWrittenSource() {
+        cache.put(new float[]{1f, 0f, 0f}, "a", Set.of("parenting_guide.pdf"));
+        cache.put(new float[]{0f, 1f, 0f}, "b", Set.of("other.pdf"));
+
+        cache.invalidateSource("parenting_guide.pdf");
+
+        assertThat(cache.find(new float[]{1f, 0f, 0f})).isEmpty();
+        assertThat(cache.find(new float[]{0f, 1f, 0f})).contains("b");
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.zoontopia.superdaddy.service.coalescing;
+
+import com.zoontopia.superdaddy.service.metrics.RagMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(true, Duration.ofSeconds(5),
+            new RagMetrics(registry, ObservationRegistry.NOOP, 0, 0));
+
+    @Test
+    void concurrentIdenticalQuestionsShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        String[] answers = new String[2];
+        Thread leader = Thread.ofVirtual().start(() -> answers[0] = coalescer.call("아기 목욕물 온도는?", () -> {
+            executions.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return "38도";
+        }));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+        Thread follower = Thread.ofPlatform().start(() -> answers[1] = coalescer.call("  아기 목욕물  온도는 ", () -> {
+            executions.incrementAndGet();
+            return "직접 실행";
+        }));
+
+        awaitBlocked(follower);
+        release.countDown();
+        leader.join();
+        follower.join();
+
+        assertThat(answers).containsExactly("38도", "38도");
+        assertThat(executions).hasValue(1);
+        assertThat(registry.get("superdaddy.coalescing.requests").tags("mode", "chat", "role", "follower")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void followerReceivesLeaderFailure() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread leader = Thread.ofVirtual().start(() -> {
+            try {
+                coalescer.call("질문", () -> {
+                    leaderStarted.countDown();
+                    await(release);
+                    throw new IllegalStateException("overloaded");
+                });
+            } catch (IllegalStateException ignored) {
+            }
+        });
+        leaderStarted.await(5, TimeUnit.SECONDS);
+
+        Throwable[] followerError = new Throwable[1];
+        Thread follower = Thread.ofPlatform().start(() -> {
+            try {
+                coalescer.call("질문", () -> "직접 실행");
+            } catch (IllegalStateException e) {
+                followerError[0] = e;
+            }
+        });
+        awaitBlocked(follower);
+        release.countDown();
+        follower.join();
+
+        assertThat(followerError[0]).isInstanceOf(IllegalStateException.class).hasMessage("overloaded");
+        leader.join();
+        // 실행이 끝나면 다음 요청은 새로 실행
+        assertThat(coalescer.call("질문", () -> "새 실행")).isEqualTo("새 실행");
+    }
+
+    @Test
+    void followerFallsBackToOwnExecutionAfterMaxWait() throws Exception {
+        RequestCoalescer impatient = new RequestCoalescer(true, Duration.ofMillis(50),
+                new RagMetrics(registry, ObservationRegistry.NOOP, 0, 0));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread leader = Thread.ofVirtual().start(() -> impatient.call("질문", () -> {
+            leaderStarted.countDown();
+            await(release);
+            return "leader";
+        }));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+
+        assertThat(impatient.call("질문", () -> "follower")).isEqualTo("follower");
+        assertThat(registry.get("superdaddy.coalescing.requests").tags("mode", "chat", "role", "timeout")
+                .counter().count()).isEqualTo(1);
+        release.countDown();
+        leader.join();
+    }
+
+    @Test
+    void streamFollowerReplaysEarlierEventsAndSharesTheRest() {
+        AtomicInteger executions = new AtomicInteger();
+        Sinks.Many<String> events = Sinks.many().unicast().onBackpressureBuffer();
+        Flux<String> leader = coalescer.stream("질문", () -> {
+            executions.incrementAndGet();
+            return events.asFlux();
+        });
+
+        List<String> leaderEvents = new CopyOnWriteArrayList<>();
+        leader.subscribe(leaderEvents::add);
+        events.tryEmitNext("stage:retrieval");
+        events.tryEmitNext("token:38");
+
+        Flux<String> follower = coalescer.stream("질문?", () -> {
+            executions.incrementAndGet();
+            return Flux.just("직접 실행");
+        });
+        List<String> followerEvents = new CopyOnWriteArrayList<>();
+        follower.subscribe(followerEvents::add);
+        events.tryEmitNext("token:도");
+        events.tryEmitComplete();
+
+        assertThat(executions).hasValue(1);
+        assertThat(leaderEvents).containsExactly("stage:retrieval", "token:38", "token:도");
+        assertThat(followerEvents).containsExactly("stage:retrieval", "token:38", "token:도");
+        // 끝난 스트림에는 더 이상 합류하지 않음
+        coalescer.stream("질문", () -> {
+            executions.incrementAndGet();
+            return Flux.empty();
+        });
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void streamFollowerSubscribingAfterCompletionReplaysWithoutRerunningPipeline() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Sinks.Many<String> events = Sinks.many().unicast().onBackpressureBuffer();
+        Flux<String> leader = coalescer.stream("질문", () -> events.asFlux()
+                .doOnSubscribe(s -> subscriptions.incrementAndGet()));
+        Flux<String> follower = coalescer.stream("질문", () -> Flux.just("직접 실행"));
+
+        // follower가 구독하기 전에 leader의 스트림이 끝남
+        List<String> leaderEvents = new CopyOnWriteArrayList<>();
+        leader.subscribe(leaderEvents::add);
+        events.tryEmitNext("token:38도");
+        events.tryEmitComplete();
+
+        assertThat(follower.collectList().block(Duration.ofSeconds(5))).containsExactly("token:38도");
+        assertThat(leaderEvents).containsExactly("token:38도");
+        assertThat(subscriptions).hasValue(1);
+    }
+
+    @Test
+    void streamFollowerSubscribingAfterAllSubscribersCancelledRunsItsOwnPipeline() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        AtomicInteger cancellations = new AtomicInteger();
+        Flux<String> leader = coalescer.stream("질문", () -> Flux.<String>never()
+                .doOnSubscribe(s -> subscriptions.incrementAndGet())
+                .doOnCancel(cancellations::incrementAndGet));
+        Flux<String> follower = coalescer.stream("질문", () -> Flux.just("직접 실행"));
+
+        leader.subscribe().dispose();
+
+        assertThat(cancellations).hasValue(1);
+        assertThat(follower.collectList().block(Duration.ofSeconds(5))).containsExactly("직접 실행");
+        assertThat(subscriptions).hasValue(1);
+    }
+
+    @Test
+    void keyIgnoresSpacingCaseAndTrailingPunctuation() {
+        assertThat(RequestCoalescer.key(" 신생아  목욕 온도는?? ")).isEqualTo(RequestCoalescer.key("신생아 목욕 온도는"));
+        assertThat(RequestCoalescer.key("ＡＢＣ 분유")).isEqualTo("abc 분유");
+        assertThat(RequestCoalescer.key("분유 온도")).isNotEqualTo(RequestCoalescer.key("목욕 온도"));
+    }
+
+    // follower가 leader의 결과를 기다리기 시작할 때까지 대기 (스레드 상태로 확인하므로 follower는 플랫폼 스레드)
+    private static void awaitBlocked(Thread thread) {
+        Thread.State state;
+        while ((state = thread.getState()) != Thread.State.TIMED_WAITING && state != Thread.State.TERMINATED) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
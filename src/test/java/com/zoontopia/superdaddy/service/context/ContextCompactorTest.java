@@ -0,0 +1,108 @@
+package com.zoontopia.superdaddy.service.context;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContextCompactorTest {
+
+    private final ContextCompactor compactor = new ContextCompactor(2500, 4000, 0.85);
+
+    @Test
+    void stripsEmbeddingHeadersAndWritesSectionTitleOnce() {
+        Document first = chunk("guide.pdf", 3, 0, "신생아 목욕", "목욕물은 38도 정도로 준비하고 팔꿈치로 온도를 확인해요.");
+        Document second = chunk("guide.pdf", 3, 1, "신생아 목욕", "목욕 시간은 5분에서 10분 사이로 짧게 끝내요.");
+
+        ContextCompactor.Packed packed = compactor.pack(List.of(second, first), 2500);
+
+        assertThat(packed.text()).isEqualTo("""
+                [신생아 목욕]
+                목욕물은 38도 정도로 준비하고 팔꿈치로 온도를 확인해요.
+
+                목욕 시간은 5분에서 10분 사이로 짧게 끝내요.""");
+        assertThat(packed.text()).doesNotContain("핵심 키워드:", "본문:");
+        assertThat(packed.passages()).isEqualTo(2);
+        assertThat(packed.truncated()).isFalse();
+    }
+
+    @Test
+    void dropsNearDuplicatePassages() {
+        String notice = "이 안내서의 내용은 일반적인 정보이며 아기의 상태가 걱정되면 반드시 소아청소년과 전문의와 상담하세요.";
+        Document page1 = chunk("guide.pdf", 1, 0, "안내", notice);
+        Document page9 = chunk("guide.pdf", 9, 0, "안내", notice + " ");
+
+        ContextCompactor.Packed packed = compactor.pack(List.of(page1, page9), 2500);
+
+        assertThat(packed.passages()).isEqualTo(1);
+        assertThat(packed.duplicates()).isEqualTo(1);
+    }
+
+    @Test
+    void trimsOverlapBetweenAdjacentChunks() {
+        String shared = "분유는 70도 이상의 물로 타고 체온 정도로 식혀서 먹여요.";
+        Document first = chunk("guide.pdf", 5, 0, "수유", "젖병은 매번 끓는 물에 소독해요. " + shared);
+        Document second = chunk("guide.pdf", 5, 1, "수유", shared + " 남은 분유는 한 시간 안에 버려요.");
+
+        String text = compactor.pack(List.of(first, second), 2500).text();
+
+        assertThat(text.indexOf(shared)).isEqualTo(text.lastIndexOf(shared));
+        assertThat(text).contains("남은 분유는 한 시간 안에 버려요.");
+        assertThat(ContextCompactor.overlap("짧은 겹침", "짧은 겹침")).isZero();
+    }
+
+    @Test
+    void packsInRelevanceOrderWithinTokenBudget() {
+        Document best = chunk("guide.pdf", 7, 0, "열", "생후 3개월 미만 아기가 38도 이상 열이 나면 바로 병원에 가요.");
+        Document other = chunk("guide.pdf", 2, 0, "수면", "아기는 등을 대고 눕혀 재우고 푹신한 이불은 치워요.");
+        int budget = compactor.countTokens(ContextCompactor.body(best));
+
+        ContextCompactor.Packed packed = compactor.pack(List.of(best, other), budget);
+
+        assertThat(packed.text()).contains("38도 이상").doesNotContain("등을 대고");
+        assertThat(packed.tokens()).isLessThanOrEqualTo(budget + compactor.countTokens("[열]\n"));
+        assertThat(packed.truncated()).isTrue();
+    }
+
+    @Test
+    void truncatesFirstPassageWhenItAloneExceedsBudget() {
+        String longBody = "아기 울음에는 여러 이유가 있어요. ".repeat(60);
+        ContextCompactor.Packed packed = compactor.pack(List.of(chunk("guide.pdf", 4, 0, "울음", longBody)), 40);
+
+        assertThat(packed.passages()).isEqualTo(1);
+        assertThat(packed.truncated()).isTrue();
+        assertThat(packed.text().length()).isLessThan(longBody.length());
+    }
+
+    @Test
+    void candidatesKeepOriginalIndexWhenDuplicatesAreSkipped() {
+        String text = "목욕물은 38도 정도로 준비하고 팔꿈치로 온도를 확인해요.";
+        List<Document> candidates = List.of(
+                chunk("a.pdf", 1, 0, "목욕", text),
+                chunk("b.pdf", 1, 0, "목욕", text),
+                chunk("c.pdf", 1, 0, "보습", "목욕 후에는 물기를 닦고 보습제를 발라요."));
+
+        List<ContextCompactor.Candidate> compacted = compactor.compactCandidates(candidates);
+
+        assertThat(compacted).extracting(ContextCompactor.Candidate::index).containsExactly(0, 2);
+        assertThat(compacted.get(1).text()).isEqualTo("목욕 후에는 물기를 닦고 보습제를 발라요.");
+        assertThat(compacted.get(1).keywords()).isEqualTo("보습 키워드");
+    }
+
+    private static Document chunk(String source, int page, int chunkIndex, String title, String body) {
+        String keywords = title + " 키워드";
+        return Document.builder()
+                .id(source + "-" + page + "-" + chunkIndex)
+                .text(title + "\n핵심 키워드: " + keywords + "\n본문: " + body)
+                .metadata(Map.of(
+                        "source", source,
+                        "page_number", page,
+                        "chunk_index", chunkIndex,
+                        "section_title", title,
+                        "keywords", List.of(keywords)))
+                .build();
+    }
+}
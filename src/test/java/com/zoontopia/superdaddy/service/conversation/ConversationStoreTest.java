@@ -0,0 +1,92 @@
+package com.zoontopia.superdaddy.service.conversation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConversationStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final ConversationStore store = new ConversationStore(2, 2, 80, 1000, Duration.ofMinutes(30), clock);
+
+    @Test
+    void foldsOlderTurnsIntoSummaryAndKeepsContextOnlyOnLastTurn() {
+        store.append("session-a", turn("목욕물 온도는?", "38도가 적당해요. 팔꿈치로 확인해요.", "목욕 문맥"));
+        store.append("session-a", turn("그럼 시간은?", "5분에서 10분이면 충분해요.", "목욕 문맥"));
+        store.append("session-a", turn("분유는 언제 먹여?", "3시간 간격으로 먹여요.", "수유 문맥"));
+
+        ConversationStore.Conversation conversation = store.get("session-a");
+
+        assertThat(conversation.summary()).isEqualTo("- 목욕물 온도는? → 38도가 적당해요.");
+        assertThat(conversation.turns()).extracting(ConversationStore.Turn::question)
+                .containsExactly("그럼 시간은?", "분유는 언제 먹여?");
+        assertThat(conversation.turns().get(0).topic().context()).isNull();
+        assertThat(conversation.last().orElseThrow().topic().context()).isEqualTo("수유 문맥");
+    }
+
+    @Test
+    void summaryDropsOldestLinesBeyondLimit() {
+        for (int i = 0; i < 8; i++) {
+            store.append("session-a", turn("질문 " + i + "번은 무엇인가요?", "답변 " + i + "번입니다.", null));
+        }
+
+        String summary = store.get("session-a").summary();
+        assertThat(summary.length()).isLessThanOrEqualTo(80);
+        assertThat(summary).contains("질문 5번").doesNotContain("질문 0번");
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedSessionAndExpiresIdleSessions() {
+        store.append("session-a", turn("a", "a", null));
+        store.append("session-b", turn("b", "b", null));
+        store.get("session-a");
+        store.append("session-c", turn("c", "c", null));
+
+        assertThat(store.get("session-b").isEmpty()).isTrue();
+        assertThat(store.get("session-a").isEmpty()).isFalse();
+
+        clock.advance(Duration.ofMinutes(31));
+        assertThat(store.get("session-a").isEmpty()).isTrue();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void issuesNewSessionIdForMissingOrMalformedIds() {
+        assertThat(store.resolveSessionId("3f2b9c1e-aaaa-bbbb-cccc-0123456789ab")).isEqualTo("3f2b9c1e-aaaa-bbbb-cccc-0123456789ab");
+        assertThat(store.resolveSessionId(null)).hasSize(36);
+        assertThat(store.resolveSessionId("<script>")).isNotEqualTo("<script>");
+    }
+
+    private static ConversationStore.Turn turn(String question, String answer, String context) {
+        return new ConversationStore.Turn(question, answer,
+                new ConversationStore.Topic(question, new float[]{1f, 0f}, context));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.zoontopia.superdaddy.service.conversation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FollowUpDetectorTest {
+
+    private static final float[] BATH = {1f, 0f, 0f};
+
+    private final FollowUpDetector detector = new FollowUpDetector(0.75, 0.5);
+
+    @Test
+    void reusesPreviousContextForSameTopic() {
+        FollowUpDetector.Decision decision = detector.decide("목욕물은 몇 도로 맞춰?", new float[]{0.9f, 0.2f, 0f},
+                conversation(new ConversationStore.Topic("신생아 목욕 방법", BATH, "목욕 문맥")));
+
+        assertThat(decision.reusesContext()).isTrue();
+        assertThat(decision.topic().context()).isEqualTo("목욕 문맥");
+    }
+
+    @Test
+    void shortFollowUpPhraseUsesRelaxedThreshold() {
+        float[] vague = {0.6f, 0.8f, 0f}; // cosine 0.6
+        ConversationStore.Conversation conversation =
+                conversation(new ConversationStore.Topic("신생아 목욕 방법", BATH, "목욕 문맥"));
+
+        assertThat(detector.decide("그럼 몇 도가 적당해?", vague, conversation).reusesContext()).isTrue();
+        assertThat(detector.decide("이유식은 몇 개월부터 시작해?", vague, conversation).topic()).isNull();
+    }
+
+    @Test
+    void retrievesWithTopicQuestionWhenPreviousTurnHasNoContext() {
+        FollowUpDetector.Decision decision = detector.decide("그럼 몇 도가 적당해?", BATH,
+                conversation(new ConversationStore.Topic("신생아 목욕 방법", BATH, null)));
+
+        assertThat(decision.reusesContext()).isFalse();
+        assertThat(decision.retrievalQuery()).isEqualTo("신생아 목욕 방법 그럼 몇 도가 적당해?");
+    }
+
+    @Test
+    void newTopicOrEmptyConversationSearchesWithMessageOnly() {
+        FollowUpDetector.Decision decision = detector.decide("분유 타는 법", new float[]{0f, 0f, 1f},
+                conversation(new ConversationStore.Topic("신생아 목욕 방법", BATH, "목욕 문맥")));
+        assertThat(decision.topic()).isNull();
+        assertThat(decision.retrievalQuery()).isEqualTo("분유 타는 법");
+
+        assertThat(detector.decide("분유 타는 법", BATH, ConversationStore.Conversation.EMPTY).topic()).isNull();
+    }
+
+    private static ConversationStore.Conversation conversation(ConversationStore.Topic topic) {
+        return new ConversationStore.Conversation("",
+                List.of(new ConversationStore.Turn(topic.question(), "답변", topic)));
+    }
+}
@@ -0,0 +1,53 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchResponseParserTest {
+
+    record Refined(String refined_text, List<String> keywords) {
+    }
+
+    @Test
+    void mapsElementsByIndexRegardlessOfOrderAndSkipsMalformedOnes() {
+        String response = """
+                ```json
+                [
+                  {"index": 2, "refined_text": "셋째", "keywords": ["c"]},
+                  {"index": 0, "refined_text": "첫째", "keywords": "not-a-list"},
+                  {"index": 7, "refined_text": "범위 밖"},
+                  {"index": 2, "refined_text": "중복"}
+                ]
+                ```""";
+
+        List<Refined> results = BatchResponseParser.parse(response, 3, Refined.class);
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0)).isNull();
+        assertThat(results.get(1)).isNull();
+        assertThat(results.get(2).refined_text()).isEqualTo("셋째");
+    }
+
+    @Test
+    void salvagesCompleteElementsFromTruncatedResponse() {
+        String response = "[{\"index\": 0, \"refined_text\": \"첫째\"}, {\"index\": 1, \"refined_text\": \"둘째\"}, {\"index\": 2, \"refined_te";
+
+        List<Refined> results = BatchResponseParser.parse(response, 3, Refined.class);
+
+        assertThat(results).extracting(r -> r == null ? null : r.refined_text()).containsExactly("첫째", "둘째", null);
+    }
+
+    @Test
+    void fallsBackToPositionOnlyWhenCountMatchesAndIndexIsMissing() {
+        String matching = "[{\"refined_text\": \"a\"}, {\"refined_text\": \"b\"}]";
+        String shorter = "[{\"refined_text\": \"a\"}]";
+
+        assertThat(BatchResponseParser.parse(matching, 2, Refined.class))
+                .extracting(Refined::refined_text).containsExactly("a", "b");
+        assertThat(BatchResponseParser.parse(shorter, 2, Refined.class)).containsOnlyNulls();
+        assertThat(BatchResponseParser.parse("응답할 수 없습니다.", 2, Refined.class)).containsOnlyNulls();
+    }
+}
@@ -0,0 +1,117 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestionManifestTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void completesPageOnlyAfterAllChunksAreWrittenAndReportsStaleChunks() {
+        IngestionManifest manifest = IngestionManifest.load(dir.resolve("manifest.json"), 1);
+        manifest.beginPage("guide.pdf", 1, "h1", List.of("a", "b", "c"));
+        manifest.chunksWritten(List.of("a", "b", "c"));
+
+        // 내용이 바뀌어 청크가 3개 → 2개로 줄어든 페이지
+        manifest.beginPage("guide.pdf", 1, "h2", List.of("a", "b"));
+        assertThat(manifest.chunksWritten(List.of("a"))).isEmpty();
+        assertThat(manifest.page("guide.pdf", 1).hash()).isEqualTo("h1");
+
+        var completed = manifest.chunksWritten(List.of("b"));
+        assertThat(completed).singleElement()
+                .satisfies(page -> assertThat(page.staleChunkIds()).containsExactly("c"));
+        assertThat(manifest.page("guide.pdf", 1).hash()).isEqualTo("h2");
+    }
+
+    @Test
+    void reportsStaleQuestionIdsWhenPageProducesFewerQuestions() {
+        IngestionManifest manifest = IngestionManifest.load(dir.resolve("manifest.json"), 1);
+        manifest.beginPage("guide.pdf", 1, "h1", List.of("a"), List.of("a-q0", "a-q1"));
+        manifest.chunksWritten(List.of("a"));
+
+        manifest.beginPage("guide.pdf", 1, "h2", List.of("a"), List.of("a-q0"));
+        assertThat(manifest.chunksWritten(List.of("a"))).singleElement()
+                .satisfies(page -> assertThat(page.staleChunkIds()).containsExactly("a-q1"));
+        assertThat(manifest.page("guide.pdf", 1).allIds()).containsExactly("a", "a-q0");
+    }
+
+    @Test
+    void relinksUnchangedNeighborsWhenPageIsReingestedWithDifferentChunkCount() {
+        IngestionManifest manifest = IngestionManifest.load(dir.resolve("manifest.json"), 1);
+        ingest(manifest, 1, "h1", "1a", "1b");
+        ingest(manifest, 2, "h2", "2a", "2b");
+        ingest(manifest, 3, "h3", "3a");
+        var previousPages = manifest.pages("guide.pdf");
+
+        // 2쪽만 내용이 바뀌어 청크가 2개 → 3개가 됨
+        ingest(manifest, 2, "h2'", "2x", "2y", "2z");
+
+        assertThat(manifest.staleNeighborLinks("guide.pdf", previousPages, Set.of(2))).containsExactlyInAnyOrder(
+                new IngestionManifest.NeighborLink("1b", "next_chunk_id", "2x"),
+                new IngestionManifest.NeighborLink("3a", "prev_chunk_id", "2z"));
+    }
+
+    @Test
+    void leavesNeighborLinksToPipelineWhenBothPagesAreReingested() {
+        IngestionManifest manifest = IngestionManifest.load(dir.resolve("manifest.json"), 1);
+        ingest(manifest, 1, "h1", "1a");
+        ingest(manifest, 2, "h2", "2a", "2b");
+        ingest(manifest, 3, "h3", "3a");
+        var previousPages = manifest.pages("guide.pdf");
+
+        // 2쪽과 3쪽이 함께 바뀌면 둘 사이는 파이프라인이 연결하고, 첫 청크가 그대로인 2쪽 앞은 고칠 필요가 없음
+        ingest(manifest, 2, "h2'", "2a");
+        ingest(manifest, 3, "h3'", "3a", "3b");
+
+        assertThat(manifest.staleNeighborLinks("guide.pdf", previousPages, Set.of(2, 3))).isEmpty();
+
+        // 사라진 페이지를 가리키던 이웃 청크는 연결을 지움
+        var beforeRemoval = manifest.pages("guide.pdf");
+        manifest.removePage("guide.pdf", 3);
+        assertThat(manifest.staleNeighborLinks("guide.pdf", beforeRemoval, Set.of())).containsExactly(
+                new IngestionManifest.NeighborLink("2a", "next_chunk_id", null));
+    }
+
+    @Test
+    void savedManifestIsReloadedOnlyForSameVersion() {
+        Path path = dir.resolve("manifest.json");
+        IngestionManifest manifest = IngestionManifest.load(path, 1);
+        manifest.beginPage("guide.pdf", 7, "hash", List.of("x"));
+        manifest.chunksWritten(List.of("x"));
+        manifest.save();
+
+        assertThat(IngestionManifest.load(path, 1).pages("guide.pdf"))
+                .containsEntry(7, new IngestionManifest.PageEntry("hash", List.of("x")));
+        assertThat(IngestionManifest.load(path, 2).pages("guide.pdf")).isEmpty();
+    }
+
+    @Test
+    void degradedPageIsNotCurrentUntilRefinedAgain() {
+        Path path = dir.resolve("manifest.json");
+        IngestionManifest manifest = IngestionManifest.load(path, 1);
+        manifest.beginPage("guide.pdf", 1, "h1", List.of("a"), List.of(), true);
+        manifest.chunksWritten(List.of("a"));
+        manifest.save();
+
+        // 내용이 같아도 원문 fallback으로 기록된 페이지는 다음 수집 때 다시 정제
+        IngestionManifest reloaded = IngestionManifest.load(path, 1);
+        assertThat(reloaded.page("guide.pdf", 1).isCurrent("h1")).isFalse();
+
+        ingest(reloaded, 1, "h1", "a");
+        assertThat(reloaded.page("guide.pdf", 1).isCurrent("h1")).isTrue();
+        assertThat(reloaded.page("guide.pdf", 1).isCurrent("h2")).isFalse();
+    }
+
+    private static void ingest(IngestionManifest manifest, int page, String hash, String... chunkIds) {
+        manifest.beginPage("guide.pdf", page, hash, List.of(chunkIds));
+        manifest.chunksWritten(List.of(chunkIds));
+    }
+}
@@ -0,0 +1,114 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import com.google.genai.errors.ApiException;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IngestionPipelineTest {
+
+    @Test
+    void keepsPageOrderAndLinksChunksAcrossPagesWhenRefineFinishesOutOfOrder() throws Exception {
+        List<Document> pages = IntStream.range(0, 23)
+                .mapToObj(i -> new Document("page-" + i, "text " + i, Map.of("page_number", i + 1)))
+                .toList();
+        List<Document> written = Collections.synchronizedList(new ArrayList<>());
+
+        IngestionPipeline.Result result = pipeline().run(pages.iterator(),
+                batch -> {
+                    Thread.sleep(ThreadLocalRandom.current().nextInt(20)); // 작업자마다 완료 순서가 섞이도록
+                    return batch;
+                },
+                page -> List.of(chunk(page, 0), chunk(page, 1)),
+                written::addAll);
+
+        assertThat(result.pages()).isEqualTo(23);
+        assertThat(result.chunks()).isEqualTo(46);
+
+        List<Document> ordered = written.stream()
+                .sorted((a, b) -> Integer.compare(order(a), order(b)))
+                .toList();
+        for (int i = 0; i < ordered.size(); i++) {
+            Map<String, Object> metadata = ordered.get(i).getMetadata();
+            assertThat(metadata.get("prev_chunk_id")).isEqualTo(i > 0 ? ordered.get(i - 1).getId() : null);
+            assertThat(metadata.get("next_chunk_id"))
+                    .isEqualTo(i < ordered.size() - 1 ? ordered.get(i + 1).getId() : null);
+        }
+    }
+
+    @Test
+    void doesNotLinkChunksAcrossMissingPages() throws Exception {
+        List<Document> pages = List.of(
+                new Document("p3", "text", Map.of("page_number", 3)),
+                new Document("p4", "text", Map.of("page_number", 4)),
+                new Document("p9", "text", Map.of("page_number", 9)));
+        Map<String, Document> written = new ConcurrentHashMap<>();
+
+        pipeline().run(pages.iterator(), batch -> batch,
+                page -> List.of(chunk(page, 0)),
+                chunks -> chunks.forEach(c -> written.put(c.getId(), c)));
+
+        assertThat(written.get("chunk-4-0").getMetadata()).containsEntry("prev_chunk_id", "chunk-3-0")
+                .doesNotContainKey("next_chunk_id");
+        assertThat(written.get("chunk-9-0").getMetadata()).doesNotContainKey("prev_chunk_id");
+    }
+
+    @Test
+    void retriesRateLimitedCallsAndFailsFastOnOtherErrors() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Document> pages = List.of(new Document("p", "text", Map.of()));
+
+        RateLimitedCaller refineCaller = caller();
+
+        IngestionPipeline.Result result = pipeline().run(pages.iterator(),
+                batch -> refineCaller.call(1, () -> {
+                    if (attempts.getAndIncrement() < 2) throw new ApiException(429, "RESOURCE_EXHAUSTED", "Quota exceeded");
+                    return batch;
+                }),
+                page -> List.of(chunk(page, 0)),
+                chunks -> { });
+        assertThat(attempts).hasValue(3);
+        assertThat(result.chunks()).isEqualTo(1);
+
+        assertThatThrownBy(() -> pipeline().run(pages.iterator(),
+                batch -> batch,
+                page -> List.of(chunk(page, 0)),
+                chunks -> {
+                    throw new IllegalStateException("collection not found");
+                }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("collection not found");
+    }
+
+    private static IngestionPipeline pipeline() {
+        return new IngestionPipeline(new IngestionPipeline.Settings(2, 3, 4, 5, 2));
+    }
+
+    private static RateLimitedCaller caller() {
+        return new RateLimitedCaller("test", new TokenBucket(60_000, 100), 3,
+                Duration.ofMillis(1), Duration.ofMillis(5));
+    }
+
+    private static Document chunk(Document page, int chunkIndex) {
+        int pageNumber = (int) page.getMetadata().getOrDefault("page_number", 0);
+        return new Document("chunk-" + pageNumber + "-" + chunkIndex, "chunk",
+                new HashMap<>(Map.of("order", pageNumber * 10 + chunkIndex)));
+    }
+
+    private static int order(Document d) {
+        return (int) d.getMetadata().get("order");
+    }
+}
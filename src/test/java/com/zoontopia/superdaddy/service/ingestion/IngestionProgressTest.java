@@ -0,0 +1,81 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestionProgressTest {
+
+    @Test
+    void estimatesRemainingTimeFromPagesDoneSoFar() {
+        MutableClock clock = new MutableClock();
+        IngestionProgress progress = new IngestionProgress(clock);
+
+        progress.start("guide.pdf");
+        progress.planned(100, 40);
+        assertThat(progress.status().etaSeconds()).isNull();
+        assertThat(progress.status().ready()).isFalse();
+
+        clock.advance(Duration.ofSeconds(30));
+        progress.pagesCompleted(10);
+        progress.chunksUpserted(25);
+
+        IngestionProgress.Status status = progress.status();
+        assertThat(status.state()).isEqualTo(IngestionProgress.State.RUNNING);
+        assertThat(status.pagesSkipped()).isEqualTo(60);
+        assertThat(status.etaSeconds()).isEqualTo(90); // 페이지당 3초 × 남은 30페이지
+        assertThat(status.ready()).isTrue();
+
+        progress.failed("quota exhausted");
+        assertThat(progress.status().state()).isEqualTo(IngestionProgress.State.FAILED);
+        assertThat(progress.status().etaSeconds()).isNull();
+        assertThat(progress.status().errors()).singleElement().asString().endsWith("quota exhausted");
+    }
+
+    @Test
+    void countsPagesAndFilesAsTheyAreRead() {
+        IngestionProgress progress = new IngestionProgress(new MutableClock());
+
+        progress.start("guides");
+        progress.filesPlanned(2);
+        progress.pagesSkipped(3);
+        progress.pagesQueued(2);
+        progress.fileDone();
+        progress.pagesQueued(4);
+
+        IngestionProgress.Status status = progress.status();
+        assertThat(status.filesTotal()).isEqualTo(2);
+        assertThat(status.filesDone()).isEqualTo(1);
+        assertThat(status.totalPages()).isEqualTo(9);
+        assertThat(status.pagesSkipped()).isEqualTo(3);
+        assertThat(status.pagesPending()).isEqualTo(6);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.reader.pdf.PagePdfDocumentReader;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfPageReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void extractsSameTextAndPageNumbersAsPagePdfDocumentReader() throws IOException {
+        Path pdf = dir.resolve("guide.pdf");
+        Files.write(pdf, pdf(List.of("First page line one", "Second line of page one"), List.of(), List.of("Third page")));
+
+        List<Document> expected = new PagePdfDocumentReader(new FileSystemResource(pdf)).get();
+        List<Document> actual = readAll(new FileSystemResource(pdf));
+
+        // 빈 2쪽은 건너뛰고, page_number는 실제 쪽 번호
+        assertThat(actual).extracting(page -> page.getMetadata().get("page_number")).containsExactly(1, 3);
+        assertThat(actual).extracting(Document::getText)
+                .containsExactlyElementsOf(expected.stream().map(Document::getText).toList());
+        assertThat(actual).extracting(page -> page.getMetadata().get("page_number"))
+                .containsExactlyElementsOf(expected.stream().map(page -> page.getMetadata().get("page_number")).toList());
+        assertThat(actual.getFirst().getMetadata()).containsEntry("file_name", "guide.pdf");
+    }
+
+    @Test
+    void readsNonFileResourceFromMemory() throws IOException {
+        byte[] bytes = pdf(List.of("Swaddling"));
+
+        try (PdfPageReader reader = PdfPageReader.open(new ByteArrayResource(bytes))) {
+            assertThat(reader.pageCount()).isEqualTo(1);
+            assertThat(reader.next().getText()).contains("Swaddling");
+            assertThat(reader.hasNext()).isFalse();
+        }
+    }
+
+    private static List<Document> readAll(Resource resource) throws IOException {
+        List<Document> pages = new ArrayList<>();
+        try (PdfPageReader reader = PdfPageReader.open(resource)) {
+            reader.forEachRemaining(pages::add);
+        }
+        return pages;
+    }
+
+    /**
+     * 쪽마다 주어진 줄을 쓴 PDF (빈 목록이면 빈 쪽)
+     */
+    @SafeVarargs
+    private static byte[] pdf(List<String>... pages) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (List<String> lines : pages) addPage(document, font, lines);
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static void addPage(PDDocument document, PDType1Font font, List<String> lines) throws IOException {
+        PDPage page = new PDPage();
+        document.addPage(page);
+        if (lines.isEmpty()) return;
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+            content.beginText();
+            content.setFont(font, 12);
+            content.newLineAtOffset(72, 700);
+            for (String line : lines) {
+                content.showText(line);
+                content.newLineAtOffset(0, -16);
+            }
+            content.endText();
+        }
+    }
+}
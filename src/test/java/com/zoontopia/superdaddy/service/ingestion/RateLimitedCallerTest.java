@@ -0,0 +1,38 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import com.google.genai.errors.ApiException;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitedCallerTest {
+
+    @Test
+    void recognizesTypedRateLimitStatusAnywhereInCauseChain() {
+        assertThat(RateLimitedCaller.isRateLimited(new ApiException(429, "RESOURCE_EXHAUSTED", "Quota exceeded"))).isTrue();
+        assertThat(RateLimitedCaller.isRateLimited(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS,
+                "Too Many Requests", null, null, null))).isTrue();
+        assertThat(RateLimitedCaller.isRateLimited(new CompletionException(
+                new StatusRuntimeException(Status.RESOURCE_EXHAUSTED.withDescription("rate limit"))))).isTrue();
+    }
+
+    @Test
+    void ignoresRateLimitWordsInMessagesOfOtherErrors() {
+        assertThat(RateLimitedCaller.isRateLimited(new IllegalStateException("page 429 failed to parse"))).isFalse();
+        assertThat(RateLimitedCaller.isRateLimited(new RuntimeException("quota field missing in response"))).isFalse();
+        assertThat(RateLimitedCaller.isRateLimited(new ApiException(400, "INVALID_ARGUMENT", "quota"))).isFalse();
+        assertThat(RateLimitedCaller.isRateLimited(new StatusRuntimeException(Status.NOT_FOUND))).isFalse();
+    }
+
+    @Test
+    void doesNotRetryGrpcMessageSizeLimit() {
+        assertThat(RateLimitedCaller.isRateLimited(new StatusRuntimeException(Status.RESOURCE_EXHAUSTED
+                .withDescription("gRPC message exceeds maximum size 4194304: 5000000")))).isFalse();
+    }
+}
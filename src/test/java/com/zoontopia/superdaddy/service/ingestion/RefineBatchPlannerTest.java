@@ -0,0 +1,64 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefineBatchPlannerTest {
+
+    // 테스트에서는 글자 수를 토큰 수로 사용
+    private final RefineBatchPlanner planner = new RefineBatchPlanner(4, 1000, 2000, String::length);
+
+    @Test
+    void packsShortPagesUpToPageLimitAndClosesBeforeInputBudget() {
+        List<List<Integer>> batches = plan(Stream.of(100, 100, 100, 100, 100, 600, 500, 100).toList());
+
+        assertThat(batches).containsExactly(List.of(100, 100, 100, 100), List.of(100, 600), List.of(500, 100));
+    }
+
+    @Test
+    void closesBeforeEstimatedOutputBudgetAndSendsOversizedPageAlone() {
+        RefineBatchPlanner tight = new RefineBatchPlanner(4, 1000, 1200, String::length);
+        // 예상 출력: 400 × 1.1 + 250 = 690, 300 × 1.1 + 250 = 580 → 합계 1270 > 1200 (입력 700은 예산 안)
+        assertThat(plan(tight, List.of(400, 300, 1500, 10)))
+                .containsExactly(List.of(400), List.of(300), List.of(1500), List.of(10));
+    }
+
+    @Test
+    void pageOnlyPlanIgnoresLength() {
+        RefineBatchPlanner.Batcher batcher = RefineBatchPlanner.pages(2).batcher();
+
+        assertThat(batcher.add(page(5000))).isNull();
+        assertThat(batcher.add(page(5000))).isNull();
+        assertThat(batcher.add(page(1))).hasSize(2);
+        assertThat(batcher.drain()).hasSize(1);
+    }
+
+    private List<List<Integer>> plan(List<Integer> lengths) {
+        return plan(planner, lengths);
+    }
+
+    private static List<List<Integer>> plan(RefineBatchPlanner planner, List<Integer> lengths) {
+        RefineBatchPlanner.Batcher batcher = planner.batcher();
+        List<List<Integer>> batches = new ArrayList<>();
+        for (int length : lengths) {
+            List<Document> closed = batcher.add(page(length));
+            if (closed != null) batches.add(lengths(closed));
+        }
+        batches.add(lengths(batcher.drain()));
+        return batches;
+    }
+
+    private static List<Integer> lengths(List<Document> batch) {
+        return batch.stream().map(doc -> doc.getText().length()).toList();
+    }
+
+    private static Document page(int length) {
+        return new Document("가".repeat(length));
+    }
+}
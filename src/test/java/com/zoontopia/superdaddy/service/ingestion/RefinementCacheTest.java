@@ -0,0 +1,56 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefinementCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void entriesSurviveReopenAndLatestWriteWins() throws Exception {
+        Path path = dir.resolve("refinement-cache.bin");
+        try (RefinementCache cache = RefinementCache.open(path)) {
+            cache.put("page-1:v1", "{\"refined_text\":\"첫 번째\"}");
+            cache.put("page-2:v1", "{\"refined_text\":\"두 번째\"}");
+            cache.put("page-1:v1", "{\"refined_text\":\"다시 정제\"}");
+        }
+
+        try (RefinementCache cache = RefinementCache.open(path)) {
+            assertThat(cache.size()).isEqualTo(2);
+            assertThat(cache.get("page-1:v1")).contains("{\"refined_text\":\"다시 정제\"}");
+            assertThat(cache.get("page-2:v1")).contains("{\"refined_text\":\"두 번째\"}");
+            assertThat(cache.get("page-1:v2")).isEmpty();
+        }
+    }
+
+    @Test
+    void truncatedTailIsDiscardedAndCacheRemainsWritable() throws Exception {
+        Path path = dir.resolve("refinement-cache.bin");
+        try (RefinementCache cache = RefinementCache.open(path)) {
+            cache.put("page-1:v1", "kept");
+            cache.put("page-2:v1", "partially written");
+        }
+        long size = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3); // 마지막 레코드 기록 도중 종료된 상황
+        }
+
+        try (RefinementCache cache = RefinementCache.open(path)) {
+            assertThat(cache.get("page-1:v1")).contains("kept");
+            assertThat(cache.get("page-2:v1")).isEmpty();
+            cache.put("page-3:v1", "after recovery");
+        }
+        try (RefinementCache cache = RefinementCache.open(path)) {
+            assertThat(cache.get("page-3:v1")).contains("after recovery");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.zoontopia.superdaddy.service.ingestion;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void allowsBurstThenRefillsAtConfiguredRate() {
+        AtomicLong now = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(60, 2, now::get); // 초당 1개
+
+        assertThat(bucket.tryReserve(1)).isZero();
+        assertThat(bucket.tryReserve(1)).isZero();
+        assertThat(bucket.tryReserve(1)).isCloseTo(TimeUnit.SECONDS.toNanos(1), within());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(bucket.tryReserve(1)).isZero();
+    }
+
+    @Test
+    void pauseBlocksUntilElapsedAndDropsAccumulatedPermits() {
+        AtomicLong now = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(60, 5, now::get);
+
+        bucket.pause(Duration.ofSeconds(3));
+        assertThat(bucket.tryReserve(1)).isEqualTo(TimeUnit.SECONDS.toNanos(3));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(3));
+        assertThat(bucket.tryReserve(1)).isGreaterThan(0);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(bucket.tryReserve(1)).isZero();
+    }
+
+    private static Offset<Long> within() {
+        return Offset.offset(1_000L);
+    }
+}
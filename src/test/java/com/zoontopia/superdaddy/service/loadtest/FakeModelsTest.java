@@ -0,0 +1,59 @@
+package com.zoontopia.superdaddy.service.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FakeModelsTest {
+
+    @Test
+    void streamsConfiguredNumberOfTokensWithUsageOnLastChunk() {
+        FakeChatModel model = new FakeChatModel(Duration.ZERO, 0, 5);
+
+        List<ChatResponse> chunks = model.stream(new Prompt("목욕물 온도")).collectList().block();
+
+        assertThat(chunks).hasSize(5);
+        assertThat(chunks.getLast().getMetadata().getUsage().getCompletionTokens()).isEqualTo(5);
+        assertThat(chunks.getLast().getMetadata().getUsage().getPromptTokens()).isEqualTo(3);
+    }
+
+    @Test
+    void embeddingsOfTextsSharingWordsAreCloser() {
+        FakeEmbeddingModel model = new FakeEmbeddingModel(256, Duration.ZERO);
+
+        float[] query = model.vector("목욕물 온도");
+        float[] related = model.vector("목욕물 온도는 38도가 적당합니다");
+        float[] unrelated = model.vector("예방접종 일정 관리");
+
+        assertThat(cosine(query, related)).isGreaterThan(cosine(query, unrelated));
+    }
+
+    @Test
+    void generatesLinkedChunksAcrossPages() {
+        List<Document> chunks = SyntheticCorpusSeeder.generate(3, 2);
+
+        assertThat(chunks).hasSize(6);
+        assertThat(chunks.get(0).getMetadata()).doesNotContainKey("prev_chunk_id");
+        assertThat(chunks.get(1).getMetadata().get("next_chunk_id")).isEqualTo(chunks.get(2).getId());
+        assertThat(chunks.get(2).getMetadata().get("prev_chunk_id")).isEqualTo(chunks.get(1).getId());
+        assertThat(chunks.get(2).getMetadata().get("page_number")).isEqualTo(2);
+        assertThat(SyntheticCorpusSeeder.generate(3, 2)).extracting(Document::getId)
+                .containsExactlyElementsOf(chunks.stream().map(Document::getId).toList());
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0, na = 0, nb = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            na += a[i] * a[i];
+            nb += b[i] * b[i];
+        }
+        return dot / Math.sqrt(na * nb);
+    }
+}
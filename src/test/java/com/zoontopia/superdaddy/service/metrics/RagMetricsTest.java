@@ -0,0 +1,78 @@
+package com.zoontopia.superdaddy.service.metrics;
+
+import com.zoontopia.superdaddy.service.loadtest.FakeChatModel;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class RagMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RagMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        metrics = new RagMetrics(meterRegistry, observationRegistry, 1.0, 10.0);
+    }
+
+    @Test
+    void recordsStageTimerTaggedWithPipelineAndStage() {
+        String result = metrics.time(RagMetrics.PIPELINE_CHAT, "rerank", () -> "ok");
+        assertThatThrownBy(() -> metrics.timeChecked(RagMetrics.PIPELINE_INGESTION, "refine", () -> {
+            throw new IOException("boom");
+        })).isInstanceOf(IOException.class);
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(meterRegistry.get(RagMetrics.STAGE_OBSERVATION)
+                .tags("pipeline", "chat", "stage", "rerank").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(RagMetrics.STAGE_OBSERVATION)
+                .tags("pipeline", "ingestion", "stage", "refine", "error", "IOException").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordsTokenUsageAndCostOfCallsThroughAdvisor() {
+        ChatClient chatClient = ChatClient.builder(new FakeChatModel(Duration.ZERO, 0, 4))
+                .defaultAdvisors(new TokenUsageAdvisor(metrics))
+                .build();
+
+        chatClient.prompt()
+                .advisors(a -> a.param(TokenUsageAdvisor.OPERATION, RagMetrics.OPERATION_ANSWER))
+                .user("목욕물 온도")
+                .call()
+                .content();
+
+        assertThat(tokens("answer", "prompt")).isEqualTo(3);
+        assertThat(tokens("answer", "completion")).isEqualTo(4);
+        // (3 × $1 + 4 × $10) / 1M
+        assertThat(meterRegistry.get("superdaddy.llm.cost").tag("operation", "answer").counter().count())
+                .isCloseTo(43e-6, within(1e-12));
+    }
+
+    @Test
+    void recordsUsageOnceWhenStreamCompletes() {
+        ChatClient chatClient = ChatClient.builder(new FakeChatModel(Duration.ZERO, 0, 6))
+                .defaultAdvisors(new TokenUsageAdvisor(metrics))
+                .build();
+
+        chatClient.prompt().user("수유 간격").stream().content().collectList().block();
+
+        assertThat(tokens("unknown", "completion")).isEqualTo(6);
+    }
+
+    private double tokens(String operation, String type) {
+        return meterRegistry.get("superdaddy.llm.tokens").tags("operation", operation, "type", type).counter().count();
+    }
+}
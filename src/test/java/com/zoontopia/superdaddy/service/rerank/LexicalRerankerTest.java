@@ -0,0 +1,57 @@
+package com.zoontopia.superdaddy.service.rerank;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LexicalRerankerTest {
+
+    private final LexicalReranker reranker = new LexicalReranker(2, 0.15, 0.6, 0.7);
+
+    @Test
+    void prefersCandidateMatchingQuestionKeywords() {
+        Document bath = doc("bath", "신생아 목욕 순서와 물 온도",
+                List.of("신생아 목욕", "목욕물 온도"), "목욕물은 38도 정도로 준비하고 팔꿈치로 온도를 확인해요.", 0.42);
+        Document food = doc("food", "이유식 시작 시기",
+                List.of("이유식", "6개월"), "생후 6개월 무렵 이유식을 시작합니다.", 0.45);
+
+        List<Document> result = reranker.rerank("신생아 목욕물 온도는 몇 도가 적당해?", List.of(food, bath));
+
+        assertThat(result).isNotEmpty();
+        assertThat(result.get(0).getId()).isEqualTo("bath");
+    }
+
+    @Test
+    void returnsEmptyWhenNothingIsRelevant() {
+        Document food = doc("food", "이유식 시작 시기",
+                List.of("이유식", "6개월"), "생후 6개월 무렵 이유식을 시작합니다.", 0.05);
+
+        assertThat(reranker.rerank("자동차 보험 갱신 방법", List.of(food))).isEmpty();
+    }
+
+    @Test
+    void skipsNearDuplicateChunks() {
+        String text = "목욕물은 38도 정도로 준비하고 팔꿈치로 온도를 확인해요.";
+        Document first = doc("a", "목욕물 온도", List.of("목욕물 온도"), text, 0.50);
+        Document duplicate = doc("b", "목욕물 온도", List.of("목욕물 온도"), text, 0.49);
+        Document other = doc("c", "목욕 후 보습", List.of("목욕 보습"), "목욕 후에는 물기를 닦고 보습제를 발라요.", 0.45);
+
+        List<Document> result = new LexicalReranker(2, 0.15, 0.3, 0.5)
+                .rerank("목욕물 온도와 목욕 후 관리", List.of(first, duplicate, other));
+
+        assertThat(result).extracting(Document::getId).containsExactly("a", "c");
+    }
+
+    private static Document doc(String id, String title, List<String> keywords, String body, double score) {
+        return Document.builder()
+                .id(id)
+                .text(title + "\n핵심 키워드: " + String.join(", ", keywords) + "\n본문: " + body)
+                .metadata(Map.of("section_title", title, "keywords", keywords))
+                .score(score)
+                .build();
+    }
+}
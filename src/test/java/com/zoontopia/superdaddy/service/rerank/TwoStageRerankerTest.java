@@ -0,0 +1,58 @@
+package com.zoontopia.superdaddy.service.rerank;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoStageRerankerTest {
+
+    private static final String QUERY = "신생아 목욕물 온도";
+
+    private final List<Document> candidates = IntStream.range(0, 12)
+            .mapToObj(i -> Document.builder()
+                    .id("doc-" + i)
+                    .text("목욕 안내 " + i + "\n본문: 신생아 목욕물 온도 확인 방법 " + i + "번째 항목 " + "가나다라마바사".repeat(i + 1))
+                    .metadata(Map.of("section_title", "목욕 안내 " + i, "keywords", List.of("목욕", "항목 " + i)))
+                    .score(0.9 - i * 0.01)
+                    .build())
+            .toList();
+
+    @Test
+    void degradedRerankerSelectsFinalCountNotSecondStageShortlist() {
+        Reranker reranker = twoStage((query, docs) -> docs.subList(0, 3));
+
+        Reranker degraded = reranker.withoutModel();
+
+        assertThat(degraded.callsModel()).isFalse();
+        assertThat(degraded.rerank(QUERY, candidates)).hasSize(5);
+    }
+
+    @Test
+    void fallsBackToFinalCountWhenSecondStageFails() {
+        Reranker reranker = twoStage((query, docs) -> {
+            throw new IllegalStateException("model unavailable");
+        });
+
+        assertThat(reranker.rerank(QUERY, candidates)).hasSize(5);
+    }
+
+    @Test
+    void passesOnlyTopNToSecondStage() {
+        Reranker reranker = twoStage((query, docs) -> {
+            assertThat(docs).hasSize(10);
+            return docs.subList(0, 3);
+        });
+
+        assertThat(reranker.rerank(QUERY, candidates)).hasSize(3);
+    }
+
+    private static TwoStageReranker twoStage(Reranker secondStage) {
+        return new TwoStageReranker(new LexicalReranker(10, 0, 0, 1), secondStage, 10,
+                new LexicalReranker(5, 0, 0, 1));
+    }
+}
@@ -0,0 +1,84 @@
+package com.zoontopia.superdaddy.service.retrieval;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Bm25IndexTest {
+
+    @Test
+    void ranksChunkContainingQueryTermsFirst() {
+        Bm25Index index = new Bm25Index();
+        index.addAll(List.of(
+                chunk("bath", "목욕물은 38도 정도가 적당합니다.", List.of("신생아 목욕", "목욕물 온도")),
+                chunk("food", "생후 6개월 무렵 이유식을 시작합니다.", List.of("이유식 시작")),
+                chunk("sleep", "아기 수면 패턴은 개월 수에 따라 달라집니다.", List.of("아기 수면"))));
+
+        List<Document> result = index.search("목욕물 온도가 몇 도야?", 2);
+
+        assertThat(result).isNotEmpty();
+        assertThat(result.get(0).getId()).isEqualTo("bath");
+    }
+
+    @Test
+    void replacesDocumentWithSameIdAndRemovesDeleted() {
+        Bm25Index index = new Bm25Index();
+        index.addAll(List.of(chunk("a", "이유식 시작 시기", List.of())));
+        index.addAll(List.of(chunk("a", "목욕물 온도", List.of())));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("이유식", 5)).isEmpty();
+        assertThat(index.search("목욕물", 5)).extracting(Document::getId).containsExactly("a");
+
+        index.removeAll(List.of("a"));
+        assertThat(index.search("목욕물", 5)).isEmpty();
+    }
+
+    @Test
+    void reindexingSameDocumentsKeepsScores() {
+        Bm25Index index = new Bm25Index();
+        List<Document> chunks = List.of(
+                chunk("bath", "목욕물은 38도 정도가 적당합니다.", List.of("목욕물 온도")),
+                chunk("food", "생후 6개월 무렵 이유식을 시작합니다.", List.of("이유식 시작")),
+                chunk("sleep", "아기 수면 패턴은 개월 수에 따라 달라집니다.", List.of("아기 수면")));
+        index.addAll(chunks);
+        List<Double> before = index.search("목욕물 온도", 3).stream().map(Document::getScore).toList();
+
+        // 압축 전까지 삭제 표시된 포스팅이 남아 있어도 문서 빈도에 세지 않아야 함
+        index.addAll(chunks.subList(0, 1));
+
+        assertThat(index.search("목욕물 온도", 3)).extracting(Document::getScore).containsExactlyElementsOf(before);
+    }
+
+    @Test
+    void snapshotRoundTripKeepsSearchResults() throws Exception {
+        Bm25Index index = new Bm25Index();
+        index.addAll(List.of(
+                chunk("bath", "목욕물은 38도 정도가 적당합니다.", List.of("목욕물 온도")),
+                chunk("food", "생후 6개월 무렵 이유식을 시작합니다.", List.of("이유식 시작"))));
+        index.removeAll(List.of("food"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+
+        Bm25Index restored = new Bm25Index();
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(restored.size()).isEqualTo(1);
+        List<Document> result = restored.search("목욕물 온도", 5);
+        assertThat(result).extracting(Document::getId).containsExactly("bath");
+        assertThat(result.get(0).getMetadata()).containsEntry("source", "parenting_guide.pdf");
+    }
+
+    private static Document chunk(String id, String text, List<String> keywords) {
+        return new Document(id, text, Map.of("source", "parenting_guide.pdf", "keywords", keywords));
+    }
+}
@@ -0,0 +1,78 @@
+package com.zoontopia.superdaddy.service.retrieval;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticQuestionsTest {
+
+    @Test
+    void assignsQuestionsToChunkWithMostOverlapAndExpandsThemBeforeWrite() {
+        Document bath = chunk("bath", "목욕물은 38도 정도가 적당하며 팔꿈치로 온도를 확인합니다.");
+        Document food = chunk("food", "생후 6개월 무렵 이유식을 시작하고 쌀미음부터 먹입니다.");
+        List<Document> chunks = List.of(bath, food);
+
+        SyntheticQuestions.assign(chunks, List.of("목욕물 온도는 몇 도가 좋아?", "이유식은 언제 시작해?", "쌀미음 먹여도 돼?"));
+        assertThat(SyntheticQuestions.questionIds(chunks)).containsExactly(
+                SyntheticQuestions.questionId("bath", 0),
+                SyntheticQuestions.questionId("food", 0), SyntheticQuestions.questionId("food", 1));
+
+        List<Document> written = SyntheticQuestions.withQuestions(chunks);
+
+        assertThat(written).hasSize(5);
+        assertThat(bath.getMetadata()).doesNotContainKey(SyntheticQuestions.PENDING);
+        Document question = written.get(2);
+        assertThat(question.getText()).isEqualTo("목욕물 온도는 몇 도가 좋아?");
+        assertThat(SyntheticQuestions.isQuestion(question)).isTrue();
+        assertThat(question.getMetadata())
+                .containsEntry(SyntheticQuestions.PARENT_CHUNK_ID, "bath")
+                .containsEntry("source", "guide.pdf");
+    }
+
+    @Test
+    void resolvesQuestionHitsToParentsKeepingRankAndDroppingDuplicates() {
+        Document bath = chunk("bath", "목욕물은 38도");
+        Document food = chunk("food", "이유식은 6개월");
+        List<Document> hits = List.of(
+                question("q1", "bath", 0.9), food, question("q2", "bath", 0.7), question("q3", "missing", 0.6));
+
+        List<List<String>> lookups = new ArrayList<>();
+        List<Document> resolved = SyntheticQuestions.resolveParents(hits, ids -> {
+            lookups.add(List.copyOf(ids));
+            return Map.of("bath", bath, "food", food);
+        });
+
+        assertThat(resolved).extracting(Document::getId).containsExactly("bath", "food");
+        assertThat(resolved.get(0).getScore()).isEqualTo(0.9);
+        assertThat(lookups).containsExactly(List.of("bath", "missing"));
+    }
+
+    @Test
+    void hitsWithoutQuestionsAreReturnedWithoutLookup() {
+        List<Document> hits = List.of(chunk("bath", "목욕물"));
+
+        assertThat(SyntheticQuestions.resolveParents(hits, ids -> {
+            throw new AssertionError("lookup should not be called");
+        })).isSameAs(hits);
+    }
+
+    private static Document chunk(String id, String text) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("source", "guide.pdf");
+        metadata.put("chunk_id", id);
+        return new Document(id, text, metadata);
+    }
+
+    private static Document question(String id, String parentId, double score) {
+        return Document.builder().id(id).text("질문")
+                .metadata(Map.of(SyntheticQuestions.DOC_TYPE, SyntheticQuestions.QUESTION,
+                        SyntheticQuestions.PARENT_CHUNK_ID, parentId))
+                .score(score).build();
+    }
+}
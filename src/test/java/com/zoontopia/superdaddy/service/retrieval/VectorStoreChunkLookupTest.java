@@ -0,0 +1,146 @@
+package com.zoontopia.superdaddy.service.retrieval;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.qdrant.client.PointIdFactory;
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.QdrantGrpcClient;
+import io.qdrant.client.ValueFactory;
+import io.qdrant.client.grpc.Points;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VectorStoreChunkLookupTest {
+
+    @Test
+    void servesRepeatedLookupsFromLruAndEvictsLeastRecentlyUsed() {
+        FilterSearchStore store = new FilterSearchStore(List.of(chunk("a"), chunk("b"), chunk("c")));
+        VectorStoreChunkLookup lookup = new VectorStoreChunkLookup(store, "vector_store", 2);
+
+        assertThat(lookup.findByIds(List.of("a", "b"))).containsOnlyKeys("a", "b");
+        assertThat(lookup.findByIds(List.of("a"))).containsOnlyKeys("a");
+        assertThat(store.requested).containsExactly(List.of("a", "b"));
+
+        // 용량 2: c를 넣으면 가장 오래 쓰지 않은 b가 밀려남
+        lookup.findByIds(List.of("c"));
+        lookup.findByIds(List.of("a", "b"));
+        assertThat(store.requested).containsExactly(List.of("a", "b"), List.of("c"), List.of("b"));
+
+        // 다시 기록된 청크는 명시적으로 버림
+        lookup.evict(List.of("a"));
+        lookup.findByIds(List.of("a"));
+        assertThat(store.requested).last().isEqualTo(List.of("a"));
+    }
+
+    @Test
+    void retrievesQdrantPointsByUuidAndConvertsPayloadToMetadata() {
+        String id = UUID.nameUUIDFromBytes("guide.pdf#3#0".getBytes()).toString();
+        Points.RetrievedPoint point = Points.RetrievedPoint.newBuilder()
+                .setId(PointIdFactory.id(UUID.fromString(id)))
+                .putPayload("doc_content", ValueFactory.value("목욕물은 38도"))
+                .putPayload("source", ValueFactory.value("guide.pdf"))
+                .putPayload("page_number", ValueFactory.value(3))
+                .putPayload("score_hint", ValueFactory.value(0.5))
+                .putPayload("reviewed", ValueFactory.value(true))
+                .putPayload("keywords", ValueFactory.list(List.of(ValueFactory.value("목욕"), ValueFactory.value("온도"))))
+                .putPayload("empty", ValueFactory.nullValue())
+                .build();
+        RecordingQdrantClient qdrant = new RecordingQdrantClient(List.of(point));
+        VectorStoreChunkLookup lookup = new VectorStoreChunkLookup(new FilterSearchStore(List.of(), qdrant),
+                "vector_store", 10);
+
+        Map<String, Document> found = lookup.findByIds(List.of(id, "chunk-without-uuid"));
+
+        assertThat(qdrant.requested).containsExactly(PointIdFactory.id(UUID.fromString(id)));
+        Document doc = found.get(id);
+        assertThat(doc.getText()).isEqualTo("목욕물은 38도");
+        assertThat(doc.getMetadata())
+                .containsEntry("source", "guide.pdf")
+                .containsEntry("page_number", 3L)
+                .containsEntry("score_hint", 0.5)
+                .containsEntry("reviewed", true)
+                .containsEntry("keywords", List.of("목욕", "온도"))
+                .doesNotContainKeys("doc_content", "empty");
+    }
+
+    private static Document chunk(String id) {
+        return new Document(id, "text " + id, Map.of("chunk_id", id));
+    }
+
+    /**
+     * chunk_id in [...] 필터 검색 요청을 기록하고 해당 청크를 돌려주는 VectorStore.
+     */
+    private static class FilterSearchStore implements VectorStore {
+        private final List<Document> documents;
+        private final Object nativeClient;
+        final List<List<Object>> requested = new ArrayList<>();
+
+        FilterSearchStore(List<Document> documents) {
+            this(documents, null);
+        }
+
+        FilterSearchStore(List<Document> documents, Object nativeClient) {
+            this.documents = documents;
+            this.nativeClient = nativeClient;
+        }
+
+        @Override
+        public void add(List<Document> documents) {
+        }
+
+        @Override
+        public void delete(List<String> idList) {
+        }
+
+        @Override
+        public void delete(Filter.Expression filterExpression) {
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<Document> similaritySearch(SearchRequest request) {
+            List<Object> ids = (List<Object>) ((Filter.Value) request.getFilterExpression().right()).value();
+            requested.add(ids);
+            return documents.stream().filter(doc -> ids.contains(doc.getId())).toList();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Optional<T> getNativeClient() {
+            return Optional.ofNullable((T) nativeClient);
+        }
+    }
+
+    /**
+     * 포인트 조회 요청을 기록하고 미리 정해 둔 포인트를 돌려주는 QdrantClient (서버에 연결하지 않음).
+     */
+    private static class RecordingQdrantClient extends QdrantClient {
+        private final List<Points.RetrievedPoint> points;
+        final List<Points.PointId> requested = new ArrayList<>();
+
+        RecordingQdrantClient(List<Points.RetrievedPoint> points) {
+            super(QdrantGrpcClient.newBuilder("localhost", 6334, false, false).build());
+            this.points = points;
+        }
+
+        @Override
+        public ListenableFuture<List<Points.RetrievedPoint>> retrieveAsync(String collectionName,
+                                                                         List<Points.PointId> ids,
+                                                                         boolean withPayload, boolean withVectors,
+                                                                         Points.ReadConsistency readConsistency) {
+            requested.addAll(ids);
+            return Futures.immediateFuture(points);
+        }
+    }
+}
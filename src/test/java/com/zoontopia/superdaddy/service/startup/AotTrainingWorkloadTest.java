@@ -0,0 +1,60 @@
+package com.zoontopia.superdaddy.service.startup;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AotTrainingWorkloadTest {
+
+    @Test
+    void sendsPageStaticAndChatRequestsForEachIteration() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        HttpServer server = server(received, 200);
+        try {
+            int sent = new AotTrainingWorkload(2).run(uri(server));
+
+            assertThat(sent).isEqualTo(12);
+            assertThat(received).hasSize(12)
+                    .containsSubsequence("GET /", "POST /api/chat", "POST /api/chat/stream", "GET /api/ingestion/status");
+            assertThat(received.stream().filter("POST /api/chat/stream"::equals)).hasSize(2);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void failsWhenARequestIsNotSuccessful() throws Exception {
+        HttpServer server = server(new CopyOnWriteArrayList<>(), 503);
+        try {
+            assertThatThrownBy(() -> new AotTrainingWorkload(1).run(uri(server)))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("returned 503");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static HttpServer server(List<String> received, int status) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            received.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath());
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private static URI uri(HttpServer server) {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+}
@@ -0,0 +1,40 @@
+package com.zoontopia.superdaddy.service.startup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FirstRequestTimerTest {
+
+    @Test
+    void recordsOnlyTheFirstNonActuatorRequest() throws ServletException, IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AtomicLong uptime = new AtomicLong(900);
+        FirstRequestTimer timer = new FirstRequestTimer(registry, uptime::get);
+        var gauge = registry.get("superdaddy.startup.first.request").timeGauge();
+        assertThat(gauge.value(TimeUnit.SECONDS)).isNaN();
+
+        serve(timer, "/actuator/health");
+        assertThat(gauge.value(TimeUnit.SECONDS)).isNaN();
+
+        uptime.set(1500);
+        serve(timer, "/api/chat");
+        uptime.set(4000);
+        serve(timer, "/api/chat");
+
+        assertThat(gauge.value(TimeUnit.SECONDS)).isEqualTo(1.5);
+    }
+
+    private static void serve(FirstRequestTimer timer, String uri) throws ServletException, IOException {
+        timer.doFilter(new MockHttpServletRequest("GET", uri), new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
@@ -0,0 +1,57 @@
+package com.zoontopia.superdaddy.service.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.stereotype.Controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupWarmupTest {
+
+    static final List<String> created = new ArrayList<>();
+
+    static class Client {
+        Client() {
+            created.add("client");
+        }
+    }
+
+    @Controller
+    static class Endpoint {
+        Endpoint() {
+            created.add("endpoint");
+        }
+    }
+
+    static class Broken {
+        Broken() {
+            throw new IllegalStateException("no credentials");
+        }
+    }
+
+    @Test
+    void createsControllersFirstThenRemainingLazySingletonsAndSkipsFailures() {
+        created.clear();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("client", lazy(Client.class));
+        beanFactory.registerBeanDefinition("broken", lazy(Broken.class));
+        beanFactory.registerBeanDefinition("endpoint", lazy(Endpoint.class));
+
+        StartupWarmup warmup = new StartupWarmup(beanFactory, true, true);
+
+        assertThat(warmup.warmUp()).isEqualTo(2);
+        assertThat(created).containsExactly("endpoint", "client");
+        // 이미 만들어진 빈은 다시 만들지 않음
+        assertThat(warmup.warmUp()).isZero();
+    }
+
+    private static RootBeanDefinition lazy(Class<?> type) {
+        RootBeanDefinition definition = new RootBeanDefinition(type);
+        definition.setLazyInit(true);
+        return definition;
+    }
+}
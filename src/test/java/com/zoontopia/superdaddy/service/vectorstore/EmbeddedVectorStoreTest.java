@@ -0,0 +1,168 @@
+package com.zoontopia.superdaddy.service.vectorstore;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SearchRequest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class EmbeddedVectorStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ranksByCosineSimilarity() throws Exception {
+        try (EmbeddedVectorStore store = EmbeddedVectorStore.builder(new KeywordEmbeddingModel(), dir).build()) {
+            store.add(sampleDocuments());
+
+            List<Document> results = store.similaritySearch(SearchRequest.builder().query("목욕").topK(2).build());
+
+            assertThat(results).extracting(Document::getId).containsExactly("bath", "bath-feed");
+            assertThat(results.get(0).getScore()).isGreaterThan(results.get(1).getScore());
+        }
+    }
+
+    @Test
+    void appliesEqAndInFilters() throws Exception {
+        try (EmbeddedVectorStore store = EmbeddedVectorStore.builder(new KeywordEmbeddingModel(), dir).build()) {
+            store.add(sampleDocuments());
+
+            List<Document> eq = store.similaritySearch(SearchRequest.builder()
+                    .query("목욕").topK(5).filterExpression("page_number == 2").build());
+            List<Document> in = store.similaritySearch(SearchRequest.builder()
+                    .query("목욕").topK(5).filterExpression("keywords in ['수면', '수유']").build());
+
+            assertThat(eq).extracting(Document::getId).containsExactly("bath-feed");
+            assertThat(in).extracting(Document::getId).containsExactlyInAnyOrder("bath-feed", "sleep");
+        }
+    }
+
+    @Test
+    void persistsAddsAndDeletesAcrossReopen() throws Exception {
+        try (EmbeddedVectorStore store = EmbeddedVectorStore.builder(new KeywordEmbeddingModel(), dir).build()) {
+            store.add(sampleDocuments());
+            store.delete(List.of("bath"));
+        }
+
+        try (EmbeddedVectorStore reopened = EmbeddedVectorStore.builder(new KeywordEmbeddingModel(), dir).build()) {
+            assertThat(reopened.size()).isEqualTo(2);
+            assertThat(reopened.findByIds(List.of("bath", "sleep"))).containsOnlyKeys("sleep");
+
+            // 삭제로 비운 슬롯을 재사용해도 다른 문서의 벡터는 그대로여야 함
+            reopened.add(List.of(new Document("bath-2", "목욕", Map.of("page_number", 4))));
+            List<Document> results = reopened.similaritySearch(SearchRequest.builder().query("수면").topK(1).build());
+            assertThat(results).extracting(Document::getId).containsExactly("sleep");
+        }
+    }
+
+    @Test
+    void replaysLogOfUpdatesAndIgnoresTruncatedTail() throws Exception {
+        try (EmbeddedVectorStore store = EmbeddedVectorStore.builder(new KeywordEmbeddingModel(), dir).build()) {
+            store.add(sampleDocuments());
+            // 같은 ID를 다른 내용으로 다시 추가하면 새 슬롯에 기록되고 이전 슬롯은 비워짐
+            store.add(List.of(new Document("bath", "수면 수면", Map.of("page_number", 1))));
+            store.delete(List.of("sleep"));
+        }
+        // 기록 도중 종료되어 끝이 잘린 레코드
+        Files.write(dir.resolve("documents.log"), new byte[]{0, 0, 1, 0, 7}, StandardOpenOption.APPEND);
+
+        try (EmbeddedVectorStore reopened = EmbeddedVectorStore.builder(new KeywordEmbeddingModel(), dir).build()) {
+            assertThat(reopened.size()).isEqualTo(2);
+            assertThat(reopened.findByIds(List.of("bath")).get("bath").getText()).isEqualTo("수면 수면");
+            List<Document> results = reopened.similaritySearch(SearchRequest.builder().query("수면").topK(1).build());
+            assertThat(results).extracting(Document::getId).containsExactly("bath");
+        }
+    }
+
+    @Test
+    void compactsLogIntoSnapshotWhenItGrows() throws Exception {
+        try (EmbeddedVectorStore store = EmbeddedVectorStore.builder(new KeywordEmbeddingModel(), dir).build()) {
+            store.add(sampleDocuments());
+            for (int i = 0; i < 1100; i++) {
+                store.add(List.of(new Document("bath", "목욕 " + i, Map.of("page_number", 1))));
+            }
+        }
+        // 추가/삭제는 로그에만 덧붙이므로 스냅샷은 압축할 때만 만들어짐
+        assertThat(dir.resolve("documents.bin")).exists();
+
+        try (EmbeddedVectorStore reopened = EmbeddedVectorStore.builder(new KeywordEmbeddingModel(), dir).build()) {
+            assertThat(reopened.size()).isEqualTo(3);
+            assertThat(reopened.findByIds(List.of("bath")).get("bath").getText()).isEqualTo("목욕 1099");
+        }
+    }
+
+    @Test
+    void simdDotMatchesScalarDot() {
+        Random random = new Random(42);
+        float[] a = new float[771];
+        float[] b = new float[771];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextFloat() - 0.5f;
+            b[i] = random.nextFloat() - 0.5f;
+        }
+
+        assertThat(VectorMath.dot(a, b, a.length)).isCloseTo(VectorMath.scalarDot(a, b, a.length), within(1e-3f));
+    }
+
+    @Test
+    void cosineIgnoresMagnitudeAndMismatchedDimensions() {
+        float[] a = {3f, 4f};
+
+        assertThat(VectorMath.cosine(a, new float[]{6f, 8f})).isCloseTo(1f, within(1e-6f));
+        assertThat(VectorMath.cosine(a, new float[]{-4f, 3f})).isCloseTo(0f, within(1e-6f));
+        assertThat(VectorMath.cosine(a, new float[]{0f, 0f})).isZero();
+        assertThat(VectorMath.cosine(a, new float[]{3f, 4f, 0f})).isZero();
+    }
+
+    private static List<Document> sampleDocuments() {
+        return List.of(
+                new Document("bath", "목욕 목욕", Map.of("page_number", 1, "keywords", List.of("목욕"))),
+                new Document("bath-feed", "목욕 수유", Map.of("page_number", 2, "keywords", List.of("목욕", "수유"))),
+                new Document("sleep", "수면", Map.of("page_number", 3, "keywords", List.of("수면"))));
+    }
+
+    /**
+     * 단어 출현 횟수를 그대로 벡터로 쓰는 임베딩 모델 (차원: 목욕, 수유, 수면, 기타).
+     */
+    private static class KeywordEmbeddingModel implements EmbeddingModel {
+        private static final List<String> WORDS = List.of("목욕", "수유", "수면");
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<String> texts = request.getInstructions();
+            return new EmbeddingResponse(IntStream.range(0, texts.size())
+                    .mapToObj(i -> new Embedding(vector(texts.get(i)), i))
+                    .toList());
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return vector(document.getText());
+        }
+
+        private static float[] vector(String text) {
+            float[] vector = new float[WORDS.size() + 1];
+            vector[WORDS.size()] = 0.1f;
+            for (String token : text.split("\\s+")) {
+                int index = WORDS.indexOf(token);
+                if (index >= 0) vector[index]++;
+            }
+            return vector;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.zoontopia.superdaddy.service.vectorstore;
+
+import io.qdrant.client.grpc.Collections;
+import io.qdrant.client.grpc.Collections.PayloadSchemaType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QdrantSchemaManagerTest {
+
+    private static final QdrantSchemaManager.Settings SETTINGS =
+            new QdrantSchemaManager.Settings(16, 100, true, 0.99f, true);
+
+    @Test
+    void defaultCollectionGetsAllIndexesHnswAndQuantization() {
+        Collections.CollectionInfo info = info(Collections.HnswConfigDiff.newBuilder().setM(8).setEfConstruct(64),
+                Collections.CollectionConfig.newBuilder());
+
+        QdrantSchemaManager.Plan plan = QdrantSchemaManager.plan(info, SETTINGS);
+
+        assertThat(plan.createIndexes())
+                .containsExactly("chunk_id", "chunk_index", "doc_type", "parent_document_id", "source");
+        assertThat(plan.hnsw().getM()).isEqualTo(16);
+        assertThat(plan.hnsw().getEfConstruct()).isEqualTo(100);
+        assertThat(plan.quantization().getScalar().getQuantile()).isEqualTo(0.99f);
+    }
+
+    @Test
+    void matchingCollectionNeedsNoChangesAndMistypedIndexIsRecreated() {
+        Collections.CollectionInfo.Builder info = info(
+                Collections.HnswConfigDiff.newBuilder().setM(16).setEfConstruct(100),
+                Collections.CollectionConfig.newBuilder().setQuantizationConfig(
+                        Collections.QuantizationConfig.newBuilder().setScalar(Collections.ScalarQuantization.newBuilder()
+                                .setType(Collections.QuantizationType.Int8).setQuantile(0.99f).setAlwaysRam(true))))
+                .toBuilder();
+        QdrantSchemaManager.PAYLOAD_INDEXES.forEach((field, type) -> info.putPayloadSchema(field,
+                Collections.PayloadSchemaInfo.newBuilder().setDataType(type).build()));
+
+        assertThat(QdrantSchemaManager.plan(info.build(), SETTINGS).isEmpty()).isTrue();
+
+        info.putPayloadSchema("chunk_index",
+                Collections.PayloadSchemaInfo.newBuilder().setDataType(PayloadSchemaType.Keyword).build());
+        QdrantSchemaManager.Plan plan = QdrantSchemaManager.plan(info.build(), SETTINGS);
+        assertThat(plan.createIndexes()).isEmpty();
+        assertThat(plan.recreateIndexes()).containsExactly("chunk_index");
+    }
+
+    @Test
+    void disablingQuantizationRemovesExistingQuantization() {
+        Collections.CollectionInfo info = info(Collections.HnswConfigDiff.newBuilder().setM(16).setEfConstruct(100),
+                Collections.CollectionConfig.newBuilder().setQuantizationConfig(
+                        Collections.QuantizationConfig.newBuilder().setScalar(Collections.ScalarQuantization.newBuilder()
+                                .setType(Collections.QuantizationType.Int8))));
+
+        QdrantSchemaManager.Plan plan = QdrantSchemaManager.plan(info,
+                new QdrantSchemaManager.Settings(16, 100, false, 0.99f, true));
+
+        assertThat(plan.hnsw()).isNull();
+        assertThat(plan.quantization().hasDisabled()).isTrue();
+    }
+
+    private static Collections.CollectionInfo info(Collections.HnswConfigDiff.Builder hnsw,
+                                                   Collections.CollectionConfig.Builder config) {
+        return Collections.CollectionInfo.newBuilder()
+                .setStatus(Collections.CollectionStatus.Green)
+                .setConfig(config.setHnswConfig(hnsw))
+                .build();
+    }
+}